@@ -0,0 +1,19 @@
+package com.esgbank.greenbond.monitoring.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "app.aggregation-cache")
+public class AggregationCacheConfig {
+
+    private boolean enabled = true; // cache results of closed aggregation windows
+    private long maxFragments = 100000; // fragments of 64 windows each; least recently used ones are evicted
+    private Duration ttl = Duration.ofHours(24); // bounds staleness from late data written through other instances
+    private Duration settleDelay = Duration.ofMinutes(2); // a window is closed this long after its end
+    private int maxFreshRanges = 8; // more gaps than this are recomputed as one range
+}
@@ -0,0 +1,27 @@
+package com.esgbank.greenbond.monitoring.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.Duration;
+import java.time.LocalDate;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "app.anchoring")
+public class AnchoringConfig {
+
+    private int batchSize = 1024; // metrics per merkle root (count window)
+    private long maxWait = 60000L; // ms before a partial window is anchored (time window)
+    private int maxPending = 100000; // metrics kept in memory while the chain is unavailable
+    private Duration chainCallTimeout = Duration.ofSeconds(30); // deadline of one anchoring call
+    private boolean recoverOnStartup = true;
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate recoverSince; // anchoring cutover; older metrics are never recovered, unset disables recovery
+    private Duration recoverAfter = Duration.ofHours(6); // younger unanchored metrics may still be queued on another instance
+    private Duration recoveryLeaseTtl = Duration.ofMinutes(30); // one instance recovers at a time
+    private int writeAttempts = 5; // MongoDB writes after a confirmed chain call are retried, never the chain call
+    private Duration writeRetryBackoff = Duration.ofSeconds(1); // doubled after every failed attempt
+}
@@ -0,0 +1,19 @@
+package com.esgbank.greenbond.monitoring.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "app.archive")
+public class ArchiveConfig {
+
+    private boolean enabled = false; // move cold months out of MongoDB and InfluxDB into GridFS segment files
+    private Duration coldAfter = Duration.ofDays(365); // whole months older than this are archived
+    private int maxSegmentsPerRun = 500; // bond months archived per scheduled run
+    private boolean deleteFromHotStores = true; // remove archived metrics from MongoDB and InfluxDB
+    private Duration leaseTtl = Duration.ofMinutes(30); // job lease, renewed after each archived bond month
+}
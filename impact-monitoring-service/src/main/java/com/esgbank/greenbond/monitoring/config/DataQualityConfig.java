@@ -0,0 +1,17 @@
+package com.esgbank.greenbond.monitoring.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "app.data-quality")
+public class DataQualityConfig {
+
+    private double ewmaAlpha = 0.1; // weight of the newest reading in mean, variance and interval
+    private long warmupReadings = 10; // readings before z-scores and cadence are trusted
+    private double outlierZScore = 3.0; // readings further from the mean are flagged as outliers
+    private double lateIntervalFactor = 3.0; // a gap this many expected intervals long is a cadence miss
+    private long persistInterval = 30000L; // ms between state snapshots to MongoDB
+}
@@ -0,0 +1,19 @@
+package com.esgbank.greenbond.monitoring.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "app.deduplication")
+public class DeduplicationConfig {
+
+    private boolean enabled = true;
+    private long expectedKeys = 1_000_000L; // keys per bloom filter generation before it is rotated
+    private double falsePositiveRate = 0.01; // bloom filter false positives cost one index lookup
+    private int recentKeysPerDevice = 1024; // LRU of keys known to be stored, per device
+    private Duration warmupLookback = Duration.ofDays(1); // stored readings loaded into the filter on startup
+}
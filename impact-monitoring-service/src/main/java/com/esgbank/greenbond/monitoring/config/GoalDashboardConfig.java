@@ -0,0 +1,19 @@
+package com.esgbank.greenbond.monitoring.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "app.goal-dashboard")
+public class GoalDashboardConfig {
+
+    private int upcomingDays = 30; // goals due within this many days count as upcoming deadlines
+    private Duration timerHorizon = Duration.ofHours(1); // goals due within this are held by the deadline timer
+    private long timerRefreshInterval = 900000L; // ms between loads of the timer, must stay below the horizon
+    private long timerTickInterval = 60000L; // ms between checks for passed deadlines
+    private Duration backfillLeaseTtl = Duration.ofMinutes(30); // a startup backfill held this long may be retried elsewhere
+}
@@ -0,0 +1,16 @@
+package com.esgbank.greenbond.monitoring.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "app.goal-history")
+public class GoalHistoryConfig {
+
+    private Duration step = Duration.ofDays(7); // spacing of history points for short ranges
+    private int maxPoints = 260; // longer ranges are downsampled to about this many points
+}
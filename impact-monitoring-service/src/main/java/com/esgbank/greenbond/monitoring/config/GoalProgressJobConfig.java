@@ -0,0 +1,20 @@
+package com.esgbank.greenbond.monitoring.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "app.goal-progress")
+public class GoalProgressJobConfig {
+
+    private int partitions = 64; // goals are split by bondId hash; keep it stable between runs
+    private int maxParallelPartitions = 4; // partitions processed at once by one instance
+    private int bondsPerQuery = 200; // bonds whose goals are loaded and bulk-written together
+    private Duration leaseTtl = Duration.ofMinutes(2); // a partition is taken over once its lease expires
+    private Duration heartbeatInterval = Duration.ofSeconds(30); // lease renewal, well below lease-ttl
+    private Duration runTimeout = Duration.ofHours(2); // wait at most this long for partitions held elsewhere
+}
@@ -0,0 +1,21 @@
+package com.esgbank.greenbond.monitoring.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "app.hot-window")
+public class HotWindowConfig {
+
+    // Serve recent reads from memory; only for single-instance deployments, the tier sees this instance's writes only
+    private boolean enabled = false;
+    private Duration window = Duration.ofHours(72); // points older than this are evicted
+    private Duration blockSpan = Duration.ofHours(2); // time span of one compressed block
+    private long maxBytes = 256L * 1024 * 1024; // compressed blocks beyond this are evicted oldest first
+    private int recentMetricsPerSeries = 20; // full metrics kept per series for "latest N" reads
+    private long evictionInterval = 60000L; // ms between eviction sweeps
+}
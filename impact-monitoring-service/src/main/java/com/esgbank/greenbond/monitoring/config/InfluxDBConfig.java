@@ -2,33 +2,27 @@ package com.esgbank.greenbond.monitoring.config;
 
 import com.influxdb.client.InfluxDBClient;
 import com.influxdb.client.InfluxDBClientFactory;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
 @Slf4j
 @Configuration
+@RequiredArgsConstructor
+@EnableConfigurationProperties(InfluxDBProperties.class)
 public class InfluxDBConfig {
 
-    @Value("${app.influxdb.url:http://localhost:8086}")
-    private String influxUrl;
-
-    @Value("${app.influxdb.token:my-token}")
-    private String influxToken;
-
-    @Value("${app.influxdb.org:esgbank}")
-    private String influxOrg;
-
-    @Value("${app.influxdb.bucket:impact-metrics}")
-    private String influxBucket;
+    private final InfluxDBProperties influxDBProperties;
 
     @Bean
     public InfluxDBClient influxDBClient() {
-        log.info("Initializing InfluxDB connection to: {}", influxUrl);
+        log.info("Initializing InfluxDB connection to: {}", influxDBProperties.getUrl());
 
         try {
-            InfluxDBClient client = InfluxDBClientFactory.create(influxUrl, influxToken.toCharArray(), influxOrg, influxBucket);
+            InfluxDBClient client = InfluxDBClientFactory.create(influxDBProperties.getUrl(),
+                    influxDBProperties.getToken().toCharArray(), influxDBProperties.getOrg(), influxDBProperties.getBucket());
             log.info("Successfully connected to InfluxDB");
             return client;
         } catch (Exception e) {
@@ -36,14 +30,4 @@ public class InfluxDBConfig {
             throw new RuntimeException("InfluxDB connection failed", e);
         }
     }
-
-    @Bean
-    public InfluxDBProperties influxDBProperties() {
-        return InfluxDBProperties.builder()
-                .url(influxUrl)
-                .token(influxToken)
-                .org(influxOrg)
-                .bucket(influxBucket)
-                .build();
-    }
-}
\ No newline at end of file
+}
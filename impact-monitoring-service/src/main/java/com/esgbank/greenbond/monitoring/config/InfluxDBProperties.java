@@ -6,16 +6,53 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 
+import java.time.Duration;
+
 @Data
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
 @ConfigurationProperties(prefix = "app.influxdb")
 public class InfluxDBProperties {
-    private String url;
-    private String token;
-    private String org;
-    private String bucket;
+    @Builder.Default
+    private String url = "http://localhost:8086";
+    @Builder.Default
+    private String token = "my-token";
+    @Builder.Default
+    private String org = "esgbank";
+    @Builder.Default
+    private String bucket = "impact-metrics";
+
+    // Write pipeline settings, intervals are in milliseconds
+    @Builder.Default
     private int batchSize = 1000;
+    @Builder.Default
     private int flushInterval = 1000;
-}
\ No newline at end of file
+    @Builder.Default
+    private int jitterInterval = 200;
+    @Builder.Default
+    private int retryInterval = 1000;
+    @Builder.Default
+    private int maxRetryDelay = 30000;
+    @Builder.Default
+    private int exponentialBase = 2;
+    @Builder.Default
+    private int shutdownTimeout = 30000;
+    @Builder.Default
+    private int reexportInterval = 60000;
+    @Builder.Default
+    private Duration reexportLeaseTtl = Duration.ofMinutes(10);
+
+    @Builder.Default
+    private Spool spool = new Spool();
+
+    /**
+     * Local write-ahead spool in front of InfluxDB. Disk usage is bounded by segmentSize * maxSegments.
+     */
+    @Data
+    public static class Spool {
+        private String directory = "data/influx-spool";
+        private int segmentSize = 64 * 1024 * 1024;
+        private int maxSegments = 32;
+    }
+}
@@ -0,0 +1,28 @@
+package com.esgbank.greenbond.monitoring.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "app.iot-polling")
+public class IoTPollingConfig {
+
+    private boolean enabled = true;
+    private Duration defaultPollInterval = Duration.ofMinutes(5); // for devices registered without one
+    private double jitterRatio = 0.1; // each poll is moved by up to this fraction of the interval
+    private int maxConcurrentPolls = 64; // device fetches in flight across the fleet
+    private Duration pollTimeout = Duration.ofSeconds(30);
+    private Duration maxBackoff = Duration.ofMinutes(30); // cap of the per-device error backoff
+    private double defaultRateLimit = 20; // platform requests per second unless listed below
+    private Map<String, Double> platformRateLimits = new HashMap<>();
+    private int ingestBatchSize = 500; // readings handed to ingestion per bulk write
+    private long dispatchInterval = 1000L; // ms between scans for due devices
+    private long registryRefreshInterval = 60000L; // ms between registry reloads from MongoDB
+    private Duration leaseTtl = Duration.ofMinutes(3); // polling lease, renewed on every registry refresh
+}
@@ -0,0 +1,13 @@
+package com.esgbank.greenbond.monitoring.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "app.job-leases")
+public class JobLeaseConfig {
+
+    private String instanceId; // lease owner name; defaults to hostname and a random suffix
+}
@@ -0,0 +1,21 @@
+package com.esgbank.greenbond.monitoring.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "app.live-feed")
+public class LiveFeedConfig {
+
+    private boolean enabled = false; // single-instance deployments only: the feed sees metrics stored locally
+    private int bufferSize = 256; // metrics kept per bond and metric type; a subscriber further behind skips ahead
+    private int maxSubscribers = 10000; // concurrent live subscriptions; further ones get 429
+    private int snapshotSize = 10; // latest metrics sent when a subscription starts
+    private Duration heartbeatInterval = Duration.ofSeconds(15); // keep-alive comment on quiet streams
+    private Duration topicIdleTtl = Duration.ofMinutes(5); // buffers without subscribers are dropped after this
+    private long cleanupInterval = 60000L; // ms between sweeps for idle buffers
+}
@@ -3,14 +3,19 @@ package com.esgbank.greenbond.monitoring.config;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.mongodb.config.EnableMongoAuditing;
+import org.springframework.data.mongodb.config.EnableReactiveMongoAuditing;
 import org.springframework.data.mongodb.repository.config.EnableMongoRepositories;
+import org.springframework.data.mongodb.repository.config.EnableReactiveMongoRepositories;
 
 @Slf4j
 @Configuration
 @EnableMongoAuditing
+@EnableReactiveMongoAuditing
 @EnableMongoRepositories(basePackages = "com.esgbank.greenbond.monitoring.repository")
+@EnableReactiveMongoRepositories(basePackages = "com.esgbank.greenbond.monitoring.repository")
 public class MongoConfig {
 
     // MongoDB configuration is handled by application.yml
-    // This class enables MongoDB auditing and repository scanning
-}
\ No newline at end of file
+    // This class enables MongoDB auditing and repository scanning. Blocking and reactive
+    // repositories share the package; each scan picks up only its own kind
+}
@@ -0,0 +1,17 @@
+package com.esgbank.greenbond.monitoring.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "app.portfolio")
+public class PortfolioConfig {
+
+    private int maxParallelQueries = 4; // concurrent Flux queries per portfolio request
+    private int bondsPerQuery = 50; // bonds grouped into one Flux query
+    private Duration queryTimeout = Duration.ofSeconds(30); // overall limit for one portfolio request
+}
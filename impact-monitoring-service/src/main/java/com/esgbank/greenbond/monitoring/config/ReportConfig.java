@@ -0,0 +1,20 @@
+package com.esgbank.greenbond.monitoring.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "app.reports")
+public class ReportConfig {
+
+    private int maxParallelSections = 8; // report sections computed concurrently per report
+    private Duration fragmentSettleDelay = Duration.ofDays(2); // months are cached only once ended this long ago
+    private Duration fragmentTtl = Duration.ofDays(30); // cached months are recomputed after this to pick up late data
+    private int fleetMaxParallelQueries = 4; // concurrent Flux queries of a scheduled fleet run
+    private int fleetInsertBatchSize = 500; // reports per bulk insert of a scheduled fleet run
+    private Duration fleetQueryTimeout = Duration.ofMinutes(5); // all Flux queries of a fleet run
+}
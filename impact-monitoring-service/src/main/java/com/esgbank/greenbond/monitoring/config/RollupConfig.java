@@ -0,0 +1,18 @@
+package com.esgbank.greenbond.monitoring.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "app.rollups")
+public class RollupConfig {
+
+    private boolean enabled = true; // serve aggregation queries from rollups when possible
+    private Duration minuteRetention = Duration.ofDays(30); // 1-minute buckets expire after this
+    private Duration backfillLookback = Duration.ofDays(2); // range rebuilt by the nightly backfill
+    private boolean backfillOnStartup = true; // full backfill when the rollup store is empty
+}
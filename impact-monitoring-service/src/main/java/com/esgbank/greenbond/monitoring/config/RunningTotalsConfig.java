@@ -0,0 +1,15 @@
+package com.esgbank.greenbond.monitoring.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "app.running-totals")
+public class RunningTotalsConfig {
+
+    private Duration reconcileLeaseTtl = Duration.ofHours(1); // another instance may retry a run held this long
+}
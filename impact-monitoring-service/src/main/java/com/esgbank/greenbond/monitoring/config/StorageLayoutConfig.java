@@ -0,0 +1,17 @@
+package com.esgbank.greenbond.monitoring.config;
+
+import com.esgbank.greenbond.monitoring.model.enums.MetricStorageLayout;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "app.storage-layout")
+public class StorageLayoutConfig {
+
+    private MetricStorageLayout layout = MetricStorageLayout.DOCUMENT; // DOCUMENT, DUAL while migrating, BUCKETED
+    private int readBatchSize = 64; // buckets fetched per cursor batch on series reads
+    private boolean migrateOnStartup = false; // backfill hourly buckets from metric documents once started
+    private int migrationBatchSize = 1000; // metric documents written to buckets per bulk write
+}
@@ -0,0 +1,29 @@
+package com.esgbank.greenbond.monitoring.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "app.streaming-ingest")
+public class StreamingIngestConfig {
+
+    private int maxConnections = 128; // concurrent NDJSON streams, each holds a request thread; further ones get 429
+    private int connectionCredit = 2000; // readings a stream may read ahead of persistence
+    private int batchSize = 500; // readings per micro-batch write
+    private Duration batchMaxWait = Duration.ofMillis(500); // a partial micro-batch is written after this
+    private int maxLineLength = 65536; // longer NDJSON lines are rejected
+    private int maxReportedErrors = 100; // per-line errors returned in a stream response
+    private Mqtt mqtt = new Mqtt();
+
+    @Data
+    public static class Mqtt {
+        private boolean enabled = false;
+        private boolean localBroker = false; // in-process broker stand-in for development and tests
+        private String topicPrefix = "greenbond/telemetry"; // readings arrive on {prefix}/{bondId}/{deviceId}
+        private int bufferSize = 10000; // readings buffered before messages are refused
+    }
+}
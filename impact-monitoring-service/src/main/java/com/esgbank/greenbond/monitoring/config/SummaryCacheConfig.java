@@ -0,0 +1,17 @@
+package com.esgbank.greenbond.monitoring.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "app.summary-cache")
+public class SummaryCacheConfig {
+
+    private boolean enabled = true; // cache per-bond metric summaries built from running totals
+    private long maxSize = 10000; // bonds held; least recently used ones are evicted beyond this
+    private Duration ttl = Duration.ofMinutes(5); // bounds staleness from writes through other instances
+}
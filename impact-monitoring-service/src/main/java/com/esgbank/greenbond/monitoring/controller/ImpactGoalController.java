@@ -139,4 +139,16 @@ public class ImpactGoalController {
         Map<String, Object> dashboard = impactGoalService.getGoalsDashboard(bondId);
         return ResponseEntity.ok(dashboard);
     }
+
+    @GetMapping("/{goalId}/progress-history")
+    @Operation(summary = "Get goal progress history", description = "Get recorded progress of a goal over recent months")
+    public ResponseEntity<Map<String, Object>> getGoalProgressHistory(
+            @Parameter(description = "Goal ID") @PathVariable String goalId,
+            @Parameter(description = "Number of months") @RequestParam(defaultValue = "12") int months) {
+
+        log.debug("REST API: Getting progress history for goal: {}, months: {}", goalId, months);
+
+        Map<String, Object> history = impactGoalService.getGoalProgressHistory(goalId, months);
+        return ResponseEntity.ok(history);
+    }
 }
\ No newline at end of file
@@ -1,11 +1,16 @@
 package com.esgbank.greenbond.monitoring.controller;
 
+import com.esgbank.greenbond.monitoring.dto.ImpactMetricBatchRequest;
+import com.esgbank.greenbond.monitoring.dto.ImpactMetricBatchResponse;
 import com.esgbank.greenbond.monitoring.dto.ImpactMetricRequest;
 import com.esgbank.greenbond.monitoring.dto.ImpactMetricResponse;
+import com.esgbank.greenbond.monitoring.dto.MerkleProofResponse;
 import com.esgbank.greenbond.monitoring.dto.MetricAggregationRequest;
 import com.esgbank.greenbond.monitoring.dto.MetricAggregationResponse;
+import com.esgbank.greenbond.monitoring.model.enums.ExportFormat;
 import com.esgbank.greenbond.monitoring.model.enums.MetricType;
 import com.esgbank.greenbond.monitoring.service.ImpactMetricService;
+import com.esgbank.greenbond.monitoring.service.MetricExportService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -19,8 +24,12 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.web.PageableDefault;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -34,6 +43,7 @@ import java.util.Map;
 public class ImpactMetricController {
 
     private final ImpactMetricService impactMetricService;
+    private final MetricExportService metricExportService;
 
     // Эндпоинт для создания новой ESG-метрики воздействия
     @PostMapping
@@ -55,6 +65,24 @@ public class ImpactMetricController {
         return ResponseEntity.ok(response);
     }
 
+    // Эндпоинт для пакетного создания метрик (одна запись в MongoDB и InfluxDB на весь пакет)
+    @PostMapping("/batch")
+    @Operation(summary = "Create impact metrics in bulk", description = "Create a batch of impact metric measurements with per-item results")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Batch processed, see per-item results"),
+            @ApiResponse(responseCode = "400", description = "Empty or oversized batch"),
+            @ApiResponse(responseCode = "401", description = "Unauthorized")
+    })
+    public ResponseEntity<ImpactMetricBatchResponse> createMetrics(
+            @Parameter(description = "Bulk impact metric request")
+            @Valid @RequestBody ImpactMetricBatchRequest request) {
+
+        log.info("REST API: Creating {} impact metrics in bulk", request.getMetrics().size());
+
+        ImpactMetricBatchResponse response = impactMetricService.createMetrics(request.getMetrics());
+        return ResponseEntity.ok(response);
+    }
+
     // Эндпоинт для получения метрики по ID
     @GetMapping("/{metricId}")
     @Operation(summary = "Get impact metric", description = "Get detailed information about an impact metric")
@@ -68,6 +96,19 @@ public class ImpactMetricController {
         return ResponseEntity.ok(response);
     }
 
+    // Эндпоинт для получения и проверки доказательства включения метрики в дерево Меркла
+    @GetMapping("/{metricId}/proof")
+    @Operation(summary = "Get metric merkle proof",
+            description = "Get the inclusion proof of a metric in its on-chain anchor and verify it against the anchored root")
+    public ResponseEntity<MerkleProofResponse> getMetricProof(
+            @Parameter(description = "Metric ID") @PathVariable String metricId) {
+
+        log.debug("REST API: Getting merkle proof for metric: {}", metricId);
+
+        MerkleProofResponse response = impactMetricService.getMetricProof(metricId);
+        return ResponseEntity.ok(response);
+    }
+
     // Эндпоинт для получения метрик по облигации с пагинацией
     @GetMapping("/bond/{bondId}")
     @Operation(summary = "Get metrics by bond", description = "Get paginated list of metrics for a bond")
@@ -111,6 +152,33 @@ public class ImpactMetricController {
         return ResponseEntity.ok(metrics);
     }
 
+    // Эндпоинт для потоковой выгрузки сырых метрик за период в NDJSON или CSV
+    @GetMapping("/bond/{bondId}/type/{metricType}/export")
+    @Operation(summary = "Export metrics by time range",
+            description = "Stream all metrics for a bond and type within a time range as NDJSON or CSV")
+    public ResponseEntity<StreamingResponseBody> exportMetrics(
+            @Parameter(description = "Bond ID") @PathVariable String bondId,
+            @Parameter(description = "Metric type") @PathVariable MetricType metricType,
+            @Parameter(description = "Start time") @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start,
+            @Parameter(description = "End time") @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end,
+            @Parameter(description = "Export format") @RequestParam(defaultValue = "NDJSON") ExportFormat format) {
+
+        log.info("REST API: Exporting metrics for bond: {}, type: {}, from {} to {} as {}",
+                bondId, metricType, start, end, format);
+
+        // Проверяем диапазон до начала ответа, после отправки заголовков статус уже не изменить
+        metricExportService.validateRange(start, end);
+
+        // Метрики читаются курсором MongoDB и пишутся в ответ по мере чтения
+        StreamingResponseBody body = out -> metricExportService.exportMetrics(bondId, metricType, start, end, format, out);
+
+        String filename = "metrics-" + bondId + "-" + metricType.name().toLowerCase() + "." + format.getFileExtension();
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(format.getMediaType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename(filename).build().toString())
+                .body(body);
+    }
+
     @PostMapping("/aggregate")
     @Operation(summary = "Aggregate metrics", description = "Calculate aggregated metrics for a time period")
     public ResponseEntity<MetricAggregationResponse> aggregateMetrics(
@@ -0,0 +1,61 @@
+package com.esgbank.greenbond.monitoring.controller;
+
+import com.esgbank.greenbond.monitoring.dto.ImpactReportRequest;
+import com.esgbank.greenbond.monitoring.model.ImpactReport;
+import com.esgbank.greenbond.monitoring.service.ImpactReportService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.web.PageableDefault;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@Slf4j
+@RestController
+@RequestMapping("/api/v1/impact/reports")
+@RequiredArgsConstructor
+@Tag(name = "Impact Reports", description = "APIs for generating and retrieving impact reports")
+public class ImpactReportController {
+
+    private final ImpactReportService impactReportService;
+
+    @PostMapping
+    @Operation(summary = "Generate an impact report",
+            description = "Start generating a report for a bond; the report is returned with status GENERATING")
+    public ResponseEntity<ImpactReport> requestReport(
+            @Parameter(description = "Impact report request") @Valid @RequestBody ImpactReportRequest request) {
+
+        log.info("REST API: Requesting {} impact report for bond: {}", request.getReportType(), request.getBondId());
+
+        ImpactReport report = impactReportService.requestReport(request);
+        return ResponseEntity.accepted().body(report);
+    }
+
+    @GetMapping("/{reportId}")
+    @Operation(summary = "Get impact report", description = "Get a report and its generation status")
+    public ResponseEntity<ImpactReport> getReport(
+            @Parameter(description = "Report ID") @PathVariable String reportId) {
+
+        log.debug("REST API: Getting impact report: {}", reportId);
+
+        ImpactReport report = impactReportService.getReport(reportId);
+        return ResponseEntity.ok(report);
+    }
+
+    @GetMapping("/bond/{bondId}")
+    @Operation(summary = "Get reports by bond", description = "Get paginated list of reports for a bond")
+    public ResponseEntity<Page<ImpactReport>> getReportsByBond(
+            @Parameter(description = "Bond ID") @PathVariable String bondId,
+            @PageableDefault(size = 20) Pageable pageable) {
+
+        log.debug("REST API: Getting reports for bond: {}", bondId);
+
+        Page<ImpactReport> reports = impactReportService.getReportsByBond(bondId, pageable);
+        return ResponseEntity.ok(reports);
+    }
+}
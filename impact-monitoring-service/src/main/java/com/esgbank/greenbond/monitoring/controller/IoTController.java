@@ -1,16 +1,28 @@
 package com.esgbank.greenbond.monitoring.controller;
 
+import com.esgbank.greenbond.monitoring.dto.DevicePollingStatus;
+import com.esgbank.greenbond.monitoring.dto.ImpactMetricBatchResponse;
 import com.esgbank.greenbond.monitoring.dto.ImpactMetricRequest;
+import com.esgbank.greenbond.monitoring.dto.IoTDeviceRegistrationRequest;
+import com.esgbank.greenbond.monitoring.dto.StreamIngestResponse;
 import com.esgbank.greenbond.monitoring.integration.IoTIntegrationService;
+import com.esgbank.greenbond.monitoring.model.IoTDevice;
+import com.esgbank.greenbond.monitoring.service.DevicePollingService;
 import com.esgbank.greenbond.monitoring.service.ImpactMetricService;
+import com.esgbank.greenbond.monitoring.service.StreamingIngestService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.scheduler.Schedulers;
 
+import java.io.InputStream;
 import java.util.List;
 import java.util.Map;
 
@@ -23,6 +35,44 @@ public class IoTController {
 
     private final IoTIntegrationService ioTIntegrationService;
     private final ImpactMetricService impactMetricService;
+    private final DevicePollingService devicePollingService;
+    private final StreamingIngestService streamingIngestService;
+
+    @PostMapping(value = "/stream", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Stream telemetry",
+            description = "Ingest an NDJSON stream of metric readings over one long-lived request. "
+                    + "Readings are written in micro-batches and the body is read only as fast as they are stored.")
+    public ResponseEntity<?> streamTelemetry(InputStream body) {
+        log.info("REST API: Opening telemetry stream");
+
+        return streamingIngestService.ingest(body)
+                .<ResponseEntity<?>>map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).body(Map.of(
+                        "error", "TOO_MANY_STREAMS",
+                        "message", "Telemetry stream limit reached, retry later"
+                )));
+    }
+
+    @PutMapping("/devices/{deviceId}/registration")
+    @Operation(summary = "Register IoT device", description = "Register a device for scheduled polling or update its registration")
+    public ResponseEntity<IoTDevice> registerDevice(
+            @Parameter(description = "Device ID") @PathVariable String deviceId,
+            @Valid @RequestBody IoTDeviceRegistrationRequest request) {
+
+        log.info("REST API: Registering IoT device: {} for bond: {}", deviceId, request.getBondId());
+
+        if (!ioTIntegrationService.validateDevice(deviceId)) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        return ResponseEntity.ok(devicePollingService.registerDevice(deviceId, request));
+    }
+
+    @GetMapping("/devices/polling")
+    @Operation(summary = "Get polling status", description = "Get cursor, lag and errors of every polled device")
+    public ResponseEntity<List<DevicePollingStatus>> getPollingStatus() {
+        return ResponseEntity.ok(devicePollingService.getPollingStatus());
+    }
 
     @PostMapping("/devices/{deviceId}/sync")
     @Operation(summary = "Sync IoT device data", description = "Sync data from an IoT device and create metrics")
@@ -41,14 +91,15 @@ public class IoTController {
 
         List<ImpactMetricRequest> metrics = ioTIntegrationService.fetchIoTData(deviceId, bondId);
         int createdCount = 0;
-
-        for (ImpactMetricRequest metric : metrics) {
-            try {
-                impactMetricService.createMetric(metric);
-                createdCount++;
-            } catch (Exception e) {
-                log.error("Failed to create metric from IoT data: {}", e.getMessage());
-            }
+        int duplicateCount = 0;
+
+        try {
+            // Повторная или пересекающаяся синхронизация не создает дубликатов: такие показания пропускаются
+            ImpactMetricBatchResponse batchResponse = impactMetricService.createMetrics(metrics);
+            createdCount = batchResponse.getCreatedCount();
+            duplicateCount = batchResponse.getDuplicateCount();
+        } catch (Exception e) {
+            log.error("Failed to create metrics from IoT data: {}", e.getMessage());
         }
 
         return ResponseEntity.ok(Map.of(
@@ -56,6 +107,7 @@ public class IoTController {
                 "bondId", bondId,
                 "metricsReceived", metrics.size(),
                 "metricsCreated", createdCount,
+                "metricsSkipped", duplicateCount,
                 "syncTimestamp", java.time.LocalDateTime.now()
         ));
     }
@@ -92,9 +144,11 @@ public class IoTController {
 
         // Start async processing
         ioTIntegrationService.fetchIoTDataAsync(deviceId, bondId)
-                .subscribe(metrics -> {
-                    log.info("Async IoT data processing completed for device: {}, metrics: {}",
-                            deviceId, metrics.size());
+                .subscribeOn(Schedulers.boundedElastic())
+                .map(impactMetricService::createMetrics)
+                .subscribe(batchResponse -> {
+                    log.info("Async IoT data processing completed for device: {}, metrics: {}, created: {}",
+                            deviceId, batchResponse.getTotalReceived(), batchResponse.getCreatedCount());
                 }, error -> {
                     log.error("Async IoT data processing failed for device: {}. Error: {}",
                             deviceId, error.getMessage());
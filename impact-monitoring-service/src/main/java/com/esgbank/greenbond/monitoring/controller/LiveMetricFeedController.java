@@ -0,0 +1,72 @@
+package com.esgbank.greenbond.monitoring.controller;
+
+import com.esgbank.greenbond.monitoring.config.LiveFeedConfig;
+import com.esgbank.greenbond.monitoring.dto.LiveMetricUpdate;
+import com.esgbank.greenbond.monitoring.model.enums.MetricType;
+import com.esgbank.greenbond.monitoring.service.ImpactMetricService;
+import com.esgbank.greenbond.monitoring.service.MetricLiveFeedService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+
+// Живая лента новых метрик облигации вместо периодического опроса эндпоинта latest.
+// Только для развертывания в одном экземпляре, поэтому эндпоинт есть лишь при включенной ленте
+@Slf4j
+@RestController
+@ConditionalOnProperty(prefix = "app.live-feed", name = "enabled", havingValue = "true")
+@RequestMapping("/api/v1/impact/metrics")
+@RequiredArgsConstructor
+@Tag(name = "Impact Metrics", description = "APIs for managing and querying impact metrics")
+public class LiveMetricFeedController {
+
+    private final MetricLiveFeedService liveFeedService;
+    private final ImpactMetricService impactMetricService;
+    private final LiveFeedConfig liveFeedConfig;
+
+    @GetMapping(value = "/bond/{bondId}/type/{metricType}/live", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Subscribe to new metrics",
+            description = "Server-sent events with the latest metrics, then every new metric of a bond and type")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Event stream opened"),
+            @ApiResponse(responseCode = "429", description = "Subscriber limit reached")
+    })
+    public ResponseEntity<Flux<ServerSentEvent<LiveMetricUpdate>>> subscribe(
+            @Parameter(description = "Bond ID") @PathVariable String bondId,
+            @Parameter(description = "Metric type") @PathVariable MetricType metricType,
+            @Parameter(description = "Id of the last update received, to resume after a reconnect")
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+
+        log.debug("REST API: Subscribing to live metrics for bond: {}, type: {}", bondId, metricType);
+
+        int snapshotSize = liveFeedConfig.getSnapshotSize();
+        return liveFeedService.subscribe(bondId, metricType, lastEventId,
+                        () -> impactMetricService.getLatestMetrics(bondId, metricType, snapshotSize))
+                .map(updates -> ResponseEntity.ok(withHeartbeat(updates)))
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).build());
+    }
+
+    private Flux<ServerSentEvent<LiveMetricUpdate>> withHeartbeat(Flux<LiveMetricUpdate> updates) {
+        Flux<ServerSentEvent<LiveMetricUpdate>> events = updates.map(update -> ServerSentEvent.builder(update)
+                .id(update.getEventId())
+                .event(update.isSnapshot() ? "snapshot" : "metrics")
+                .build());
+        // Держит соединение открытым через прокси, пока новых метрик нет
+        Flux<ServerSentEvent<LiveMetricUpdate>> heartbeats = Flux.interval(liveFeedConfig.getHeartbeatInterval())
+                .onBackpressureDrop()
+                .map(tick -> ServerSentEvent.<LiveMetricUpdate>builder().comment("keep-alive").build());
+
+        // Prefetch 1: лента получает спрос, только когда клиент успевает читать, и объединяет обновления
+        return Flux.merge(1, events, heartbeats);
+    }
+}
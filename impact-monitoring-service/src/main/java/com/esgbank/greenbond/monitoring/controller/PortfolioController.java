@@ -0,0 +1,39 @@
+package com.esgbank.greenbond.monitoring.controller;
+
+import com.esgbank.greenbond.monitoring.dto.PortfolioAggregationRequest;
+import com.esgbank.greenbond.monitoring.dto.PortfolioAggregationResponse;
+import com.esgbank.greenbond.monitoring.service.PortfolioAggregationService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@Slf4j
+@RestController
+@RequestMapping("/api/v1/impact/portfolio")
+@RequiredArgsConstructor
+@Tag(name = "Portfolio", description = "APIs for aggregating impact metrics across bonds")
+public class PortfolioController {
+
+    private final PortfolioAggregationService portfolioAggregationService;
+
+    @PostMapping("/aggregate")
+    @Operation(summary = "Aggregate portfolio metrics",
+            description = "Calculate per-bond and combined series for several bonds and metric types on one time axis")
+    public ResponseEntity<PortfolioAggregationResponse> aggregatePortfolio(
+            @Parameter(description = "Portfolio aggregation request") @Valid @RequestBody PortfolioAggregationRequest request) {
+
+        log.debug("REST API: Calculating portfolio aggregation for {} bonds, {} metric types",
+                request.getBondIds().size(), request.getMetricTypes().size());
+
+        PortfolioAggregationResponse response = portfolioAggregationService.aggregate(request);
+        return ResponseEntity.ok(response);
+    }
+}
@@ -0,0 +1,61 @@
+package com.esgbank.greenbond.monitoring.controller;
+
+import com.esgbank.greenbond.monitoring.dto.ImpactGoalResponse;
+import com.esgbank.greenbond.monitoring.model.enums.GoalStatus;
+import com.esgbank.greenbond.monitoring.service.ReactiveImpactGoalService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.web.PageableDefault;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@Slf4j
+@RestController
+@RequestMapping("/api/v1/impact/reactive/goals")
+@RequiredArgsConstructor
+@Tag(name = "Impact Goals (reactive)", description = "Non-blocking APIs for querying impact goals")
+public class ReactiveImpactGoalController {
+
+    private final ReactiveImpactGoalService reactiveImpactGoalService;
+
+    @GetMapping("/{goalId}")
+    @Operation(summary = "Get impact goal", description = "Get detailed information about an impact goal")
+    public Mono<ImpactGoalResponse> getGoal(
+            @Parameter(description = "Goal ID") @PathVariable String goalId) {
+
+        log.debug("REST API: Getting impact goal (reactive): {}", goalId);
+
+        return reactiveImpactGoalService.getGoal(goalId);
+    }
+
+    @GetMapping(value = "/bond/{bondId}", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    @Operation(summary = "Get goals by bond", description = "Get one page of goals for a bond")
+    public Flux<ImpactGoalResponse> getGoalsByBond(
+            @Parameter(description = "Bond ID") @PathVariable String bondId,
+            @PageableDefault(size = 20) Pageable pageable) {
+
+        log.debug("REST API: Getting goals for bond (reactive): {}, page: {}", bondId, pageable.getPageNumber());
+
+        return reactiveImpactGoalService.getGoalsByBond(bondId, pageable);
+    }
+
+    @GetMapping(value = "/bond/{bondId}/status/{status}",
+            produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    @Operation(summary = "Get goals by bond and status", description = "Get one page of goals for a bond by status")
+    public Flux<ImpactGoalResponse> getGoalsByBondAndStatus(
+            @Parameter(description = "Bond ID") @PathVariable String bondId,
+            @Parameter(description = "Goal status") @PathVariable GoalStatus status,
+            @PageableDefault(size = 20) Pageable pageable) {
+
+        log.debug("REST API: Getting goals for bond (reactive): {}, status: {}, page: {}",
+                bondId, status, pageable.getPageNumber());
+
+        return reactiveImpactGoalService.getGoalsByBondAndStatus(bondId, status, pageable);
+    }
+}
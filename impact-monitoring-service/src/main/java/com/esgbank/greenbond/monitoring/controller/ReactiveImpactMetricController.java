@@ -0,0 +1,124 @@
+package com.esgbank.greenbond.monitoring.controller;
+
+import com.esgbank.greenbond.monitoring.dto.ImpactMetricBatchRequest;
+import com.esgbank.greenbond.monitoring.dto.ImpactMetricBatchResponse;
+import com.esgbank.greenbond.monitoring.dto.ImpactMetricResponse;
+import com.esgbank.greenbond.monitoring.dto.MetricAggregationRequest;
+import com.esgbank.greenbond.monitoring.dto.MetricAggregationResponse;
+import com.esgbank.greenbond.monitoring.model.enums.MetricType;
+import com.esgbank.greenbond.monitoring.service.ReactiveImpactMetricService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.web.PageableDefault;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+
+// Те же операции, что и в ImpactMetricController, асинхронно: поток запроса не ждёт ввода-вывода.
+// Запись не неблокирующая: дедупликация и производные данные ждут MongoDB на потоке boundedElastic
+@Slf4j
+@RestController
+@RequestMapping("/api/v1/impact/reactive/metrics")
+@RequiredArgsConstructor
+@Tag(name = "Impact Metrics (reactive)", description = "Asynchronous APIs for ingesting and querying impact metrics")
+public class ReactiveImpactMetricController {
+
+    private final ReactiveImpactMetricService reactiveImpactMetricService;
+
+    @PostMapping("/batch")
+    @Operation(summary = "Create impact metrics in bulk",
+            description = "Create a batch of impact metric measurements with per-item results. Only the metric "
+                    + "inserts use the reactive driver; deduplication and derived state use blocking MongoDB calls "
+                    + "on a worker thread")
+    public Mono<ImpactMetricBatchResponse> createMetrics(
+            @Parameter(description = "Bulk impact metric request")
+            @Valid @RequestBody ImpactMetricBatchRequest request) {
+
+        log.info("REST API: Creating {} impact metrics in bulk (reactive)", request.getMetrics().size());
+
+        return reactiveImpactMetricService.createMetrics(request.getMetrics());
+    }
+
+    @GetMapping("/{metricId}")
+    @Operation(summary = "Get impact metric", description = "Get detailed information about an impact metric")
+    public Mono<ImpactMetricResponse> getMetric(
+            @Parameter(description = "Metric ID") @PathVariable String metricId) {
+
+        log.debug("REST API: Getting impact metric (reactive): {}", metricId);
+
+        return reactiveImpactMetricService.getMetric(metricId);
+    }
+
+    @GetMapping(value = "/bond/{bondId}", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    @Operation(summary = "Get metrics by bond", description = "Get one page of metrics for a bond")
+    public Flux<ImpactMetricResponse> getMetricsByBond(
+            @Parameter(description = "Bond ID") @PathVariable String bondId,
+            @PageableDefault(size = 50) Pageable pageable) {
+
+        log.debug("REST API: Getting metrics for bond (reactive): {}, page: {}", bondId, pageable.getPageNumber());
+
+        return reactiveImpactMetricService.getMetricsByBond(bondId, pageable);
+    }
+
+    @GetMapping(value = "/bond/{bondId}/type/{metricType}",
+            produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    @Operation(summary = "Get metrics by bond and type", description = "Get one page of metrics for a bond and metric type")
+    public Flux<ImpactMetricResponse> getMetricsByBondAndType(
+            @Parameter(description = "Bond ID") @PathVariable String bondId,
+            @Parameter(description = "Metric type") @PathVariable MetricType metricType,
+            @PageableDefault(size = 50) Pageable pageable) {
+
+        log.debug("REST API: Getting metrics for bond (reactive): {}, type: {}, page: {}",
+                bondId, metricType, pageable.getPageNumber());
+
+        return reactiveImpactMetricService.getMetricsByBondAndType(bondId, metricType, pageable);
+    }
+
+    @GetMapping(value = "/bond/{bondId}/type/{metricType}/range",
+            produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    @Operation(summary = "Get metrics by time range", description = "Get metrics for a bond and type within a time range")
+    public Flux<ImpactMetricResponse> getMetricsByTimeRange(
+            @Parameter(description = "Bond ID") @PathVariable String bondId,
+            @Parameter(description = "Metric type") @PathVariable MetricType metricType,
+            @Parameter(description = "Start time") @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start,
+            @Parameter(description = "End time") @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end) {
+
+        log.debug("REST API: Getting metrics for bond (reactive): {}, type: {}, range: {} to {}",
+                bondId, metricType, start, end);
+
+        return reactiveImpactMetricService.getMetricsByBondTypeAndTimeRange(bondId, metricType, start, end);
+    }
+
+    @GetMapping(value = "/bond/{bondId}/type/{metricType}/latest",
+            produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    @Operation(summary = "Get latest metrics", description = "Get the latest metrics for a bond and type")
+    public Flux<ImpactMetricResponse> getLatestMetrics(
+            @Parameter(description = "Bond ID") @PathVariable String bondId,
+            @Parameter(description = "Metric type") @PathVariable MetricType metricType,
+            @Parameter(description = "Limit") @RequestParam(defaultValue = "10") int limit) {
+
+        log.debug("REST API: Getting latest {} metrics for bond (reactive): {}, type: {}", limit, bondId, metricType);
+
+        return reactiveImpactMetricService.getLatestMetrics(bondId, metricType, limit);
+    }
+
+    @PostMapping("/aggregate")
+    @Operation(summary = "Aggregate metrics", description = "Calculate aggregated metrics for a time period")
+    public Mono<MetricAggregationResponse> aggregateMetrics(
+            @Parameter(description = "Aggregation request") @Valid @RequestBody MetricAggregationRequest request) {
+
+        log.debug("REST API: Calculating aggregation (reactive) for bond: {}, type: {}",
+                request.getBondId(), request.getMetricType());
+
+        return reactiveImpactMetricService.getMetricAggregation(request);
+    }
+}
@@ -0,0 +1,47 @@
+package com.esgbank.greenbond.monitoring.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Polling state of a registered IoT device")
+public class DevicePollingStatus {
+
+    @Schema(description = "Device identifier")
+    private String deviceId;
+
+    @Schema(description = "Bond identifier")
+    private String bondId;
+
+    @Schema(description = "IoT platform")
+    private String platform;
+
+    @Schema(description = "Timestamp of the newest ingested reading")
+    private LocalDateTime cursor;
+
+    @Schema(description = "Seconds between now and the newest ingested reading")
+    private Long lagSeconds;
+
+    @Schema(description = "Last poll attempt")
+    private LocalDateTime lastPolledAt;
+
+    @Schema(description = "Last successful poll")
+    private LocalDateTime lastSuccessAt;
+
+    @Schema(description = "Failed polls since the last success")
+    private int consecutiveFailures;
+
+    @Schema(description = "Error of the last failed poll")
+    private String lastError;
+
+    @Schema(description = "Next scheduled poll")
+    private LocalDateTime nextPollAt;
+}
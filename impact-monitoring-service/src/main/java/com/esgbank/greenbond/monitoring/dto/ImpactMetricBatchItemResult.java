@@ -0,0 +1,31 @@
+package com.esgbank.greenbond.monitoring.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Result of a single item of a bulk metric request")
+public class ImpactMetricBatchItemResult {
+
+    public static final String STATUS_CREATED = "CREATED";
+    public static final String STATUS_FAILED = "FAILED";
+    public static final String STATUS_DUPLICATE = "DUPLICATE";
+
+    @Schema(description = "Position of the item in the request")
+    private Integer index;
+
+    @Schema(description = "Item status", example = "CREATED")
+    private String status;
+
+    @Schema(description = "Unique metric identifier of the created metric")
+    private String metricId;
+
+    @Schema(description = "Error message if the item was rejected")
+    private String error;
+}
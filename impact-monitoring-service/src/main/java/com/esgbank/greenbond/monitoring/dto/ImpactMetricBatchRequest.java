@@ -0,0 +1,24 @@
+package com.esgbank.greenbond.monitoring.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Request for creating impact metrics in bulk")
+public class ImpactMetricBatchRequest {
+
+    // Items are validated one by one in the service so that a single bad reading
+    // is reported in the per-item results instead of rejecting the whole batch
+    @NotEmpty
+    @Size(max = 10000)
+    @Schema(description = "Impact metrics to create")
+    private List<ImpactMetricRequest> metrics;
+}
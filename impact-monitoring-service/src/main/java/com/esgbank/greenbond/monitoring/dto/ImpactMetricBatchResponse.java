@@ -0,0 +1,32 @@
+package com.esgbank.greenbond.monitoring.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Bulk impact metric creation response")
+public class ImpactMetricBatchResponse {
+
+    @Schema(description = "Number of items received")
+    private Integer totalReceived;
+
+    @Schema(description = "Number of metrics created")
+    private Integer createdCount;
+
+    @Schema(description = "Number of items skipped as already stored readings")
+    private Integer duplicateCount;
+
+    @Schema(description = "Number of items rejected")
+    private Integer failedCount;
+
+    @Schema(description = "Per-item results in request order")
+    private List<ImpactMetricBatchItemResult> results;
+}
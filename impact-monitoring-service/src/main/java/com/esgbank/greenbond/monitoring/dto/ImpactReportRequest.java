@@ -0,0 +1,31 @@
+package com.esgbank.greenbond.monitoring.dto;
+
+import com.esgbank.greenbond.monitoring.model.enums.ReportType;
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+@Schema(description = "Request for generating an impact report")
+public class ImpactReportRequest {
+
+    @NotBlank
+    @Schema(description = "Bond ID", example = "BOND-123")
+    private String bondId;
+
+    @NotNull
+    @Schema(description = "Report type")
+    private ReportType reportType;
+
+    @Schema(description = "Start of the reporting period; defaults to the last complete period of the report type")
+    private LocalDateTime periodStart;
+
+    @Schema(description = "End of the reporting period; required for report types without a fixed length")
+    private LocalDateTime periodEnd;
+
+    @Schema(description = "User or system requesting the report", example = "analyst@esgbank.com")
+    private String generatedBy;
+}
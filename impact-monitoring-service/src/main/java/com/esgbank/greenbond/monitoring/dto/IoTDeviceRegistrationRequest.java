@@ -0,0 +1,26 @@
+package com.esgbank.greenbond.monitoring.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import lombok.Data;
+
+@Data
+@Schema(description = "Registration of an IoT device for scheduled polling")
+public class IoTDeviceRegistrationRequest {
+
+    @NotBlank
+    @Schema(description = "Bond the device readings belong to", example = "BOND-123")
+    private String bondId;
+
+    @NotBlank
+    @Schema(description = "IoT platform the device is read from; rate limits apply per platform", example = "aws-iot")
+    private String platform;
+
+    @Min(10)
+    @Schema(description = "Polling interval in seconds, the configured default when omitted", example = "300")
+    private Long pollIntervalSeconds;
+
+    @Schema(description = "Whether the device is polled", example = "true")
+    private Boolean enabled;
+}
@@ -0,0 +1,39 @@
+package com.esgbank.greenbond.monitoring.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Metrics pushed to a live subscription of a bond and metric type")
+public class LiveMetricUpdate {
+
+    @Schema(description = "Bond ID", example = "BOND-123")
+    private String bondId;
+
+    @Schema(description = "Metric type")
+    private String metricType;
+
+    @Schema(description = "True for the latest metrics sent when the subscription starts")
+    private boolean snapshot;
+
+    @Schema(description = "Position in the feed after this update")
+    private long sequence;
+
+    @Schema(description = "Feed epoch and position after this update; send it as Last-Event-ID to resume",
+            example = "3k8f2a9x1c:42")
+    private String eventId;
+
+    @Schema(description = "Metrics published while the subscriber was too far behind, not included")
+    private long skipped;
+
+    @Schema(description = "New metrics, oldest first; the snapshot is newest first")
+    private List<ImpactMetricResponse> metrics;
+}
@@ -0,0 +1,61 @@
+package com.esgbank.greenbond.monitoring.dto;
+
+import com.esgbank.greenbond.monitoring.model.MerkleProofStep;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Merkle inclusion proof of an impact metric in an on-chain anchor")
+public class MerkleProofResponse {
+
+    public static final String STATUS_PENDING = "PENDING";
+    public static final String STATUS_ANCHORED = "ANCHORED";
+
+    @Schema(description = "Metric identifier")
+    private String metricId;
+
+    @Schema(description = "Anchoring status", example = "ANCHORED")
+    private String status;
+
+    @Schema(description = "Anchor identifier")
+    private String anchorId;
+
+    @Schema(description = "Leaf hash recorded when the metric was anchored")
+    private String leafHash;
+
+    @Schema(description = "Leaf hash recomputed from the stored metric")
+    private String computedLeafHash;
+
+    @Schema(description = "Position of the metric among the anchored leaves")
+    private Integer leafIndex;
+
+    @Schema(description = "Number of leaves in the anchored tree")
+    private Integer leafCount;
+
+    @Schema(description = "Sibling hashes from the leaf up to the root")
+    private List<MerkleProofStep> path;
+
+    @Schema(description = "Merkle root anchored on-chain")
+    private String merkleRoot;
+
+    @Schema(description = "Blockchain transaction hash of the anchor")
+    private String transactionHash;
+
+    @Schema(description = "Block number of the anchor transaction")
+    private Long blockNumber;
+
+    @Schema(description = "Anchoring timestamp")
+    private LocalDateTime anchoredAt;
+
+    @Schema(description = "True when the stored metric hashes to the anchored root through the proof path")
+    private boolean verified;
+}
@@ -0,0 +1,43 @@
+package com.esgbank.greenbond.monitoring.dto;
+
+import com.esgbank.greenbond.monitoring.model.enums.MetricType;
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@Schema(description = "Request for aggregating metrics across a portfolio of bonds")
+public class PortfolioAggregationRequest {
+
+    @NotEmpty
+    @Size(max = 500)
+    @Schema(description = "Bond IDs in the portfolio", example = "[\"BOND-123\", \"BOND-456\"]")
+    private List<@NotBlank String> bondIds;
+
+    @NotEmpty
+    @Schema(description = "Metric types to aggregate")
+    private List<@NotNull MetricType> metricTypes;
+
+    @NotNull
+    @Schema(description = "Start time for aggregation")
+    private LocalDateTime startTime;
+
+    @NotNull
+    @Schema(description = "End time for aggregation")
+    private LocalDateTime endTime;
+
+    @Schema(description = "Aggregation interval", example = "1h, 1d, 1w")
+    private String interval;
+
+    // Only functions whose per-bond results can be combined into a portfolio series
+    @Pattern(regexp = "mean|sum|min|max|count")
+    @Schema(description = "Aggregation function", example = "sum, mean, min, max, count")
+    private String aggregationFunction;
+}
@@ -0,0 +1,36 @@
+package com.esgbank.greenbond.monitoring.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Portfolio aggregation response")
+public class PortfolioAggregationResponse {
+
+    @Schema(description = "Aggregation interval")
+    private String interval;
+
+    @Schema(description = "Aggregation function")
+    private String aggregationFunction;
+
+    @Schema(description = "Start time")
+    private LocalDateTime startTime;
+
+    @Schema(description = "End time")
+    private LocalDateTime endTime;
+
+    @Schema(description = "Window start times shared by all series")
+    private List<LocalDateTime> timeAxis;
+
+    @Schema(description = "Per metric type series")
+    private List<PortfolioMetricSeries> series;
+}
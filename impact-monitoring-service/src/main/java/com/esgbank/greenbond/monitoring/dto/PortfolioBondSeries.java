@@ -0,0 +1,27 @@
+package com.esgbank.greenbond.monitoring.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Series of one bond within a portfolio aggregation")
+public class PortfolioBondSeries {
+
+    @Schema(description = "Bond ID")
+    private String bondId;
+
+    @Schema(description = "Values aligned to the time axis (null where no data)")
+    private List<BigDecimal> values;
+
+    @Schema(description = "Number of raw data points")
+    private Long dataPointCount;
+}
@@ -0,0 +1,28 @@
+package com.esgbank.greenbond.monitoring.dto;
+
+import com.esgbank.greenbond.monitoring.model.enums.MetricType;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Portfolio series of one metric type")
+public class PortfolioMetricSeries {
+
+    @Schema(description = "Metric type")
+    private MetricType metricType;
+
+    @Schema(description = "Combined values across all bonds, aligned to the time axis (null where no data)")
+    private List<BigDecimal> combined;
+
+    @Schema(description = "Per bond series, only bonds with data")
+    private List<PortfolioBondSeries> bonds;
+}
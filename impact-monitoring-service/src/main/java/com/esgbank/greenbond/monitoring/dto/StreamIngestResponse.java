@@ -0,0 +1,35 @@
+package com.esgbank.greenbond.monitoring.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Summary of a streamed telemetry ingest")
+public class StreamIngestResponse {
+
+    @Schema(description = "Non-empty lines received")
+    private long linesReceived;
+
+    @Schema(description = "Number of metrics created")
+    private long createdCount;
+
+    @Schema(description = "Number of readings skipped as already stored")
+    private long duplicateCount;
+
+    @Schema(description = "Number of lines that could not be parsed or stored")
+    private long failedCount;
+
+    @Schema(description = "Number of micro-batches written")
+    private long batchCount;
+
+    @Schema(description = "First per-line errors, as line number and message")
+    private List<String> errors;
+}
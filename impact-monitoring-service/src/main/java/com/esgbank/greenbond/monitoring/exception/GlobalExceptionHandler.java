@@ -31,6 +31,14 @@ public class GlobalExceptionHandler {
                 .body(createErrorResponse(e.getErrorCode(), e.getMessage()));
     }
 
+    @ExceptionHandler(ReportNotFoundException.class)
+    public ResponseEntity<Map<String, Object>> handleReportNotFoundException(ReportNotFoundException e) {
+        log.warn("Report not found: {}", e.getMessage());
+
+        return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                .body(createErrorResponse(e.getErrorCode(), e.getMessage()));
+    }
+
     @ExceptionHandler(ImpactMonitoringException.class)
     public ResponseEntity<Map<String, Object>> handleImpactMonitoringException(ImpactMonitoringException e) {
         log.error("Impact monitoring error: {}", e.getMessage(), e);
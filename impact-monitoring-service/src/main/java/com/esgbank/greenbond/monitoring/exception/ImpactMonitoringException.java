@@ -21,4 +21,9 @@ public class ImpactMonitoringException extends RuntimeException {
         super(message);
         this.errorCode = errorCode;
     }
+
+    public ImpactMonitoringException(String errorCode, String message, Throwable cause) {
+        super(message, cause);
+        this.errorCode = errorCode;
+    }
 }
\ No newline at end of file
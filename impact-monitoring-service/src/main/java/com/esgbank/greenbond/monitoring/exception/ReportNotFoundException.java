@@ -0,0 +1,8 @@
+package com.esgbank.greenbond.monitoring.exception;
+
+public class ReportNotFoundException extends ImpactMonitoringException {
+
+    public ReportNotFoundException(String message) {
+        super("REPORT_NOT_FOUND", message);
+    }
+}
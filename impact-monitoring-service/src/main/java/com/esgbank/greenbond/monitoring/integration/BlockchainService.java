@@ -1,48 +1,96 @@
 package com.esgbank.greenbond.monitoring.integration;
 
-import com.esgbank.greenbond.monitoring.model.ImpactMetric;
+import com.esgbank.greenbond.blockchain.proto.BondTokenizationServiceGrpc;
+import com.esgbank.greenbond.blockchain.proto.ImpactDataRequest;
+import com.esgbank.greenbond.blockchain.proto.ImpactDataResponse;
+import com.esgbank.greenbond.monitoring.config.AnchoringConfig;
+import com.esgbank.greenbond.monitoring.exception.ImpactMonitoringException;
+import com.esgbank.greenbond.monitoring.model.ImpactAnchor;
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import net.devh.boot.grpc.client.inject.GrpcClient;
 import org.springframework.stereotype.Service;
 
+import java.time.ZoneOffset;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class BlockchainService {
 
-    // Запись ESG-метрики в блокчейн для неизменяемости данных
-    public void recordImpactMetric(ImpactMetric metric) {
-        log.info("Recording impact metric on blockchain: {}", metric.getMetricId());
+    static final String MERKLE_ROOT_METRIC_TYPE = "MERKLE_ROOT";
+    static final String MULTI_BOND_ID = "MULTI_BOND";
+
+    // Коды gRPC, при которых сервис блокчейна гарантированно не отправил транзакцию
+    private static final Set<Status.Code> NOT_SENT_CODES = EnumSet.of(
+            Status.Code.INVALID_ARGUMENT, Status.Code.FAILED_PRECONDITION, Status.Code.UNIMPLEMENTED,
+            Status.Code.UNAUTHENTICATED, Status.Code.PERMISSION_DENIED, Status.Code.RESOURCE_EXHAUSTED);
+
+    @GrpcClient("blockchain-service")
+    private BondTokenizationServiceGrpc.BondTokenizationServiceBlockingStub blockchainStub;
+
+    private final AnchoringConfig config;
+
+    // Запись корня дерева Меркла для окна ESG-метрик в блокчейн одной транзакцией
+    public ImpactDataResponse anchorMerkleRoot(ImpactAnchor anchor) {
+        log.info("Anchoring merkle root on blockchain: {}, leaves: {}", anchor.getAnchorId(), anchor.getLeafCount());
 
         try {
-            // В реальной реализации здесь должен быть вызов blockchain-integration сервиса
-            // для записи хеша метрики в блокчейн
+            // Если окно содержит метрики одной облигации, привязываем запись к ней
+            String bondId = anchor.getBondIds().size() == 1
+                    ? anchor.getBondIds().iterator().next()
+                    : MULTI_BOND_ID;
+
+            // В data_hash передаем корень дерева, в value - количество листьев
+            ImpactDataRequest request = ImpactDataRequest.newBuilder()
+                    .setBondId(bondId)
+                    .setMetricType(MERKLE_ROOT_METRIC_TYPE)
+                    .setValue(anchor.getLeafCount())
+                    .setUnit("LEAVES")
+                    .setTimestamp(anchor.getWindowOpenedAt().toInstant(ZoneOffset.UTC).toEpochMilli())
+                    .setSource(anchor.getAnchorId())
+                    .setDataHash(anchor.getMerkleRoot())
+                    .build();
 
-            // Mock реализация: генерируем хеш транзакции
-            String transactionHash = generateTransactionHash(metric);
-            metric.setBlockchainTxHash(transactionHash);
-            metric.setBlockchainRecordedAt(java.time.LocalDateTime.now());
+            // Без дедлайна зависший вызов блокирует планировщик анкоринга
+            ImpactDataResponse response = blockchainStub
+                    .withDeadlineAfter(config.getChainCallTimeout().toMillis(), TimeUnit.MILLISECONDS)
+                    .recordImpactData(request);
 
-            log.info("Impact metric recorded on blockchain: {}, txHash: {}",
-                    metric.getMetricId(), transactionHash);
+            // Проверяем статус ответа
+            if (!"SUCCESS".equals(response.getStatus())) {
+                throw new ImpactMonitoringException("BLOCKCHAIN_ANCHOR_FAILED",
+                        "Blockchain rejected merkle root: " + response.getStatus());
+            }
 
-        } catch (Exception e) {
-            log.error("Failed to record impact metric on blockchain: {}. Error: {}",
-                    metric.getMetricId(), e.getMessage(), e);
-            // Не выбрасываем исключение чтобы не блокировать процесс создания метрики
+            log.info("Merkle root anchored on blockchain: {}, txHash: {}",
+                    anchor.getAnchorId(), response.getTransactionHash());
+            return response;
+
+        } catch (StatusRuntimeException e) {
+            // Обработка ошибок gRPC
+            log.error("gRPC call failed for anchor: {}. Status: {}, Error: {}",
+                    anchor.getAnchorId(), e.getStatus(), e.getMessage());
+            throw new ImpactMonitoringException("BLOCKCHAIN_ANCHOR_FAILED",
+                    "Blockchain integration failed: " + e.getMessage(), e);
         }
     }
 
-    // Генерация хеша транзакции из данных метрики
-    private String generateTransactionHash(ImpactMetric metric) {
-        // Формируем строку из ключевых данных метрики
-        String data = metric.getMetricId() +
-                metric.getBondId() +
-                metric.getMetricType() +
-                metric.getValue() +
-                metric.getTimestamp().toString();
-
-        // Генерируем хеш (в реальной реализации используется SHA-256)
-        return "IMPACT-" + Integer.toHexString(data.hashCode());
+    /**
+     * Whether a failed {@link #anchorMerkleRoot} call may still have sent its transaction, e.g. after
+     * a deadline or a dropped connection. A rejection reported by the blockchain service is final.
+     */
+    public static boolean isOutcomeUnknown(Throwable failure) {
+        for (Throwable e = failure; e != null; e = e.getCause()) {
+            if (e instanceof StatusRuntimeException statusException) {
+                return !NOT_SENT_CODES.contains(statusException.getStatus().getCode());
+            }
+        }
+        return false;
     }
-}
\ No newline at end of file
+}
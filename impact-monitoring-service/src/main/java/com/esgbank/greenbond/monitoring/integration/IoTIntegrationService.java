@@ -129,6 +129,33 @@ public class IoTIntegrationService {
         }
     }
 
+    /**
+     * Fetches readings a device produced after the given cursor.
+     * 
+     * <p>Used by the fleet polling scheduler so that every poll only transfers new readings.
+     * 
+     * <p><strong>Current Implementation (Mock):</strong>
+     * Filters the simulated data by timestamp.
+     * 
+     * <p><strong>Production Implementation Should:</strong>
+     * Pass the cursor to the platform (e.g. {@code GET /devices/{deviceId}/data?since=...}) and
+     * follow pagination until the platform reports no more readings.
+     * 
+     * @param deviceId Unique identifier of the IoT device
+     * @param bondId Bond identifier to filter device data
+     * @param since Timestamp of the newest reading already ingested, or null for a first poll
+     * @return Readings newer than the cursor
+     */
+    public List<ImpactMetricRequest> fetchIoTDataSince(String deviceId, String bondId, LocalDateTime since) {
+        List<ImpactMetricRequest> metrics = fetchIoTData(deviceId, bondId);
+        if (since == null) {
+            return metrics;
+        }
+        return metrics.stream()
+                .filter(metric -> metric.getTimestamp() != null && metric.getTimestamp().isAfter(since))
+                .toList();
+    }
+
     /**
      * Fetches IoT data asynchronously using reactive programming.
      * 
@@ -0,0 +1,61 @@
+package com.esgbank.greenbond.monitoring.integration;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.BiPredicate;
+
+/**
+ * In-process stand-in for an MQTT broker, for development and tests without a real broker.
+ * <p>
+ * Messages are delivered synchronously to every matching subscription. {@link #publish} reports
+ * whether all subscribers accepted the message, which is where a real broker would redeliver.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "app.streaming-ingest.mqtt", name = "local-broker", havingValue = "true")
+public class LocalMqttBroker implements TelemetryBroker {
+
+    private final List<Subscription> subscriptions = new CopyOnWriteArrayList<>();
+
+    @Override
+    public void subscribe(String topicFilter, BiPredicate<String, byte[]> handler) {
+        subscriptions.add(new Subscription(topicFilter, handler));
+        log.info("Local MQTT broker: subscribed to {}", topicFilter);
+    }
+
+    /**
+     * @return false if any matching subscriber refused the message
+     */
+    public boolean publish(String topic, byte[] payload) {
+        boolean accepted = true;
+        for (Subscription subscription : subscriptions) {
+            if (matches(subscription.topicFilter(), topic)) {
+                accepted &= subscription.handler().test(topic, payload);
+            }
+        }
+        return accepted;
+    }
+
+    static boolean matches(String topicFilter, String topic) {
+        String[] filterLevels = topicFilter.split("/", -1);
+        String[] topicLevels = topic.split("/", -1);
+
+        for (int i = 0; i < filterLevels.length; i++) {
+            if (filterLevels[i].equals("#")) {
+                return true;
+            }
+            if (i >= topicLevels.length
+                    || (!filterLevels[i].equals("+") && !filterLevels[i].equals(topicLevels[i]))) {
+                return false;
+            }
+        }
+        return filterLevels.length == topicLevels.length;
+    }
+
+    private record Subscription(String topicFilter, BiPredicate<String, byte[]> handler) {
+    }
+}
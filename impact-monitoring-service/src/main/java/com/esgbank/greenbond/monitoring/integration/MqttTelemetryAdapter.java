@@ -0,0 +1,102 @@
+package com.esgbank.greenbond.monitoring.integration;
+
+import com.esgbank.greenbond.monitoring.config.StreamingIngestConfig;
+import com.esgbank.greenbond.monitoring.dto.ImpactMetricRequest;
+import com.esgbank.greenbond.monitoring.service.StreamingIngestService;
+import com.esgbank.greenbond.monitoring.service.StreamingIngestService.StreamedReading;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Sinks;
+import reactor.util.concurrent.Queues;
+
+import java.io.IOException;
+
+/**
+ * Feeds readings published on {@code {topic-prefix}/{bondId}/{deviceId}} into streaming ingest.
+ * <p>
+ * Payloads are {@link ImpactMetricRequest} JSON documents; bond and device IDs missing from the
+ * payload are taken from the topic. Messages are buffered up to {@code buffer-size} readings
+ * ahead of persistence. Beyond that they are refused, and the broker redelivers them later.
+ */
+@Slf4j
+@Component
+public class MqttTelemetryAdapter {
+
+    private final StreamingIngestService streamingIngestService;
+    private final ObjectMapper objectMapper;
+    private final StreamingIngestConfig config;
+    private final ObjectProvider<TelemetryBroker> brokerProvider;
+
+    private Sinks.Many<StreamedReading> readings;
+    private Disposable subscription;
+
+    public MqttTelemetryAdapter(StreamingIngestService streamingIngestService, ObjectMapper objectMapper,
+                                StreamingIngestConfig config, ObjectProvider<TelemetryBroker> brokerProvider) {
+        this.streamingIngestService = streamingIngestService;
+        this.objectMapper = objectMapper;
+        this.config = config;
+        this.brokerProvider = brokerProvider;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        StreamingIngestConfig.Mqtt mqtt = config.getMqtt();
+        TelemetryBroker broker = brokerProvider.getIfAvailable();
+        if (!mqtt.isEnabled() || broker == null) {
+            log.info("MQTT telemetry ingest is disabled");
+            return;
+        }
+
+        readings = Sinks.many().unicast().onBackpressureBuffer(Queues.<StreamedReading>get(mqtt.getBufferSize()).get());
+        subscription = streamingIngestService.ingestBatches(readings.asFlux())
+                .subscribe(batch -> log.debug("MQTT micro-batch written: {} created, {} duplicates, {} failed",
+                                batch.response().getCreatedCount(), batch.response().getDuplicateCount(),
+                                batch.response().getFailedCount()),
+                        error -> log.error("MQTT telemetry ingest stopped: {}", error.getMessage(), error));
+
+        broker.subscribe(mqtt.getTopicPrefix() + "/+/+", this::onMessage);
+        log.info("MQTT telemetry ingest subscribed to {}/+/+", mqtt.getTopicPrefix());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (readings != null) {
+            // Lets the readings already buffered be written
+            readings.tryEmitComplete();
+        }
+    }
+
+    /**
+     * @return false when the buffer is full and the message should be redelivered later
+     */
+    public synchronized boolean onMessage(String topic, byte[] payload) {
+        if (readings == null || subscription.isDisposed()) {
+            return false;
+        }
+
+        ImpactMetricRequest request;
+        try {
+            request = objectMapper.readValue(payload, ImpactMetricRequest.class);
+        } catch (IOException e) {
+            // Redelivery would not fix a malformed payload, so it is acknowledged and dropped
+            log.warn("Dropping malformed telemetry message on {}: {}", topic, e.getMessage());
+            return true;
+        }
+
+        String[] levels = topic.substring(config.getMqtt().getTopicPrefix().length() + 1).split("/");
+        if (request.getBondId() == null) {
+            request.setBondId(levels[0]);
+        }
+        if (request.getDeviceId() == null) {
+            request.setDeviceId(levels[1]);
+        }
+
+        return readings.tryEmitNext(new StreamedReading(topic, request)).isSuccess();
+    }
+}
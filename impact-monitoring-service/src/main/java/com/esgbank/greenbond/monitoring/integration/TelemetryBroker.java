@@ -0,0 +1,19 @@
+package com.esgbank.greenbond.monitoring.integration;
+
+import java.util.function.BiPredicate;
+
+/**
+ * The part of an MQTT client the telemetry adapter needs.
+ * <p>
+ * A handler returns false to refuse a message. Implementations backed by a real broker should
+ * then withhold the QoS 1 acknowledgement, so that the broker redelivers the message later and
+ * slows the publisher down.
+ */
+public interface TelemetryBroker {
+
+    /**
+     * @param topicFilter MQTT topic filter, {@code +} and {@code #} wildcards allowed
+     * @param handler receives the topic and payload of every matching message
+     */
+    void subscribe(String topicFilter, BiPredicate<String, byte[]> handler);
+}
@@ -17,6 +17,7 @@ public interface ImpactMetricMapper {
     @Mapping(target = "dataQuality", ignore = true)
     @Mapping(target = "blockchainTxHash", ignore = true)
     @Mapping(target = "blockchainRecordedAt", ignore = true)
+    @Mapping(target = "merkleProof", ignore = true)
     @Mapping(target = "createdAt", ignore = true)
     @Mapping(target = "updatedAt", ignore = true)
     @Mapping(target = "version", ignore = true)
@@ -0,0 +1,43 @@
+package com.esgbank.greenbond.monitoring.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * Goal counters of one bond, maintained with atomic $inc upserts on every goal write so the
+ * goals dashboard is a single document read.
+ * <p>
+ * {@code progressSum} is the sum of goal progress in ten-thousandths of a percent.
+ * {@code deadlines} counts the goals not yet achieved by target day ({@code yyyy-MM-dd}), so
+ * upcoming deadlines are summed over the days of the window without any time-driven updates.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "goal_dashboard_counters")
+public class GoalDashboardCounters {
+
+    // The bondId
+    @Id
+    private String id;
+
+    private String bondId;
+
+    private Long totalGoals;
+
+    private Map<String, Long> statusCounts;
+
+    private Long progressSum;
+
+    private Map<String, Long> deadlines;
+
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,61 @@
+package com.esgbank.greenbond.monitoring.model;
+
+import com.esgbank.greenbond.monitoring.model.enums.GoalStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.List;
+
+/**
+ * Progress snapshots of one goal in one month, delta encoded.
+ * <p>
+ * Snapshot {@code i} was taken {@code sum(timeDeltas[0..i])} seconds after {@code monthStart}
+ * with a progress of {@code baseProgress + sum(progressDeltas[0..i])}. Progress is in
+ * ten-thousandths of a percent; {@code baseProgress} is the progress before the first snapshot
+ * of the month. {@code lastOffset} and {@code lastProgress} let a snapshot be appended without
+ * reading the bucket.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "goal_progress_history")
+@CompoundIndex(name = "goal_month_idx", def = "{'goalId': 1, 'monthStart': 1}")
+public class GoalProgressHistoryBucket {
+
+    @Id
+    private String id;
+
+    private String goalId;
+
+    private String bondId;
+
+    private LocalDateTime monthStart;
+
+    private Integer baseProgress;
+
+    private List<Integer> timeDeltas;
+
+    private List<Integer> progressDeltas;
+
+    private Integer lastOffset;
+
+    private Integer lastProgress;
+
+    private GoalStatus lastStatus;
+
+    private Integer count;
+
+    private LocalDateTime updatedAt;
+
+    public static String idOf(String goalId, LocalDateTime monthStart) {
+        return goalId + ":" + YearMonth.from(monthStart);
+    }
+}
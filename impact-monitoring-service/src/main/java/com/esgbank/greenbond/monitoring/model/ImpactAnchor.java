@@ -0,0 +1,60 @@
+package com.esgbank.greenbond.monitoring.model;
+
+import com.esgbank.greenbond.monitoring.model.enums.AnchorStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.CreatedDate;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Merkle root of a window of impact metrics anchored on-chain in a single transaction.
+ * <p>
+ * The record is saved as {@code PENDING} before the chain call, becomes {@code CONFIRMED} with the
+ * transaction hash and {@code COMPLETED} once the inclusion proofs are stored on the metrics.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "impact_anchors")
+public class ImpactAnchor {
+
+    @Id
+    private String id;
+
+    @Indexed(unique = true)
+    private String anchorId;
+
+    @Indexed
+    private String merkleRoot;
+
+    private Integer leafCount;
+
+    @Indexed
+    private AnchorStatus status;
+
+    private List<String> metricIds;
+
+    private Set<String> bondIds;
+
+    private String transactionHash;
+
+    private Long blockNumber;
+
+    private String blockchainImpactId;
+
+    private LocalDateTime windowOpenedAt;
+
+    private LocalDateTime anchoredAt;
+
+    @CreatedDate
+    private LocalDateTime createdAt;
+}
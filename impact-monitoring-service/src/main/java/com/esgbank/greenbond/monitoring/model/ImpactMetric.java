@@ -24,8 +24,10 @@ import java.util.Map;
 @NoArgsConstructor
 @AllArgsConstructor
 @Document(collection = "impact_metrics")
-@CompoundIndex(name = "bond_timestamp_idx", def = "{'bondId': 1, 'timestamp': -1}")
-@CompoundIndex(name = "bond_metric_timestamp_idx", def = "{'bondId': 1, 'metricType': 1, 'timestamp': -1}")
+// Series indexes on bondId, projectId and metricType are created by MetricBucketStore, depending on the storage layout.
+// The unique device_reading_idx is created by DeviceReadingIndexMigration once duplicate readings are removed.
+// Startup recovery looks up metrics without a transaction hash created since the anchoring cutover
+@CompoundIndex(name = "unanchored_idx", def = "{'blockchainTxHash': 1, 'createdAt': 1}")
 public class ImpactMetric {
 
     @Id
@@ -34,13 +36,10 @@ public class ImpactMetric {
     @Indexed
     private String metricId;
 
-    @Indexed
     private String bondId;
 
-    @Indexed
     private String projectId;
 
-    @Indexed
     private MetricType metricType;
 
     @Indexed
@@ -66,6 +65,16 @@ public class ImpactMetric {
 
     private LocalDateTime blockchainRecordedAt;
 
+    private MerkleProof merkleProof;
+
+    // Set while the metric waits outside the anchoring backlog, which was full when it was saved
+    @Indexed(sparse = true)
+    private Boolean anchorDeferred;
+
+    // Set while the metric has no point in InfluxDB because the write pipeline rejected it
+    @Indexed(sparse = true)
+    private Boolean timeSeriesPending;
+
     @CreatedDate
     private LocalDateTime createdAt;
 
@@ -74,11 +83,4 @@ public class ImpactMetric {
 
     @Version
     private Long version;
-
-    @PrePersist
-    public void generateMetricId() {
-        if (metricId == null) {
-            metricId = "METRIC-" + System.currentTimeMillis();
-        }
-    }
 }
\ No newline at end of file
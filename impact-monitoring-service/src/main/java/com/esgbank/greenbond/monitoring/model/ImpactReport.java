@@ -75,6 +75,13 @@ public class ImpactReport {
     @Version
     private Long version;
 
+    /**
+     * Id of the scheduled report of a bond for one period, so a period is reported once.
+     */
+    public static String idOf(String bondId, ReportType reportType, LocalDateTime periodStart) {
+        return bondId + ":" + reportType + ":" + periodStart.toLocalDate();
+    }
+
     @PrePersist
     public void generateReportId() {
         if (reportId == null) {
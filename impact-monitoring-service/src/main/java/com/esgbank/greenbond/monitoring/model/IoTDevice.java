@@ -0,0 +1,50 @@
+package com.esgbank.greenbond.monitoring.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+
+/**
+ * Registered IoT device polled by the fleet scheduler. The cursor is the timestamp of the newest
+ * reading already handed to ingestion, so each poll only fetches what came after it.
+ */
+@Data
+@Builder(toBuilder = true)
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "iot_devices")
+public class IoTDevice {
+
+    @Id
+    private String deviceId;
+
+    @Indexed
+    private String bondId;
+
+    private String platform;
+
+    private Long pollIntervalSeconds;
+
+    @Builder.Default
+    private boolean enabled = true;
+
+    private LocalDateTime cursor;
+
+    private LocalDateTime lastPolledAt;
+
+    private LocalDateTime lastSuccessAt;
+
+    private String lastError;
+
+    private int consecutiveFailures;
+
+    private LocalDateTime createdAt;
+
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,38 @@
+package com.esgbank.greenbond.monitoring.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+
+/**
+ * Lease on a job that runs on one instance at a time, keyed by the job name. An instance holds
+ * the job while {@code expiresAt} lies ahead; {@code completedRunId} records the last run the job
+ * finished, so a scheduled run is not repeated by an instance whose trigger fires later.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "job_leases")
+public class JobLease {
+
+    @Id
+    private String id;
+
+    private String runId;
+
+    private String owner;
+
+    private LocalDateTime expiresAt;
+
+    private LocalDateTime heartbeatAt;
+
+    private String completedRunId;
+
+    private LocalDateTime completedAt;
+}
@@ -0,0 +1,22 @@
+package com.esgbank.greenbond.monitoring.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class MerkleProof {
+
+    private String anchorId;
+    private String merkleRoot;
+    private String leafHash;
+    private Integer leafIndex;
+    private Integer leafCount;
+    private List<MerkleProofStep> path;
+}
@@ -0,0 +1,19 @@
+package com.esgbank.greenbond.monitoring.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class MerkleProofStep {
+
+    // Hex-encoded sibling hash at this level
+    private String siblingHash;
+
+    // True when the sibling is the left operand of the parent hash
+    private boolean left;
+}
@@ -0,0 +1,76 @@
+package com.esgbank.greenbond.monitoring.model;
+
+import com.esgbank.greenbond.monitoring.model.enums.MetricType;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.Map;
+
+/**
+ * Index entry of one archived segment file in GridFS: the metrics of one bond in one month. Range reads
+ * open only the files whose per-type time range overlaps the query; the per-type count, sum and
+ * value range keep running totals complete after the metrics left MongoDB.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "metric_archive_segments")
+@CompoundIndex(name = "bond_month_idx", def = "{'bondId': 1, 'monthStart': 1}")
+public class MetricArchiveSegment {
+
+    @Id
+    private String id;
+
+    private String bondId;
+
+    private LocalDateTime monthStart;
+
+    // GridFS file of the segment; a rewrite stores a new file and switches this to it
+    private String fileId;
+
+    private Integer rowCount;
+
+    private Long sizeBytes;
+
+    private LocalDateTime minTimestamp;
+
+    private LocalDateTime maxTimestamp;
+
+    private Map<MetricType, SeriesRange> series;
+
+    // Set once the archived metrics are removed from MongoDB and InfluxDB
+    private Boolean evicted;
+
+    private LocalDateTime archivedAt;
+
+    public static String idOf(String bondId, LocalDateTime monthStart) {
+        return bondId + ":" + YearMonth.from(monthStart);
+    }
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class SeriesRange {
+
+        private Long count;
+
+        private Double sum;
+
+        private Double minValue;
+
+        private Double maxValue;
+
+        private LocalDateTime minTimestamp;
+
+        private LocalDateTime maxTimestamp;
+    }
+}
@@ -0,0 +1,59 @@
+package com.esgbank.greenbond.monitoring.model;
+
+import com.esgbank.greenbond.monitoring.model.enums.MetricType;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Map;
+
+/**
+ * Raw readings of one (bondId, metricType) series within one hour.
+ * <p>
+ * Readings are keyed by metricId, so writing a reading twice or replaying a backfill leaves the
+ * bucket unchanged. A series hour costs one document and one index entry however many readings
+ * it holds.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "impact_metric_buckets")
+@CompoundIndex(name = "bond_metric_bucket_idx", def = "{'bondId': 1, 'metricType': 1, 'bucketStart': -1}")
+public class MetricBucket {
+
+    @Id
+    private String id;
+
+    private String bondId;
+
+    private MetricType metricType;
+
+    // Also read across series, by the hot window warm-up
+    @Indexed
+    private LocalDateTime bucketStart;
+
+    // Bounds only widen: removing a reading leaves them as they were
+    private LocalDateTime firstTimestamp;
+
+    private LocalDateTime lastTimestamp;
+
+    private Map<String, MetricBucketReading> readings;
+
+    private LocalDateTime updatedAt;
+
+    public static String idOf(String bondId, MetricType metricType, LocalDateTime bucketStart) {
+        return bondId + ":" + metricType + ":" + bucketStart;
+    }
+
+    public static LocalDateTime bucketStartOf(LocalDateTime timestamp) {
+        return timestamp.truncatedTo(ChronoUnit.HOURS);
+    }
+}
@@ -0,0 +1,103 @@
+package com.esgbank.greenbond.monitoring.model;
+
+import com.esgbank.greenbond.monitoring.model.enums.DataSourceType;
+import com.esgbank.greenbond.monitoring.model.enums.MetricUnit;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.mongodb.core.mapping.Field;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * One reading inside a {@link MetricBucket}. The series key lives on the bucket and field names
+ * are shortened, since they are repeated for every reading. Merkle proofs are not copied; they
+ * are read from the metric document.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class MetricBucketReading {
+
+    @Field("t")
+    private LocalDateTime timestamp;
+
+    @Field("v")
+    private BigDecimal value;
+
+    @Field("u")
+    private MetricUnit unit;
+
+    @Field("p")
+    private String projectId;
+
+    @Field("st")
+    private DataSourceType sourceType;
+
+    @Field("s")
+    private String sourceId;
+
+    @Field("d")
+    private String deviceId;
+
+    @Field("l")
+    private String location;
+
+    @Field("m")
+    private Map<String, Object> metadata;
+
+    @Field("q")
+    private DataQuality dataQuality;
+
+    @Field("tx")
+    private String blockchainTxHash;
+
+    @Field("ta")
+    private LocalDateTime blockchainRecordedAt;
+
+    @Field("c")
+    private LocalDateTime createdAt;
+
+    public static MetricBucketReading of(ImpactMetric metric) {
+        return MetricBucketReading.builder()
+                .timestamp(metric.getTimestamp())
+                .value(metric.getValue())
+                .unit(metric.getUnit())
+                .projectId(metric.getProjectId())
+                .sourceType(metric.getSourceType())
+                .sourceId(metric.getSourceId())
+                .deviceId(metric.getDeviceId())
+                .location(metric.getLocation())
+                .metadata(metric.getMetadata())
+                .dataQuality(metric.getDataQuality())
+                .blockchainTxHash(metric.getBlockchainTxHash())
+                .blockchainRecordedAt(metric.getBlockchainRecordedAt())
+                .createdAt(metric.getCreatedAt())
+                .build();
+    }
+
+    public ImpactMetric toMetric(String metricId, MetricBucket bucket) {
+        return ImpactMetric.builder()
+                .metricId(metricId)
+                .bondId(bucket.getBondId())
+                .metricType(bucket.getMetricType())
+                .projectId(projectId)
+                .timestamp(timestamp)
+                .value(value)
+                .unit(unit)
+                .sourceType(sourceType)
+                .sourceId(sourceId)
+                .deviceId(deviceId)
+                .location(location)
+                .metadata(metadata)
+                .dataQuality(dataQuality)
+                .blockchainTxHash(blockchainTxHash)
+                .blockchainRecordedAt(blockchainRecordedAt)
+                .createdAt(createdAt)
+                .build();
+    }
+}
@@ -0,0 +1,60 @@
+package com.esgbank.greenbond.monitoring.model;
+
+import com.esgbank.greenbond.monitoring.model.enums.MetricType;
+import com.esgbank.greenbond.monitoring.model.enums.RollupResolution;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+
+/**
+ * Pre-aggregated bucket of one (bondId, metricType) series at a given resolution.
+ * Count, sum, min, max and sum of squares are enough to derive mean, variance and standard
+ * deviation for any union of buckets.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "metric_rollups")
+@CompoundIndex(name = "series_resolution_bucket_idx",
+        def = "{'bondId': 1, 'metricType': 1, 'resolution': 1, 'bucketStart': 1}", unique = true)
+public class MetricRollup {
+
+    @Id
+    private String id;
+
+    private String bondId;
+
+    private MetricType metricType;
+
+    private RollupResolution resolution;
+
+    private LocalDateTime bucketStart;
+
+    private Long count;
+
+    private Double sum;
+
+    private Double min;
+
+    private Double max;
+
+    private Double sumSquares;
+
+    private LocalDateTime updatedAt;
+
+    // Set only on resolutions with limited retention
+    @Indexed(expireAfterSeconds = 0)
+    private LocalDateTime expireAt;
+
+    public static String idOf(String bondId, MetricType metricType, RollupResolution resolution, LocalDateTime bucketStart) {
+        return bondId + ":" + metricType + ":" + resolution + ":" + bucketStart;
+    }
+}
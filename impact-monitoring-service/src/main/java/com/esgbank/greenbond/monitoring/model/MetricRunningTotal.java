@@ -0,0 +1,50 @@
+package com.esgbank.greenbond.monitoring.model;
+
+import com.esgbank.greenbond.monitoring.model.enums.MetricType;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+
+/**
+ * All-time aggregate of a (bondId, metricType) series, maintained with atomic $inc/$min/$max
+ * upserts on ingest. Values are doubles so that MongoDB can increment them in place.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "metric_running_totals")
+@CompoundIndex(name = "bond_metric_idx", def = "{'bondId': 1, 'metricType': 1}", unique = true)
+public class MetricRunningTotal {
+
+    @Id
+    private String id;
+
+    private String bondId;
+
+    private MetricType metricType;
+
+    private Double sum;
+
+    private Long count;
+
+    private Double min;
+
+    private Double max;
+
+    private LocalDateTime lastTimestamp;
+
+    private LocalDateTime updatedAt;
+
+    private LocalDateTime reconciledAt;
+
+    public static String idOf(String bondId, MetricType metricType) {
+        return bondId + ":" + metricType;
+    }
+}
@@ -0,0 +1,51 @@
+package com.esgbank.greenbond.monitoring.model;
+
+import com.esgbank.greenbond.monitoring.model.enums.MetricType;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+
+/**
+ * Totals of one (bondId, metricType) series over a closed calendar month, computed once for a
+ * report and combined by every later report whose period covers the month.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "report_fragments")
+public class ReportFragment {
+
+    @Id
+    private String id;
+
+    private String bondId;
+
+    private MetricType metricType;
+
+    private LocalDateTime monthStart;
+
+    private Long count;
+
+    private Double sum;
+
+    private Double min;
+
+    private Double max;
+
+    private LocalDateTime computedAt;
+
+    @Indexed(expireAfterSeconds = 0)
+    private LocalDateTime expireAt;
+
+    public static String idOf(String bondId, MetricType metricType, LocalDateTime monthStart) {
+        return bondId + ":" + metricType + ":" + YearMonth.from(monthStart);
+    }
+}
@@ -0,0 +1,57 @@
+package com.esgbank.greenbond.monitoring.model;
+
+import com.esgbank.greenbond.monitoring.model.enums.MetricType;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+
+/**
+ * Rolling statistics of one (bondId, metricType, deviceId) series used to score incoming
+ * readings. Kept in memory and persisted periodically so the baseline survives restarts.
+ */
+@Data
+@Builder(toBuilder = true)
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "series_quality_states")
+public class SeriesQualityState {
+
+    @Id
+    private String id;
+
+    private String bondId;
+
+    private MetricType metricType;
+
+    private String deviceId;
+
+    private long count;
+
+    private double ewmaMean;
+
+    private double ewmaVariance;
+
+    private Double lastValue;
+
+    private LocalDateTime lastTimestamp;
+
+    // EWMA of the time between consecutive readings, in seconds
+    private Double ewmaIntervalSeconds;
+
+    private LocalDateTime updatedAt;
+
+    // Incremented on every write; a write only applies on top of the version it was based on
+    private long version;
+
+    // Persist run that wrote this version, used to tell own writes from concurrent ones
+    private String writeId;
+
+    public static String idOf(String bondId, MetricType metricType, String deviceId) {
+        return bondId + ":" + metricType + ":" + (deviceId != null ? deviceId : "-");
+    }
+}
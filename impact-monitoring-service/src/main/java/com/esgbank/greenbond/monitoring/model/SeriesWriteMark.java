@@ -0,0 +1,47 @@
+package com.esgbank.greenbond.monitoring.model;
+
+import com.esgbank.greenbond.monitoring.model.enums.MetricType;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Latest write, by any instance, of a metric into one day of a (bondId, metricType) series.
+ * Cached aggregation windows of that day stored before it are stale.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "series_write_marks")
+public class SeriesWriteMark {
+
+    @Id
+    private String id;
+
+    private String bondId;
+
+    private MetricType metricType;
+
+    private LocalDate day;
+
+    private LocalDateTime writtenAt;
+
+    @Indexed(expireAfterSeconds = 0)
+    private LocalDateTime expireAt;
+
+    public static String idOf(String bondId, MetricType metricType, LocalDate day) {
+        return prefixOf(bondId, metricType) + day;
+    }
+
+    public static String prefixOf(String bondId, MetricType metricType) {
+        return bondId + ":" + metricType + ":";
+    }
+}
@@ -0,0 +1,7 @@
+package com.esgbank.greenbond.monitoring.model.enums;
+
+public enum AnchorStatus {
+    PENDING,
+    CONFIRMED,
+    COMPLETED
+}
@@ -0,0 +1,28 @@
+package com.esgbank.greenbond.monitoring.model.enums;
+
+/**
+ * Where raw metric series are read from. Metric documents in {@code impact_metrics} stay the
+ * record for lookups by metricId, proofs and deduplication in every layout.
+ * <p>
+ * Only reads move: every reading is still saved as a document with its indexes, because the
+ * unique reading index deduplicates concurrent writes, anchoring stores proofs on the documents
+ * and archival and exports read them. A bucketing layout therefore adds the bucket writes on top
+ * of the document writes; it pays off for read-heavy series ranges, not for ingest cost, which is
+ * why {@code DOCUMENT} is the default.
+ */
+public enum MetricStorageLayout {
+    // Series reads use the per-reading documents and their series indexes
+    DOCUMENT,
+    // Hourly buckets are written alongside the documents while they are backfilled; reads stay on documents
+    DUAL,
+    // Only the hourly buckets serve series reads; documents are still written and keep their indexes
+    BUCKETED;
+
+    public boolean writesBuckets() {
+        return this != DOCUMENT;
+    }
+
+    public boolean readsBuckets() {
+        return this == BUCKETED;
+    }
+}
@@ -0,0 +1,44 @@
+package com.esgbank.greenbond.monitoring.model.enums;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Bucket sizes of the metric rollup store, ordered from finest to coarsest.
+ */
+public enum RollupResolution {
+    MINUTE(ChronoUnit.MINUTES, "minute"),
+    HOUR(ChronoUnit.HOURS, "hour"),
+    DAY(ChronoUnit.DAYS, "day");
+
+    private final ChronoUnit unit;
+    private final String mongoUnit;
+
+    RollupResolution(ChronoUnit unit, String mongoUnit) {
+        this.unit = unit;
+        this.mongoUnit = mongoUnit;
+    }
+
+    public Duration getDuration() {
+        return unit.getDuration();
+    }
+
+    // Unit name accepted by MongoDB $dateTrunc
+    public String getMongoUnit() {
+        return mongoUnit;
+    }
+
+    public LocalDateTime bucketStart(LocalDateTime timestamp) {
+        return timestamp.truncatedTo(unit);
+    }
+
+    public LocalDateTime bucketEnd(LocalDateTime timestamp) {
+        return bucketStart(timestamp).plus(1, unit);
+    }
+
+    public LocalDateTime ceil(LocalDateTime timestamp) {
+        LocalDateTime start = bucketStart(timestamp);
+        return start.equals(timestamp) ? start : start.plus(1, unit);
+    }
+}
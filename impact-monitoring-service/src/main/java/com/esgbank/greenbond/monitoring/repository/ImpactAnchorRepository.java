@@ -0,0 +1,18 @@
+package com.esgbank.greenbond.monitoring.repository;
+
+import com.esgbank.greenbond.monitoring.model.ImpactAnchor;
+import com.esgbank.greenbond.monitoring.model.enums.AnchorStatus;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface ImpactAnchorRepository extends MongoRepository<ImpactAnchor, String> {
+
+    Optional<ImpactAnchor> findByAnchorId(String anchorId);
+
+    List<ImpactAnchor> findByStatusIn(Collection<AnchorStatus> statuses);
+}
@@ -9,6 +9,7 @@ import org.springframework.data.mongodb.repository.MongoRepository;
 import org.springframework.data.mongodb.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -26,6 +27,8 @@ public interface ImpactGoalRepository extends MongoRepository<ImpactGoal, String
     @Query("{ 'bondId': ?0, 'status': { $in: ?1 } }")
     List<ImpactGoal> findByBondIdAndStatusIn(String bondId, List<GoalStatus> statuses);
 
+    List<ImpactGoal> findByStatusInAndTargetDateBefore(List<GoalStatus> statuses, LocalDateTime targetDate);
+
     @Query(value = "{ 'bondId': ?0 }", sort = "{ 'targetDate': 1 }")
     List<ImpactGoal> findUpcomingGoals(String bondId, Pageable pageable);
 
@@ -37,6 +37,9 @@ public interface ImpactMetricRepository extends MongoRepository<ImpactMetric, St
     @Query(value = "{ 'bondId': ?0 }", fields = "{ 'metricType': 1 }")
     List<ImpactMetric> findDistinctMetricTypesByBond(String bondId);
 
+    Optional<ImpactMetric> findByDeviceIdAndMetricTypeAndTimestampAndSourceId(
+            String deviceId, MetricType metricType, LocalDateTime timestamp, String sourceId);
+
     long countByBondIdAndMetricType(String bondId, MetricType metricType);
 
     boolean existsByBondIdAndMetricType(String bondId, MetricType metricType);
@@ -0,0 +1,15 @@
+package com.esgbank.greenbond.monitoring.repository;
+
+import com.esgbank.greenbond.monitoring.model.IoTDevice;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface IoTDeviceRepository extends MongoRepository<IoTDevice, String> {
+
+    List<IoTDevice> findByEnabledTrue();
+
+    List<IoTDevice> findByBondId(String bondId);
+}
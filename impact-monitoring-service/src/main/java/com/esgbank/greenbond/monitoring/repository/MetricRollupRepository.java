@@ -0,0 +1,19 @@
+package com.esgbank.greenbond.monitoring.repository;
+
+import com.esgbank.greenbond.monitoring.model.MetricRollup;
+import com.esgbank.greenbond.monitoring.model.enums.MetricType;
+import com.esgbank.greenbond.monitoring.model.enums.RollupResolution;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface MetricRollupRepository extends MongoRepository<MetricRollup, String> {
+
+    @Query("{ 'bondId': ?0, 'metricType': ?1, 'resolution': ?2, 'bucketStart': { $gte: ?3, $lt: ?4 } }")
+    List<MetricRollup> findBuckets(String bondId, MetricType metricType, RollupResolution resolution,
+                                   LocalDateTime from, LocalDateTime to);
+}
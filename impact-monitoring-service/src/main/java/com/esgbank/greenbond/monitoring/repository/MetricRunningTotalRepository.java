@@ -0,0 +1,13 @@
+package com.esgbank.greenbond.monitoring.repository;
+
+import com.esgbank.greenbond.monitoring.model.MetricRunningTotal;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface MetricRunningTotalRepository extends MongoRepository<MetricRunningTotal, String> {
+
+    List<MetricRunningTotal> findByBondId(String bondId);
+}
@@ -0,0 +1,19 @@
+package com.esgbank.greenbond.monitoring.repository;
+
+import com.esgbank.greenbond.monitoring.model.ImpactGoal;
+import com.esgbank.greenbond.monitoring.model.enums.GoalStatus;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@Repository
+public interface ReactiveImpactGoalRepository extends ReactiveMongoRepository<ImpactGoal, String> {
+
+    Mono<ImpactGoal> findByGoalId(String goalId);
+
+    Flux<ImpactGoal> findByBondId(String bondId, Pageable pageable);
+
+    Flux<ImpactGoal> findByBondIdAndStatus(String bondId, GoalStatus status, Pageable pageable);
+}
@@ -0,0 +1,29 @@
+package com.esgbank.greenbond.monitoring.repository;
+
+import com.esgbank.greenbond.monitoring.model.ImpactMetric;
+import com.esgbank.greenbond.monitoring.model.enums.MetricType;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.mongodb.repository.Query;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface ReactiveImpactMetricRepository extends ReactiveMongoRepository<ImpactMetric, String> {
+
+    Mono<ImpactMetric> findByMetricId(String metricId);
+
+    Flux<ImpactMetric> findByBondId(String bondId, Pageable pageable);
+
+    Flux<ImpactMetric> findByBondIdAndMetricType(String bondId, MetricType metricType, Pageable pageable);
+
+    @Query(value = "{ 'bondId': ?0, 'metricType': ?1, 'timestamp': { $gte: ?2, $lte: ?3 } }", sort = "{ 'timestamp': 1 }")
+    Flux<ImpactMetric> findMetricsByBondTypeAndTimeRange(
+            String bondId, MetricType metricType, LocalDateTime start, LocalDateTime end);
+
+    @Query(value = "{ 'bondId': ?0, 'metricType': ?1 }", sort = "{ 'timestamp': -1 }")
+    Flux<ImpactMetric> findLatestMetrics(String bondId, MetricType metricType, Pageable pageable);
+}
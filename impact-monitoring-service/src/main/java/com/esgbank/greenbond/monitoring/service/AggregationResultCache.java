@@ -0,0 +1,436 @@
+package com.esgbank.greenbond.monitoring.service;
+
+import com.esgbank.greenbond.monitoring.config.AggregationCacheConfig;
+import com.esgbank.greenbond.monitoring.dto.MetricAggregationRequest;
+import com.esgbank.greenbond.monitoring.dto.MetricAggregationResponse;
+import com.esgbank.greenbond.monitoring.dto.TimeSeriesPoint;
+import com.esgbank.greenbond.monitoring.model.ImpactMetric;
+import com.esgbank.greenbond.monitoring.model.enums.MetricType;
+import com.esgbank.greenbond.monitoring.util.FluxDuration;
+import com.esgbank.greenbond.monitoring.util.StreamingStatistics;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Result cache for aggregation requests, at the granularity of single windows.
+ * <p>
+ * A request is normalized to its series, window size and function. Windows that lie inside the
+ * range and ended more than {@code settle-delay} ago are closed: their results are kept in
+ * fragments of 64 consecutive windows as primitive arrays, shared by every request over the same
+ * series, window size and function. The rest of the range (partial windows at the edges, the open
+ * trailing window and closed windows not cached yet) is computed fresh in as few ranges as
+ * possible and merged in; the closed windows it returns are cached on the way.
+ * <p>
+ * A metric written or deleted through this instance clears the cached window it falls into for
+ * every cached view of its series. InfluxDB writes are asynchronous, so such a window is not
+ * cached again until {@code settle-delay} has passed. Every metric written through any instance
+ * also raises the shared write mark of its series day in {@link SeriesWriteMarkStore}, once when
+ * it is stored and again when InfluxDB accepts its point; a cached fragment overlapping a day
+ * marked after it was stored is dropped, so neither other instances nor a point held back in the
+ * spool past {@code settle-delay} leave a stale window cached until {@code ttl}. When the marks
+ * cannot be read, the request bypasses the cache.
+ * <p>
+ * The hot tier is not consulted here: windows are only computed from rollups and InfluxDB, which
+ * every instance shares.
+ */
+@Slf4j
+@Service
+public class AggregationResultCache {
+
+    private static final int WINDOWS_PER_FRAGMENT = 64;
+    private static final long DAY_MILLIS = Duration.ofDays(1).toMillis();
+    private static final List<String> SUPPORTED_FUNCTIONS =
+            List.of("mean", "avg", "sum", "min", "max", "count", "stddev", "first", "last");
+
+    private final AggregationCacheConfig config;
+    private final SeriesWriteMarkStore writeMarks;
+    private final Cache<FragmentKey, Fragment> fragments;
+    private final Map<String, SeriesState> seriesStates = new ConcurrentHashMap<>();
+
+    private final Counter windowHits;
+    private final Counter windowMisses;
+
+    private record View(long windowMillis, String function) {
+    }
+
+    private record FragmentKey(String seriesKey, View view, long fragmentStart) {
+    }
+
+    private record Range(long from, long to) {
+    }
+
+    public AggregationResultCache(AggregationCacheConfig config, SeriesWriteMarkStore writeMarks,
+                                  MeterRegistry meterRegistry) {
+        this.config = config;
+        this.writeMarks = writeMarks;
+        this.fragments = Caffeine.newBuilder()
+                .maximumSize(config.getMaxFragments())
+                .expireAfterWrite(config.getTtl())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, fragments, "aggregation.fragments");
+
+        this.windowHits = Counter.builder("impact.aggregation.cache.windows")
+                .description("Aggregation windows served from or computed past the result cache")
+                .tag("result", "hit")
+                .register(meterRegistry);
+        this.windowMisses = Counter.builder("impact.aggregation.cache.windows")
+                .description("Aggregation windows served from or computed past the result cache")
+                .tag("result", "miss")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Answers a request from cached closed windows plus {@code compute} for the remaining ranges.
+     * Requests that cannot be split into windows are passed to {@code compute} as they are.
+     */
+    public MetricAggregationResponse calculate(MetricAggregationRequest request,
+                                               Function<MetricAggregationRequest, MetricAggregationResponse> compute) {
+        Optional<View> normalized = config.isEnabled() ? viewOf(request) : Optional.empty();
+        if (normalized.isEmpty()) {
+            return compute.apply(request);
+        }
+
+        View view = normalized.get();
+        long size = view.windowMillis();
+        long start = toMillis(request.getStartTime());
+        long end = toMillis(request.getEndTime());
+        long firstWindow = start + Math.floorMod(-start, size);
+        long closedEnd = Math.min(end, toMillis(LocalDateTime.now().minus(config.getSettleDelay())));
+        closedEnd -= Math.floorMod(closedEnd, size);
+        if (firstWindow >= closedEnd) {
+            return compute.apply(request);
+        }
+
+        String seriesKey = keyOf(request.getBondId(), request.getMetricType());
+        SeriesState state = seriesStates.computeIfAbsent(seriesKey, key -> new SeriesState());
+        state.views.add(view);
+        long queryStartedAt = System.currentTimeMillis();
+
+        NavigableMap<Long, Long> marks;
+        try {
+            marks = writeMarks.find(request.getBondId(), request.getMetricType(), firstWindow, closedEnd);
+        } catch (RuntimeException e) {
+            log.warn("Aggregation cache bypassed, series write marks unavailable: {}", e.getMessage());
+            return compute.apply(request);
+        }
+        if (marks == null) {
+            log.warn("Aggregation cache bypassed, no series write marks for bond: {}, metric: {}",
+                    request.getBondId(), request.getMetricType());
+            return compute.apply(request);
+        }
+
+        // Cached windows, and the ranges around them that have to be computed
+        TreeMap<Long, TimeSeriesPoint> points = new TreeMap<>();
+        List<Range> fresh = new ArrayList<>();
+        long cursor = start;
+        int cachedWindows = 0;
+        for (long fragmentStart = fragmentStart(firstWindow, size); fragmentStart < closedEnd;
+             fragmentStart += size * WINDOWS_PER_FRAGMENT) {
+            FragmentKey key = new FragmentKey(seriesKey, view, fragmentStart);
+            Fragment fragment = fragments.getIfPresent(key);
+            if (fragment == null) {
+                continue;
+            }
+            if (isStale(fragment, marks, fragmentStart, fragmentStart + size * WINDOWS_PER_FRAGMENT)) {
+                fragments.invalidate(key);
+                continue;
+            }
+            long from = Math.max(firstWindow, fragmentStart);
+            long to = Math.min(closedEnd, fragmentStart + size * WINDOWS_PER_FRAGMENT);
+            for (long window = from; window < to; window += size) {
+                TimeSeriesPoint[] cached = new TimeSeriesPoint[1];
+                if (fragment.read((int) ((window - fragmentStart) / size), window, cached)) {
+                    if (cursor < window) {
+                        fresh.add(new Range(cursor, window));
+                    }
+                    cursor = window + size;
+                    cachedWindows++;
+                    if (cached[0] != null) {
+                        points.put(window, cached[0]);
+                    }
+                }
+            }
+        }
+        if (cursor < end) {
+            fresh.add(new Range(cursor, end));
+        }
+        if (fresh.size() > config.getMaxFreshRanges()) {
+            fresh = List.of(new Range(fresh.get(0).from(), fresh.get(fresh.size() - 1).to()));
+        }
+
+        long freshWindows = (closedEnd - firstWindow) / size - cachedWindows;
+        windowHits.increment(cachedWindows);
+        windowMisses.increment(Math.max(0, freshWindows));
+        log.debug("Aggregation for bond: {}, metric: {}: {} windows cached, {} ranges to compute",
+                request.getBondId(), request.getMetricType(), cachedWindows, fresh.size());
+
+        for (Range range : fresh) {
+            MetricAggregationResponse computed = compute.apply(subRequest(request, range));
+            Map<Long, TimeSeriesPoint> returned = new HashMap<>();
+            if (computed.getTimeSeries() != null) {
+                for (TimeSeriesPoint point : computed.getTimeSeries()) {
+                    long timestamp = toMillis(point.getTimestamp());
+                    points.put(timestamp, point);
+                    returned.put(timestamp, point);
+                }
+            }
+            // Closed windows wholly inside the range are final, with or without a point
+            long from = Math.max(firstWindow, range.from() + Math.floorMod(-range.from(), size));
+            long to = Math.min(closedEnd, range.to() - Math.floorMod(range.to(), size));
+            if (from < to) {
+                store(seriesKey, view, state, marks, queryStartedAt, from, to, returned);
+            }
+        }
+
+        return buildResponse(request, new ArrayList<>(points.values()), cachedWindows);
+    }
+
+    /**
+     * Clears the cached windows that stored or deleted metrics fall into, and marks their series
+     * days for the other instances.
+     */
+    public void invalidate(List<ImpactMetric> metrics) {
+        if (!config.isEnabled()) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        invalidateLocal(metrics, now);
+        writeMarks.record(metrics);
+    }
+
+    private void invalidateLocal(List<ImpactMetric> metrics, long now) {
+        for (ImpactMetric metric : metrics) {
+            String seriesKey = keyOf(metric.getBondId(), metric.getMetricType());
+            SeriesState state = seriesStates.get(seriesKey);
+            if (state == null || metric.getTimestamp() == null) {
+                continue;
+            }
+            long timestamp = toMillis(metric.getTimestamp());
+            synchronized (state) {
+                state.written(timestamp, now);
+                for (View view : state.views) {
+                    long size = view.windowMillis();
+                    long window = timestamp - Math.floorMod(timestamp, size);
+                    long fragmentStart = fragmentStart(window, size);
+                    Fragment fragment = fragments.getIfPresent(new FragmentKey(seriesKey, view, fragmentStart));
+                    if (fragment != null) {
+                        fragment.clear((int) ((window - fragmentStart) / size));
+                    }
+                }
+            }
+        }
+    }
+
+    private void store(String seriesKey, View view, SeriesState state, NavigableMap<Long, Long> marks,
+                       long queryStartedAt, long from, long to, Map<Long, TimeSeriesPoint> returned) {
+        long size = view.windowMillis();
+        long settle = config.getSettleDelay().toMillis();
+        // Late data written through another instance may not have been visible to the query
+        for (long writtenAt : marks.subMap(from - DAY_MILLIS, false, to, false).values()) {
+            if (writtenAt + settle > queryStartedAt) {
+                return;
+            }
+        }
+        synchronized (state) {
+            // Skipped if data for the range may have been missing from what was computed
+            if (!state.canStore(queryStartedAt, from, to, System.currentTimeMillis(), settle)) {
+                return;
+            }
+            for (long window = from; window < to; window += size) {
+                long fragmentStart = fragmentStart(window, size);
+                fragments.get(new FragmentKey(seriesKey, view, fragmentStart), key -> new Fragment())
+                        .write((int) ((window - fragmentStart) / size), returned.get(window));
+            }
+        }
+    }
+
+    /**
+     * A fragment is stale if a day it overlaps was marked later than {@code settle-delay} before
+     * its first window was stored.
+     */
+    private boolean isStale(Fragment fragment, NavigableMap<Long, Long> marks, long from, long to) {
+        long settle = config.getSettleDelay().toMillis();
+        for (long writtenAt : marks.subMap(from - DAY_MILLIS, false, to, false).values()) {
+            if (writtenAt + settle > fragment.storedSince()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private Optional<View> viewOf(MetricAggregationRequest request) {
+        String interval = request.getInterval() != null ? request.getInterval() : "1h";
+        String function = (request.getAggregationFunction() != null ? request.getAggregationFunction() : "mean")
+                .toLowerCase(Locale.ROOT);
+        Optional<Duration> windowSize = FluxDuration.parse(interval);
+        // Whole seconds, so that windows line up with the rollup and InfluxDB window starts
+        if (windowSize.isEmpty() || windowSize.get().getNano() != 0 || windowSize.get().isZero()
+                || !SUPPORTED_FUNCTIONS.contains(function)) {
+            return Optional.empty();
+        }
+        return Optional.of(new View(windowSize.get().toMillis(), function));
+    }
+
+    private MetricAggregationRequest subRequest(MetricAggregationRequest request, Range range) {
+        MetricAggregationRequest sub = new MetricAggregationRequest();
+        sub.setBondId(request.getBondId());
+        sub.setProjectId(request.getProjectId());
+        sub.setMetricType(request.getMetricType());
+        sub.setStartTime(toLocalDateTime(range.from()));
+        sub.setEndTime(toLocalDateTime(range.to()));
+        sub.setInterval(request.getInterval());
+        sub.setAggregationFunction(request.getAggregationFunction());
+        return sub;
+    }
+
+    private MetricAggregationResponse buildResponse(MetricAggregationRequest request, List<TimeSeriesPoint> timeSeries,
+                                                    int cachedWindows) {
+        StreamingStatistics stats = new StreamingStatistics();
+        for (TimeSeriesPoint point : timeSeries) {
+            stats.add(point.getValue().doubleValue());
+        }
+
+        MetricAggregationResponse response = MetricAggregationResponse.builder()
+                .bondId(request.getBondId())
+                .projectId(request.getProjectId())
+                .metricType(request.getMetricType().name())
+                .interval(request.getInterval())
+                .aggregationFunction(request.getAggregationFunction())
+                .startTime(request.getStartTime())
+                .endTime(request.getEndTime())
+                .timeSeries(timeSeries)
+                .statistics(new HashMap<>())
+                .build();
+
+        AggregationStatistics.apply(response, stats);
+        response.getStatistics().put("cachedWindows", cachedWindows);
+        return response;
+    }
+
+    private static long fragmentStart(long window, long size) {
+        long span = size * WINDOWS_PER_FRAGMENT;
+        return window - Math.floorMod(window, span);
+    }
+
+    private static String keyOf(String bondId, MetricType metricType) {
+        return bondId + "|" + metricType;
+    }
+
+    private static long toMillis(LocalDateTime timestamp) {
+        return timestamp.toInstant(ZoneOffset.UTC).toEpochMilli();
+    }
+
+    private static LocalDateTime toLocalDateTime(long millis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(millis), ZoneOffset.UTC);
+    }
+
+    /**
+     * Results of 64 consecutive windows: a bit for each window whose result is known, a bit for
+     * each known window that has data, and the window values and point counts.
+     */
+    private static final class Fragment {
+        private long known;
+        private long present;
+        private final double[] values = new double[WINDOWS_PER_FRAGMENT];
+        private final int[] counts = new int[WINDOWS_PER_FRAGMENT];
+        private long storedSince; // wall time of the first window stored
+
+        /**
+         * @return false if the window is not cached; otherwise {@code out[0]} is its point, or null without data
+         */
+        synchronized boolean read(int index, long window, TimeSeriesPoint[] out) {
+            long bit = 1L << index;
+            if ((known & bit) == 0) {
+                return false;
+            }
+            out[0] = (present & bit) == 0 ? null : TimeSeriesPoint.builder()
+                    .timestamp(toLocalDateTime(window))
+                    .value(BigDecimal.valueOf(values[index]))
+                    .count(counts[index])
+                    .build();
+            return true;
+        }
+
+        synchronized long storedSince() {
+            return storedSince;
+        }
+
+        synchronized void write(int index, TimeSeriesPoint point) {
+            if (storedSince == 0) {
+                storedSince = System.currentTimeMillis();
+            }
+            long bit = 1L << index;
+            known |= bit;
+            if (point != null && point.getValue() != null) {
+                present |= bit;
+                values[index] = point.getValue().doubleValue();
+                counts[index] = point.getCount() != null ? point.getCount() : 0;
+            } else {
+                present &= ~bit;
+            }
+        }
+
+        synchronized void clear(int index) {
+            known &= ~(1L << index);
+        }
+    }
+
+    /**
+     * Cached views of a series and its recent writes by metric timestamp. Guarded by its own monitor.
+     * <p>
+     * A write at wall time {@code w} is assumed visible to queries that start after
+     * {@code w + settle}. A query that started at {@code q} may therefore only cache a range if no
+     * write into it has {@code w + settle > q}, and only if it took less than {@code settle}, so
+     * writes can be forgotten after {@code 2 * settle}.
+     */
+    private static final class SeriesState {
+        private final Set<View> views = ConcurrentHashMap.newKeySet();
+        private final TreeMap<Long, Long> writes = new TreeMap<>(); // metric timestamp -> latest write time
+        private final ArrayDeque<long[]> writeOrder = new ArrayDeque<>(); // {metric timestamp, write time}
+
+        synchronized void written(long timestamp, long writtenAt) {
+            writes.merge(timestamp, writtenAt, Math::max);
+            writeOrder.addLast(new long[]{timestamp, writtenAt});
+        }
+
+        synchronized boolean canStore(long queryStartedAt, long from, long to, long now, long settle) {
+            while (!writeOrder.isEmpty() && writeOrder.peekFirst()[1] + 2 * settle <= now) {
+                long[] oldest = writeOrder.pollFirst();
+                writes.remove(oldest[0], oldest[1]);
+            }
+            if (now - queryStartedAt >= settle) {
+                return false;
+            }
+            for (long writtenAt : writes.subMap(from, to).values()) {
+                if (writtenAt + settle > queryStartedAt) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
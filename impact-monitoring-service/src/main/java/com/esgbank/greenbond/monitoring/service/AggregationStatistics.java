@@ -0,0 +1,43 @@
+package com.esgbank.greenbond.monitoring.service;
+
+import com.esgbank.greenbond.monitoring.dto.MetricAggregationResponse;
+import com.esgbank.greenbond.monitoring.util.StreamingStatistics;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Fills the summary fields of an aggregation response from statistics over its window values,
+ * shared by the InfluxDB and rollup query paths.
+ */
+final class AggregationStatistics {
+
+    private static final int SCALE = 4;
+
+    private AggregationStatistics() {
+    }
+
+    static void apply(MetricAggregationResponse response, StreamingStatistics stats) {
+        response.setTotalValue(BigDecimal.valueOf(stats.getSum()));
+        response.setMinValue(BigDecimal.valueOf(stats.getMin()));
+        response.setMaxValue(BigDecimal.valueOf(stats.getMax()));
+        response.setDataPointCount((int) stats.getCount());
+        response.setAverageValue(scaled(stats.getMean()));
+
+        if (response.getStatistics() == null) {
+            response.setStatistics(new HashMap<>());
+        }
+        Map<String, Object> statistics = response.getStatistics();
+        statistics.put("variance", scaled(stats.getVariance()));
+        statistics.put("standardDeviation", BigDecimal.valueOf(stats.getStandardDeviation()));
+        statistics.put("p50", scaled(stats.getQuantile(0.50)));
+        statistics.put("p90", scaled(stats.getQuantile(0.90)));
+        statistics.put("p99", scaled(stats.getQuantile(0.99)));
+    }
+
+    private static BigDecimal scaled(double value) {
+        return BigDecimal.valueOf(value).setScale(SCALE, RoundingMode.HALF_UP);
+    }
+}
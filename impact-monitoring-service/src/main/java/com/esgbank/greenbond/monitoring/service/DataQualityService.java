@@ -1,5 +1,6 @@
 package com.esgbank.greenbond.monitoring.service;
 
+import com.esgbank.greenbond.monitoring.config.DataQualityConfig;
 import com.esgbank.greenbond.monitoring.dto.ImpactMetricRequest;
 import com.esgbank.greenbond.monitoring.model.DataQuality;
 import lombok.RequiredArgsConstructor;
@@ -8,7 +9,6 @@ import org.springframework.stereotype.Service;
 
 import java.util.HashMap;
 import java.util.Map;
-import java.util.Random;
 
 /**
  * Service for assessing and validating data quality of impact metrics.
@@ -25,17 +25,16 @@ import java.util.Random;
  *   <li><strong>Validity:</strong> Data conforms to expected formats and ranges</li>
  * </ul>
  * 
- * <p><strong>Current Implementation:</strong>
- * Uses simulated calculations for some metrics (consistency, standard deviation).
- * Core quality assessment logic is implemented but can be enhanced with ML models.
+ * <p><strong>Historical Comparison:</strong>
+ * Consistency, outlier flags and cadence are scored against the rolling state of the
+ * (bondId, metricType, deviceId) series kept by {@link SeriesStateStore}: EWMA mean and
+ * variance of the value and EWMA of the inter-arrival time. Scoring is deterministic and
+ * never queries historical data.
  * 
  * <p><strong>Production Enhancements:</strong>
  * <ul>
  *   <li>Integrate machine learning models for anomaly detection</li>
- *   <li>Compare against historical data patterns</li>
- *   <li>Implement statistical analysis (z-scores, moving averages)</li>
  *   <li>Add cross-validation with multiple data sources</li>
- *   <li>Implement real-time data quality monitoring</li>
  *   <li>Add data quality scoring based on source reputation</li>
  * </ul>
  * 
@@ -47,7 +46,8 @@ import java.util.Random;
 @RequiredArgsConstructor
 public class DataQualityService {
 
-    private final Random random = new Random();
+    private final SeriesStateStore seriesStateStore;
+    private final DataQualityConfig dataQualityConfig;
 
     /**
      * Assesses the overall quality of an impact metric request.
@@ -59,7 +59,7 @@ public class DataQualityService {
      * <ol>
      *   <li>Calculate confidence score based on source type and data completeness</li>
      *   <li>Determine verification method based on source type</li>
-     *   <li>Calculate standard deviation (simulated in current implementation)</li>
+     *   <li>Update the rolling series state and score the reading against its prior state</li>
      *   <li>Determine overall quality status (EXCELLENT, GOOD, FAIR, POOR, UNACCEPTABLE)</li>
      *   <li>Calculate detailed quality metrics</li>
      * </ol>
@@ -74,17 +74,21 @@ public class DataQualityService {
     public DataQuality assessDataQuality(ImpactMetricRequest request) {
         log.debug("Assessing data quality for metric: {}", request.getMetricType());
 
-        double confidenceScore = calculateConfidenceScore(request);
+        SeriesStateStore.Observation observation = seriesStateStore.observe(request.getBondId(),
+                request.getMetricType(), request.getDeviceId(), request.getValue().doubleValue(), request.getTimestamp());
+        SeriesScore seriesScore = scoreAgainstSeries(request, observation);
+
+        double confidenceScore = calculateConfidenceScore(request, seriesScore);
         boolean isVerified = confidenceScore > 0.8; // Threshold for automatic verification
 
         return DataQuality.builder()
                 .confidenceScore(confidenceScore)
                 .isVerified(isVerified)
                 .verificationMethod(determineVerificationMethod(request.getSourceType()))
-                .dataPoints(1)
-                .standardDeviation(calculateStandardDeviation(request))
+                .dataPoints((int) Math.min(observation.priorCount() + 1, Integer.MAX_VALUE))
+                .standardDeviation(seriesScore.warmedUp() ? observation.priorStdDev() : null)
                 .qualityStatus(determineQualityStatus(confidenceScore))
-                .qualityMetrics(calculateQualityMetrics(request, confidenceScore))
+                .qualityMetrics(calculateQualityMetrics(request, confidenceScore, seriesScore))
                 .build();
     }
 
@@ -96,23 +100,14 @@ public class DataQualityService {
      *   <li>Source type reliability (IoT sensors > Smart meters > APIs > Manual)</li>
      *   <li>Data completeness (presence of deviceId, location, metadata)</li>
      *   <li>Timestamp validity (data not in future)</li>
-     * </ul>
-     * 
-     * <p><strong>Current Implementation:</strong>
-     * Uses weighted scoring with some randomness for simulation.
-     * 
-     * <p><strong>Production Enhancements:</strong>
-     * <ul>
-     *   <li>Add historical data comparison</li>
-     *   <li>Implement outlier detection</li>
-     *   <li>Add source reputation scoring</li>
-     *   <li>Use ML models for confidence prediction</li>
+     *   <li>Consistency with the series baseline; outliers lose 30% of the score</li>
      * </ul>
      * 
      * @param request The impact metric request
+     * @param seriesScore Scores of the reading against its series state
      * @return Confidence score between 0.0 and 1.0
      */
-    private double calculateConfidenceScore(ImpactMetricRequest request) {
+    private double calculateConfidenceScore(ImpactMetricRequest request, SeriesScore seriesScore) {
         double score = 0.0;
 
         // Source type confidence weights
@@ -152,9 +147,12 @@ public class DataQualityService {
             score += 0.2; // Valid timestamp
         }
 
-        // TODO: Production - Replace randomness with real quality metrics
-        // Add some randomness for simulation (to be replaced with real metrics)
-        score += (random.nextDouble() * 0.1);
+        // Agreement with the series history
+        score += 0.1 * seriesScore.consistency();
+
+        if (seriesScore.outlier()) {
+            score *= 0.7; // Outliers always need manual review
+        }
 
         return Math.min(score, 1.0);
     }
@@ -175,46 +173,46 @@ public class DataQualityService {
     }
 
     /**
-     * Calculates standard deviation for the metric value.
-     * 
-     * <p><strong>Current Implementation (Simulated):</strong>
-     * Returns a simulated standard deviation value.
+     * Scores a reading against the state of its series before the reading.
      * 
-     * <p><strong>Production Implementation Should:</strong>
-     * <ol>
-     *   <li>Query historical data for the same metric type and bond</li>
-     *   <li>Calculate mean and standard deviation from historical values</li>
-     *   <li>Compare current value against historical distribution</li>
-     *   <li>Flag outliers (values > 2 standard deviations from mean)</li>
-     *   <li>Use time-series analysis for trend detection</li>
-     * </ol>
+     * <p>Until the series has seen {@code warmupReadings} readings there is no reliable baseline:
+     * consistency is 1.0 and nothing is flagged. Afterwards:
+     * <ul>
+     *   <li>zScore: distance from the EWMA mean in EWMA standard deviations</li>
+     *   <li>consistency: 1.0 at the mean, 0.5 at the outlier threshold, 0.0 at twice the threshold</li>
+     *   <li>cadence: 1.0 while the gap to the previous reading stays within
+     *       {@code lateIntervalFactor} expected intervals, decaying for longer gaps</li>
+     * </ul>
      * 
      * @param request The impact metric request
-     * @return Standard deviation value (simulated in current implementation)
+     * @param observation Series state before the reading
+     * @return Series scores of the reading
      */
-    private Double calculateStandardDeviation(ImpactMetricRequest request) {
-        // TODO: Production - Replace with real statistical calculation
-        // Example implementation:
-        // List<Double> historicalValues = metricRepository
-        //     .findByBondIdAndMetricType(request.getBondId(), request.getMetricType())
-        //     .stream()
-        //     .map(m -> m.getValue().doubleValue())
-        //     .collect(Collectors.toList());
-        // 
-        // if (historicalValues.size() < 2) {
-        //     return null; // Not enough data for standard deviation
-        // }
-        // 
-        // double mean = historicalValues.stream().mapToDouble(Double::doubleValue).average().orElse(0.0);
-        // double variance = historicalValues.stream()
-        //     .mapToDouble(v -> Math.pow(v - mean, 2))
-        //     .average()
-        //     .orElse(0.0);
-        // 
-        // return Math.sqrt(variance);
-        
-        // Simulated value for development
-        return random.nextDouble() * request.getValue().doubleValue() * 0.1;
+    private SeriesScore scoreAgainstSeries(ImpactMetricRequest request, SeriesStateStore.Observation observation) {
+        if (observation.priorCount() < dataQualityConfig.getWarmupReadings()) {
+            return new SeriesScore(false, null, 1.0, false, 1.0);
+        }
+
+        double threshold = dataQualityConfig.getOutlierZScore();
+        double deviation = Math.abs(request.getValue().doubleValue() - observation.priorMean());
+        double zScore;
+        if (observation.priorStdDev() > 0) {
+            zScore = deviation / observation.priorStdDev();
+        } else {
+            // Constant series so far: any change is as far out as it gets
+            zScore = deviation == 0 ? 0 : Double.POSITIVE_INFINITY;
+        }
+        double consistency = Math.max(0.0, 1.0 - zScore / (2 * threshold));
+
+        double cadence = 1.0;
+        if (observation.gapSeconds() != null && observation.expectedIntervalSeconds() != null
+                && observation.expectedIntervalSeconds() > 0) {
+            double intervals = observation.gapSeconds() / observation.expectedIntervalSeconds();
+            double allowed = dataQualityConfig.getLateIntervalFactor();
+            cadence = intervals <= allowed ? 1.0 : Math.max(0.2, allowed / intervals);
+        }
+
+        return new SeriesScore(true, Double.isInfinite(zScore) ? null : zScore, consistency, zScore > threshold, cadence);
     }
 
     private String determineQualityStatus(double confidenceScore) {
@@ -231,23 +229,28 @@ public class DataQualityService {
      * <p>Returns a map containing:
      * <ul>
      *   <li>completeness: Percentage of required fields filled</li>
-     *   <li>timeliness: How recent the data is (1.0 = within 1 hour)</li>
+     *   <li>timeliness: Lower of reporting latency (1.0 = within 1 hour) and series cadence</li>
      *   <li>accuracy: Confidence score</li>
-     *   <li>consistency: Consistency with historical patterns (simulated)</li>
+     *   <li>consistency: Agreement with the series baseline</li>
+     *   <li>zScore, outlier: Distance from the series baseline (after warm-up)</li>
      * </ul>
      * 
      * @param request The impact metric request
      * @param confidenceScore The calculated confidence score
+     * @param seriesScore Scores of the reading against its series state
      * @return Map of quality metric names to values
      */
-    private Map<String, Object> calculateQualityMetrics(ImpactMetricRequest request, double confidenceScore) {
+    private Map<String, Object> calculateQualityMetrics(ImpactMetricRequest request, double confidenceScore,
+                                                        SeriesScore seriesScore) {
         Map<String, Object> metrics = new HashMap<>();
         metrics.put("completeness", calculateCompleteness(request));
-        metrics.put("timeliness", calculateTimeliness(request));
+        metrics.put("timeliness", Math.min(calculateTimeliness(request), seriesScore.cadence()));
         metrics.put("accuracy", confidenceScore);
-        // TODO: Production - Replace with real consistency calculation
-        // Consistency should compare current value against historical patterns
-        metrics.put("consistency", random.nextDouble() * 0.2 + 0.8); // Simulated
+        metrics.put("consistency", seriesScore.consistency());
+        metrics.put("outlier", seriesScore.outlier());
+        if (seriesScore.zScore() != null) {
+            metrics.put("zScore", seriesScore.zScore());
+        }
         return metrics;
     }
 
@@ -274,4 +277,7 @@ public class DataQualityService {
         if (hoursDifference <= 168) return 0.5; // Within 1 week
         return 0.2; // Older than 1 week
     }
-}
\ No newline at end of file
+
+    private record SeriesScore(boolean warmedUp, Double zScore, double consistency, boolean outlier, double cadence) {
+    }
+}
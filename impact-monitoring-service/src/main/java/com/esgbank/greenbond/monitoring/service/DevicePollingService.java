@@ -0,0 +1,522 @@
+package com.esgbank.greenbond.monitoring.service;
+
+import com.esgbank.greenbond.monitoring.config.IoTPollingConfig;
+import com.esgbank.greenbond.monitoring.dto.DevicePollingStatus;
+import com.esgbank.greenbond.monitoring.dto.ImpactMetricRequest;
+import com.esgbank.greenbond.monitoring.dto.IoTDeviceRegistrationRequest;
+import com.esgbank.greenbond.monitoring.integration.IoTIntegrationService;
+import com.esgbank.greenbond.monitoring.model.IoTDevice;
+import com.esgbank.greenbond.monitoring.repository.IoTDeviceRepository;
+import com.esgbank.greenbond.monitoring.util.TokenBucket;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Polls the registered IoT device fleet, each device on its own cadence.
+ * <p>
+ * The registry is loaded from {@code iot_devices} and refreshed periodically. A dispatcher tick
+ * hands due devices to a single reactive pipeline that fetches with bounded concurrency on the
+ * elastic scheduler. Fetches are limited per platform by a token bucket, ask only for readings
+ * after the device cursor, and are spread out by jitter so that devices sharing an interval do
+ * not poll in lockstep. Failing devices back off exponentially.
+ * <p>
+ * Readings from all devices are buffered and handed to {@link ImpactMetricService#createMetrics}
+ * in bulk. A device cursor advances only once its readings were written, so a failed write is
+ * fetched again on the next poll; ingestion deduplication makes the overlap harmless.
+ * <p>
+ * One instance polls the whole fleet, so the platform rate limits hold across replicas. It holds
+ * the polling job lease and renews it on every registry refresh; the other instances keep an
+ * empty registry until they take the lease over and resume from the persisted cursors.
+ */
+@Slf4j
+@Service
+public class DevicePollingService {
+
+    private final IoTDeviceRepository deviceRepository;
+    private final IoTIntegrationService ioTIntegrationService;
+    private final ImpactMetricService impactMetricService;
+    private final MongoTemplate mongoTemplate;
+    private final JobLeaseStore leaseStore;
+    private final IoTPollingConfig pollingConfig;
+    private final MeterRegistry meterRegistry;
+
+    private final Map<String, PolledDevice> devices = new ConcurrentHashMap<>();
+    private final Map<String, TokenBucket> platformLimiters = new ConcurrentHashMap<>();
+    private final Set<String> dirty = ConcurrentHashMap.newKeySet();
+
+    private final Object pendingLock = new Object();
+    private final Object flushLock = new Object();
+    private List<ImpactMetricRequest> pendingReadings = new ArrayList<>();
+    private Map<String, LocalDateTime> pendingCursors = new HashMap<>();
+
+    static final String POLLING_JOB = "iot-polling";
+
+    private final Counter readingsFetched;
+    private final Timer pollLatency;
+
+    private Sinks.Many<PolledDevice> dueDevices;
+    private Disposable pollingSubscription;
+    private volatile boolean leader;
+
+    public DevicePollingService(IoTDeviceRepository deviceRepository, IoTIntegrationService ioTIntegrationService,
+                                ImpactMetricService impactMetricService, MongoTemplate mongoTemplate,
+                                JobLeaseStore leaseStore, IoTPollingConfig pollingConfig, MeterRegistry meterRegistry) {
+        this.deviceRepository = deviceRepository;
+        this.ioTIntegrationService = ioTIntegrationService;
+        this.impactMetricService = impactMetricService;
+        this.mongoTemplate = mongoTemplate;
+        this.leaseStore = leaseStore;
+        this.pollingConfig = pollingConfig;
+        this.meterRegistry = meterRegistry;
+
+        this.readingsFetched = Counter.builder("impact.iot.readings")
+                .description("Readings fetched from IoT devices")
+                .register(meterRegistry);
+        this.pollLatency = Timer.builder("impact.iot.poll.latency")
+                .description("IoT device fetch latency")
+                .register(meterRegistry);
+        Gauge.builder("impact.iot.devices", devices, Map::size)
+                .description("Devices in the polling registry")
+                .register(meterRegistry);
+        Gauge.builder("impact.iot.ingest.pending", this, DevicePollingService::getPendingReadings)
+                .description("Fetched readings waiting for the bulk hand-off to ingestion")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!pollingConfig.isEnabled()) {
+            log.info("IoT device polling is disabled");
+            return;
+        }
+
+        dueDevices = Sinks.many().unicast().onBackpressureBuffer();
+        pollingSubscription = dueDevices.asFlux()
+                .flatMap(device -> Mono.fromRunnable(() -> poll(device))
+                        .subscribeOn(Schedulers.boundedElastic())
+                        .timeout(pollingConfig.getPollTimeout())
+                        .onErrorResume(error -> {
+                            log.warn("Poll of device {} did not complete: {}", device.deviceId, error.toString());
+                            return Mono.empty();
+                        }), pollingConfig.getMaxConcurrentPolls())
+                .subscribe();
+
+        log.info("IoT device polling started: maxConcurrentPolls={}, defaultPollInterval={}",
+                pollingConfig.getMaxConcurrentPolls(), pollingConfig.getDefaultPollInterval());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (pollingSubscription != null) {
+            pollingSubscription.dispose();
+        }
+        flush();
+        if (leader) {
+            leaseStore.release(POLLING_JOB);
+        }
+    }
+
+    /**
+     * Registers a device for polling or updates its registration. The cursor is kept.
+     */
+    public IoTDevice registerDevice(String deviceId, IoTDeviceRegistrationRequest request) {
+        LocalDateTime now = LocalDateTime.now();
+        IoTDevice device = deviceRepository.findById(deviceId)
+                .map(IoTDevice::toBuilder)
+                .orElseGet(() -> IoTDevice.builder().deviceId(deviceId).createdAt(now))
+                .bondId(request.getBondId())
+                .platform(request.getPlatform())
+                .pollIntervalSeconds(request.getPollIntervalSeconds())
+                .enabled(request.getEnabled() == null || request.getEnabled())
+                .updatedAt(now)
+                .build();
+
+        IoTDevice saved = deviceRepository.save(device);
+        // Other instances pick the registration up with their next registry refresh
+        if (saved.isEnabled() && leader) {
+            track(saved);
+        } else {
+            untrack(deviceId);
+        }
+        log.info("Registered IoT device: {} for bond: {}, platform: {}", deviceId, saved.getBondId(), saved.getPlatform());
+        return saved;
+    }
+
+    public List<DevicePollingStatus> getPollingStatus() {
+        return devices.values().stream()
+                .sorted(Comparator.comparing(device -> device.deviceId))
+                .map(PolledDevice::toStatus)
+                .toList();
+    }
+
+    /**
+     * Renews the polling lease and reloads the registry, or drops the registry when another
+     * instance polls.
+     */
+    @Scheduled(fixedDelayString = "${app.iot-polling.registry-refresh-interval:60000}")
+    public void refreshRegistry() {
+        if (!pollingConfig.isEnabled()) {
+            return;
+        }
+
+        boolean held;
+        try {
+            held = leaseStore.acquire(POLLING_JOB, pollingConfig.getLeaseTtl());
+        } catch (DataAccessException e) {
+            // Without a renewed lease another instance may take over, so polling stops here
+            log.error("Failed to renew the IoT polling lease: {}", e.getMessage(), e);
+            held = false;
+        }
+        if (held != leader) {
+            log.info(held ? "Took over IoT device polling" : "IoT device polling moved to another instance");
+        }
+        leader = held;
+        if (!held) {
+            flush();
+            Set.copyOf(devices.keySet()).forEach(this::untrack);
+            return;
+        }
+
+        try {
+            Set<String> registered = new HashSet<>();
+            for (IoTDevice device : deviceRepository.findByEnabledTrue()) {
+                registered.add(device.getDeviceId());
+                track(device);
+            }
+            for (String deviceId : Set.copyOf(devices.keySet())) {
+                if (!registered.contains(deviceId)) {
+                    untrack(deviceId);
+                }
+            }
+            log.debug("IoT device registry refreshed: {} devices", devices.size());
+
+        } catch (DataAccessException e) {
+            log.error("Failed to refresh IoT device registry: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Hands every due device that is not already being polled to the polling pipeline, then
+     * flushes whatever the previous polls buffered.
+     */
+    @Scheduled(fixedDelayString = "${app.iot-polling.dispatch-interval:1000}")
+    public void dispatchDue() {
+        if (dueDevices == null || !leader) {
+            return;
+        }
+
+        long now = System.currentTimeMillis();
+        for (PolledDevice device : devices.values()) {
+            if (device.nextPollAt <= now && device.inFlight.compareAndSet(false, true)) {
+                Sinks.EmitResult result = dueDevices.tryEmitNext(device);
+                if (result.isFailure()) {
+                    device.inFlight.set(false);
+                    log.warn("Could not dispatch poll of device {}: {}", device.deviceId, result);
+                }
+            }
+        }
+        flush();
+    }
+
+    void poll(PolledDevice device) {
+        try {
+            TokenBucket limiter = limiterOf(device.registration.getPlatform());
+            if (!limiter.tryAcquire()) {
+                device.polls(meterRegistry, "throttled").increment();
+                device.nextPollAt = System.currentTimeMillis() + limiter.millisUntilPermit()
+                        + ThreadLocalRandom.current().nextLong(100);
+                return;
+            }
+
+            device.lastPolledAt = LocalDateTime.now();
+            IoTDevice registration = device.registration;
+            List<ImpactMetricRequest> readings = pollLatency.record(() -> ioTIntegrationService.fetchIoTDataSince(
+                    registration.getDeviceId(), registration.getBondId(), device.cursor));
+
+            readingsFetched.increment(readings.size());
+            device.polls(meterRegistry, "success").increment();
+            device.lastSuccessAt = device.lastPolledAt;
+            device.consecutiveFailures = 0;
+            device.lastError = null;
+            device.nextPollAt = System.currentTimeMillis() + jittered(device.interval());
+            enqueue(device, readings);
+
+        } catch (Exception e) {
+            device.polls(meterRegistry, "failure").increment();
+            device.consecutiveFailures++;
+            device.lastError = e.getMessage();
+            device.nextPollAt = System.currentTimeMillis() + backoff(device);
+            log.warn("Poll of IoT device {} failed ({} in a row): {}", device.deviceId, device.consecutiveFailures,
+                    e.getMessage());
+        } finally {
+            dirty.add(device.deviceId);
+            device.inFlight.set(false);
+        }
+    }
+
+    /**
+     * Writes buffered readings in bulk, advances the cursors of the devices they came from and
+     * persists the poll state of devices polled since the last flush.
+     */
+    void flush() {
+        synchronized (flushLock) {
+            List<ImpactMetricRequest> readings;
+            Map<String, LocalDateTime> cursors;
+            synchronized (pendingLock) {
+                readings = pendingReadings;
+                cursors = pendingCursors;
+                pendingReadings = new ArrayList<>();
+                pendingCursors = new HashMap<>();
+            }
+
+            if (!readings.isEmpty()) {
+                try {
+                    for (int i = 0; i < readings.size(); i += pollingConfig.getIngestBatchSize()) {
+                        impactMetricService.createMetrics(
+                                readings.subList(i, Math.min(i + pollingConfig.getIngestBatchSize(), readings.size())));
+                    }
+                    cursors.forEach((deviceId, cursor) -> {
+                        PolledDevice device = devices.get(deviceId);
+                        if (device != null && (device.cursor == null || cursor.isAfter(device.cursor))) {
+                            device.cursor = cursor;
+                            dirty.add(deviceId);
+                        }
+                    });
+                } catch (Exception e) {
+                    // Cursors stay put, the readings are fetched again on the next poll
+                    log.error("Failed to ingest {} polled IoT readings: {}", readings.size(), e.getMessage(), e);
+                }
+            }
+
+            persistState();
+        }
+    }
+
+    PolledDevice getTracked(String deviceId) {
+        return devices.get(deviceId);
+    }
+
+    long getPendingReadings() {
+        synchronized (pendingLock) {
+            return pendingReadings.size();
+        }
+    }
+
+    private void enqueue(PolledDevice device, List<ImpactMetricRequest> readings) {
+        if (readings.isEmpty()) {
+            return;
+        }
+
+        LocalDateTime newest = readings.stream()
+                .map(ImpactMetricRequest::getTimestamp)
+                .filter(timestamp -> timestamp != null)
+                .max(Comparator.naturalOrder())
+                .orElse(null);
+
+        boolean full;
+        synchronized (pendingLock) {
+            pendingReadings.addAll(readings);
+            if (newest != null) {
+                pendingCursors.merge(device.deviceId, newest, (a, b) -> a.isAfter(b) ? a : b);
+            }
+            full = pendingReadings.size() >= pollingConfig.getIngestBatchSize();
+        }
+        if (full) {
+            flush();
+        }
+    }
+
+    private void persistState() {
+        if (dirty.isEmpty()) {
+            return;
+        }
+
+        List<PolledDevice> changed = new ArrayList<>();
+        for (Iterator<String> it = dirty.iterator(); it.hasNext(); ) {
+            PolledDevice device = devices.get(it.next());
+            it.remove();
+            if (device != null) {
+                changed.add(device);
+            }
+        }
+        if (changed.isEmpty()) {
+            return;
+        }
+
+        try {
+            BulkOperations bulkOps = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, IoTDevice.class);
+            for (PolledDevice device : changed) {
+                bulkOps.updateOne(Query.query(Criteria.where("_id").is(device.deviceId)), new Update()
+                        .set("cursor", device.cursor)
+                        .set("lastPolledAt", device.lastPolledAt)
+                        .set("lastSuccessAt", device.lastSuccessAt)
+                        .set("lastError", device.lastError)
+                        .set("consecutiveFailures", device.consecutiveFailures));
+            }
+            bulkOps.execute();
+
+        } catch (DataAccessException e) {
+            changed.forEach(device -> dirty.add(device.deviceId));
+            log.error("Failed to persist poll state of {} IoT devices, will retry. Error: {}",
+                    changed.size(), e.getMessage());
+        }
+    }
+
+    private void track(IoTDevice registration) {
+        PolledDevice existing = devices.get(registration.getDeviceId());
+        if (existing != null) {
+            existing.registration = registration;
+            return;
+        }
+
+        PolledDevice device = new PolledDevice(registration);
+        // First polls are spread over one interval so that a restart does not poll the whole fleet at once
+        device.nextPollAt = System.currentTimeMillis()
+                + ThreadLocalRandom.current().nextLong(Math.max(1, device.interval().toMillis()));
+        device.register(meterRegistry);
+        devices.put(device.deviceId, device);
+    }
+
+    private void untrack(String deviceId) {
+        PolledDevice device = devices.remove(deviceId);
+        if (device != null) {
+            device.meters.forEach(meterRegistry::remove);
+        }
+    }
+
+    private TokenBucket limiterOf(String platform) {
+        String key = platform != null ? platform : "default";
+        return platformLimiters.computeIfAbsent(key, p ->
+                new TokenBucket(pollingConfig.getPlatformRateLimits().getOrDefault(p, pollingConfig.getDefaultRateLimit())));
+    }
+
+    private long jittered(Duration interval) {
+        long millis = interval.toMillis();
+        long jitter = (long) (millis * pollingConfig.getJitterRatio());
+        return jitter > 0 ? millis - jitter + ThreadLocalRandom.current().nextLong(2 * jitter + 1) : millis;
+    }
+
+    private long backoff(PolledDevice device) {
+        long interval = device.interval().toMillis();
+        long factor = 1L << Math.min(Math.max(device.consecutiveFailures - 1, 0), 20);
+        return jittered(Duration.ofMillis(Math.min(interval * factor, pollingConfig.getMaxBackoff().toMillis())));
+    }
+
+    /**
+     * In-memory polling state of one device. Fields are written by one poll at a time and read by
+     * the dispatcher, the flush and the gauges.
+     */
+    final class PolledDevice {
+        private final String deviceId;
+        private final AtomicBoolean inFlight = new AtomicBoolean();
+        private final List<Meter> meters = new CopyOnWriteArrayList<>();
+        private final Map<String, Counter> pollCounters = new ConcurrentHashMap<>();
+
+        private volatile IoTDevice registration;
+        private volatile LocalDateTime cursor;
+        private volatile LocalDateTime lastPolledAt;
+        private volatile LocalDateTime lastSuccessAt;
+        private volatile String lastError;
+        private volatile int consecutiveFailures;
+        private volatile long nextPollAt;
+
+        PolledDevice(IoTDevice registration) {
+            this.deviceId = registration.getDeviceId();
+            this.registration = registration;
+            this.cursor = registration.getCursor();
+            this.lastPolledAt = registration.getLastPolledAt();
+            this.lastSuccessAt = registration.getLastSuccessAt();
+            this.lastError = registration.getLastError();
+            this.consecutiveFailures = registration.getConsecutiveFailures();
+        }
+
+        Duration interval() {
+            Long seconds = registration.getPollIntervalSeconds();
+            return seconds != null ? Duration.ofSeconds(seconds) : pollingConfig.getDefaultPollInterval();
+        }
+
+        double lagSeconds() {
+            LocalDateTime current = cursor;
+            return current != null ? Duration.between(current, LocalDateTime.now()).toSeconds() : Double.NaN;
+        }
+
+        void register(MeterRegistry registry) {
+            String platform = String.valueOf(registration.getPlatform());
+            meters.add(Gauge.builder("impact.iot.device.lag", this, PolledDevice::lagSeconds)
+                    .tag("device", deviceId)
+                    .tag("platform", platform)
+                    .baseUnit("seconds")
+                    .description("Age of the newest ingested reading of a device")
+                    .register(registry));
+            meters.add(Gauge.builder("impact.iot.device.failures", this, device -> device.consecutiveFailures)
+                    .tag("device", deviceId)
+                    .tag("platform", platform)
+                    .description("Failed polls of a device since its last success")
+                    .register(registry));
+        }
+
+        Counter polls(MeterRegistry registry, String result) {
+            return pollCounters.computeIfAbsent(result, r -> {
+                Counter counter = Counter.builder("impact.iot.device.polls")
+                        .tag("device", deviceId)
+                        .tag("platform", String.valueOf(registration.getPlatform()))
+                        .tag("result", r)
+                        .description("Polls of a device by result")
+                        .register(registry);
+                meters.add(counter);
+                return counter;
+            });
+        }
+
+        DevicePollingStatus toStatus() {
+            double lag = lagSeconds();
+            return DevicePollingStatus.builder()
+                    .deviceId(deviceId)
+                    .bondId(registration.getBondId())
+                    .platform(registration.getPlatform())
+                    .cursor(cursor)
+                    .lagSeconds(Double.isNaN(lag) ? null : (long) lag)
+                    .lastPolledAt(lastPolledAt)
+                    .lastSuccessAt(lastSuccessAt)
+                    .consecutiveFailures(consecutiveFailures)
+                    .lastError(lastError)
+                    .nextPollAt(LocalDateTime.ofInstant(Instant.ofEpochMilli(nextPollAt), ZoneId.systemDefault()))
+                    .build();
+        }
+    }
+}
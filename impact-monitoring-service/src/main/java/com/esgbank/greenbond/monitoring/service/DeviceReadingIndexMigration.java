@@ -0,0 +1,155 @@
+package com.esgbank.greenbond.monitoring.service;
+
+import com.esgbank.greenbond.monitoring.model.ImpactMetric;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationOptions;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.index.IndexInfo;
+import org.springframework.data.mongodb.core.index.PartialIndexFilter;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Creates the unique {@code device_reading_idx} index on {@code impact_metrics}.
+ * <p>
+ * Device readings stored before deduplication may repeat a (deviceId, metricType, timestamp,
+ * sourceId) key, so building the index directly would fail. The duplicates are removed first,
+ * keeping the oldest reading of each key, together with their buckets, running totals and rollups.
+ * One instance migrates at a time under a job lease; once the index exists the migration is a no-op.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class DeviceReadingIndexMigration {
+
+    static final String INDEX_NAME = "device_reading_idx";
+    private static final String JOB = "device-reading-index";
+    private static final Duration LEASE_TTL = Duration.ofHours(2);
+    private static final int BATCH_SIZE = 500;
+
+    private final MongoTemplate mongoTemplate;
+    private final JobLeaseStore leaseStore;
+    private final MetricBucketStore bucketStore;
+    private final MetricRunningTotalsService runningTotalsService;
+    private final MetricRollupService rollupService;
+
+    static Index deviceReadingIndex() {
+        return new Index()
+                .on("deviceId", Sort.Direction.ASC)
+                .on("metricType", Sort.Direction.ASC)
+                .on("timestamp", Sort.Direction.ASC)
+                .on("sourceId", Sort.Direction.ASC)
+                .named(INDEX_NAME)
+                .unique()
+                .partial(PartialIndexFilter.of(Criteria.where("deviceId").exists(true)));
+    }
+
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void migrateOnStartup() {
+        try {
+            if (hasIndex()) {
+                return;
+            }
+            if (!leaseStore.acquire(JOB, LEASE_TTL)) {
+                log.info("Device reading index migration is running on another instance");
+                return;
+            }
+            try {
+                migrate();
+            } finally {
+                leaseStore.release(JOB);
+            }
+        } catch (Exception e) {
+            log.error("Device reading index migration failed: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Removes duplicate device readings and builds the unique index. A duplicate inserted while
+     * the index is being built makes the build fail; the duplicates are then removed once more.
+     */
+    void migrate() {
+        for (int attempt = 1; ; attempt++) {
+            long removed = removeDuplicates();
+            log.info("Removed {} duplicate device readings from impact_metrics", removed);
+            try {
+                mongoTemplate.indexOps(ImpactMetric.class).ensureIndex(deviceReadingIndex());
+                log.info("Created index {} on impact_metrics", INDEX_NAME);
+                return;
+            } catch (DataIntegrityViolationException e) {
+                if (attempt >= 3) {
+                    throw e;
+                }
+                log.warn("Duplicate device readings were stored during the index build, retrying");
+            }
+        }
+    }
+
+    /**
+     * Deletes every reading of a duplicated device reading key except the oldest one.
+     *
+     * @return the number of readings removed
+     */
+    long removeDuplicates() {
+        Aggregation aggregation = Aggregation.newAggregation(
+                        Aggregation.match(Criteria.where("deviceId").exists(true)),
+                        Aggregation.sort(Sort.by("createdAt", "_id")),
+                        Aggregation.group("deviceId", "metricType", "timestamp", "sourceId")
+                                .push("metricId").as("metricIds")
+                                .count().as("count"),
+                        Aggregation.match(Criteria.where("count").gt(1)))
+                .withOptions(AggregationOptions.builder().allowDiskUse(true).build());
+
+        long removed = 0;
+        List<String> batch = new ArrayList<>(BATCH_SIZE);
+        try (Stream<Document> groups = mongoTemplate.aggregateStream(aggregation,
+                mongoTemplate.getCollectionName(ImpactMetric.class), Document.class)) {
+            for (Document group : (Iterable<Document>) groups::iterator) {
+                List<String> metricIds = group.getList("metricIds", String.class);
+                batch.addAll(metricIds.subList(1, metricIds.size()));
+                if (batch.size() >= BATCH_SIZE) {
+                    removed += remove(batch);
+                    batch = new ArrayList<>(BATCH_SIZE);
+                }
+            }
+        }
+        return removed + remove(batch);
+    }
+
+    private int remove(List<String> metricIds) {
+        if (metricIds.isEmpty()) {
+            return 0;
+        }
+        List<ImpactMetric> metrics = mongoTemplate.findAllAndRemove(
+                Query.query(Criteria.where("metricId").in(metricIds)), ImpactMetric.class);
+
+        bucketStore.removeMetrics(metrics);
+        for (ImpactMetric metric : metrics) {
+            runningTotalsService.removeMetric(metric);
+            rollupService.removeMetric(metric);
+        }
+        return metrics.size();
+    }
+
+    private boolean hasIndex() {
+        return mongoTemplate.indexOps(ImpactMetric.class).getIndexInfo().stream()
+                .map(IndexInfo::getName)
+                .anyMatch(INDEX_NAME::equals);
+    }
+}
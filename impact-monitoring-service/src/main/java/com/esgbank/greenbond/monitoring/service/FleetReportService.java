@@ -0,0 +1,307 @@
+package com.esgbank.greenbond.monitoring.service;
+
+import com.esgbank.greenbond.monitoring.config.ReportConfig;
+import com.esgbank.greenbond.monitoring.model.GoalProgress;
+import com.esgbank.greenbond.monitoring.model.ImpactGoal;
+import com.esgbank.greenbond.monitoring.model.ImpactReport;
+import com.esgbank.greenbond.monitoring.model.MetricRunningTotal;
+import com.esgbank.greenbond.monitoring.model.MetricSummary;
+import com.esgbank.greenbond.monitoring.model.enums.MetricType;
+import com.esgbank.greenbond.monitoring.model.enums.ReportStatus;
+import com.esgbank.greenbond.monitoring.model.enums.ReportType;
+import com.esgbank.greenbond.monitoring.service.ImpactReportService.ReportPeriod;
+import com.esgbank.greenbond.monitoring.service.MetricRollupService.PeriodTotals;
+import com.esgbank.greenbond.monitoring.service.TimeSeriesService.SeriesTotals;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+/**
+ * Scheduled daily, weekly and monthly reports of every active bond.
+ * <p>
+ * A run issues one Flux query per metric family and window (the reported period and the one
+ * before it), grouped by bond and metric type over all bonds, so its cost grows with the number of
+ * windows rather than with bonds times metrics. Goals and running totals are read with one query
+ * each. The results are fanned out into one report per bond with data in the period or running
+ * goals, and saved with unordered bulk inserts.
+ * <p>
+ * Reports are keyed by {@link ImpactReport#idOf}; reports of a period that already exist, from an
+ * earlier run or another instance, are skipped by the insert.
+ */
+@Slf4j
+@Service
+public class FleetReportService {
+
+    static final String GENERATED_BY = "scheduler";
+
+    // Families follow the sections of MetricType; each is one Flux query per window
+    static final Map<String, List<MetricType>> METRIC_FAMILIES = metricFamilies();
+
+    private static final int DUPLICATE_KEY = 11000;
+
+    private final TimeSeriesService timeSeriesService;
+    private final MongoTemplate mongoTemplate;
+    private final ReportConfig config;
+    private final MeterRegistry meterRegistry;
+
+    private final Counter reportsGenerated;
+    private final Counter reportsSkipped;
+
+    private record WindowQuery(List<MetricType> metricTypes, ReportPeriod window) {
+    }
+
+    private record WindowResult(ReportPeriod window, List<SeriesTotals> totals) {
+    }
+
+    public FleetReportService(TimeSeriesService timeSeriesService, MongoTemplate mongoTemplate, ReportConfig config,
+                              MeterRegistry meterRegistry) {
+        this.timeSeriesService = timeSeriesService;
+        this.mongoTemplate = mongoTemplate;
+        this.config = config;
+        this.meterRegistry = meterRegistry;
+        this.reportsGenerated = Counter.builder("impact.reports")
+                .tag("result", "generated")
+                .description("Impact reports generated")
+                .register(meterRegistry);
+        this.reportsSkipped = Counter.builder("impact.reports")
+                .tag("result", "skipped")
+                .description("Scheduled reports skipped because their period was already reported")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(cron = "${app.reports.fleet-daily-cron:0 0 4 * * ?}")
+    public void runDaily() {
+        run(ReportType.DAILY);
+    }
+
+    @Scheduled(cron = "${app.reports.fleet-weekly-cron:0 15 4 * * MON}")
+    public void runWeekly() {
+        run(ReportType.WEEKLY);
+    }
+
+    @Scheduled(cron = "${app.reports.fleet-monthly-cron:0 30 4 1 * ?}")
+    public void runMonthly() {
+        run(ReportType.MONTHLY);
+    }
+
+    private void run(ReportType reportType) {
+        try {
+            generate(reportType, LocalDateTime.now());
+        } catch (Exception e) {
+            log.error("Scheduled {} reports failed: {}", reportType, e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Reports the last complete period of the report type for all active bonds.
+     *
+     * @return the number of reports inserted
+     */
+    int generate(ReportType reportType, LocalDateTime now) {
+        Timer.Sample sample = Timer.start();
+        ReportPeriod period = ReportPeriod.of(reportType, null, null, now);
+        ReportPeriod previous = period.previous(reportType);
+        log.info("Starting scheduled {} reports for {} to {}", reportType, period.start(), period.end());
+
+        List<WindowQuery> queries = new ArrayList<>();
+        for (List<MetricType> metricTypes : METRIC_FAMILIES.values()) {
+            queries.add(new WindowQuery(metricTypes, period));
+            queries.add(new WindowQuery(metricTypes, previous));
+        }
+
+        List<WindowResult> results = Flux.fromIterable(queries)
+                .flatMap(query -> Mono.fromCallable(() -> new WindowResult(query.window(),
+                                timeSeriesService.querySeriesTotals(query.metricTypes(),
+                                        query.window().start(), query.window().end())))
+                        .subscribeOn(Schedulers.boundedElastic()), config.getFleetMaxParallelQueries())
+                .collectList()
+                .block(config.getFleetQueryTimeout());
+
+        Map<String, Map<MetricType, PeriodTotals>> current = new HashMap<>();
+        Map<String, Map<MetricType, PeriodTotals>> prior = new HashMap<>();
+        for (WindowResult result : results != null ? results : List.<WindowResult>of()) {
+            Map<String, Map<MetricType, PeriodTotals>> target = result.window().equals(period) ? current : prior;
+            for (SeriesTotals totals : result.totals()) {
+                target.computeIfAbsent(totals.bondId(), bondId -> new EnumMap<>(MetricType.class))
+                        .put(totals.metricType(), totals.totals());
+            }
+        }
+
+        Map<String, List<ImpactGoal>> goalsByBond = loadGoals();
+        Map<String, Map<MetricType, BigDecimal>> runningTotalsByBond = loadRunningTotals();
+
+        Set<String> bondIds = new TreeSet<>(current.keySet());
+        goalsByBond.forEach((bondId, goals) -> {
+            if (goals.stream().anyMatch(goal -> GoalDeadlineTimer.RUNNING_STATUSES.contains(goal.getStatus()))) {
+                bondIds.add(bondId);
+            }
+        });
+
+        String runId = UUID.randomUUID().toString();
+        List<ImpactReport> batch = new ArrayList<>(config.getFleetInsertBatchSize());
+        int inserted = 0;
+        for (String bondId : bondIds) {
+            batch.add(buildReport(bondId, reportType, period, now, runId,
+                    current.getOrDefault(bondId, Map.of()),
+                    prior.getOrDefault(bondId, Map.of()),
+                    goalsByBond.getOrDefault(bondId, List.of()),
+                    runningTotalsByBond.getOrDefault(bondId, Map.of())));
+            if (batch.size() >= config.getFleetInsertBatchSize()) {
+                inserted += insert(batch);
+                batch.clear();
+            }
+        }
+        inserted += insert(batch);
+
+        sample.stop(Timer.builder("impact.report.fleet.duration")
+                .tag("type", reportType.name())
+                .description("Time of one scheduled fleet reporting run")
+                .register(meterRegistry));
+        log.info("Scheduled {} reports completed: {} bonds, {} inserted, {} Flux queries",
+                reportType, bondIds.size(), inserted, queries.size());
+        return inserted;
+    }
+
+    private ImpactReport buildReport(String bondId, ReportType reportType, ReportPeriod period, LocalDateTime now,
+                                     String runId, Map<MetricType, PeriodTotals> current,
+                                     Map<MetricType, PeriodTotals> prior, List<ImpactGoal> goals,
+                                     Map<MetricType, BigDecimal> runningTotals) {
+        Map<MetricType, ImpactGoal> goalsByMetric = new EnumMap<>(MetricType.class);
+        goals.stream()
+                .filter(goal -> goal.getMetricType() != null)
+                .forEach(goal -> goalsByMetric.putIfAbsent(goal.getMetricType(), goal));
+
+        Set<MetricType> metricTypes = new TreeSet<>(runningTotals.keySet());
+        metricTypes.addAll(goalsByMetric.keySet());
+        metricTypes.addAll(current.keySet());
+
+        List<MetricSummary> metricSummaries = metricTypes.stream()
+                .map(metricType -> ImpactReportService.buildMetricSummary(metricType,
+                        current.getOrDefault(metricType, PeriodTotals.EMPTY),
+                        prior.getOrDefault(metricType, PeriodTotals.EMPTY),
+                        goalsByMetric.get(metricType)))
+                .toList();
+        List<GoalProgress> goalProgress = goals.stream()
+                .map(goal -> ImpactReportService.goalProgress(goal, runningTotals))
+                .toList();
+
+        Map<String, Object> metadata = new HashMap<>();
+        metadata.put("runId", runId);
+
+        return ImpactReport.builder()
+                .id(ImpactReport.idOf(bondId, reportType, period.start()))
+                .reportId("REPORT-" + UUID.randomUUID())
+                .bondId(bondId)
+                .reportName(reportType + " impact report " + bondId + " " + period.start().toLocalDate())
+                .reportType(reportType)
+                .status(ReportStatus.GENERATED)
+                .reportingPeriodStart(period.start())
+                .reportingPeriodEnd(period.end())
+                .generatedAt(now)
+                .generatedBy(GENERATED_BY)
+                .executiveSummary(ImpactReportService.executiveSummary(metricSummaries, goalProgress))
+                .metricSummaries(metricSummaries)
+                .goalProgress(goalProgress)
+                .metadata(metadata)
+                // Bulk inserts do not initialize the version; later saves compare against it
+                .version(0L)
+                .build();
+    }
+
+    private int insert(List<ImpactReport> reports) {
+        if (reports.isEmpty()) {
+            return 0;
+        }
+
+        int inserted;
+        try {
+            inserted = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, ImpactReport.class)
+                    .insert(reports)
+                    .execute()
+                    .getInsertedCount();
+
+        } catch (BulkOperationException e) {
+            inserted = e.getResult().getInsertedCount();
+            long failed = e.getErrors().stream().filter(error -> error.getCode() != DUPLICATE_KEY).count();
+            if (failed > 0) {
+                log.error("Failed to insert {} of {} scheduled reports. First error: {}",
+                        failed, reports.size(), e.getErrors().get(0).getMessage());
+            }
+        }
+
+        reportsGenerated.increment(inserted);
+        reportsSkipped.increment(reports.size() - inserted);
+        return inserted;
+    }
+
+    private Map<String, List<ImpactGoal>> loadGoals() {
+        Query query = new Query();
+        query.fields().include("goalId", "bondId", "goalName", "metricType", "targetValue", "targetUnit",
+                "progressPercentage", "status");
+
+        Map<String, List<ImpactGoal>> goalsByBond = new HashMap<>();
+        try (Stream<ImpactGoal> goals = mongoTemplate.stream(query, ImpactGoal.class)) {
+            goals.filter(goal -> goal.getBondId() != null)
+                    .forEach(goal -> goalsByBond.computeIfAbsent(goal.getBondId(), bondId -> new ArrayList<>())
+                            .add(goal));
+        }
+        return goalsByBond;
+    }
+
+    private Map<String, Map<MetricType, BigDecimal>> loadRunningTotals() {
+        Query query = Query.query(Criteria.where("count").gt(0));
+        query.fields().include("bondId", "metricType", "sum");
+
+        Map<String, Map<MetricType, BigDecimal>> totalsByBond = new HashMap<>();
+        try (Stream<MetricRunningTotal> totals = mongoTemplate.stream(query, MetricRunningTotal.class)) {
+            totals.filter(total -> total.getBondId() != null && total.getMetricType() != null && total.getSum() != null)
+                    .forEach(total -> totalsByBond.computeIfAbsent(total.getBondId(),
+                                    bondId -> new EnumMap<>(MetricType.class))
+                            .put(total.getMetricType(), BigDecimal.valueOf(total.getSum())));
+        }
+        return totalsByBond;
+    }
+
+    private static Map<String, List<MetricType>> metricFamilies() {
+        Map<String, List<MetricType>> families = new LinkedHashMap<>();
+        families.put("environmental", List.of(
+                MetricType.CARBON_EMISSIONS_REDUCTION, MetricType.RENEWABLE_ENERGY_PRODUCTION,
+                MetricType.ENERGY_CONSUMPTION, MetricType.WATER_SAVINGS, MetricType.WASTE_REDUCTION,
+                MetricType.RECYCLING_RATE, MetricType.AIR_QUALITY_IMPROVEMENT, MetricType.BIODIVERSITY_IMPACT));
+        families.put("social", List.of(
+                MetricType.JOBS_CREATED, MetricType.COMMUNITY_ENGAGEMENT, MetricType.HEALTH_IMPROVEMENT,
+                MetricType.EDUCATION_ACCESS, MetricType.AFFORDABLE_HOUSING));
+        families.put("economic", List.of(
+                MetricType.LOCAL_ECONOMIC_GROWTH, MetricType.TAX_REVENUE_GENERATED, MetricType.COST_SAVINGS,
+                MetricType.REVENUE_GENERATED));
+        families.put("project", List.of(
+                MetricType.SOLAR_ENERGY_GENERATED, MetricType.WIND_ENERGY_GENERATED,
+                MetricType.GREEN_BUILDING_CERTIFICATION, MetricType.CLEAN_TRANSPORT_USAGE,
+                MetricType.SUSTAINABLE_WATER_MANAGEMENT));
+        return families;
+    }
+}
@@ -0,0 +1,256 @@
+package com.esgbank.greenbond.monitoring.service;
+
+import com.esgbank.greenbond.monitoring.config.GoalDashboardConfig;
+import com.esgbank.greenbond.monitoring.model.GoalDashboardCounters;
+import com.esgbank.greenbond.monitoring.model.ImpactGoal;
+import com.esgbank.greenbond.monitoring.model.enums.GoalStatus;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * Per-bond goal counters behind the goals dashboard and goal counts.
+ * <p>
+ * Every goal write hands over the state of the goal before and after it; the difference is
+ * applied with one $inc upsert per bond. A failed update is logged and left to the nightly
+ * rebuild, which recounts all goals. The first start after deploy builds the counters once from
+ * all goals, since writes before it had no counters to increment.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class GoalDashboardCounterStore {
+
+    static final String BACKFILL_JOB = "goal-dashboard-backfill";
+    static final String BACKFILL_RUN = "initial";
+
+    private static final int PROGRESS_SCALE = 4;
+
+    private final MongoTemplate mongoTemplate;
+    private final JobLeaseStore leaseStore;
+    private final GoalDashboardConfig config;
+
+    /**
+     * The part of a goal the counters depend on.
+     *
+     * @param progress progress in ten-thousandths of a percent
+     * @param deadline target day of a goal not yet achieved, otherwise null
+     */
+    public record GoalState(String bondId, GoalStatus status, long progress, LocalDate deadline) {
+
+        /**
+         * @return the state of the goal, or null for a goal that does not exist
+         */
+        public static GoalState of(ImpactGoal goal) {
+            if (goal == null) {
+                return null;
+            }
+            BigDecimal progress = goal.getProgressPercentage() != null ? goal.getProgressPercentage() : BigDecimal.ZERO;
+            boolean achieved = goal.getStatus() == GoalStatus.ACHIEVED || goal.getStatus() == GoalStatus.EXCEEDED;
+            return new GoalState(goal.getBondId(), goal.getStatus(),
+                    progress.movePointRight(PROGRESS_SCALE).setScale(0, RoundingMode.HALF_UP).longValue(),
+                    !achieved && goal.getTargetDate() != null ? goal.getTargetDate().toLocalDate() : null);
+        }
+
+        public GoalState withStatus(GoalStatus status) {
+            return new GoalState(bondId, status, progress, deadline);
+        }
+    }
+
+    /**
+     * A goal write; {@code before} is null for a created goal and {@code after} for a deleted one.
+     */
+    public record Transition(GoalState before, GoalState after) {
+    }
+
+    public void apply(GoalState before, GoalState after) {
+        apply(List.of(new Transition(before, after)));
+    }
+
+    /**
+     * Applies goal writes with one unordered bulk upsert per call.
+     */
+    public void apply(List<Transition> transitions) {
+        Map<String, Map<String, Long>> incrementsByBond = new LinkedHashMap<>();
+        for (Transition transition : transitions) {
+            add(incrementsByBond, transition.before(), -1);
+            add(incrementsByBond, transition.after(), 1);
+        }
+        incrementsByBond.values().forEach(increments -> increments.values().removeIf(value -> value == 0));
+        incrementsByBond.values().removeIf(Map::isEmpty);
+        if (incrementsByBond.isEmpty()) {
+            return;
+        }
+
+        try {
+            BulkOperations bulkOps = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED,
+                    GoalDashboardCounters.class);
+            LocalDateTime now = LocalDateTime.now();
+
+            incrementsByBond.forEach((bondId, increments) -> {
+                Update update = new Update()
+                        .setOnInsert("bondId", bondId)
+                        .set("updatedAt", now);
+                increments.forEach(update::inc);
+                bulkOps.upsert(Query.query(Criteria.where("_id").is(bondId)), update);
+            });
+
+            bulkOps.execute();
+
+        } catch (DataAccessException e) {
+            log.error("Failed to update goal counters of {} bonds. Error: {}",
+                    incrementsByBond.size(), e.getMessage(), e);
+        }
+    }
+
+    public Optional<GoalDashboardCounters> find(String bondId) {
+        return Optional.ofNullable(mongoTemplate.findById(bondId, GoalDashboardCounters.class));
+    }
+
+    /**
+     * @return goals not yet achieved that are due after today and within {@code days} days
+     */
+    public static long upcomingDeadlines(GoalDashboardCounters counters, LocalDate today, int days) {
+        if (counters.getDeadlines() == null) {
+            return 0;
+        }
+        long upcoming = 0;
+        for (int day = 1; day <= days; day++) {
+            upcoming += counters.getDeadlines().getOrDefault(today.plusDays(day).toString(), 0L);
+        }
+        return upcoming;
+    }
+
+    public static long statusCount(GoalDashboardCounters counters, GoalStatus status) {
+        return counters.getStatusCounts() != null ? counters.getStatusCounts().getOrDefault(status.name(), 0L) : 0L;
+    }
+
+    public static BigDecimal averageProgress(GoalDashboardCounters counters) {
+        long totalGoals = counters.getTotalGoals() != null ? counters.getTotalGoals() : 0;
+        long progressSum = counters.getProgressSum() != null ? counters.getProgressSum() : 0;
+        return BigDecimal.valueOf(progressSum, PROGRESS_SCALE)
+                .divide(BigDecimal.valueOf(totalGoals > 0 ? totalGoals : 1), 2, RoundingMode.HALF_UP);
+    }
+
+    /**
+     * Rebuilds the counters on one instance the first time the service starts with them. The
+     * completed run is kept on the job lease, so later starts skip it; a failed run is retried
+     * by the next start.
+     */
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillOnStartup() {
+        try {
+            if (!leaseStore.claim(BACKFILL_JOB, BACKFILL_RUN, config.getBackfillLeaseTtl())) {
+                return;
+            }
+            if (rebuild()) {
+                leaseStore.complete(BACKFILL_JOB, BACKFILL_RUN);
+            } else {
+                leaseStore.release(BACKFILL_JOB);
+            }
+        } catch (DataAccessException e) {
+            log.error("Goal counters backfill failed: {}", e.getMessage(), e);
+        }
+    }
+
+    @Scheduled(cron = "${app.goal-dashboard.rebuild-cron:0 30 3 * * ?}")
+    public void scheduledRebuild() {
+        rebuild();
+    }
+
+    /**
+     * Recounts the counters of every bond from {@code impact_goals} and removes those of bonds
+     * without goals. Writes applied while the rebuild runs may be overwritten; the next run
+     * corrects them.
+     *
+     * @return whether the rebuild completed
+     */
+    public boolean rebuild() {
+        log.info("Starting goal counters rebuild");
+
+        try {
+            Query query = new Query();
+            query.fields().include("bondId", "status", "progressPercentage", "targetDate");
+
+            Map<String, Map<String, Long>> countersByBond = new LinkedHashMap<>();
+            try (Stream<ImpactGoal> goals = mongoTemplate.stream(query, ImpactGoal.class)) {
+                goals.forEach(goal -> add(countersByBond, GoalState.of(goal), 1));
+            }
+
+            BulkOperations bulkOps = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED,
+                    GoalDashboardCounters.class);
+            LocalDateTime now = LocalDateTime.now();
+
+            countersByBond.forEach((bondId, counters) -> {
+                Map<String, Long> statusCounts = new LinkedHashMap<>();
+                Map<String, Long> deadlines = new LinkedHashMap<>();
+                counters.forEach((field, value) -> {
+                    if (field.startsWith("statusCounts.")) {
+                        statusCounts.put(field.substring("statusCounts.".length()), value);
+                    } else if (field.startsWith("deadlines.")) {
+                        deadlines.put(field.substring("deadlines.".length()), value);
+                    }
+                });
+                bulkOps.upsert(Query.query(Criteria.where("_id").is(bondId)),
+                        new Update()
+                                .set("bondId", bondId)
+                                .set("totalGoals", counters.getOrDefault("totalGoals", 0L))
+                                .set("progressSum", counters.getOrDefault("progressSum", 0L))
+                                .set("statusCounts", statusCounts)
+                                .set("deadlines", deadlines)
+                                .set("updatedAt", now));
+            });
+
+            if (!countersByBond.isEmpty()) {
+                bulkOps.execute();
+            }
+
+            long removed = mongoTemplate.remove(Query.query(Criteria.where("_id").nin(countersByBond.keySet())),
+                    GoalDashboardCounters.class).getDeletedCount();
+
+            log.info("Goal counters rebuild completed: {} bonds rebuilt, {} stale removed",
+                    countersByBond.size(), removed);
+            return true;
+
+        } catch (Exception e) {
+            log.error("Goal counters rebuild failed: {}", e.getMessage(), e);
+            return false;
+        }
+    }
+
+    private static void add(Map<String, Map<String, Long>> incrementsByBond, GoalState state, long sign) {
+        if (state == null || state.bondId() == null) {
+            return;
+        }
+        Map<String, Long> increments = incrementsByBond.computeIfAbsent(state.bondId(), id -> new LinkedHashMap<>());
+        increments.merge("totalGoals", sign, Long::sum);
+        increments.merge("progressSum", sign * state.progress(), Long::sum);
+        if (state.status() != null) {
+            increments.merge("statusCounts." + state.status().name(), sign, Long::sum);
+        }
+        if (state.deadline() != null) {
+            increments.merge("deadlines." + state.deadline(), sign, Long::sum);
+        }
+    }
+}
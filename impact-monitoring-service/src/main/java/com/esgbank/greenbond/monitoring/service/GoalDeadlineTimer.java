@@ -0,0 +1,161 @@
+package com.esgbank.greenbond.monitoring.service;
+
+import com.esgbank.greenbond.monitoring.config.GoalDashboardConfig;
+import com.esgbank.greenbond.monitoring.model.ImpactGoal;
+import com.esgbank.greenbond.monitoring.model.enums.GoalStatus;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * Moves running goals to {@link GoalStatus#BEHIND_SCHEDULE} as soon as their target date passes.
+ * <p>
+ * Deadlines within {@code timerHorizon} are held in a priority queue ordered by target date, loaded
+ * by a periodic indexed query and topped up by goal writes on this instance. Each instance holds its
+ * own queue; the status change is a conditional update that only matches a running goal past its
+ * target date, so a deadline is applied once no matter how many instances fire it.
+ */
+@Slf4j
+@Service
+public class GoalDeadlineTimer {
+
+    static final List<GoalStatus> RUNNING_STATUSES = List.of(
+            GoalStatus.NOT_STARTED, GoalStatus.IN_PROGRESS, GoalStatus.ON_TRACK, GoalStatus.AT_RISK);
+
+    private final MongoTemplate mongoTemplate;
+    private final GoalDashboardCounterStore counterStore;
+    private final GoalDashboardConfig config;
+
+    private final PriorityQueue<Deadline> queue = new PriorityQueue<>();
+    // Latest target date per queued goal; queue entries that no longer match it are skipped
+    private final Map<String, LocalDateTime> scheduled = new HashMap<>();
+
+    private final Counter deadlinesExpired;
+    private final Counter deadlinesSkipped;
+
+    private record Deadline(LocalDateTime targetDate, String goalId) implements Comparable<Deadline> {
+
+        @Override
+        public int compareTo(Deadline other) {
+            return targetDate.compareTo(other.targetDate);
+        }
+    }
+
+    public GoalDeadlineTimer(MongoTemplate mongoTemplate, GoalDashboardCounterStore counterStore,
+                             GoalDashboardConfig config, MeterRegistry meterRegistry) {
+        this.mongoTemplate = mongoTemplate;
+        this.counterStore = counterStore;
+        this.config = config;
+        this.deadlinesExpired = Counter.builder("impact.goal.deadlines")
+                .tag("result", "expired")
+                .description("Goals moved behind schedule when their target date passed")
+                .register(meterRegistry);
+        this.deadlinesSkipped = Counter.builder("impact.goal.deadlines")
+                .tag("result", "skipped")
+                .description("Passed deadlines of goals already finished, rescheduled or expired by another instance")
+                .register(meterRegistry);
+        Gauge.builder("impact.goal.deadlines.queued", this, GoalDeadlineTimer::size)
+                .description("Goal deadlines held by the timer of this instance")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Queues the deadline of a written goal if it falls within the horizon.
+     */
+    public void schedule(ImpactGoal goal) {
+        if (goal.getTargetDate() == null || !RUNNING_STATUSES.contains(goal.getStatus())
+                || goal.getTargetDate().isAfter(LocalDateTime.now().plus(config.getTimerHorizon()))) {
+            return;
+        }
+        schedule(goal.getGoalId(), goal.getTargetDate());
+    }
+
+    /**
+     * Loads the deadlines of running goals due within the horizon, including those already passed.
+     */
+    @Scheduled(fixedDelayString = "${app.goal-dashboard.timer-refresh-interval:900000}")
+    public void refresh() {
+        try {
+            Query query = Query.query(Criteria.where("status").in(RUNNING_STATUSES)
+                    .and("targetDate").lte(LocalDateTime.now().plus(config.getTimerHorizon())));
+            query.fields().include("goalId", "targetDate");
+
+            List<ImpactGoal> goals = mongoTemplate.find(query, ImpactGoal.class);
+            goals.forEach(goal -> schedule(goal.getGoalId(), goal.getTargetDate()));
+            log.debug("Goal deadline timer refreshed with {} deadlines", goals.size());
+
+        } catch (Exception e) {
+            log.error("Failed to refresh goal deadline timer: {}", e.getMessage(), e);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.goal-dashboard.timer-tick-interval:60000}")
+    public void fireDueDeadlines() {
+        LocalDateTime now = LocalDateTime.now();
+        for (String goalId : pollDue(now)) {
+            try {
+                expire(goalId, now);
+            } catch (Exception e) {
+                // The next refresh loads the goal again while it is still running
+                log.warn("Failed to expire deadline of goal {}: {}", goalId, e.getMessage());
+            }
+        }
+    }
+
+    private void expire(String goalId, LocalDateTime now) {
+        Query query = Query.query(Criteria.where("goalId").is(goalId)
+                .and("status").in(RUNNING_STATUSES)
+                .and("targetDate").lte(now));
+        Update update = new Update()
+                .set("status", GoalStatus.BEHIND_SCHEDULE)
+                .set("updatedAt", now)
+                .inc("version", 1);
+
+        // Returns the goal as it was before the update
+        ImpactGoal before = mongoTemplate.findAndModify(query, update, ImpactGoal.class);
+        if (before == null) {
+            deadlinesSkipped.increment();
+            return;
+        }
+
+        GoalDashboardCounterStore.GoalState state = GoalDashboardCounterStore.GoalState.of(before);
+        counterStore.apply(state, state.withStatus(GoalStatus.BEHIND_SCHEDULE));
+        deadlinesExpired.increment();
+        log.info("Goal {} passed its target date {} and is behind schedule", goalId, before.getTargetDate());
+    }
+
+    private synchronized void schedule(String goalId, LocalDateTime targetDate) {
+        if (!targetDate.equals(scheduled.put(goalId, targetDate))) {
+            queue.add(new Deadline(targetDate, goalId));
+        }
+    }
+
+    synchronized List<String> pollDue(LocalDateTime now) {
+        List<String> due = new ArrayList<>();
+        while (!queue.isEmpty() && !queue.peek().targetDate().isAfter(now)) {
+            Deadline deadline = queue.poll();
+            if (scheduled.remove(deadline.goalId(), deadline.targetDate())) {
+                due.add(deadline.goalId());
+            }
+        }
+        return due;
+    }
+
+    synchronized int size() {
+        return scheduled.size();
+    }
+}
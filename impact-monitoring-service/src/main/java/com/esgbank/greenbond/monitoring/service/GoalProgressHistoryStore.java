@@ -0,0 +1,207 @@
+package com.esgbank.greenbond.monitoring.service;
+
+import com.esgbank.greenbond.monitoring.config.GoalHistoryConfig;
+import com.esgbank.greenbond.monitoring.model.GoalProgressHistoryBucket;
+import com.esgbank.greenbond.monitoring.model.ImpactGoal;
+import com.esgbank.greenbond.monitoring.model.enums.GoalStatus;
+import com.mongodb.client.model.BulkWriteOptions;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.UpdateOneModel;
+import com.mongodb.client.model.UpdateOptions;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Durable progress history of impact goals, one {@link GoalProgressHistoryBucket} per goal and
+ * month.
+ * <p>
+ * A snapshot is appended with a single pipeline update that computes its deltas against the
+ * bucket's last snapshot on the server, so recording needs no read and is safe against
+ * concurrent writers. A history of several years is one indexed range read of a few dozen
+ * documents; long ranges are downsampled to a fixed number of points.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class GoalProgressHistoryStore {
+
+    private static final int PROGRESS_SCALE = 4;
+
+    private final MongoTemplate mongoTemplate;
+    private final GoalHistoryConfig config;
+
+    /**
+     * Progress of a goal after a change, with the progress it had before.
+     */
+    public record Snapshot(String goalId, String bondId, LocalDateTime timestamp, BigDecimal previousProgress,
+                           BigDecimal progress, GoalStatus status) {
+
+        public static Snapshot of(ImpactGoal goal, BigDecimal previousProgress) {
+            return new Snapshot(goal.getGoalId(), goal.getBondId(), LocalDateTime.now(), previousProgress,
+                    goal.getProgressPercentage(), goal.getStatus());
+        }
+    }
+
+    public record Point(LocalDateTime timestamp, BigDecimal progress) {
+    }
+
+    /**
+     * Appends snapshots in the given order with one ordered bulk write. Failures are logged
+     * rather than propagated: the goals themselves are already saved.
+     */
+    public void record(List<Snapshot> snapshots) {
+        if (snapshots.isEmpty()) {
+            return;
+        }
+
+        List<UpdateOneModel<Document>> updates = new ArrayList<>(snapshots.size());
+        Date now = toDate(LocalDateTime.now());
+        for (Snapshot snapshot : snapshots) {
+            updates.add(append(snapshot, now));
+        }
+
+        try {
+            mongoTemplate.getCollection(mongoTemplate.getCollectionName(GoalProgressHistoryBucket.class))
+                    .bulkWrite(updates, new BulkWriteOptions().ordered(true));
+        } catch (Exception e) {
+            log.warn("Failed to record {} goal progress snapshots: {}", snapshots.size(), e.getMessage());
+        }
+    }
+
+    /**
+     * @return snapshots of a goal from the start of the month of {@code start} to {@code end} in
+     * time order, preceded by the progress before the first of them
+     */
+    public List<Point> findHistory(String goalId, LocalDateTime start, LocalDateTime end) {
+        Query query = new Query(Criteria.where("goalId").is(goalId)
+                .and("monthStart").gte(monthStartOf(start)).lte(end))
+                .with(Sort.by(Sort.Direction.ASC, "monthStart"));
+
+        List<Point> points = new ArrayList<>();
+        for (GoalProgressHistoryBucket bucket : mongoTemplate.find(query, GoalProgressHistoryBucket.class)) {
+            if (points.isEmpty()) {
+                points.add(new Point(bucket.getMonthStart(), fromScaled(bucket.getBaseProgress())));
+            }
+            long offset = 0;
+            long progress = bucket.getBaseProgress();
+            for (int i = 0; i < bucket.getTimeDeltas().size(); i++) {
+                offset += bucket.getTimeDeltas().get(i);
+                progress += bucket.getProgressDeltas().get(i);
+                points.add(new Point(bucket.getMonthStart().plusSeconds(offset), fromScaled(progress)));
+            }
+        }
+        // Snapshots of concurrent writers may have been appended out of order
+        points.sort(Comparator.comparing(Point::timestamp));
+        return points;
+    }
+
+    /**
+     * @return the spacing of history points over the range: the configured step, widened so a long
+     * range yields at most {@code maxPoints}
+     */
+    public Duration stepFor(LocalDateTime start, LocalDateTime end) {
+        Duration perPoint = Duration.between(start, end).dividedBy(Math.max(1, config.getMaxPoints()));
+        Duration step = perPoint.compareTo(config.getStep()) > 0 ? perPoint : config.getStep();
+        // Whole days, so every point falls on its own date
+        return Duration.ofDays(Math.max(1, (step.toHours() + 23) / 24));
+    }
+
+    /**
+     * Samples the progress in effect every {@code step} from {@code start}, carrying the last
+     * snapshot forward. Times before the first known progress are left out.
+     */
+    public static Map<LocalDateTime, BigDecimal> sample(List<Point> points, LocalDateTime start, LocalDateTime end,
+                                                        Duration step) {
+        Map<LocalDateTime, BigDecimal> samples = new LinkedHashMap<>();
+        int next = 0;
+        BigDecimal current = null;
+        for (LocalDateTime time = start; time.isBefore(end); time = time.plus(step)) {
+            while (next < points.size() && !points.get(next).timestamp().isAfter(time)) {
+                current = points.get(next++).progress();
+            }
+            if (current != null) {
+                samples.put(time, current);
+            }
+        }
+        return samples;
+    }
+
+    public void deleteGoal(String goalId) {
+        mongoTemplate.remove(Query.query(Criteria.where("goalId").is(goalId)), GoalProgressHistoryBucket.class);
+    }
+
+    private static UpdateOneModel<Document> append(Snapshot snapshot, Date now) {
+        LocalDateTime monthStart = monthStartOf(snapshot.timestamp());
+        int offset = (int) Duration.between(monthStart, snapshot.timestamp()).getSeconds();
+        int progress = toScaled(snapshot.progress());
+        int previous = snapshot.previousProgress() != null ? toScaled(snapshot.previousProgress()) : progress;
+
+        // Field references in one $set stage see the bucket as it was before the update
+        Document set = new Document("goalId", literal(snapshot.goalId()))
+                .append("bondId", literal(snapshot.bondId()))
+                .append("monthStart", toDate(monthStart))
+                .append("baseProgress", ifNull("$baseProgress", previous))
+                .append("timeDeltas", push("$timeDeltas",
+                        new Document("$subtract", List.of(offset, ifNull("$lastOffset", 0)))))
+                .append("progressDeltas", push("$progressDeltas",
+                        new Document("$subtract", List.of(progress, ifNull("$lastProgress", previous)))))
+                .append("lastOffset", offset)
+                .append("lastProgress", progress)
+                .append("lastStatus", literal(snapshot.status() != null ? snapshot.status().name() : null))
+                .append("count", new Document("$add", List.of(ifNull("$count", 0), 1)))
+                .append("updatedAt", now);
+
+        return new UpdateOneModel<>(
+                Filters.eq("_id", GoalProgressHistoryBucket.idOf(snapshot.goalId(), monthStart)),
+                List.of(new Document("$set", set)),
+                new UpdateOptions().upsert(true));
+    }
+
+    private static Document push(String array, Object value) {
+        return new Document("$concatArrays", List.of(ifNull(array, List.of()), List.of(value)));
+    }
+
+    private static Document ifNull(String field, Object fallback) {
+        return new Document("$ifNull", List.of(field, fallback));
+    }
+
+    private static Document literal(Object value) {
+        return new Document("$literal", value);
+    }
+
+    private static LocalDateTime monthStartOf(LocalDateTime time) {
+        return time.truncatedTo(ChronoUnit.DAYS).withDayOfMonth(1);
+    }
+
+    // LocalDateTime values are stored as Dates in the JVM zone
+    private static Date toDate(LocalDateTime time) {
+        return Date.from(time.atZone(ZoneId.systemDefault()).toInstant());
+    }
+
+    private static int toScaled(BigDecimal progress) {
+        return progress.movePointRight(PROGRESS_SCALE).setScale(0, RoundingMode.HALF_UP).intValueExact();
+    }
+
+    private static BigDecimal fromScaled(long progress) {
+        return BigDecimal.valueOf(progress, PROGRESS_SCALE);
+    }
+}
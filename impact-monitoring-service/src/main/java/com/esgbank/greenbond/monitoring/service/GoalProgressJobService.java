@@ -0,0 +1,393 @@
+package com.esgbank.greenbond.monitoring.service;
+
+import com.esgbank.greenbond.monitoring.config.GoalProgressJobConfig;
+import com.esgbank.greenbond.monitoring.model.ImpactGoal;
+import com.esgbank.greenbond.monitoring.model.enums.MetricType;
+import com.mongodb.bulk.BulkWriteResult;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Nightly recalculation of goal progress, shared by all instances of the service.
+ * <p>
+ * Goals are split into a fixed number of partitions by the hash of their bondId. Every instance
+ * runs the job at the same time and claims each partition as a job of its own in
+ * {@link JobLeaseStore}; a partition is processed by whichever instance holds its lease, at most
+ * {@code maxParallelPartitions} at once per instance. Leases are renewed by a heartbeat while a
+ * partition is processed, so one left behind by a stopped instance expires and is taken over.
+ * Changed goals are written back with one unordered bulk write per group of bonds, guarded by
+ * the goal version, so an edit made in the meantime is not overwritten.
+ */
+@Slf4j
+@Service
+public class GoalProgressJobService {
+
+    private final MongoTemplate mongoTemplate;
+    private final ImpactGoalService goalService;
+    private final MetricRunningTotalsService runningTotalsService;
+    private final JobLeaseStore leaseStore;
+    private final GoalProgressHistoryStore historyStore;
+    private final GoalDashboardCounterStore counterStore;
+    private final GoalProgressJobConfig config;
+    private final String instanceId;
+
+    private final ScheduledExecutorService heartbeatExecutor =
+            Executors.newSingleThreadScheduledExecutor(r -> new Thread(r, "goal-progress-heartbeat"));
+    private final ExecutorService runExecutor =
+            Executors.newSingleThreadExecutor(r -> new Thread(r, "goal-progress-run"));
+    private final AtomicBoolean running = new AtomicBoolean();
+    private final Map<Integer, AtomicBoolean> heldLeases = new ConcurrentHashMap<>();
+    private final AtomicInteger remainingPartitions = new AtomicInteger();
+
+    private final Counter goalsUpdated;
+    private final Counter goalsUnchanged;
+    private final Counter goalsConflicted;
+    private final Counter partitionsCompleted;
+    private final Counter partitionsLost;
+    private final Counter partitionsFailed;
+    private final Counter leasesAcquired;
+    private final Counter leasesContended;
+    private final Counter heartbeatsRenewed;
+    private final Counter heartbeatsLost;
+    private final Timer partitionDuration;
+
+    public GoalProgressJobService(MongoTemplate mongoTemplate, ImpactGoalService goalService,
+                                  MetricRunningTotalsService runningTotalsService, JobLeaseStore leaseStore,
+                                  GoalProgressHistoryStore historyStore, GoalDashboardCounterStore counterStore,
+                                  GoalProgressJobConfig config, MeterRegistry meterRegistry) {
+        this.mongoTemplate = mongoTemplate;
+        this.goalService = goalService;
+        this.runningTotalsService = runningTotalsService;
+        this.leaseStore = leaseStore;
+        this.historyStore = historyStore;
+        this.counterStore = counterStore;
+        this.config = config;
+        this.instanceId = leaseStore.getInstanceId();
+
+        this.goalsUpdated = goalCounter("updated", "Goals whose progress changed", meterRegistry);
+        this.goalsUnchanged = goalCounter("unchanged", "Goals whose progress did not change", meterRegistry);
+        this.goalsConflicted = goalCounter("conflict", "Goals edited while their progress was recalculated",
+                meterRegistry);
+        this.partitionsCompleted = partitionCounter("completed", meterRegistry);
+        this.partitionsLost = partitionCounter("lost", meterRegistry);
+        this.partitionsFailed = partitionCounter("failed", meterRegistry);
+        this.leasesAcquired = Counter.builder("impact.goal.progress.lease.claims")
+                .tag("result", "acquired")
+                .description("Partition leases claimed by this instance")
+                .register(meterRegistry);
+        this.leasesContended = Counter.builder("impact.goal.progress.lease.claims")
+                .tag("result", "contended")
+                .description("Partition leases held by another instance or already completed")
+                .register(meterRegistry);
+        this.heartbeatsRenewed = Counter.builder("impact.goal.progress.lease.heartbeats")
+                .tag("result", "renewed")
+                .description("Partition leases renewed")
+                .register(meterRegistry);
+        this.heartbeatsLost = Counter.builder("impact.goal.progress.lease.heartbeats")
+                .tag("result", "lost")
+                .description("Partition leases found expired and taken over")
+                .register(meterRegistry);
+        this.partitionDuration = Timer.builder("impact.goal.progress.partition.duration")
+                .description("Time to process one goal partition")
+                .register(meterRegistry);
+        Gauge.builder("impact.goal.progress.leases.held", heldLeases, Map::size)
+                .description("Partition leases currently held by this instance")
+                .register(meterRegistry);
+        Gauge.builder("impact.goal.progress.partitions.remaining", remainingPartitions, AtomicInteger::get)
+                .description("Partitions of the current run not completed by any instance")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Starts the nightly run on the job's own thread. A run blocks for up to {@code run-timeout}
+     * while it waits for partitions held elsewhere, which must not hold up the shared scheduler.
+     */
+    @Scheduled(cron = "${app.goal-progress.cron:0 0 2 * * ?}")
+    public void updateGoalsProgress() {
+        String runId = LocalDate.now().toString();
+        if (!running.compareAndSet(false, true)) {
+            log.warn("Goal progress run {} skipped, the previous run is still in progress", runId);
+            return;
+        }
+        runExecutor.execute(() -> {
+            try {
+                run(runId);
+            } catch (Exception e) {
+                log.error("Scheduled goal progress update failed: {}", e.getMessage(), e);
+            } finally {
+                running.set(false);
+            }
+        });
+    }
+
+    /**
+     * Takes part in a run until every partition is completed by some instance or the run times out.
+     *
+     * @param runId identifies the run across instances; a partition is processed once per run
+     * @return the number of partitions claimed by this instance
+     */
+    public int run(String runId) {
+        log.info("Starting goal progress run {} as {}", runId, instanceId);
+
+        Map<Integer, List<String>> bondsByPartition = mongoTemplate
+                .findDistinct(new Query(), "bondId", ImpactGoal.class, String.class).stream()
+                .collect(Collectors.groupingBy(bondId -> partitionOf(bondId, config.getPartitions())));
+
+        long heartbeatMillis = config.getHeartbeatInterval().toMillis();
+        ScheduledFuture<?> heartbeat = heartbeatExecutor.scheduleAtFixedRate(this::renewLeases,
+                heartbeatMillis, heartbeatMillis, TimeUnit.MILLISECONDS);
+        LocalDateTime deadline = LocalDateTime.now().plus(config.getRunTimeout());
+        int claimedPartitions = 0;
+
+        try {
+            List<Integer> incomplete = findIncomplete(runId);
+            while (!incomplete.isEmpty()) {
+                remainingPartitions.set(incomplete.size());
+                Integer claimed = Flux.fromIterable(rotate(incomplete))
+                        .flatMap(partition -> Mono.fromCallable(() ->
+                                        process(partition, runId, bondsByPartition.getOrDefault(partition, List.of())))
+                                .subscribeOn(Schedulers.boundedElastic()), config.getMaxParallelPartitions())
+                        .reduce(0, Integer::sum)
+                        .block();
+                claimedPartitions += claimed != null ? claimed : 0;
+
+                incomplete = findIncomplete(runId);
+                if (incomplete.isEmpty() || LocalDateTime.now().isAfter(deadline)) {
+                    break;
+                }
+                // The rest is held by other instances; wait for them to finish or their leases to expire
+                Thread.sleep(heartbeatMillis);
+            }
+            remainingPartitions.set(incomplete.size());
+
+            if (incomplete.isEmpty()) {
+                log.info("Goal progress run {} completed, {} partitions processed by {}",
+                        runId, claimedPartitions, instanceId);
+            } else {
+                log.warn("Goal progress run {} timed out with {} partitions incomplete, {} processed by {}",
+                        runId, incomplete.size(), claimedPartitions, instanceId);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            heartbeat.cancel(false);
+        }
+        return claimedPartitions;
+    }
+
+    /**
+     * @return 1 if this instance claimed the partition, 0 if another instance holds it
+     */
+    private int process(int partition, String runId, List<String> bondIds) {
+        if (!leaseStore.claim(partitionJob(partition), runId, config.getLeaseTtl())) {
+            leasesContended.increment();
+            return 0;
+        }
+        leasesAcquired.increment();
+        AtomicBoolean lost = new AtomicBoolean();
+        heldLeases.put(partition, lost);
+
+        Timer.Sample sample = Timer.start();
+        long goals = 0;
+        long updated = 0;
+        try {
+            for (int i = 0; i < bondIds.size(); i += config.getBondsPerQuery()) {
+                if (lost.get()) {
+                    partitionsLost.increment();
+                    log.warn("Lease on goal partition {} was lost, leaving it to its new owner", partition);
+                    return 1;
+                }
+                List<String> chunk = bondIds.subList(i, Math.min(i + config.getBondsPerQuery(), bondIds.size()));
+                List<ImpactGoal> loaded = mongoTemplate.find(Query.query(Criteria.where("bondId").in(chunk)),
+                        ImpactGoal.class);
+                goals += loaded.size();
+                updated += updateGoals(loaded);
+            }
+
+            if (leaseStore.complete(partitionJob(partition), runId)) {
+                partitionsCompleted.increment();
+                log.debug("Goal partition {} completed: {} goals, {} updated", partition, goals, updated);
+            } else {
+                partitionsLost.increment();
+                log.warn("Lease on goal partition {} expired before it completed", partition);
+            }
+            return 1;
+
+        } catch (Exception e) {
+            partitionsFailed.increment();
+            log.error("Goal partition {} failed: {}", partition, e.getMessage(), e);
+            leaseStore.release(partitionJob(partition));
+            return 1;
+        } finally {
+            heldLeases.remove(partition);
+            sample.stop(partitionDuration);
+        }
+    }
+
+    private long updateGoals(List<ImpactGoal> goals) {
+        // Goals of the same bond share one running totals lookup
+        Map<String, Map<MetricType, BigDecimal>> summariesByBond = new HashMap<>();
+        List<ImpactGoal> changed = new ArrayList<>();
+        Map<String, BigDecimal> previousProgress = new HashMap<>();
+        Map<String, GoalDashboardCounterStore.GoalState> previousStates = new HashMap<>();
+        for (ImpactGoal goal : goals) {
+            Map<MetricType, BigDecimal> summary =
+                    summariesByBond.computeIfAbsent(goal.getBondId(), runningTotalsService::getSummary);
+            BigDecimal previous = goal.getProgressPercentage();
+            GoalDashboardCounterStore.GoalState previousState = GoalDashboardCounterStore.GoalState.of(goal);
+            if (goalService.updateGoalProgress(goal, summary)) {
+                changed.add(goal);
+                previousProgress.put(goal.getId(), previous);
+                previousStates.put(goal.getId(), previousState);
+            }
+        }
+        goalsUnchanged.increment(goals.size() - changed.size());
+        if (changed.isEmpty()) {
+            return 0;
+        }
+
+        BulkOperations bulkOps = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, ImpactGoal.class);
+        LocalDateTime now = LocalDateTime.now();
+        for (ImpactGoal goal : changed) {
+            bulkOps.updateOne(
+                    Query.query(Criteria.where("_id").is(goal.getId()).and("version").is(goal.getVersion())),
+                    new Update()
+                            .set("currentValue", goal.getCurrentValue())
+                            .set("progressPercentage", goal.getProgressPercentage())
+                            .set("status", goal.getStatus())
+                            .set("updatedAt", now)
+                            .inc("version", 1));
+        }
+        BulkWriteResult result = bulkOps.execute();
+
+        int written = result.getModifiedCount();
+        goalsUpdated.increment(written);
+        goalsConflicted.increment(changed.size() - written);
+
+        List<ImpactGoal> recorded = written == changed.size() ? changed : writtenGoals(changed);
+        historyStore.record(recorded.stream()
+                .map(goal -> GoalProgressHistoryStore.Snapshot.of(goal, previousProgress.get(goal.getId())))
+                .toList());
+        counterStore.apply(recorded.stream()
+                .map(goal -> new GoalDashboardCounterStore.Transition(previousStates.get(goal.getId()),
+                        GoalDashboardCounterStore.GoalState.of(goal)))
+                .toList());
+        return written;
+    }
+
+    /**
+     * @return the goals whose guarded update matched, recognised by the version it wrote. An edit
+     * made right after the write also moves the version on, so its goal is then left out.
+     */
+    private List<ImpactGoal> writtenGoals(List<ImpactGoal> changed) {
+        Query query = Query.query(Criteria.where("_id").in(changed.stream().map(ImpactGoal::getId).toList()));
+        query.fields().include("version");
+        Map<String, Long> versions = mongoTemplate.find(query, ImpactGoal.class).stream()
+                .filter(goal -> goal.getVersion() != null)
+                .collect(Collectors.toMap(ImpactGoal::getId, ImpactGoal::getVersion));
+
+        return changed.stream()
+                .filter(goal -> {
+                    long expected = (goal.getVersion() != null ? goal.getVersion() : 0) + 1;
+                    return versions.getOrDefault(goal.getId(), -1L) == expected;
+                })
+                .toList();
+    }
+
+    private void renewLeases() {
+        heldLeases.forEach((partition, lost) -> {
+            try {
+                if (leaseStore.renew(partitionJob(partition), config.getLeaseTtl())) {
+                    heartbeatsRenewed.increment();
+                } else {
+                    heartbeatsLost.increment();
+                    lost.set(true);
+                }
+            } catch (Exception e) {
+                // The lease stays valid until it expires; the next heartbeat tries again
+                log.warn("Failed to renew lease on goal partition {}: {}", partition, e.getMessage());
+            }
+        });
+    }
+
+    // Instances start their pass at different partitions, so they rarely contend for the same lease
+    private List<Integer> rotate(List<Integer> partitions) {
+        int offset = Math.floorMod(instanceId.hashCode(), partitions.size());
+        List<Integer> rotated = new ArrayList<>(partitions.subList(offset, partitions.size()));
+        rotated.addAll(partitions.subList(0, offset));
+        return rotated;
+    }
+
+    private List<Integer> findIncomplete(String runId) {
+        List<String> jobs = IntStream.range(0, config.getPartitions())
+                .mapToObj(GoalProgressJobService::partitionJob)
+                .toList();
+        Set<String> incomplete = Set.copyOf(leaseStore.findIncomplete(jobs, runId));
+
+        return IntStream.range(0, config.getPartitions())
+                .filter(partition -> incomplete.contains(partitionJob(partition)))
+                .boxed()
+                .toList();
+    }
+
+    static int partitionOf(String bondId, int partitions) {
+        return Math.floorMod(bondId.hashCode(), partitions);
+    }
+
+    static String partitionJob(int partition) {
+        return "goal-progress:" + partition;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        runExecutor.shutdownNow();
+        heartbeatExecutor.shutdownNow();
+    }
+
+    private static Counter goalCounter(String result, String description, MeterRegistry meterRegistry) {
+        return Counter.builder("impact.goal.progress.goals")
+                .tag("result", result)
+                .description(description)
+                .register(meterRegistry);
+    }
+
+    private static Counter partitionCounter(String result, MeterRegistry meterRegistry) {
+        return Counter.builder("impact.goal.progress.partitions")
+                .tag("result", result)
+                .description("Goal partitions processed by this instance")
+                .register(meterRegistry);
+    }
+}
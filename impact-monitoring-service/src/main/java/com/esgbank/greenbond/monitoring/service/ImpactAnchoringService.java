@@ -0,0 +1,540 @@
+package com.esgbank.greenbond.monitoring.service;
+
+import com.esgbank.greenbond.blockchain.proto.ImpactDataResponse;
+import com.esgbank.greenbond.monitoring.config.AnchoringConfig;
+import com.esgbank.greenbond.monitoring.dto.MerkleProofResponse;
+import com.esgbank.greenbond.monitoring.exception.MetricNotFoundException;
+import com.esgbank.greenbond.monitoring.integration.BlockchainService;
+import com.esgbank.greenbond.monitoring.model.ImpactAnchor;
+import com.esgbank.greenbond.monitoring.model.ImpactMetric;
+import com.esgbank.greenbond.monitoring.model.MerkleProof;
+import com.esgbank.greenbond.monitoring.model.enums.AnchorStatus;
+import com.esgbank.greenbond.monitoring.repository.ImpactAnchorRepository;
+import com.esgbank.greenbond.monitoring.repository.ImpactMetricRepository;
+import com.esgbank.greenbond.monitoring.util.MerkleTree;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Batches impact metrics into count/time windows and anchors one Merkle root per window on-chain.
+ * <p>
+ * Each metric keeps its inclusion proof next to {@code blockchainTxHash}, so a single metric can be
+ * proven against the anchored root without putting every reading on-chain. Windows are anchored
+ * one at a time on a dedicated thread; a window rejected by the chain is retried with the next
+ * one, while a confirmed window only retries its MongoDB writes. A window whose chain outcome is
+ * unknown stays {@code PENDING} and is never re-anchored, so its leaves cannot be recorded twice.
+ * <p>
+ * Metrics that do not fit into the in-memory backlog of {@code max-pending} are flagged as
+ * deferred and re-submitted by a periodic sweep once the backlog has room again.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ImpactAnchoringService {
+
+    private final ImpactMetricRepository metricRepository;
+    private final ImpactAnchorRepository anchorRepository;
+    private final BlockchainService blockchainService;
+    private final MongoTemplate mongoTemplate;
+    private final AnchoringConfig anchoringConfig;
+    private final MetricHotWindowService hotWindowService;
+    private final MetricBucketStore bucketStore;
+    private final JobLeaseStore leaseStore;
+
+    private static final String RECOVERY_JOB = "anchoring-recovery";
+    private static final String SWEEP_JOB = "anchoring-sweep";
+
+    private final ExecutorService anchorExecutor = Executors.newSingleThreadExecutor(r -> new Thread(r, "impact-anchor"));
+
+    private final Object windowLock = new Object();
+    private List<PendingLeaf> window = new ArrayList<>();
+    private LocalDateTime windowOpenedAt;
+
+    /**
+     * Adds saved metrics to the current window, anchoring it as soon as it reaches the batch size.
+     */
+    public void submit(List<ImpactMetric> metrics) {
+        List<PendingLeaf> leaves = metrics.stream().map(PendingLeaf::of).toList();
+        if (!addToWindow(leaves)) {
+            defer(leaves);
+        }
+    }
+
+    private boolean addToWindow(List<PendingLeaf> leaves) {
+        synchronized (windowLock) {
+            if (window.size() + leaves.size() > anchoringConfig.getMaxPending()) {
+                log.warn("Anchoring backlog is full ({} pending), deferring {} metrics",
+                        window.size(), leaves.size());
+                return false;
+            }
+            if (window.isEmpty()) {
+                windowOpenedAt = LocalDateTime.now();
+            }
+            window.addAll(leaves);
+
+            while (window.size() >= anchoringConfig.getBatchSize()) {
+                List<PendingLeaf> batch = new ArrayList<>(window.subList(0, anchoringConfig.getBatchSize()));
+                window = new ArrayList<>(window.subList(anchoringConfig.getBatchSize(), window.size()));
+                scheduleAnchor(batch, windowOpenedAt);
+            }
+            if (window.isEmpty()) {
+                windowOpenedAt = null;
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Anchors a partial window once it has been open for longer than max-wait.
+     */
+    @Scheduled(fixedDelayString = "${app.anchoring.check-interval:5000}")
+    public void flushExpiredWindow() {
+        synchronized (windowLock) {
+            if (windowOpenedAt != null
+                    && windowOpenedAt.plus(anchoringConfig.getMaxWait(), ChronoUnit.MILLIS).isBefore(LocalDateTime.now())) {
+                flushWindow();
+            }
+        }
+    }
+
+    /**
+     * Re-submits metrics deferred by a full backlog, as many as the backlog has room for. One
+     * instance sweeps at a time under a job lease; a metric deferred again is flagged again.
+     */
+    @Scheduled(fixedDelayString = "${app.anchoring.sweep-interval:300000}")
+    public void sweepDeferredMetrics() {
+        int capacity;
+        synchronized (windowLock) {
+            capacity = anchoringConfig.getMaxPending() - window.size();
+        }
+        if (capacity <= 0 || !leaseStore.acquire(SWEEP_JOB, anchoringConfig.getRecoveryLeaseTtl())) {
+            return;
+        }
+
+        try {
+            int swept = 0;
+            while (swept < capacity) {
+                Query query = Query.query(Criteria.where("anchorDeferred").is(true))
+                        .limit(Math.min(anchoringConfig.getBatchSize(), capacity - swept));
+                List<ImpactMetric> metrics = mongoTemplate.find(query, ImpactMetric.class);
+                if (metrics.isEmpty()) {
+                    break;
+                }
+                List<String> metricIds = metrics.stream().map(ImpactMetric::getMetricId).toList();
+                mongoTemplate.updateMulti(Query.query(Criteria.where("metricId").in(metricIds)),
+                        new Update().unset("anchorDeferred"), ImpactMetric.class);
+                submit(metrics);
+                swept += metrics.size();
+            }
+            if (swept > 0) {
+                log.info("Re-submitted {} deferred impact metrics for anchoring", swept);
+            }
+        } catch (Exception e) {
+            log.error("Failed to sweep deferred metrics: {}", e.getMessage(), e);
+        } finally {
+            leaseStore.release(SWEEP_JOB);
+        }
+    }
+
+    /**
+     * Completes windows whose chain transaction was confirmed but whose proofs were never stored,
+     * then re-submits metrics that were saved but never anchored, e.g. because the service stopped
+     * while their window was still open.
+     * <p>
+     * Only metrics created since the anchoring cutover {@code recover-since} are re-submitted, and
+     * only once they are older than {@code recover-after}, so metrics still queued in a window of
+     * a running instance are left to it. Metrics of anchors still pending a chain outcome are never
+     * re-submitted, nor are deferred metrics, which the sweep takes. One instance recovers at a
+     * time under a job lease.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void recoverUnanchoredMetrics() {
+        if (!anchoringConfig.isRecoverOnStartup()) {
+            return;
+        }
+        if (!leaseStore.acquire(RECOVERY_JOB, anchoringConfig.getRecoveryLeaseTtl())) {
+            log.info("Anchoring recovery skipped, another instance is recovering");
+            return;
+        }
+
+        try {
+            Set<String> inFlight = completeConfirmedAnchors();
+            if (anchoringConfig.getRecoverSince() == null) {
+                log.info("Unanchored metric recovery skipped, app.anchoring.recover-since is not set");
+                return;
+            }
+            int recovered = resubmitUnanchoredMetrics(inFlight);
+            if (recovered > 0) {
+                log.info("Recovered {} unanchored impact metrics for anchoring", recovered);
+            }
+        } catch (Exception e) {
+            log.error("Failed to recover unanchored metrics: {}", e.getMessage(), e);
+        } finally {
+            leaseStore.release(RECOVERY_JOB);
+        }
+    }
+
+    public MerkleProofResponse getProof(String metricId) {
+        log.debug("Getting merkle proof for metric: {}", metricId);
+
+        ImpactMetric metric = metricRepository.findByMetricId(metricId)
+                .orElseThrow(() -> new MetricNotFoundException("Metric not found: " + metricId));
+
+        MerkleProof proof = metric.getMerkleProof();
+        if (proof == null) {
+            return MerkleProofResponse.builder()
+                    .metricId(metricId)
+                    .status(MerkleProofResponse.STATUS_PENDING)
+                    .verified(false)
+                    .build();
+        }
+
+        ImpactAnchor anchor = anchorRepository.findByAnchorId(proof.getAnchorId()).orElse(null);
+        String computedLeafHash = MerkleTree.toHex(MerkleTree.leafHash(canonicalForm(metric)));
+
+        // The root is taken from the anchor record, not from the metric document being verified
+        boolean verified = anchor != null
+                && computedLeafHash.equals(proof.getLeafHash())
+                && anchor.getMerkleRoot().equals(proof.getMerkleRoot())
+                && MerkleTree.verify(computedLeafHash, proof.getPath(), anchor.getMerkleRoot());
+
+        if (!verified) {
+            log.warn("Merkle proof verification failed for metric: {}", metricId);
+        }
+
+        return MerkleProofResponse.builder()
+                .metricId(metricId)
+                .status(MerkleProofResponse.STATUS_ANCHORED)
+                .anchorId(proof.getAnchorId())
+                .leafHash(proof.getLeafHash())
+                .computedLeafHash(computedLeafHash)
+                .leafIndex(proof.getLeafIndex())
+                .leafCount(proof.getLeafCount())
+                .path(proof.getPath())
+                .merkleRoot(anchor != null ? anchor.getMerkleRoot() : proof.getMerkleRoot())
+                .transactionHash(anchor != null ? anchor.getTransactionHash() : metric.getBlockchainTxHash())
+                .blockNumber(anchor != null ? anchor.getBlockNumber() : null)
+                .anchoredAt(anchor != null ? anchor.getAnchoredAt() : metric.getBlockchainRecordedAt())
+                .verified(verified)
+                .build();
+    }
+
+    /**
+     * Canonical representation of the immutable fields of a metric used as Merkle leaf data.
+     * Timestamps are truncated to milliseconds, the precision MongoDB stores them with.
+     */
+    public static String canonicalForm(ImpactMetric metric) {
+        return Stream.of(
+                        metric.getMetricId(),
+                        metric.getBondId(),
+                        metric.getProjectId(),
+                        metric.getMetricType(),
+                        metric.getValue() != null ? metric.getValue().stripTrailingZeros().toPlainString() : null,
+                        metric.getUnit(),
+                        metric.getTimestamp() != null ? metric.getTimestamp().truncatedTo(ChronoUnit.MILLIS) : null,
+                        metric.getSourceType(),
+                        metric.getSourceId(),
+                        metric.getDeviceId())
+                .map(field -> field == null ? "" : field.toString())
+                .collect(Collectors.joining("|"));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        synchronized (windowLock) {
+            flushWindow();
+        }
+        anchorExecutor.shutdown();
+        try {
+            if (!anchorExecutor.awaitTermination(30, TimeUnit.SECONDS)) {
+                log.warn("Anchoring did not complete before shutdown");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void flushWindow() {
+        if (!window.isEmpty()) {
+            scheduleAnchor(window, windowOpenedAt);
+            window = new ArrayList<>();
+            windowOpenedAt = null;
+        }
+    }
+
+    private void scheduleAnchor(List<PendingLeaf> leaves, LocalDateTime openedAt) {
+        anchorExecutor.execute(() -> anchor(leaves, openedAt));
+    }
+
+    private void anchor(List<PendingLeaf> leaves, LocalDateTime openedAt) {
+        MerkleTree tree = new MerkleTree(leaves.stream().map(PendingLeaf::leafHash).toList());
+        Set<String> bondIds = leaves.stream()
+                .map(PendingLeaf::bondId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+
+        ImpactAnchor anchor = ImpactAnchor.builder()
+                .anchorId("ANCHOR-" + UUID.randomUUID())
+                .merkleRoot(tree.getRoot())
+                .leafCount(tree.getLeafCount())
+                .metricIds(leaves.stream().map(PendingLeaf::metricId).toList())
+                .bondIds(bondIds)
+                .windowOpenedAt(openedAt)
+                .status(AnchorStatus.PENDING)
+                .build();
+
+        try {
+            // Persisted before the chain call so a confirmed transaction is never lost or repeated
+            anchor = anchorRepository.save(anchor);
+        } catch (Exception e) {
+            log.error("Failed to persist anchor for {} impact metrics, will retry with the next window. Error: {}",
+                    leaves.size(), e.getMessage());
+            requeue(leaves, openedAt);
+            return;
+        }
+
+        ImpactDataResponse response;
+        try {
+            response = blockchainService.anchorMerkleRoot(anchor);
+        } catch (Exception e) {
+            if (BlockchainService.isOutcomeUnknown(e)) {
+                // The transaction may have been sent; re-anchoring could record the same leaves twice
+                log.error("Chain outcome of anchor {} is unknown, keeping it pending for reconciliation by root {}. "
+                        + "Error: {}", anchor.getAnchorId(), anchor.getMerkleRoot(), e.getMessage());
+                return;
+            }
+            log.error("Failed to anchor {} impact metrics, will retry with the next window. Error: {}",
+                    leaves.size(), e.getMessage());
+            discardPending(anchor);
+            requeue(leaves, openedAt);
+            return;
+        }
+
+        anchor.setTransactionHash(response.getTransactionHash());
+        anchor.setBlockNumber(response.getBlockNumber());
+        anchor.setBlockchainImpactId(response.getImpactId());
+        anchor.setAnchoredAt(LocalDateTime.now());
+        anchor.setStatus(AnchorStatus.CONFIRMED);
+
+        if (completeAnchor(anchor, tree, leaves)) {
+            log.info("Anchored {} impact metrics under root {}, txHash: {}",
+                    leaves.size(), anchor.getMerkleRoot(), anchor.getTransactionHash());
+        }
+    }
+
+    /**
+     * Stores a confirmed anchor and the proofs of its metrics. Only these MongoDB writes are
+     * retried; the window is not requeued, because that would send a second transaction.
+     */
+    private boolean completeAnchor(ImpactAnchor anchor, MerkleTree tree, List<PendingLeaf> leaves) {
+        long backoff = anchoringConfig.getWriteRetryBackoff().toMillis();
+
+        for (int attempt = 1; ; attempt++) {
+            try {
+                anchorRepository.save(anchor);
+                storeProofs(anchor, tree, leaves);
+                hotWindowService.applyAnchor(leaves.stream().map(PendingLeaf::metricId).toList(),
+                        anchor.getTransactionHash(), anchor.getAnchoredAt());
+                bucketStore.applyAnchor(leaves.stream().collect(Collectors.groupingBy(PendingLeaf::bucketId,
+                                LinkedHashMap::new, Collectors.mapping(PendingLeaf::metricId, Collectors.toList()))),
+                        anchor.getTransactionHash(), anchor.getAnchoredAt());
+                mongoTemplate.updateFirst(Query.query(Criteria.where("anchorId").is(anchor.getAnchorId())),
+                        Update.update("status", AnchorStatus.COMPLETED), ImpactAnchor.class);
+                return true;
+
+            } catch (Exception e) {
+                if (attempt >= anchoringConfig.getWriteAttempts()) {
+                    // A CONFIRMED anchor is completed by startup recovery; a PENDING one needs the logged txHash
+                    log.error("Failed to store anchor {} (txHash: {}) after {} attempts. Error: {}",
+                            anchor.getAnchorId(), anchor.getTransactionHash(), attempt, e.getMessage());
+                    return false;
+                }
+                log.warn("Failed to store anchor {} (attempt {}), retrying in {} ms. Error: {}",
+                        anchor.getAnchorId(), attempt, backoff, e.getMessage());
+            }
+
+            try {
+                Thread.sleep(backoff);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                log.error("Interrupted while storing anchor {} (txHash: {})",
+                        anchor.getAnchorId(), anchor.getTransactionHash());
+                return false;
+            }
+            backoff *= 2;
+        }
+    }
+
+    private void discardPending(ImpactAnchor anchor) {
+        try {
+            anchorRepository.delete(anchor);
+        } catch (Exception e) {
+            log.warn("Failed to discard pending anchor {}: {}", anchor.getAnchorId(), e.getMessage());
+        }
+    }
+
+    /**
+     * Finishes the MongoDB writes of anchors whose transaction was confirmed. Returns the metric
+     * ids of anchors still in flight, which must not be anchored again.
+     */
+    private Set<String> completeConfirmedAnchors() {
+        Set<String> inFlight = new HashSet<>();
+
+        for (ImpactAnchor anchor : anchorRepository.findByStatusIn(List.of(AnchorStatus.PENDING, AnchorStatus.CONFIRMED))) {
+            inFlight.addAll(anchor.getMetricIds());
+            if (anchor.getStatus() == AnchorStatus.PENDING) {
+                // The chain outcome is unknown; re-anchoring could send a second transaction
+                log.warn("Anchor {} of {} metrics is still pending a chain confirmation, reconcile it by root {}",
+                        anchor.getAnchorId(), anchor.getLeafCount(), anchor.getMerkleRoot());
+                continue;
+            }
+
+            Map<String, ImpactMetric> metrics = mongoTemplate.find(
+                            Query.query(Criteria.where("metricId").in(anchor.getMetricIds())), ImpactMetric.class)
+                    .stream()
+                    .collect(Collectors.toMap(ImpactMetric::getMetricId, Function.identity(), (a, b) -> a));
+            if (metrics.size() != anchor.getMetricIds().size()) {
+                log.warn("Anchor {} references missing metrics, leaving it confirmed", anchor.getAnchorId());
+                continue;
+            }
+
+            List<PendingLeaf> leaves = anchor.getMetricIds().stream().map(id -> PendingLeaf.of(metrics.get(id))).toList();
+            MerkleTree tree = new MerkleTree(leaves.stream().map(PendingLeaf::leafHash).toList());
+            if (!tree.getRoot().equals(anchor.getMerkleRoot())) {
+                log.warn("Anchor {} no longer matches its metrics, leaving it confirmed", anchor.getAnchorId());
+                continue;
+            }
+            if (completeAnchor(anchor, tree, leaves)) {
+                log.info("Completed confirmed anchor {} of {} metrics", anchor.getAnchorId(), leaves.size());
+            }
+        }
+
+        return inFlight;
+    }
+
+    private int resubmitUnanchoredMetrics(Set<String> inFlight) {
+        Query query = new Query(Criteria.where("blockchainTxHash").is(null)
+                .and("createdAt").gte(anchoringConfig.getRecoverSince().atStartOfDay())
+                .lte(LocalDateTime.now().minus(anchoringConfig.getRecoverAfter()))
+                .and("anchorDeferred").ne(true))
+                .cursorBatchSize(anchoringConfig.getBatchSize());
+        int recovered = 0;
+
+        try (Stream<ImpactMetric> metrics = mongoTemplate.stream(query, ImpactMetric.class)) {
+            List<ImpactMetric> chunk = new ArrayList<>(anchoringConfig.getBatchSize());
+            for (ImpactMetric metric : (Iterable<ImpactMetric>) metrics::iterator) {
+                if (metric.getMerkleProof() != null || inFlight.contains(metric.getMetricId())) {
+                    continue;
+                }
+                chunk.add(metric);
+                if (chunk.size() == anchoringConfig.getBatchSize()) {
+                    submit(chunk);
+                    recovered += chunk.size();
+                    chunk = new ArrayList<>(anchoringConfig.getBatchSize());
+                }
+                if (recovered >= anchoringConfig.getMaxPending()) {
+                    break;
+                }
+            }
+            submit(chunk);
+            recovered += chunk.size();
+        }
+
+        return recovered;
+    }
+
+    private void storeProofs(ImpactAnchor anchor, MerkleTree tree, List<PendingLeaf> leaves) {
+        BulkOperations bulkOps = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, ImpactMetric.class);
+
+        for (int i = 0; i < leaves.size(); i++) {
+            PendingLeaf leaf = leaves.get(i);
+            MerkleProof proof = MerkleProof.builder()
+                    .anchorId(anchor.getAnchorId())
+                    .merkleRoot(anchor.getMerkleRoot())
+                    .leafHash(MerkleTree.toHex(leaf.leafHash()))
+                    .leafIndex(i)
+                    .leafCount(leaves.size())
+                    .path(tree.getProof(i))
+                    .build();
+
+            // A metric keeps the proof of the first transaction that anchored it
+            bulkOps.updateOne(Query.query(Criteria.where("metricId").is(leaf.metricId())
+                            .orOperator(Criteria.where("blockchainTxHash").is(null),
+                                    Criteria.where("blockchainTxHash").is(anchor.getTransactionHash()))),
+                    new Update()
+                            .set("merkleProof", proof)
+                            .set("blockchainTxHash", anchor.getTransactionHash())
+                            .set("blockchainRecordedAt", anchor.getAnchoredAt())
+                            .unset("anchorDeferred"));
+        }
+
+        bulkOps.execute();
+    }
+
+    private void requeue(List<PendingLeaf> leaves, LocalDateTime openedAt) {
+        synchronized (windowLock) {
+            if (window.size() + leaves.size() <= anchoringConfig.getMaxPending()) {
+                List<PendingLeaf> merged = new ArrayList<>(leaves.size() + window.size());
+                merged.addAll(leaves);
+                merged.addAll(window);
+                window = merged;
+                if (windowOpenedAt == null || openedAt.isBefore(windowOpenedAt)) {
+                    windowOpenedAt = openedAt;
+                }
+                return;
+            }
+            log.warn("Anchoring backlog is full, deferring {} metrics of a failed window", leaves.size());
+        }
+        defer(leaves);
+    }
+
+    /**
+     * Flags metrics left out of the backlog for the sweep; if that fails too, only startup recovery
+     * picks them up.
+     */
+    private void defer(List<PendingLeaf> leaves) {
+        try {
+            List<String> metricIds = leaves.stream().map(PendingLeaf::metricId).toList();
+            mongoTemplate.updateMulti(Query.query(Criteria.where("metricId").in(metricIds)),
+                    Update.update("anchorDeferred", true), ImpactMetric.class);
+        } catch (Exception e) {
+            log.error("Failed to flag {} deferred metrics for the anchoring sweep: {}", leaves.size(), e.getMessage());
+        }
+    }
+
+    private record PendingLeaf(String metricId, String bondId, String bucketId, byte[] leafHash) {
+
+        static PendingLeaf of(ImpactMetric metric) {
+            return new PendingLeaf(metric.getMetricId(), metric.getBondId(), MetricBucketStore.idOf(metric),
+                    MerkleTree.leafHash(canonicalForm(metric)));
+        }
+    }
+}
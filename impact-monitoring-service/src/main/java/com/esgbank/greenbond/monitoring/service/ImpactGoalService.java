@@ -1,10 +1,12 @@
 package com.esgbank.greenbond.monitoring.service;
 
+import com.esgbank.greenbond.monitoring.config.GoalDashboardConfig;
 import com.esgbank.greenbond.monitoring.dto.ImpactGoalRequest;
 import com.esgbank.greenbond.monitoring.dto.ImpactGoalResponse;
 import com.esgbank.greenbond.monitoring.exception.ImpactMonitoringException;
 import com.esgbank.greenbond.monitoring.exception.GoalNotFoundException;
 import com.esgbank.greenbond.monitoring.mapper.ImpactGoalMapper;
+import com.esgbank.greenbond.monitoring.model.GoalDashboardCounters;
 import com.esgbank.greenbond.monitoring.model.ImpactGoal;
 import com.esgbank.greenbond.monitoring.model.enums.GoalStatus;
 import com.esgbank.greenbond.monitoring.model.enums.MetricType;
@@ -14,12 +16,12 @@ import lombok.extern.slf4j.Slf4j;
 import org.slf4j.MDC;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
-import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
@@ -32,7 +34,11 @@ public class ImpactGoalService {
     private final ImpactGoalRepository goalRepository;
     private final ImpactGoalMapper goalMapper;
     private final ImpactMetricService metricService;
-    private final TimeSeriesService timeSeriesService;
+    private final MetricRunningTotalsService runningTotalsService;
+    private final GoalProgressHistoryStore historyStore;
+    private final GoalDashboardCounterStore counterStore;
+    private final GoalDeadlineTimer deadlineTimer;
+    private final GoalDashboardConfig dashboardConfig;
 
     @Transactional
     public ImpactGoalResponse createGoal(ImpactGoalRequest request) {
@@ -65,6 +71,8 @@ public class ImpactGoalService {
             }
 
             ImpactGoal savedGoal = goalRepository.save(goal);
+            counterStore.apply(null, GoalDashboardCounterStore.GoalState.of(savedGoal));
+            deadlineTimer.schedule(savedGoal);
 
             log.info("Impact goal created successfully: {}, bond: {}",
                     savedGoal.getGoalId(), request.getBondId());
@@ -132,28 +140,6 @@ public class ImpactGoalService {
         return goals.stream().map(goalMapper::toResponse).toList();
     }
 
-    @Scheduled(cron = "0 0 2 * * ?") // Run daily at 2 AM
-    public void updateGoalsProgress() {
-        log.info("Starting scheduled goal progress update");
-
-        try {
-            List<ImpactGoal> allGoals = goalRepository.findAll();
-            int updatedCount = 0;
-
-            for (ImpactGoal goal : allGoals) {
-                if (updateGoalProgress(goal)) {
-                    goalRepository.save(goal);
-                    updatedCount++;
-                }
-            }
-
-            log.info("Goal progress update completed. Updated {}/{} goals", updatedCount, allGoals.size());
-
-        } catch (Exception e) {
-            log.error("Scheduled goal progress update failed: {}", e.getMessage(), e);
-        }
-    }
-
     @Transactional
     public ImpactGoalResponse updateGoalProgress(String goalId) {
         log.info("Updating progress for goal: {}", goalId);
@@ -161,8 +147,14 @@ public class ImpactGoalService {
         ImpactGoal goal = goalRepository.findByGoalId(goalId)
                 .orElseThrow(() -> new GoalNotFoundException("Impact goal not found: " + goalId));
 
-        updateGoalProgress(goal);
+        BigDecimal previousProgress = goal.getProgressPercentage();
+        GoalDashboardCounterStore.GoalState before = GoalDashboardCounterStore.GoalState.of(goal);
+        boolean changed = updateGoalProgress(goal);
         ImpactGoal updatedGoal = goalRepository.save(goal);
+        counterStore.apply(before, GoalDashboardCounterStore.GoalState.of(updatedGoal));
+        if (changed) {
+            historyStore.record(List.of(GoalProgressHistoryStore.Snapshot.of(updatedGoal, previousProgress)));
+        }
 
         log.info("Goal progress updated: {}, progress: {}%", goalId, updatedGoal.getProgressPercentage());
 
@@ -180,6 +172,8 @@ public class ImpactGoalService {
             // Validate update request
             validateGoalRequest(request);
 
+            GoalDashboardCounterStore.GoalState before = GoalDashboardCounterStore.GoalState.of(goal);
+
             // Update goal fields
             goal.setGoalName(request.getGoalName());
             goal.setDescription(request.getDescription());
@@ -196,9 +190,15 @@ public class ImpactGoalService {
             }
 
             // Recalculate progress
-            updateGoalProgress(goal);
+            BigDecimal previousProgress = goal.getProgressPercentage();
+            boolean changed = updateGoalProgress(goal);
 
             ImpactGoal updatedGoal = goalRepository.save(goal);
+            counterStore.apply(before, GoalDashboardCounterStore.GoalState.of(updatedGoal));
+            deadlineTimer.schedule(updatedGoal);
+            if (changed) {
+                historyStore.record(List.of(GoalProgressHistoryStore.Snapshot.of(updatedGoal, previousProgress)));
+            }
             log.info("Impact goal updated successfully: {}", goalId);
 
             return goalMapper.toResponse(updatedGoal);
@@ -218,6 +218,8 @@ public class ImpactGoalService {
 
         try {
             goalRepository.delete(goal);
+            counterStore.apply(GoalDashboardCounterStore.GoalState.of(goal), null);
+            historyStore.deleteGoal(goalId);
             log.info("Impact goal deleted successfully: {}", goalId);
 
         } catch (Exception e) {
@@ -230,33 +232,21 @@ public class ImpactGoalService {
         log.debug("Generating goals dashboard for bond: {}", bondId);
 
         try {
-            List<ImpactGoal> goals = goalRepository.findByBondId(bondId,
-                    org.springframework.data.domain.Pageable.unpaged()).getContent();
+            GoalDashboardCounters counters = counterStore.find(bondId)
+                    .orElseGet(() -> GoalDashboardCounters.builder().bondId(bondId).build());
 
-            long totalGoals = goals.size();
-            long achievedGoals = goals.stream()
-                    .filter(g -> g.getStatus() == GoalStatus.ACHIEVED || g.getStatus() == GoalStatus.EXCEEDED)
-                    .count();
-            long atRiskGoals = goals.stream()
-                    .filter(g -> g.getStatus() == GoalStatus.AT_RISK || g.getStatus() == GoalStatus.BEHIND_SCHEDULE)
-                    .count();
-            long onTrackGoals = goals.stream()
-                    .filter(g -> g.getStatus() == GoalStatus.ON_TRACK)
-                    .count();
-
-            BigDecimal averageProgress = goals.stream()
-                    .map(ImpactGoal::getProgressPercentage)
-                    .reduce(BigDecimal.ZERO, BigDecimal::add)
-                    .divide(BigDecimal.valueOf(totalGoals > 0 ? totalGoals : 1), 2, RoundingMode.HALF_UP);
-
-            // Calculate upcoming deadlines (goals due in next 30 days)
-            LocalDateTime thirtyDaysFromNow = LocalDateTime.now().plusDays(30);
-            long upcomingDeadlines = goals.stream()
-                    .filter(g -> g.getTargetDate().isBefore(thirtyDaysFromNow) &&
-                            g.getTargetDate().isAfter(LocalDateTime.now()) &&
-                            g.getStatus() != GoalStatus.ACHIEVED &&
-                            g.getStatus() != GoalStatus.EXCEEDED)
-                    .count();
+            long totalGoals = counters.getTotalGoals() != null ? counters.getTotalGoals() : 0;
+            long achievedGoals = GoalDashboardCounterStore.statusCount(counters, GoalStatus.ACHIEVED)
+                    + GoalDashboardCounterStore.statusCount(counters, GoalStatus.EXCEEDED);
+            long atRiskGoals = GoalDashboardCounterStore.statusCount(counters, GoalStatus.AT_RISK)
+                    + GoalDashboardCounterStore.statusCount(counters, GoalStatus.BEHIND_SCHEDULE);
+            long onTrackGoals = GoalDashboardCounterStore.statusCount(counters, GoalStatus.ON_TRACK);
+
+            BigDecimal averageProgress = GoalDashboardCounterStore.averageProgress(counters);
+
+            // Goals not yet achieved that are due in the configured number of days
+            long upcomingDeadlines = GoalDashboardCounterStore.upcomingDeadlines(counters, LocalDate.now(),
+                    dashboardConfig.getUpcomingDays());
 
             return Map.of(
                     "bondId", bondId,
@@ -303,6 +293,7 @@ public class ImpactGoalService {
                 .orElseThrow(() -> new GoalNotFoundException("Impact goal not found: " + goalId));
 
         GoalStatus oldStatus = goal.getStatus();
+        GoalDashboardCounterStore.GoalState before = GoalDashboardCounterStore.GoalState.of(goal);
         goal.setStatus(status);
 
         // Update KPIs with status change information
@@ -315,6 +306,8 @@ public class ImpactGoalService {
                                 LocalDateTime.now(), oldStatus, status, comment));
 
         ImpactGoal updatedGoal = goalRepository.save(goal);
+        counterStore.apply(before, GoalDashboardCounterStore.GoalState.of(updatedGoal));
+        deadlineTimer.schedule(updatedGoal);
         log.info("Goal status updated: {} -> {}", oldStatus, status);
 
         return goalMapper.toResponse(updatedGoal);
@@ -326,10 +319,7 @@ public class ImpactGoalService {
         LocalDateTime now = LocalDateTime.now();
         List<GoalStatus> overdueStatuses = List.of(GoalStatus.BEHIND_SCHEDULE, GoalStatus.AT_RISK);
 
-        List<ImpactGoal> overdueGoals = goalRepository.findAll().stream()
-                .filter(goal -> goal.getTargetDate().isBefore(now) &&
-                        overdueStatuses.contains(goal.getStatus()))
-                .toList();
+        List<ImpactGoal> overdueGoals = goalRepository.findByStatusInAndTargetDateBefore(overdueStatuses, now);
 
         return overdueGoals.stream().map(goalMapper::toResponse).toList();
     }
@@ -341,24 +331,18 @@ public class ImpactGoalService {
                 .orElseThrow(() -> new GoalNotFoundException("Impact goal not found: " + goalId));
 
         try {
-            // This would typically query historical progress data
-            // For now, return simulated progress history
             LocalDateTime endDate = LocalDateTime.now();
             LocalDateTime startDate = endDate.minusMonths(months);
 
-            Map<String, BigDecimal> progressHistory = new java.util.HashMap<>();
-            LocalDateTime current = startDate;
+            // Points before the goal existed would only repeat its initial progress
+            LocalDateTime firstPoint = goal.getCreatedAt() != null && goal.getCreatedAt().isAfter(startDate)
+                    ? goal.getCreatedAt() : startDate;
+            java.time.Duration step = historyStore.stepFor(startDate, endDate);
+            List<GoalProgressHistoryStore.Point> points = historyStore.findHistory(goalId, startDate, endDate);
 
-            while (current.isBefore(endDate)) {
-                // Simulate progress data - in real implementation, this would come from historical records
-                double progress = Math.min(goal.getProgressPercentage().doubleValue() *
-                                (java.time.Duration.between(startDate, current).toDays() /
-                                        (double) java.time.Duration.between(startDate, endDate).toDays()),
-                        goal.getProgressPercentage().doubleValue());
-
-                progressHistory.put(current.toLocalDate().toString(), BigDecimal.valueOf(progress));
-                current = current.plusDays(7); // Weekly progress points
-            }
+            Map<String, BigDecimal> progressHistory = new java.util.LinkedHashMap<>();
+            GoalProgressHistoryStore.sample(points, firstPoint, endDate, step)
+                    .forEach((time, progress) -> progressHistory.put(time.toLocalDate().toString(), progress));
 
             // Add current progress
             progressHistory.put(endDate.toLocalDate().toString(), goal.getProgressPercentage());
@@ -369,6 +353,7 @@ public class ImpactGoalService {
                     "period", months + " months",
                     "startDate", startDate,
                     "endDate", endDate,
+                    "resolutionDays", step.toDays(),
                     "progressHistory", progressHistory,
                     "currentProgress", goal.getProgressPercentage(),
                     "targetProgress", calculateExpectedProgress(goal, startDate, endDate)
@@ -381,9 +366,17 @@ public class ImpactGoalService {
     }
 
     private boolean updateGoalProgress(ImpactGoal goal) {
+        return updateGoalProgress(goal, runningTotalsService.getSummary(goal.getBondId()));
+    }
+
+    /**
+     * Recalculates progress and status of a goal from the running totals of its bond.
+     *
+     * @return whether the goal changed and needs to be saved
+     */
+    boolean updateGoalProgress(ImpactGoal goal, Map<MetricType, BigDecimal> metricsSummary) {
         try {
             // Get current metric value for this goal
-            Map<MetricType, BigDecimal> metricsSummary = timeSeriesService.getBondMetricsSummary(goal.getBondId());
             BigDecimal currentValue = metricsSummary.getOrDefault(goal.getMetricType(), BigDecimal.ZERO);
 
             // Only update if value has changed significantly (to avoid frequent updates)
@@ -495,18 +488,21 @@ public class ImpactGoalService {
     }
 
     public long getGoalCountByBond(String bondId) {
-        return goalRepository.findByBondId(bondId, org.springframework.data.domain.Pageable.unpaged()).getTotalElements();
+        return counterStore.find(bondId)
+                .map(GoalDashboardCounters::getTotalGoals)
+                .orElse(0L);
     }
 
     public long getGoalCountByBondAndStatus(String bondId, GoalStatus status) {
-        return goalRepository.findByBondIdAndStatus(bondId, status, org.springframework.data.domain.Pageable.unpaged()).getTotalElements();
+        return counterStore.find(bondId)
+                .map(counters -> GoalDashboardCounterStore.statusCount(counters, status))
+                .orElse(0L);
     }
 
     public boolean hasActiveGoals(String bondId) {
-        List<GoalStatus> activeStatuses = List.of(
-                GoalStatus.NOT_STARTED, GoalStatus.IN_PROGRESS,
-                GoalStatus.ON_TRACK, GoalStatus.AT_RISK
-        );
-        return !goalRepository.findByBondIdAndStatusIn(bondId, activeStatuses).isEmpty();
+        return counterStore.find(bondId)
+                .map(counters -> GoalDeadlineTimer.RUNNING_STATUSES.stream()
+                        .anyMatch(status -> GoalDashboardCounterStore.statusCount(counters, status) > 0))
+                .orElse(false);
     }
 }
\ No newline at end of file
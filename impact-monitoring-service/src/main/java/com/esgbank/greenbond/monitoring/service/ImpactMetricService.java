@@ -1,19 +1,25 @@
 package com.esgbank.greenbond.monitoring.service;
 
+import com.esgbank.greenbond.monitoring.dto.ImpactMetricBatchItemResult;
+import com.esgbank.greenbond.monitoring.dto.ImpactMetricBatchResponse;
 import com.esgbank.greenbond.monitoring.dto.ImpactMetricRequest;
 import com.esgbank.greenbond.monitoring.dto.ImpactMetricResponse;
+import com.esgbank.greenbond.monitoring.dto.MerkleProofResponse;
 import com.esgbank.greenbond.monitoring.dto.MetricAggregationRequest;
 import com.esgbank.greenbond.monitoring.dto.MetricAggregationResponse;
 import com.esgbank.greenbond.monitoring.exception.ImpactMonitoringException;
 import com.esgbank.greenbond.monitoring.exception.MetricNotFoundException;
-import com.esgbank.greenbond.monitoring.integration.BlockchainService;
 import com.esgbank.greenbond.monitoring.mapper.ImpactMetricMapper;
 import com.esgbank.greenbond.monitoring.model.ImpactMetric;
 import com.esgbank.greenbond.monitoring.model.enums.MetricType;
 import com.esgbank.greenbond.monitoring.repository.ImpactMetricRepository;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.slf4j.MDC;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
@@ -22,13 +28,21 @@ import org.springframework.transaction.annotation.Transactional;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
 
 /**
  * Сервис для управления ESG-метриками воздействия.
  * Обеспечивает сбор, валидацию, оценку качества данных и хранение метрик.
- * Интегрируется с InfluxDB для временных рядов и блокчейном для неизменяемости данных.
+ * Интегрируется с InfluxDB для временных рядов и блокчейном (через пакетную запись корней дерева Меркла)
+ * для неизменяемости данных.
  */
 @Slf4j
 @Service
@@ -39,11 +53,20 @@ public class ImpactMetricService {
     private final ImpactMetricMapper metricMapper;
     private final TimeSeriesService timeSeriesService;
     private final DataQualityService dataQualityService;
-    private final BlockchainService blockchainService;
+    private final ImpactAnchoringService anchoringService;
+    private final MetricRunningTotalsService runningTotalsService;
+    private final MetricRollupService rollupService;
+    private final MetricHotWindowService hotWindowService;
+    private final MetricLiveFeedService liveFeedService;
+    private final AggregationResultCache aggregationCache;
+    private final MetricDeduplicationService deduplicationService;
+    private final MetricBucketStore bucketStore;
+    private final MetricArchiveStore archiveStore;
+    private final Validator validator;
 
     /**
      * Создает новую ESG-метрику воздействия.
-     * Валидирует данные, оценивает качество, сохраняет в MongoDB и InfluxDB, записывает в блокчейн.
+     * Валидирует данные, оценивает качество, сохраняет в MongoDB и InfluxDB, добавляет в окно записи в блокчейн.
      *
      * @param request запрос на создание метрики
      * @return ImpactMetricResponse информация о созданной метрике
@@ -59,21 +82,34 @@ public class ImpactMetricService {
             // Валидируем данные метрики (формат, диапазон значений)
             validateMetricRequest(request);
 
+            // Повторное показание устройства не записывается, возвращаем уже сохраненную метрику
+            if (!deduplicationService.findDuplicates(List.of(request)).isEmpty()) {
+                Optional<ImpactMetric> stored = findStoredReading(request);
+                if (stored.isPresent()) {
+                    log.info("Duplicate reading for device: {}, returning stored metric: {}",
+                            request.getDeviceId(), stored.get().getMetricId());
+                    return metricMapper.toResponse(stored.get());
+                }
+            }
+
             // Оцениваем качество данных (полнота, точность, актуальность)
             var dataQuality = dataQualityService.assessDataQuality(request);
 
             // Создаем сущность метрики из запроса
             ImpactMetric metric = metricMapper.toEntity(request);
             metric.setDataQuality(dataQuality);
+            assignMetricId(metric);
 
-            // Сохраняем метрику в MongoDB
-            ImpactMetric savedMetric = metricRepository.save(metric);
-
-            // Сохраняем метрику в InfluxDB для временных рядов и аналитики
-            timeSeriesService.storeMetricInTimeSeries(savedMetric);
+            // Сохраняем метрику в MongoDB; уникальный индекс показаний отсекает параллельную запись того же показания
+            ImpactMetric savedMetric;
+            try {
+                savedMetric = metricRepository.save(metric);
+            } catch (DuplicateKeyException e) {
+                return metricMapper.toResponse(findStoredReading(request).orElseThrow(() -> e));
+            }
 
-            // Записываем метрику в блокчейн для неизменяемости и прозрачности
-            blockchainService.recordImpactMetric(savedMetric);
+            // Метрика сохранена: сбой производных данных не должен приводить к повторной отправке клиентом
+            applyDerivedState(List.of(savedMetric));
 
             log.info("Impact metric created successfully: {}, bond: {}",
                     savedMetric.getMetricId(), request.getBondId());
@@ -87,6 +123,178 @@ public class ImpactMetricService {
         }
     }
 
+    /**
+     * Создает пакет ESG-метрик воздействия.
+     * Валидирует и оценивает качество каждой метрики, затем выполняет одну запись insertMany в MongoDB
+     * и одну пакетную запись в InfluxDB. Некорректные элементы не прерывают обработку пакета,
+     * а возвращаются в результатах с ошибкой.
+     *
+     * @param requests запросы на создание метрик
+     * @return ImpactMetricBatchResponse результаты по каждому элементу пакета
+     */
+    @Transactional
+    public ImpactMetricBatchResponse createMetrics(List<ImpactMetricRequest> requests) {
+        String requestId = MDC.get("requestId");
+        log.info("Creating {} impact metrics in bulk, requestId: {}", requests.size(), requestId);
+
+        PreparedBatch batch = prepareBatch(requests);
+
+        if (!batch.accepted().isEmpty()) {
+            try {
+                // Одна запись insertMany в MongoDB для всего пакета
+                List<ImpactMetric> savedMetrics;
+                List<Integer> savedIndexes;
+                try {
+                    savedMetrics = metricRepository.insert(batch.accepted());
+                    savedIndexes = batch.acceptedIndexes();
+                } catch (DuplicateKeyException e) {
+                    // Показание записано параллельным запросом: дописываем пакет поштучно
+                    savedMetrics = new ArrayList<>(batch.accepted().size());
+                    savedIndexes = new ArrayList<>(batch.accepted().size());
+                    insertIndividually(batch, savedMetrics, savedIndexes);
+                }
+                applyStoredMetrics(batch, savedMetrics, savedIndexes);
+
+            } catch (DataAccessException e) {
+                failStorage(batch, e);
+            } catch (Exception e) {
+                log.error("Failed to create impact metrics in bulk. Error: {}", e.getMessage(), e);
+                throw new ImpactMonitoringException("Bulk impact metric creation failed: " + e.getMessage(), e);
+            }
+        }
+
+        return summarize(batch);
+    }
+
+    /**
+     * Пакет после валидации, дедупликации и оценки качества: результаты отклоненных элементов
+     * и метрики, готовые к записи, с индексами в исходном запросе.
+     */
+    record PreparedBatch(ImpactMetricBatchItemResult[] results, List<ImpactMetric> accepted,
+                         List<Integer> acceptedIndexes) {
+    }
+
+    // Валидация, дедупликация и оценка качества пакета; общая для блокирующей и реактивной записи
+    PreparedBatch prepareBatch(List<ImpactMetricRequest> requests) {
+        ImpactMetricBatchItemResult[] results = new ImpactMetricBatchItemResult[requests.size()];
+        List<ImpactMetricRequest> valid = new ArrayList<>(requests.size());
+        List<Integer> validIndexes = new ArrayList<>(requests.size());
+        List<ImpactMetric> accepted = new ArrayList<>(requests.size());
+        List<Integer> acceptedIndexes = new ArrayList<>(requests.size());
+
+        // Валидируем все элементы пакета до записи
+        for (int i = 0; i < requests.size(); i++) {
+            try {
+                validateBatchItem(requests.get(i));
+                valid.add(requests.get(i));
+                validIndexes.add(i);
+            } catch (Exception e) {
+                log.debug("Rejected bulk metric item {}: {}", i, e.getMessage());
+                results[i] = failedItem(i, e.getMessage());
+            }
+        }
+
+        // Отбрасываем уже сохраненные показания до оценки качества, чтобы повторы не искажали статистику ряда
+        Set<Integer> duplicates = deduplicationService.findDuplicates(valid);
+
+        for (int j = 0; j < valid.size(); j++) {
+            int i = validIndexes.get(j);
+            if (duplicates.contains(j)) {
+                results[i] = duplicateItem(i);
+                continue;
+            }
+            try {
+                ImpactMetric metric = metricMapper.toEntity(valid.get(j));
+                metric.setDataQuality(dataQualityService.assessDataQuality(valid.get(j)));
+                assignMetricId(metric);
+
+                accepted.add(metric);
+                acceptedIndexes.add(i);
+            } catch (Exception e) {
+                log.debug("Rejected bulk metric item {}: {}", i, e.getMessage());
+                results[i] = failedItem(i, e.getMessage());
+            }
+        }
+
+        return new PreparedBatch(results, accepted, acceptedIndexes);
+    }
+
+    // Обновление производных данных после записи пакета в MongoDB. Записанные элементы отмечаются
+    // созданными до обновления: документы уже сохранены, и повтор запроса создал бы их дубликаты
+    void applyStoredMetrics(PreparedBatch batch, List<ImpactMetric> savedMetrics, List<Integer> savedIndexes) {
+        for (int i = 0; i < savedMetrics.size(); i++) {
+            int index = savedIndexes.get(i);
+            batch.results()[index] = ImpactMetricBatchItemResult.builder()
+                    .index(index)
+                    .status(ImpactMetricBatchItemResult.STATUS_CREATED)
+                    .metricId(savedMetrics.get(i).getMetricId())
+                    .build();
+        }
+
+        applyDerivedState(savedMetrics);
+    }
+
+    // Каждый шаг выполняется независимо от сбоя предыдущего. Накопительные итоги и агрегаты
+    // восстанавливаются ночной сверкой и дозаполнением, поэтому сбой только логируется
+    private void applyDerivedState(List<ImpactMetric> savedMetrics) {
+        applyStep("deduplication", savedMetrics, deduplicationService::remember);
+
+        // Добавляем показания в часовые бакеты рядов, если они ведутся в текущей схеме хранения
+        applyStep("buckets", savedMetrics, bucketStore::applyMetrics);
+
+        // Одна пакетная запись в InfluxDB; отклоненные конвейером точки выгружаются повторно по расписанию
+        applyStep("time series", savedMetrics, timeSeriesService::storeMetricsInTimeSeries);
+
+        // Один bulk upsert накопительных итогов и агрегатов на весь пакет
+        applyStep("running totals", savedMetrics, runningTotalsService::applyMetrics);
+        applyStep("rollups", savedMetrics, rollupService::applyMetrics);
+        applyStep("hot window", savedMetrics, hotWindowService::applyMetrics);
+        applyStep("aggregation cache", savedMetrics, aggregationCache::invalidate);
+
+        // Рассылаем метрики подписчикам живой ленты
+        applyStep("live feed", savedMetrics, liveFeedService::publish);
+
+        // Добавляем метрики в окно для записи корня дерева Меркла в блокчейн
+        applyStep("anchoring", savedMetrics, anchoringService::submit);
+    }
+
+    private void applyStep(String step, List<ImpactMetric> savedMetrics, Consumer<List<ImpactMetric>> action) {
+        try {
+            action.accept(savedMetrics);
+        } catch (Exception e) {
+            log.error("Failed to apply {} for {} stored impact metrics. Error: {}",
+                    step, savedMetrics.size(), e.getMessage(), e);
+        }
+    }
+
+    void failStorage(PreparedBatch batch, DataAccessException e) {
+        log.error("Bulk insert of {} impact metrics failed. Error: {}", batch.accepted().size(), e.getMessage(), e);
+        batch.acceptedIndexes().forEach(index ->
+                batch.results()[index] = failedItem(index, "Storage failed: " + e.getMessage()));
+    }
+
+    ImpactMetricBatchResponse summarize(PreparedBatch batch) {
+        List<ImpactMetricBatchItemResult> resultList = Arrays.asList(batch.results());
+        int total = resultList.size();
+        int createdCount = (int) resultList.stream()
+                .filter(result -> ImpactMetricBatchItemResult.STATUS_CREATED.equals(result.getStatus()))
+                .count();
+        int duplicateCount = (int) resultList.stream()
+                .filter(result -> ImpactMetricBatchItemResult.STATUS_DUPLICATE.equals(result.getStatus()))
+                .count();
+
+        log.info("Bulk impact metric creation completed: {}/{} created, {} duplicates skipped",
+                createdCount, total, duplicateCount);
+
+        return ImpactMetricBatchResponse.builder()
+                .totalReceived(total)
+                .createdCount(createdCount)
+                .duplicateCount(duplicateCount)
+                .failedCount(total - createdCount - duplicateCount)
+                .results(resultList)
+                .build();
+    }
+
     // Получение метрики по ID
     public ImpactMetricResponse getMetric(String metricId) {
         log.debug("Fetching impact metric: {}", metricId);
@@ -98,19 +306,28 @@ public class ImpactMetricService {
         return metricMapper.toResponse(metric);
     }
 
+    // Получение доказательства включения метрики в заякоренный корень дерева Меркла с проверкой
+    public MerkleProofResponse getMetricProof(String metricId) {
+        return anchoringService.getProof(metricId);
+    }
+
     // Получение метрик по облигации с пагинацией
     public Page<ImpactMetricResponse> getMetricsByBond(String bondId, Pageable pageable) {
         log.debug("Fetching metrics for bond: {}, page: {}", bondId, pageable.getPageNumber());
 
-        // Получаем метрики из MongoDB с пагинацией
-        Page<ImpactMetric> metrics = metricRepository.findByBondId(bondId, pageable);
+        // Получаем метрики из MongoDB с пагинацией: из часовых бакетов или из документов метрик
+        Page<ImpactMetric> metrics = bucketStore.isReadEnabled()
+                ? bucketStore.findPage(bondId, null, pageable)
+                : metricRepository.findByBondId(bondId, pageable);
         return metrics.map(metricMapper::toResponse);
     }
 
     public Page<ImpactMetricResponse> getMetricsByBondAndType(String bondId, MetricType metricType, Pageable pageable) {
         log.debug("Fetching metrics for bond: {}, type: {}, page: {}", bondId, metricType, pageable.getPageNumber());
 
-        Page<ImpactMetric> metrics = metricRepository.findByBondIdAndMetricType(bondId, metricType, pageable);
+        Page<ImpactMetric> metrics = bucketStore.isReadEnabled()
+                ? bucketStore.findPage(bondId, metricType, pageable)
+                : metricRepository.findByBondIdAndMetricType(bondId, metricType, pageable);
         return metrics.map(metricMapper::toResponse);
     }
 
@@ -120,7 +337,14 @@ public class ImpactMetricService {
         log.debug("Fetching metrics for bond: {}, type: {}, range: {} to {}",
                 bondId, metricType, start, end);
 
-        List<ImpactMetric> metrics = metricRepository.findMetricsByBondTypeAndTimeRange(bondId, metricType, start, end);
+        List<ImpactMetric> metrics = bucketStore.isReadEnabled()
+                ? bucketStore.findRange(bondId, metricType, start, end)
+                : metricRepository.findMetricsByBondTypeAndTimeRange(bondId, metricType, start, end);
+
+        // Старые месяцы читаются из архивных сегментов
+        if (archiveStore.covers(start)) {
+            metrics = MetricArchiveStore.merge(archiveStore.findRange(bondId, metricType, start, end), metrics);
+        }
         return metrics.stream().map(metricMapper::toResponse).toList();
     }
 
@@ -129,7 +353,10 @@ public class ImpactMetricService {
                 request.getBondId(), request.getMetricType());
 
         try {
-            return timeSeriesService.calculateAggregation(request);
+            // Горячий уровень отвечает сразу; закрытые окна берутся из кэша результатов,
+            // остальные диапазоны считаются заново из агрегатов или InfluxDB
+            return hotWindowService.calculateAggregation(request)
+                    .orElseGet(() -> aggregationCache.calculate(request, this::computeAggregation));
         } catch (Exception e) {
             log.error("Metric aggregation failed for bond: {}. Error: {}",
                     request.getBondId(), e.getMessage(), e);
@@ -137,11 +364,12 @@ public class ImpactMetricService {
         }
     }
 
+    // Сводка по облигации читается из накопительных итогов, без сканирования временных рядов
     public Map<MetricType, BigDecimal> getBondMetricsSummary(String bondId) {
         log.debug("Calculating metrics summary for bond: {}", bondId);
 
         try {
-            return timeSeriesService.getBondMetricsSummary(bondId);
+            return runningTotalsService.getSummary(bondId);
         } catch (Exception e) {
             log.error("Metrics summary calculation failed for bond: {}. Error: {}",
                     bondId, e.getMessage(), e);
@@ -152,8 +380,12 @@ public class ImpactMetricService {
     public List<ImpactMetricResponse> getLatestMetrics(String bondId, MetricType metricType, int limit) {
         log.debug("Fetching latest {} metrics for bond: {}, type: {}", limit, bondId, metricType);
 
-        var pageable = org.springframework.data.domain.PageRequest.of(0, limit);
-        List<ImpactMetric> metrics = metricRepository.findLatestMetrics(bondId, metricType, pageable);
+        // Последние метрики ряда берутся из памяти, если они там все есть
+        List<ImpactMetric> metrics = hotWindowService.getLatestMetrics(bondId, metricType, limit)
+                .orElseGet(() -> bucketStore.isReadEnabled()
+                        ? bucketStore.findLatest(bondId, metricType, limit)
+                        : metricRepository.findLatestMetrics(bondId, metricType,
+                                org.springframework.data.domain.PageRequest.of(0, limit)));
         return metrics.stream().map(metricMapper::toResponse).toList();
     }
 
@@ -170,6 +402,13 @@ public class ImpactMetricService {
 
             // Удаляем из MongoDB
             metricRepository.delete(metric);
+            bucketStore.removeMetric(metric);
+
+            runningTotalsService.removeMetric(metric);
+            rollupService.removeMetric(metric);
+            hotWindowService.removeMetric(metric);
+            aggregationCache.invalidate(List.of(metric));
+            deduplicationService.forget(metric);
 
             log.info("Impact metric deleted successfully: {}", metricId);
 
@@ -179,6 +418,13 @@ public class ImpactMetricService {
         }
     }
 
+    // Из агрегатов, если интервал и функция это позволяют, иначе из InfluxDB. Горячий уровень
+    // здесь не используется: его окна не должны попадать в общий кэш результатов
+    private MetricAggregationResponse computeAggregation(MetricAggregationRequest request) {
+        return rollupService.calculateAggregation(request)
+                .orElseGet(() -> timeSeriesService.calculateAggregation(request));
+    }
+
     private void validateMetricRequest(ImpactMetricRequest request) {
         if (request.getValue().compareTo(BigDecimal.ZERO) < 0) {
             throw new ImpactMonitoringException("Metric value cannot be negative");
@@ -195,6 +441,73 @@ public class ImpactMetricService {
         }
     }
 
+    // Проверка элемента пакета: ограничения bean validation (в пакете они не проверяются контроллером)
+    // и бизнес-правила, общие с одиночным созданием метрики
+    private void validateBatchItem(ImpactMetricRequest request) {
+        if (request == null) {
+            throw new ImpactMonitoringException("Metric item cannot be null");
+        }
+
+        Set<ConstraintViolation<ImpactMetricRequest>> violations = validator.validate(request);
+        if (!violations.isEmpty()) {
+            throw new ImpactMonitoringException(violations.stream()
+                    .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                    .sorted()
+                    .collect(Collectors.joining(", ")));
+        }
+
+        validateMetricRequest(request);
+    }
+
+    // insertMany упорядочен: элементы до повторного показания уже записаны, их находим по metricId
+    private void insertIndividually(PreparedBatch batch, List<ImpactMetric> savedMetrics, List<Integer> savedIndexes) {
+        for (int i = 0; i < batch.accepted().size(); i++) {
+            ImpactMetric metric = batch.accepted().get(i);
+            int index = batch.acceptedIndexes().get(i);
+            try {
+                savedMetrics.add(metricRepository.insert(metric));
+                savedIndexes.add(index);
+            } catch (DuplicateKeyException e) {
+                Optional<ImpactMetric> inserted = metricRepository.findByMetricId(metric.getMetricId());
+                if (inserted.isPresent()) {
+                    savedMetrics.add(inserted.get());
+                    savedIndexes.add(index);
+                } else {
+                    batch.results()[index] = duplicateItem(index);
+                }
+            }
+        }
+    }
+
+    private Optional<ImpactMetric> findStoredReading(ImpactMetricRequest request) {
+        if (request.getDeviceId() == null) {
+            return Optional.empty();
+        }
+        return metricRepository.findByDeviceIdAndMetricTypeAndTimestampAndSourceId(
+                request.getDeviceId(), request.getMetricType(), request.getTimestamp(), request.getSourceId());
+    }
+
+    ImpactMetricBatchItemResult duplicateItem(int index) {
+        return ImpactMetricBatchItemResult.builder()
+                .index(index)
+                .status(ImpactMetricBatchItemResult.STATUS_DUPLICATE)
+                .build();
+    }
+
+    private ImpactMetricBatchItemResult failedItem(int index, String error) {
+        return ImpactMetricBatchItemResult.builder()
+                .index(index)
+                .status(ImpactMetricBatchItemResult.STATUS_FAILED)
+                .error(error)
+                .build();
+    }
+
+    private void assignMetricId(ImpactMetric metric) {
+        if (metric.getMetricId() == null) {
+            metric.setMetricId("METRIC-" + UUID.randomUUID());
+        }
+    }
+
     private boolean isValidUnitForMetricType(MetricType metricType, com.esgbank.greenbond.monitoring.model.enums.MetricUnit unit) {
         // Бизнес-логика валидации единиц измерения для типов метрик
         // For now, return true for all combinations
@@ -202,10 +515,10 @@ public class ImpactMetricService {
     }
 
     public long getMetricCountByBond(String bondId) {
-        return metricRepository.countByBondId(bondId);
+        return runningTotalsService.getMetricCount(bondId);
     }
 
     public long getMetricCountByBondAndType(String bondId, MetricType metricType) {
-        return metricRepository.countByBondIdAndMetricType(bondId, metricType);
+        return runningTotalsService.getMetricCount(bondId, metricType);
     }
 }
\ No newline at end of file
@@ -0,0 +1,345 @@
+package com.esgbank.greenbond.monitoring.service;
+
+import com.esgbank.greenbond.monitoring.config.ReportConfig;
+import com.esgbank.greenbond.monitoring.dto.ImpactReportRequest;
+import com.esgbank.greenbond.monitoring.exception.ImpactMonitoringException;
+import com.esgbank.greenbond.monitoring.exception.ReportNotFoundException;
+import com.esgbank.greenbond.monitoring.model.GoalProgress;
+import com.esgbank.greenbond.monitoring.model.ImpactGoal;
+import com.esgbank.greenbond.monitoring.model.ImpactReport;
+import com.esgbank.greenbond.monitoring.model.MetricSummary;
+import com.esgbank.greenbond.monitoring.model.enums.GoalStatus;
+import com.esgbank.greenbond.monitoring.model.enums.MetricType;
+import com.esgbank.greenbond.monitoring.model.enums.ReportStatus;
+import com.esgbank.greenbond.monitoring.model.enums.ReportType;
+import com.esgbank.greenbond.monitoring.repository.ImpactGoalRepository;
+import com.esgbank.greenbond.monitoring.repository.ImpactReportRepository;
+import com.esgbank.greenbond.monitoring.service.MetricRollupService.PeriodTotals;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.slf4j.MDC;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import reactor.util.function.Tuple2;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.Period;
+import java.time.temporal.TemporalAdjusters;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Generates impact reports of a bond as background jobs.
+ * <p>
+ * A requested report is saved as {@link ReportStatus#GENERATING} and returned at once; its sections
+ * are then computed on the bounded elastic scheduler, one metric summary per series of the bond
+ * with at most {@code max-parallel-sections} at once and the goal progress alongside them. Period
+ * totals come from {@link ReportFragmentStore}, so whole months are read from cached fragments or
+ * rollups and never from raw metrics; goal progress comes from the running totals. The finished
+ * report is saved as {@link ReportStatus#GENERATED}, or back as {@link ReportStatus#DRAFT} with the
+ * error in its metadata when generation fails.
+ */
+@Slf4j
+@Service
+public class ImpactReportService {
+
+    private final ImpactReportRepository reportRepository;
+    private final ImpactGoalRepository goalRepository;
+    private final MetricRunningTotalsService runningTotalsService;
+    private final ReportFragmentStore fragmentStore;
+    private final ReportConfig config;
+
+    private final Counter reportsGenerated;
+    private final Counter reportsFailed;
+    private final Timer generationDuration;
+
+    /**
+     * The half-open reporting period [start, end).
+     */
+    public record ReportPeriod(LocalDateTime start, LocalDateTime end) {
+
+        /**
+         * Resolves the period of a report. A missing start selects the last complete period of the
+         * report type, a missing end is derived from the length of the type.
+         */
+        public static ReportPeriod of(ReportType reportType, LocalDateTime start, LocalDateTime end,
+                                      LocalDateTime now) {
+            Optional<Period> length = lengthOf(reportType);
+            if (start == null) {
+                start = lastCompleteStart(reportType, now.toLocalDate()).orElseThrow(() ->
+                        new ImpactMonitoringException("Report type " + reportType + " requires a period start"));
+            }
+            if (end == null) {
+                end = start.plus(length.orElseThrow(() ->
+                        new ImpactMonitoringException("Report type " + reportType + " requires a period end")));
+            }
+            if (!start.isBefore(end)) {
+                throw new ImpactMonitoringException("Report period start must be before its end");
+            }
+            return new ReportPeriod(start, end);
+        }
+
+        /**
+         * @return the period of the same type right before this one
+         */
+        public ReportPeriod previous(ReportType reportType) {
+            return lengthOf(reportType)
+                    .map(length -> new ReportPeriod(start.minus(length), start))
+                    .orElseGet(() -> new ReportPeriod(start.minus(Duration.between(start, end)), start));
+        }
+
+        private static Optional<Period> lengthOf(ReportType reportType) {
+            return switch (reportType) {
+                case DAILY -> Optional.of(Period.ofDays(1));
+                case WEEKLY -> Optional.of(Period.ofWeeks(1));
+                case MONTHLY -> Optional.of(Period.ofMonths(1));
+                case QUARTERLY -> Optional.of(Period.ofMonths(3));
+                case ANNUAL -> Optional.of(Period.ofYears(1));
+                default -> Optional.empty();
+            };
+        }
+
+        private static Optional<LocalDateTime> lastCompleteStart(ReportType reportType, LocalDate today) {
+            LocalDate start = switch (reportType) {
+                case DAILY -> today.minusDays(1);
+                case WEEKLY -> today.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY)).minusWeeks(1);
+                case MONTHLY -> today.withDayOfMonth(1).minusMonths(1);
+                case QUARTERLY -> today.withDayOfMonth(1)
+                        .withMonth((today.getMonthValue() - 1) / 3 * 3 + 1).minusMonths(3);
+                case ANNUAL -> today.withDayOfYear(1).minusYears(1);
+                default -> null;
+            };
+            return Optional.ofNullable(start).map(LocalDate::atStartOfDay);
+        }
+    }
+
+    public ImpactReportService(ImpactReportRepository reportRepository, ImpactGoalRepository goalRepository,
+                               MetricRunningTotalsService runningTotalsService, ReportFragmentStore fragmentStore,
+                               ReportConfig config, MeterRegistry meterRegistry) {
+        this.reportRepository = reportRepository;
+        this.goalRepository = goalRepository;
+        this.runningTotalsService = runningTotalsService;
+        this.fragmentStore = fragmentStore;
+        this.config = config;
+        this.reportsGenerated = Counter.builder("impact.reports")
+                .tag("result", "generated")
+                .description("Impact reports generated")
+                .register(meterRegistry);
+        this.reportsFailed = Counter.builder("impact.reports")
+                .tag("result", "failed")
+                .description("Impact reports whose generation failed")
+                .register(meterRegistry);
+        this.generationDuration = Timer.builder("impact.report.generation.duration")
+                .description("Time to compute the sections of one report")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Saves the report as generating and computes it in the background.
+     *
+     * @return the saved report; poll {@link #getReport(String)} for its status
+     */
+    public ImpactReport requestReport(ImpactReportRequest request) {
+        String requestId = MDC.get("requestId");
+        log.info("Requesting {} impact report for bond: {}, requestId: {}",
+                request.getReportType(), request.getBondId(), requestId);
+
+        ReportPeriod period = ReportPeriod.of(request.getReportType(), request.getPeriodStart(),
+                request.getPeriodEnd(), LocalDateTime.now());
+
+        Map<String, Object> metadata = new HashMap<>();
+        if (requestId != null) {
+            metadata.put("requestId", requestId);
+        }
+        ImpactReport report = reportRepository.save(ImpactReport.builder()
+                .reportId("REPORT-" + UUID.randomUUID())
+                .bondId(request.getBondId())
+                .reportName(request.getReportType() + " impact report " + request.getBondId() + " "
+                        + period.start().toLocalDate())
+                .reportType(request.getReportType())
+                .status(ReportStatus.GENERATING)
+                .reportingPeriodStart(period.start())
+                .reportingPeriodEnd(period.end())
+                .generatedBy(request.getGeneratedBy())
+                .metadata(metadata)
+                .build());
+
+        // The job works on its own copy; the returned instance is serialized to the caller meanwhile
+        String id = report.getId();
+        Mono.fromRunnable(() -> reportRepository.findById(id).ifPresent(this::generate))
+                .subscribeOn(Schedulers.boundedElastic())
+                .subscribe();
+
+        return report;
+    }
+
+    public ImpactReport getReport(String reportId) {
+        log.debug("Fetching impact report: {}", reportId);
+
+        return reportRepository.findByReportId(reportId)
+                .orElseThrow(() -> new ReportNotFoundException("Impact report not found: " + reportId));
+    }
+
+    public Page<ImpactReport> getReportsByBond(String bondId, Pageable pageable) {
+        log.debug("Fetching reports for bond: {}, page: {}", bondId, pageable.getPageNumber());
+
+        return reportRepository.findByBondId(bondId, pageable);
+    }
+
+    /**
+     * Computes all sections of a report and saves it with its final status.
+     */
+    ImpactReport generate(ImpactReport report) {
+        Timer.Sample sample = Timer.start();
+        try {
+            String bondId = report.getBondId();
+            ReportPeriod period = new ReportPeriod(report.getReportingPeriodStart(), report.getReportingPeriodEnd());
+            ReportPeriod previous = period.previous(report.getReportType());
+
+            List<ImpactGoal> goals = goalRepository.findByBondId(bondId, Pageable.unpaged()).getContent();
+            Map<MetricType, BigDecimal> runningTotals = runningTotalsService.getSummary(bondId);
+            Map<MetricType, ImpactGoal> goalsByMetric = goals.stream()
+                    .collect(Collectors.toMap(ImpactGoal::getMetricType, Function.identity(), (first, second) -> first));
+
+            Set<MetricType> metricTypes = new TreeSet<>(runningTotals.keySet());
+            metricTypes.addAll(goalsByMetric.keySet());
+
+            Mono<List<MetricSummary>> metricSummaries = Flux.fromIterable(metricTypes)
+                    .flatMap(metricType -> Mono.fromCallable(() ->
+                                    metricSummary(bondId, metricType, period, previous, goalsByMetric.get(metricType)))
+                            .subscribeOn(Schedulers.boundedElastic()), config.getMaxParallelSections())
+                    .collectSortedList(Comparator.comparing(MetricSummary::getMetricType));
+            Mono<List<GoalProgress>> goalProgress = Mono.fromCallable(() -> goals.stream()
+                            .map(goal -> goalProgress(goal, runningTotals))
+                            .toList())
+                    .subscribeOn(Schedulers.boundedElastic());
+
+            Tuple2<List<MetricSummary>, List<GoalProgress>> sections =
+                    Mono.zip(metricSummaries, goalProgress).block();
+
+            report.setMetricSummaries(sections.getT1());
+            report.setGoalProgress(sections.getT2());
+            report.setExecutiveSummary(executiveSummary(sections.getT1(), sections.getT2()));
+            report.setGeneratedAt(LocalDateTime.now());
+            report.setStatus(ReportStatus.GENERATED);
+            ImpactReport saved = reportRepository.save(report);
+
+            reportsGenerated.increment();
+            log.info("Impact report generated: {}, bond: {}, {} metric sections, {} goals",
+                    report.getReportId(), bondId, sections.getT1().size(), sections.getT2().size());
+            return saved;
+
+        } catch (Exception e) {
+            reportsFailed.increment();
+            log.error("Failed to generate impact report: {}. Error: {}", report.getReportId(), e.getMessage(), e);
+
+            report.setStatus(ReportStatus.DRAFT);
+            if (report.getMetadata() == null) {
+                report.setMetadata(new HashMap<>());
+            }
+            report.getMetadata().put("error", String.valueOf(e.getMessage()));
+            try {
+                return reportRepository.save(report);
+            } catch (Exception saveError) {
+                log.error("Failed to record failure of impact report: {}. Error: {}",
+                        report.getReportId(), saveError.getMessage());
+                return report;
+            }
+        } finally {
+            sample.stop(generationDuration);
+        }
+    }
+
+    private MetricSummary metricSummary(String bondId, MetricType metricType, ReportPeriod period,
+                                        ReportPeriod previous, ImpactGoal goal) {
+        PeriodTotals current = fragmentStore.totals(bondId, metricType, period.start(), period.end());
+        PeriodTotals prior = fragmentStore.totals(bondId, metricType, previous.start(), previous.end());
+        return buildMetricSummary(metricType, current, prior, goal);
+    }
+
+    static MetricSummary buildMetricSummary(MetricType metricType, PeriodTotals current, PeriodTotals prior,
+                                            ImpactGoal goal) {
+        BigDecimal totalValue = BigDecimal.valueOf(current.sum());
+        boolean hasData = current.count() > 0;
+
+        BigDecimal vsTarget = null;
+        if (goal != null && goal.getTargetValue() != null && goal.getTargetValue().signum() > 0) {
+            vsTarget = totalValue.multiply(BigDecimal.valueOf(100))
+                    .divide(goal.getTargetValue(), 2, RoundingMode.HALF_UP);
+        }
+
+        return MetricSummary.builder()
+                .metricType(metricType)
+                .totalValue(totalValue)
+                .unit(goal != null ? goal.getTargetUnit() : null)
+                .averageValue(hasData ? BigDecimal.valueOf(current.sum() / current.count())
+                        .setScale(4, RoundingMode.HALF_UP) : null)
+                .minValue(hasData ? BigDecimal.valueOf(current.min()) : null)
+                .maxValue(hasData ? BigDecimal.valueOf(current.max()) : null)
+                .dataPoints((int) current.count())
+                .periodOverPeriodChange(prior.sum() != 0
+                        ? BigDecimal.valueOf((current.sum() - prior.sum()) / Math.abs(prior.sum()) * 100)
+                        .setScale(2, RoundingMode.HALF_UP)
+                        : null)
+                .vsTarget(vsTarget)
+                .build();
+    }
+
+    static GoalProgress goalProgress(ImpactGoal goal, Map<MetricType, BigDecimal> runningTotals) {
+        BigDecimal currentValue = runningTotals.getOrDefault(goal.getMetricType(), BigDecimal.ZERO);
+        BigDecimal remainingValue = goal.getTargetValue() != null
+                ? goal.getTargetValue().subtract(currentValue).max(BigDecimal.ZERO)
+                : null;
+
+        return GoalProgress.builder()
+                .goalId(goal.getGoalId())
+                .goalName(goal.getGoalName())
+                .metricType(goal.getMetricType())
+                .targetValue(goal.getTargetValue())
+                .currentValue(currentValue)
+                .progressPercentage(goal.getProgressPercentage())
+                .remainingValue(remainingValue)
+                .status(goal.getStatus() != null ? goal.getStatus().name() : null)
+                .build();
+    }
+
+    static Map<String, Object> executiveSummary(List<MetricSummary> metricSummaries, List<GoalProgress> goals) {
+        long achievedGoals = goals.stream()
+                .filter(goal -> GoalStatus.ACHIEVED.name().equals(goal.getStatus())
+                        || GoalStatus.EXCEEDED.name().equals(goal.getStatus()))
+                .count();
+        BigDecimal averageProgress = goals.stream()
+                .map(GoalProgress::getProgressPercentage)
+                .filter(Objects::nonNull)
+                .reduce(BigDecimal.ZERO, BigDecimal::add)
+                .divide(BigDecimal.valueOf(Math.max(1, goals.size())), 2, RoundingMode.HALF_UP);
+
+        return Map.of(
+                "metricsReported", metricSummaries.stream().filter(summary -> summary.getDataPoints() > 0).count(),
+                "totalDataPoints", metricSummaries.stream().mapToLong(MetricSummary::getDataPoints).sum(),
+                "goalsTracked", goals.size(),
+                "goalsAchieved", achievedGoals,
+                "averageGoalProgress", averageProgress
+        );
+    }
+}
@@ -0,0 +1,209 @@
+package com.esgbank.greenbond.monitoring.service;
+
+import com.esgbank.greenbond.monitoring.config.InfluxDBProperties;
+import com.esgbank.greenbond.monitoring.service.TimeSeriesSpool.SpoolBatch;
+import com.influxdb.client.InfluxDBClient;
+import com.influxdb.client.domain.WritePrecision;
+import com.influxdb.exceptions.InfluxException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Long-lived batching writer for InfluxDB.
+ * <p>
+ * Callers append line-protocol records to the {@link TimeSeriesSpool}, so ingest never waits on
+ * InfluxDB. A single writer thread drains the spool in batches of {@code batch-size} or every
+ * {@code flush-interval} (plus jitter), and advances the spool checkpoint only after InfluxDB has
+ * accepted a batch. Retryable failures are retried with exponential backoff for as long as it
+ * takes; anything still unwritten at shutdown stays in the spool for the next start. Once a batch
+ * is accepted its series days are marked in {@link SeriesWriteMarkStore}, so windows cached while
+ * its points were still spooled are dropped on every instance.
+ */
+@Slf4j
+@Service
+public class InfluxWritePipeline {
+
+    private final InfluxDBClient influxDBClient;
+    private final InfluxDBProperties properties;
+    private final TimeSeriesSpool spool;
+    private final SeriesWriteMarkStore writeMarks;
+
+    private final Counter pointsWritten;
+    private final Counter pointsFailed;
+    private final Counter retries;
+    private final Timer writeLatency;
+
+    private volatile boolean running;
+    private Thread writerThread;
+
+    public InfluxWritePipeline(InfluxDBClient influxDBClient, InfluxDBProperties properties,
+                               TimeSeriesSpool spool, SeriesWriteMarkStore writeMarks, MeterRegistry meterRegistry) {
+        this.influxDBClient = influxDBClient;
+        this.properties = properties;
+        this.spool = spool;
+        this.writeMarks = writeMarks;
+
+        this.pointsWritten = Counter.builder("impact.influx.write.points")
+                .tag("result", "success")
+                .description("Points written to InfluxDB")
+                .register(meterRegistry);
+        this.pointsFailed = Counter.builder("impact.influx.write.points")
+                .tag("result", "failure")
+                .description("Points rejected by InfluxDB as invalid")
+                .register(meterRegistry);
+        this.retries = Counter.builder("impact.influx.write.retries")
+                .description("Retried InfluxDB batch writes")
+                .register(meterRegistry);
+        this.writeLatency = Timer.builder("impact.influx.write.latency")
+                .description("InfluxDB batch write latency")
+                .register(meterRegistry);
+        Gauge.builder("impact.influx.write.buffer.depth", spool, TimeSeriesSpool::getPendingRecords)
+                .description("Points waiting to be written to InfluxDB")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        running = true;
+        writerThread = new Thread(this::runWriter, "influx-writer");
+        writerThread.start();
+        log.info("InfluxDB write pipeline started: batchSize={}, flushInterval={}ms, pending={}",
+                properties.getBatchSize(), properties.getFlushInterval(), spool.getPendingRecords());
+    }
+
+    /**
+     * Durably spools records for asynchronous write. Fails only when the spool is out of disk budget.
+     */
+    public void enqueue(List<String> records) {
+        spool.append(records);
+    }
+
+    public long getBufferDepth() {
+        return spool.getPendingRecords();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        log.info("Stopping InfluxDB write pipeline, {} points pending", spool.getPendingRecords());
+        running = false;
+
+        try {
+            writerThread.join(properties.getShutdownTimeout());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        if (writerThread.isAlive()) {
+            writerThread.interrupt();
+        }
+        log.info("InfluxDB write pipeline stopped, {} points left in spool", spool.getPendingRecords());
+    }
+
+    private void runWriter() {
+        try {
+            while (running) {
+                try {
+                    spool.awaitRecords(properties.getBatchSize(), jittered(properties.getFlushInterval()));
+                    SpoolBatch batch = spool.read(properties.getBatchSize());
+                    if (!batch.isEmpty()) {
+                        writeWithRetry(batch);
+                    }
+                } catch (InterruptedException e) {
+                    throw e;
+                } catch (Exception e) {
+                    log.error("Unexpected error in InfluxDB writer: {}", e.getMessage(), e);
+                }
+            }
+            drainRemaining();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void writeWithRetry(SpoolBatch batch) throws InterruptedException {
+        long delay = properties.getRetryInterval();
+
+        for (int attempt = 1; running; attempt++) {
+            try {
+                write(batch);
+                return;
+            } catch (Exception e) {
+                if (!isRetryable(e)) {
+                    drop(batch, e);
+                    return;
+                }
+
+                retries.increment();
+                long sleep = jittered(delay);
+                log.warn("InfluxDB write failed (attempt {}), retrying in {}ms, {} points spooled: {}",
+                        attempt, sleep, spool.getPendingRecords(), e.getMessage());
+                TimeUnit.MILLISECONDS.sleep(sleep);
+                delay = Math.min(delay * properties.getExponentialBase(), properties.getMaxRetryDelay());
+            }
+        }
+    }
+
+    /**
+     * Best-effort flush on shutdown: one attempt per batch, stopping at the first retryable failure.
+     */
+    private void drainRemaining() {
+        SpoolBatch batch;
+        while (!(batch = spool.read(properties.getBatchSize())).isEmpty()) {
+            try {
+                write(batch);
+            } catch (Exception e) {
+                if (isRetryable(e)) {
+                    log.warn("InfluxDB unavailable during shutdown, keeping points in spool: {}", e.getMessage());
+                    return;
+                }
+                drop(batch, e);
+            }
+        }
+    }
+
+    private void write(SpoolBatch batch) {
+        writeLatency.record(() -> influxDBClient.getWriteApiBlocking()
+                .writeRecords(properties.getBucket(), properties.getOrg(), WritePrecision.MS, batch.getRecords()));
+        pointsWritten.increment(batch.size());
+        spool.commit(batch);
+        markWritten(batch);
+    }
+
+    private void markWritten(SpoolBatch batch) {
+        try {
+            writeMarks.recordPoints(batch.getRecords());
+        } catch (Exception e) {
+            log.warn("Failed to mark {} written points for the aggregation cache: {}", batch.size(), e.getMessage());
+        }
+    }
+
+    private void drop(SpoolBatch batch, Exception e) {
+        pointsFailed.increment(batch.size());
+        log.error("Dropping {} points rejected by InfluxDB: {}", batch.size(), e.getMessage());
+        spool.commit(batch);
+    }
+
+    private boolean isRetryable(Exception e) {
+        if (e instanceof InfluxException influxException) {
+            int status = influxException.status();
+            // Client errors other than throttling will fail again on retry
+            return status == 0 || status == 429 || status >= 500;
+        }
+        return true;
+    }
+
+    private long jittered(long interval) {
+        int jitter = properties.getJitterInterval();
+        return jitter > 0 ? interval + ThreadLocalRandom.current().nextLong(jitter) : interval;
+    }
+}
@@ -0,0 +1,154 @@
+package com.esgbank.greenbond.monitoring.service;
+
+import com.esgbank.greenbond.monitoring.config.JobLeaseConfig;
+import com.esgbank.greenbond.monitoring.model.JobLease;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+
+import java.net.InetAddress;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Leases in {@code job_leases} for jobs that must run on one instance at a time, and for the
+ * partitions of jobs shared between instances, each leased as a job of its own.
+ * <p>
+ * Every change is a single conditional update on the lease document, so two instances can never
+ * both believe they hold a job: a claim only matches a lease that is free, expired or already
+ * held by this instance, and a renewal, completion or release only matches while this instance
+ * still holds it.
+ */
+@Service
+public class JobLeaseStore {
+
+    private final MongoTemplate mongoTemplate;
+    private final String instanceId;
+
+    public JobLeaseStore(MongoTemplate mongoTemplate, JobLeaseConfig config) {
+        this.mongoTemplate = mongoTemplate;
+        this.instanceId = StringUtils.hasText(config.getInstanceId()) ? config.getInstanceId() : defaultInstanceId();
+    }
+
+    /**
+     * @return the lease owner name of this instance, unique per process start
+     */
+    public String getInstanceId() {
+        return instanceId;
+    }
+
+    /**
+     * Claims a job for a run it has not completed yet.
+     *
+     * @return whether this instance now holds the job
+     */
+    public boolean claim(String job, String runId, Duration ttl) {
+        return claim(job, runId, ttl, Criteria.where("completedRunId").ne(runId));
+    }
+
+    /**
+     * Claims or renews a job that runs continuously on its holder, such as a poller.
+     *
+     * @return whether this instance now holds the job
+     */
+    public boolean acquire(String job, Duration ttl) {
+        return claim(job, null, ttl, new Criteria());
+    }
+
+    /**
+     * Extends a lease this instance still holds.
+     *
+     * @return false if the lease expired and was taken over
+     */
+    public boolean renew(String job, Duration ttl) {
+        LocalDateTime now = LocalDateTime.now();
+        return mongoTemplate.updateFirst(
+                Query.query(Criteria.where("_id").is(job).and("owner").is(instanceId)),
+                new Update().set("expiresAt", now.plus(ttl)).set("heartbeatAt", now),
+                JobLease.class).getMatchedCount() > 0;
+    }
+
+    /**
+     * Marks the run of the job done and frees the lease.
+     *
+     * @return false if the lease was lost before the run finished
+     */
+    public boolean complete(String job, String runId) {
+        return mongoTemplate.updateFirst(
+                Query.query(Criteria.where("_id").is(job).and("owner").is(instanceId)),
+                new Update()
+                        .set("completedRunId", runId)
+                        .set("completedAt", LocalDateTime.now())
+                        .unset("owner")
+                        .unset("expiresAt"),
+                JobLease.class).getMatchedCount() > 0;
+    }
+
+    /**
+     * Frees a lease, so any instance can take the job over at once.
+     */
+    public void release(String job) {
+        mongoTemplate.updateFirst(
+                Query.query(Criteria.where("_id").is(job).and("owner").is(instanceId)),
+                new Update().unset("owner").unset("expiresAt"),
+                JobLease.class);
+    }
+
+    /**
+     * @return the given jobs, in their order, that are not completed in the run
+     */
+    public List<String> findIncomplete(List<String> jobs, String runId) {
+        Query query = Query.query(Criteria.where("_id").in(jobs).and("completedRunId").is(runId));
+        query.fields().include("_id");
+        Set<String> completed = mongoTemplate.find(query, JobLease.class).stream()
+                .map(JobLease::getId)
+                .collect(Collectors.toSet());
+
+        return jobs.stream()
+                .filter(job -> !completed.contains(job))
+                .toList();
+    }
+
+    private boolean claim(String job, String runId, Duration ttl, Criteria runCriteria) {
+        LocalDateTime now = LocalDateTime.now();
+        Query query = new Query(new Criteria().andOperator(
+                Criteria.where("_id").is(job),
+                runCriteria,
+                new Criteria().orOperator(
+                        Criteria.where("owner").is(null),
+                        Criteria.where("owner").is(instanceId),
+                        Criteria.where("expiresAt").lt(now))));
+        Update update = new Update()
+                .set("runId", runId)
+                .set("owner", instanceId)
+                .set("expiresAt", now.plus(ttl))
+                .set("heartbeatAt", now);
+
+        try {
+            return mongoTemplate.findAndModify(query, update,
+                    FindAndModifyOptions.options().upsert(true).returnNew(true), JobLease.class) != null;
+        } catch (DuplicateKeyException e) {
+            // The lease exists but is held by another instance or the run is completed: the upsert tried to insert it
+            return false;
+        }
+    }
+
+    private static String defaultInstanceId() {
+        String host;
+        try {
+            host = InetAddress.getLocalHost().getHostName();
+        } catch (Exception e) {
+            host = "unknown";
+        }
+        return host + "-" + UUID.randomUUID().toString().substring(0, 8);
+    }
+}
@@ -0,0 +1,174 @@
+package com.esgbank.greenbond.monitoring.service;
+
+import com.esgbank.greenbond.monitoring.config.ArchiveConfig;
+import com.esgbank.greenbond.monitoring.exception.ImpactMonitoringException;
+import com.esgbank.greenbond.monitoring.model.ImpactMetric;
+import com.esgbank.greenbond.monitoring.model.MetricArchiveSegment;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationOptions;
+import org.springframework.data.mongodb.core.aggregation.TypedAggregation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+
+/**
+ * Moves whole months of metrics older than {@code app.archive.cold-after} out of MongoDB and
+ * InfluxDB into per-bond monthly segment files of {@link MetricArchiveStore}.
+ * <p>
+ * Runs on one instance per night under a job lease, renewed after each bond month.
+ * <p>
+ * A month is written to its segment before anything is deleted, and the segment is marked as
+ * evicted only once the hot copies are gone, so a failed run leaves the metrics readable and is
+ * repeated by the next one. Hourly and daily rollups are kept, so aggregations over archived
+ * months are still answered from them.
+ */
+@Slf4j
+@Service
+public class MetricArchiveService {
+
+    static final String ARCHIVE_JOB = "metric-archive";
+
+    private final MongoTemplate mongoTemplate;
+    private final MetricArchiveStore archiveStore;
+    private final MetricBucketStore bucketStore;
+    private final TimeSeriesService timeSeriesService;
+    private final JobLeaseStore leaseStore;
+    private final ArchiveConfig config;
+
+    private final Counter segmentsWritten;
+    private final Counter metricsArchived;
+    private final Counter failures;
+
+    public MetricArchiveService(MongoTemplate mongoTemplate, MetricArchiveStore archiveStore,
+                                MetricBucketStore bucketStore, TimeSeriesService timeSeriesService,
+                                JobLeaseStore leaseStore, ArchiveConfig config, MeterRegistry meterRegistry) {
+        this.mongoTemplate = mongoTemplate;
+        this.archiveStore = archiveStore;
+        this.bucketStore = bucketStore;
+        this.timeSeriesService = timeSeriesService;
+        this.leaseStore = leaseStore;
+        this.config = config;
+
+        this.segmentsWritten = Counter.builder("impact.archive.segments")
+                .description("Bond months written to archive segments")
+                .register(meterRegistry);
+        this.metricsArchived = Counter.builder("impact.archive.metrics")
+                .description("Metrics moved to archive segments")
+                .register(meterRegistry);
+        this.failures = Counter.builder("impact.archive.failures")
+                .description("Bond months that failed to archive")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(cron = "${app.archive.cron:0 45 2 * * ?}")
+    public void archiveColdMonths() {
+        if (!config.isEnabled()) {
+            return;
+        }
+
+        String runId = LocalDate.now().toString();
+        if (!leaseStore.claim(ARCHIVE_JOB, runId, config.getLeaseTtl())) {
+            log.info("Metric archival {} skipped, held or completed by another instance", runId);
+            return;
+        }
+
+        try {
+            archiveColdMonths(archiveStore.coldBefore());
+            leaseStore.complete(ARCHIVE_JOB, runId);
+        } catch (Exception e) {
+            log.error("Metric archival failed: {}", e.getMessage(), e);
+            leaseStore.release(ARCHIVE_JOB);
+        }
+    }
+
+    private void archiveColdMonths(LocalDateTime cutoff) {
+        log.info("Archiving metrics older than {}", cutoff);
+
+        int archived = 0;
+        for (Document month : findColdMonths(cutoff)) {
+            Document key = month.get("_id", Document.class);
+            String bondId = key.getString("bondId");
+            LocalDateTime monthStart = LocalDateTime.ofInstant(key.getDate("monthStart").toInstant(),
+                    ZoneId.systemDefault());
+            try {
+                archiveMonth(bondId, monthStart);
+                archived++;
+            } catch (Exception e) {
+                failures.increment();
+                log.error("Failed to archive metrics of bond {} for {}: {}",
+                        bondId, monthStart.toLocalDate(), e.getMessage(), e);
+            }
+            if (!leaseStore.renew(ARCHIVE_JOB, config.getLeaseTtl())) {
+                throw new ImpactMonitoringException("Archive job lease lost after " + archived + " bond months");
+            }
+        }
+
+        log.info("Metric archival completed: {} bond months archived", archived);
+    }
+
+    /**
+     * Archives one month of a bond and removes it from the hot stores.
+     *
+     * @return the number of metrics archived
+     */
+    public int archiveMonth(String bondId, LocalDateTime monthStart) throws IOException {
+        LocalDateTime monthEnd = monthStart.plusMonths(1);
+        // Read from the documents in every layout: buckets carry no Merkle proofs, and bond_timestamp_idx is kept
+        Query query = new Query(Criteria.where("bondId").is(bondId)
+                .and("timestamp").gte(monthStart).lt(monthEnd))
+                .with(Sort.by(Sort.Direction.ASC, "timestamp"));
+        List<ImpactMetric> metrics = mongoTemplate.find(query, ImpactMetric.class);
+        if (metrics.isEmpty()) {
+            return 0;
+        }
+
+        MetricArchiveSegment segment = archiveStore.writeSegment(bondId, monthStart, metrics);
+        segmentsWritten.increment();
+
+        if (config.isDeleteFromHotStores()) {
+            List<String> metricIds = metrics.stream().map(ImpactMetric::getMetricId).toList();
+            mongoTemplate.remove(Query.query(Criteria.where("metricId").in(metricIds)), ImpactMetric.class);
+            bucketStore.removeMetrics(metrics);
+            timeSeriesService.deleteRange(bondId, monthStart, monthEnd);
+
+            // From now on running totals count this segment instead of the documents
+            mongoTemplate.updateFirst(Query.query(Criteria.where("_id").is(segment.getId())),
+                    Update.update("evicted", true), MetricArchiveSegment.class);
+        }
+
+        metricsArchived.increment(metrics.size());
+        log.info("Archived {} metrics of bond {} for {}", metrics.size(), bondId, monthStart.toLocalDate());
+        return metrics.size();
+    }
+
+    private List<Document> findColdMonths(LocalDateTime cutoff) {
+        // Truncate in the JVM zone: LocalDateTime values are stored as Dates in that zone
+        Document monthStart = new Document("$dateTrunc", new Document("date", "$timestamp")
+                .append("unit", "month")
+                .append("timezone", ZoneId.systemDefault().getId()));
+
+        TypedAggregation<ImpactMetric> aggregation = Aggregation.newAggregation(ImpactMetric.class,
+                        Aggregation.match(Criteria.where("timestamp").lt(cutoff)),
+                        context -> new Document("$group", new Document("_id", new Document("bondId", "$bondId")
+                                .append("monthStart", monthStart))),
+                        context -> new Document("$sort", new Document("_id.monthStart", 1)),
+                        Aggregation.limit(config.getMaxSegmentsPerRun()))
+                .withOptions(AggregationOptions.builder().allowDiskUse(true).build());
+
+        return mongoTemplate.aggregate(aggregation, Document.class).getMappedResults();
+    }
+}
@@ -0,0 +1,420 @@
+package com.esgbank.greenbond.monitoring.service;
+
+import com.esgbank.greenbond.monitoring.config.ArchiveConfig;
+import com.esgbank.greenbond.monitoring.model.DataQuality;
+import com.esgbank.greenbond.monitoring.model.ImpactMetric;
+import com.esgbank.greenbond.monitoring.model.MerkleProof;
+import com.esgbank.greenbond.monitoring.model.MetricArchiveSegment;
+import com.esgbank.greenbond.monitoring.model.enums.DataSourceType;
+import com.esgbank.greenbond.monitoring.model.enums.MetricType;
+import com.esgbank.greenbond.monitoring.model.enums.MetricUnit;
+import com.esgbank.greenbond.monitoring.util.ColumnarSegment;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mongodb.client.gridfs.model.GridFSFile;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.gridfs.GridFsOperations;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Compressed columnar segment files of archived metrics, one per bond and month, kept in GridFS
+ * so every instance reads the same segments, and the index of them in
+ * {@code metric_archive_segments}.
+ * <p>
+ * A segment holds every field of its metrics, including the Merkle proof, so archived readings
+ * stay verifiable. Range reads consult the index first and open only the segments whose time
+ * range for the metric type overlaps the query. A rewrite merges the existing segment with the
+ * new metrics by metricId into a new file; the index entry is switched to it before the old file
+ * is deleted.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class MetricArchiveStore {
+
+    private static final long NULL_TIME = Long.MIN_VALUE;
+    private static final Comparator<ImpactMetric> BY_TIMESTAMP = Comparator
+            .comparing(ImpactMetric::getTimestamp)
+            .thenComparing(ImpactMetric::getMetricId);
+
+    private final MongoTemplate mongoTemplate;
+    private final GridFsOperations gridFs;
+    private final ObjectMapper objectMapper;
+    private final ArchiveConfig config;
+
+    /**
+     * Start of the first month still kept in the hot stores; every archived metric is older.
+     */
+    public LocalDateTime coldBefore() {
+        return LocalDateTime.now().minus(config.getColdAfter()).toLocalDate().withDayOfMonth(1).atStartOfDay();
+    }
+
+    /**
+     * @return whether archived metrics may fall into a range starting at {@code start}
+     */
+    public boolean covers(LocalDateTime start) {
+        return config.isEnabled() && start.isBefore(coldBefore());
+    }
+
+    /**
+     * Merges archived readings with the ones still in the hot stores, which win on the same
+     * metricId, in timestamp order.
+     */
+    public static List<ImpactMetric> merge(List<ImpactMetric> archived, List<ImpactMetric> hot) {
+        if (archived.isEmpty()) {
+            return hot;
+        }
+        Map<String, ImpactMetric> merged = new LinkedHashMap<>();
+        archived.forEach(metric -> merged.put(metric.getMetricId(), metric));
+        hot.forEach(metric -> merged.put(metric.getMetricId(), metric));
+        List<ImpactMetric> metrics = new ArrayList<>(merged.values());
+        metrics.sort(BY_TIMESTAMP);
+        return metrics;
+    }
+
+    /**
+     * Writes the segment of a bond month, merged with the one already archived, and indexes it.
+     */
+    public MetricArchiveSegment writeSegment(String bondId, LocalDateTime monthStart, List<ImpactMetric> metrics)
+            throws IOException {
+        String id = MetricArchiveSegment.idOf(bondId, monthStart);
+
+        Map<String, ImpactMetric> merged = new LinkedHashMap<>();
+        MetricArchiveSegment existing = mongoTemplate.findById(id, MetricArchiveSegment.class);
+        if (existing != null) {
+            read(existing).forEach(metric -> merged.put(metric.getMetricId(), metric));
+        }
+        metrics.forEach(metric -> merged.put(metric.getMetricId(), metric));
+        List<ImpactMetric> rows = new ArrayList<>(merged.values());
+        rows.sort(BY_TIMESTAMP);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        encode(rows).writeTo(out);
+        ObjectId fileId = gridFs.store(new ByteArrayInputStream(out.toByteArray()), id, new Document("bondId", bondId));
+
+        MetricArchiveSegment segment = index(id, bondId, monthStart, fileId.toHexString(), rows, out.size());
+        segment.setEvicted(existing != null && Boolean.TRUE.equals(existing.getEvicted()));
+        try {
+            mongoTemplate.save(segment);
+        } catch (RuntimeException e) {
+            deleteFile(fileId.toHexString());
+            throw e;
+        }
+        if (existing != null && existing.getFileId() != null) {
+            deleteFile(existing.getFileId());
+        }
+
+        log.info("Archived segment {}: {} metrics, {} bytes", id, rows.size(), segment.getSizeBytes());
+        return segment;
+    }
+
+    /**
+     * @return archived readings of a series with timestamps in [start, end], oldest first
+     */
+    public List<ImpactMetric> findRange(String bondId, MetricType metricType, LocalDateTime start, LocalDateTime end) {
+        try (Stream<ImpactMetric> metrics = streamRange(bondId, metricType, start, end)) {
+            return metrics.toList();
+        }
+    }
+
+    /**
+     * Streams archived readings of a series with timestamps in [start, end], oldest first, one
+     * segment file at a time.
+     */
+    public Stream<ImpactMetric> streamRange(String bondId, MetricType metricType, LocalDateTime start,
+                                            LocalDateTime end) {
+        if (!covers(start)) {
+            return Stream.empty();
+        }
+
+        String series = "series." + metricType.name();
+        Query query = new Query(Criteria.where("bondId").is(bondId)
+                .and(series + ".minTimestamp").lte(end)
+                .and(series + ".maxTimestamp").gte(start))
+                .with(Sort.by(Sort.Direction.ASC, "monthStart"));
+
+        return mongoTemplate.find(query, MetricArchiveSegment.class).stream()
+                .flatMap(segment -> read(segment).stream()
+                        .filter(metric -> metric.getMetricType() == metricType
+                                && !metric.getTimestamp().isBefore(start) && !metric.getTimestamp().isAfter(end)));
+    }
+
+    /**
+     * Streaming form of {@link #merge}: both streams must be in timestamp order. Readings of the
+     * same timestamp are gathered from both sides, so a metric still in the hot stores replaces
+     * its archived copy without buffering more than one timestamp.
+     */
+    public static Stream<ImpactMetric> mergeSorted(Stream<ImpactMetric> archived, Stream<ImpactMetric> hot) {
+        Iterator<ImpactMetric> left = archived.iterator();
+        Iterator<ImpactMetric> right = hot.iterator();
+        Iterator<ImpactMetric> merged = new Iterator<>() {
+            private ImpactMetric nextLeft = left.hasNext() ? left.next() : null;
+            private ImpactMetric nextRight = right.hasNext() ? right.next() : null;
+            private Iterator<ImpactMetric> group = Collections.emptyIterator();
+
+            @Override
+            public boolean hasNext() {
+                if (!group.hasNext() && (nextLeft != null || nextRight != null)) {
+                    group = nextGroup();
+                }
+                return group.hasNext();
+            }
+
+            @Override
+            public ImpactMetric next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return group.next();
+            }
+
+            private Iterator<ImpactMetric> nextGroup() {
+                LocalDateTime timestamp = nextRight == null || (nextLeft != null
+                        && nextLeft.getTimestamp().isBefore(nextRight.getTimestamp()))
+                        ? nextLeft.getTimestamp()
+                        : nextRight.getTimestamp();
+                Map<String, ImpactMetric> byId = new LinkedHashMap<>();
+                while (nextLeft != null && nextLeft.getTimestamp().equals(timestamp)) {
+                    byId.put(nextLeft.getMetricId(), nextLeft);
+                    nextLeft = left.hasNext() ? left.next() : null;
+                }
+                while (nextRight != null && nextRight.getTimestamp().equals(timestamp)) {
+                    byId.put(nextRight.getMetricId(), nextRight);
+                    nextRight = right.hasNext() ? right.next() : null;
+                }
+                return byId.values().iterator();
+            }
+        };
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(merged, Spliterator.ORDERED), false)
+                .onClose(archived::close)
+                .onClose(hot::close);
+    }
+
+    /**
+     * Index entries of all segments, for totals over archived metrics.
+     */
+    public List<MetricArchiveSegment> findAllSegments() {
+        return mongoTemplate.findAll(MetricArchiveSegment.class);
+    }
+
+    List<ImpactMetric> read(MetricArchiveSegment segment) {
+        try {
+            GridFSFile file = findFile(segment.getFileId());
+            if (file == null) {
+                // Rewritten since this index entry was read; the current entry points at the new file
+                MetricArchiveSegment current = mongoTemplate.findById(segment.getId(), MetricArchiveSegment.class);
+                file = current != null ? findFile(current.getFileId()) : null;
+            }
+            if (file == null) {
+                throw new FileNotFoundException("No GridFS file for archive segment " + segment.getId());
+            }
+            try (InputStream in = new BufferedInputStream(gridFs.getResource(file).getInputStream(), 64 * 1024)) {
+                return decode(segment.getBondId(), ColumnarSegment.read(in, null));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read archive segment " + segment.getId(), e);
+        }
+    }
+
+    private GridFSFile findFile(String fileId) {
+        return fileId != null ? gridFs.findOne(Query.query(Criteria.where("_id").is(new ObjectId(fileId)))) : null;
+    }
+
+    private void deleteFile(String fileId) {
+        try {
+            gridFs.delete(Query.query(Criteria.where("_id").is(new ObjectId(fileId))));
+        } catch (Exception e) {
+            log.warn("Failed to delete archive segment file {}: {}", fileId, e.getMessage());
+        }
+    }
+
+    private ColumnarSegment.Writer encode(List<ImpactMetric> rows) throws JsonProcessingException {
+        int n = rows.size();
+        String[] metricIds = new String[n];
+        String[] projectIds = new String[n];
+        String[] metricTypes = new String[n];
+        long[] timestamps = new long[n];
+        String[] values = new String[n];
+        String[] units = new String[n];
+        String[] sourceTypes = new String[n];
+        String[] sourceIds = new String[n];
+        String[] deviceIds = new String[n];
+        String[] locations = new String[n];
+        String[] metadata = new String[n];
+        String[] dataQuality = new String[n];
+        String[] txHashes = new String[n];
+        long[] recordedAt = new long[n];
+        String[] proofs = new String[n];
+        long[] createdAt = new long[n];
+
+        for (int i = 0; i < n; i++) {
+            ImpactMetric metric = rows.get(i);
+            metricIds[i] = metric.getMetricId();
+            projectIds[i] = metric.getProjectId();
+            metricTypes[i] = nameOf(metric.getMetricType());
+            timestamps[i] = toMillis(metric.getTimestamp());
+            values[i] = metric.getValue() != null ? metric.getValue().toPlainString() : null;
+            units[i] = nameOf(metric.getUnit());
+            sourceTypes[i] = nameOf(metric.getSourceType());
+            sourceIds[i] = metric.getSourceId();
+            deviceIds[i] = metric.getDeviceId();
+            locations[i] = metric.getLocation();
+            metadata[i] = toJson(metric.getMetadata());
+            dataQuality[i] = toJson(metric.getDataQuality());
+            txHashes[i] = metric.getBlockchainTxHash();
+            recordedAt[i] = toMillis(metric.getBlockchainRecordedAt());
+            proofs[i] = toJson(metric.getMerkleProof());
+            createdAt[i] = toMillis(metric.getCreatedAt());
+        }
+
+        return new ColumnarSegment.Writer(n)
+                .strings("metricId", metricIds)
+                .strings("projectId", projectIds)
+                .strings("metricType", metricTypes)
+                .longs("timestamp", timestamps)
+                .strings("value", values)
+                .strings("unit", units)
+                .strings("sourceType", sourceTypes)
+                .strings("sourceId", sourceIds)
+                .strings("deviceId", deviceIds)
+                .strings("location", locations)
+                .strings("metadata", metadata)
+                .strings("dataQuality", dataQuality)
+                .strings("blockchainTxHash", txHashes)
+                .longs("blockchainRecordedAt", recordedAt)
+                .strings("merkleProof", proofs)
+                .longs("createdAt", createdAt);
+    }
+
+    private List<ImpactMetric> decode(String bondId, ColumnarSegment segment) throws IOException {
+        String[] metricIds = segment.getStrings("metricId");
+        String[] projectIds = segment.getStrings("projectId");
+        String[] metricTypes = segment.getStrings("metricType");
+        long[] timestamps = segment.getLongs("timestamp");
+        String[] values = segment.getStrings("value");
+        String[] units = segment.getStrings("unit");
+        String[] sourceTypes = segment.getStrings("sourceType");
+        String[] sourceIds = segment.getStrings("sourceId");
+        String[] deviceIds = segment.getStrings("deviceId");
+        String[] locations = segment.getStrings("location");
+        String[] metadata = segment.getStrings("metadata");
+        String[] dataQuality = segment.getStrings("dataQuality");
+        String[] txHashes = segment.getStrings("blockchainTxHash");
+        long[] recordedAt = segment.getLongs("blockchainRecordedAt");
+        String[] proofs = segment.getStrings("merkleProof");
+        long[] createdAt = segment.getLongs("createdAt");
+
+        List<ImpactMetric> metrics = new ArrayList<>(segment.getRowCount());
+        for (int i = 0; i < segment.getRowCount(); i++) {
+            metrics.add(ImpactMetric.builder()
+                    .metricId(metricIds[i])
+                    .bondId(bondId)
+                    .projectId(projectIds[i])
+                    .metricType(metricTypes[i] != null ? MetricType.valueOf(metricTypes[i]) : null)
+                    .timestamp(toTime(timestamps[i]))
+                    .value(values[i] != null ? new BigDecimal(values[i]) : null)
+                    .unit(units[i] != null ? MetricUnit.valueOf(units[i]) : null)
+                    .sourceType(sourceTypes[i] != null ? DataSourceType.valueOf(sourceTypes[i]) : null)
+                    .sourceId(sourceIds[i])
+                    .deviceId(deviceIds[i])
+                    .location(locations[i])
+                    .metadata(metadata[i] != null
+                            ? objectMapper.readValue(metadata[i], new TypeReference<Map<String, Object>>() { })
+                            : null)
+                    .dataQuality(dataQuality[i] != null
+                            ? objectMapper.readValue(dataQuality[i], DataQuality.class)
+                            : null)
+                    .blockchainTxHash(txHashes[i])
+                    .blockchainRecordedAt(toTime(recordedAt[i]))
+                    .merkleProof(proofs[i] != null ? objectMapper.readValue(proofs[i], MerkleProof.class) : null)
+                    .createdAt(toTime(createdAt[i]))
+                    .build());
+        }
+        return metrics;
+    }
+
+    private static MetricArchiveSegment index(String id, String bondId, LocalDateTime monthStart, String fileId,
+                                              List<ImpactMetric> rows, long sizeBytes) {
+        Map<MetricType, MetricArchiveSegment.SeriesRange> series = new EnumMap<>(MetricType.class);
+        for (ImpactMetric metric : rows) {
+            double value = metric.getValue() != null ? metric.getValue().doubleValue() : 0;
+            MetricArchiveSegment.SeriesRange range = series.computeIfAbsent(metric.getMetricType(), type ->
+                    MetricArchiveSegment.SeriesRange.builder()
+                            .count(0L)
+                            .sum(0.0)
+                            .minValue(value)
+                            .maxValue(value)
+                            .minTimestamp(metric.getTimestamp())
+                            .maxTimestamp(metric.getTimestamp())
+                            .build());
+            range.setCount(range.getCount() + 1);
+            range.setSum(range.getSum() + value);
+            range.setMinValue(Math.min(range.getMinValue(), value));
+            range.setMaxValue(Math.max(range.getMaxValue(), value));
+            // Rows are in timestamp order
+            range.setMaxTimestamp(metric.getTimestamp());
+        }
+
+        return MetricArchiveSegment.builder()
+                .id(id)
+                .bondId(bondId)
+                .monthStart(monthStart)
+                .fileId(fileId)
+                .rowCount(rows.size())
+                .sizeBytes(sizeBytes)
+                .minTimestamp(rows.isEmpty() ? null : rows.get(0).getTimestamp())
+                .maxTimestamp(rows.isEmpty() ? null : rows.get(rows.size() - 1).getTimestamp())
+                .series(series)
+                .archivedAt(LocalDateTime.now())
+                .build();
+    }
+
+    private String toJson(Object value) throws JsonProcessingException {
+        return value != null ? objectMapper.writeValueAsString(value) : null;
+    }
+
+    private static String nameOf(Enum<?> value) {
+        return value != null ? value.name() : null;
+    }
+
+    private static long toMillis(LocalDateTime time) {
+        return time != null ? time.toInstant(ZoneOffset.UTC).toEpochMilli() : NULL_TIME;
+    }
+
+    private static LocalDateTime toTime(long millis) {
+        return millis != NULL_TIME ? LocalDateTime.ofInstant(Instant.ofEpochMilli(millis), ZoneOffset.UTC) : null;
+    }
+}
@@ -0,0 +1,128 @@
+package com.esgbank.greenbond.monitoring.service;
+
+import com.esgbank.greenbond.monitoring.config.StorageLayoutConfig;
+import com.esgbank.greenbond.monitoring.exception.ImpactMonitoringException;
+import com.esgbank.greenbond.monitoring.model.ImpactMetric;
+import com.esgbank.greenbond.monitoring.model.MetricBucket;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Moves raw metric series to the hourly bucket layout.
+ * <p>
+ * Rollout: switch to the {@code DUAL} layout so new metrics are written to buckets too, run the
+ * backfill, then switch to {@code BUCKETED}. The document series indexes stay. The backfill
+ * copies every metric document to its bucket and can be rerun at any point. After each batch it
+ * re-reads the copied metrics, so one deleted or anchored while it was being copied is corrected
+ * in its bucket.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class MetricBucketMigrationService {
+
+    private final MongoTemplate mongoTemplate;
+    private final MetricBucketStore bucketStore;
+    private final StorageLayoutConfig config;
+
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void migrateOnStartup() {
+        if (!config.isMigrateOnStartup()) {
+            return;
+        }
+
+        try {
+            backfill();
+        } catch (Exception e) {
+            log.error("Bucket layout migration failed: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Copies all metric documents to their hourly buckets.
+     *
+     * @return the number of metrics copied
+     */
+    public long backfill() {
+        if (!config.getLayout().writesBuckets()) {
+            throw new ImpactMonitoringException("Bucket backfill needs the DUAL or BUCKETED layout, so metrics "
+                    + "stored during the backfill are written to buckets too; current layout: " + config.getLayout());
+        }
+
+        log.info("Backfilling hourly metric buckets from impact_metrics");
+        Query query = new Query().cursorBatchSize(config.getMigrationBatchSize());
+        long copied = 0;
+        long batches = 0;
+
+        try (Stream<ImpactMetric> metrics = mongoTemplate.stream(query, ImpactMetric.class)) {
+            List<ImpactMetric> chunk = new ArrayList<>(config.getMigrationBatchSize());
+            for (ImpactMetric metric : (Iterable<ImpactMetric>) metrics::iterator) {
+                chunk.add(metric);
+                if (chunk.size() == config.getMigrationBatchSize()) {
+                    copied += copy(chunk);
+                    chunk = new ArrayList<>(config.getMigrationBatchSize());
+                    if (++batches % 100 == 0) {
+                        log.info("Bucket backfill progress: {} metrics copied", copied);
+                    }
+                }
+            }
+            copied += copy(chunk);
+        }
+
+        log.info("Bucket backfill completed: {} metrics copied", copied);
+        return copied;
+    }
+
+    private int copy(List<ImpactMetric> metrics) {
+        if (metrics.isEmpty()) {
+            return 0;
+        }
+        bucketStore.applyMetrics(metrics);
+
+        // A metric deleted after it was read is removed again; one anchored meanwhile gets its transaction
+        List<String> metricIds = metrics.stream().map(ImpactMetric::getMetricId).toList();
+        Query current = new Query(Criteria.where("metricId").in(metricIds));
+        current.fields().include("metricId", "blockchainTxHash", "blockchainRecordedAt");
+        Map<String, ImpactMetric> stored = mongoTemplate.find(current, ImpactMetric.class).stream()
+                .collect(Collectors.toMap(ImpactMetric::getMetricId, Function.identity(), (a, b) -> a, HashMap::new));
+
+        Map<String, List<String>> deleted = new LinkedHashMap<>();
+        BulkOperations anchored = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, MetricBucket.class);
+        int anchoredCount = 0;
+        for (ImpactMetric metric : metrics) {
+            ImpactMetric now = stored.get(metric.getMetricId());
+            if (now == null) {
+                deleted.computeIfAbsent(MetricBucketStore.idOf(metric), id -> new ArrayList<>())
+                        .add(metric.getMetricId());
+            } else if (now.getBlockchainTxHash() != null && metric.getBlockchainTxHash() == null) {
+                MetricBucketStore.setAnchor(anchored, MetricBucketStore.idOf(metric), metric.getMetricId(),
+                        now.getBlockchainTxHash(), now.getBlockchainRecordedAt());
+                anchoredCount++;
+            }
+        }
+        if (anchoredCount > 0) {
+            anchored.execute();
+        }
+        bucketStore.removeReadings(deleted);
+
+        return metrics.size() - deleted.values().stream().mapToInt(List::size).sum();
+    }
+}
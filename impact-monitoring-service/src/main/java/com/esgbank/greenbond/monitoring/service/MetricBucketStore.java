@@ -0,0 +1,330 @@
+package com.esgbank.greenbond.monitoring.service;
+
+import com.esgbank.greenbond.monitoring.config.StorageLayoutConfig;
+import com.esgbank.greenbond.monitoring.model.ImpactMetric;
+import com.esgbank.greenbond.monitoring.model.MetricBucket;
+import com.esgbank.greenbond.monitoring.model.MetricBucketReading;
+import com.esgbank.greenbond.monitoring.model.enums.MetricType;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.TypedAggregation;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Hourly buckets of raw readings per (bondId, metricType) series, in {@code impact_metric_buckets}.
+ * <p>
+ * With the {@code BUCKETED} layout the series reads (latest readings, time ranges, pages by bond,
+ * raw edges of rollup queries, hot window warm-up) are served from buckets, so a range costs one
+ * index entry per series hour instead of one per reading. Metric documents stay the record in
+ * every layout and keep their series indexes: archival, proofs and the queries not listed here
+ * still read them. Writes go to both collections from the {@code DUAL} layout on; every bucket
+ * write is keyed by metricId and can be replayed, which is what lets
+ * {@link MetricBucketMigrationService} backfill while ingestion continues.
+ * <p>
+ * A batch of readings for the same series hour costs one write, but MongoDB rewrites the whole
+ * bucket document for it, so the buckets add write volume on top of the documents.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class MetricBucketStore {
+
+    private static final Comparator<ImpactMetric> BY_TIMESTAMP = Comparator
+            .comparing(ImpactMetric::getTimestamp)
+            .thenComparing(ImpactMetric::getMetricId);
+
+    private final MongoTemplate mongoTemplate;
+    private final StorageLayoutConfig config;
+
+    /**
+     * Indexes of {@code impact_metrics} that only serve series reads.
+     */
+    static List<Index> documentSeriesIndexes() {
+        return List.of(
+                new Index().on("bondId", Sort.Direction.ASC).named("bondId"),
+                new Index().on("projectId", Sort.Direction.ASC).named("projectId"),
+                new Index().on("metricType", Sort.Direction.ASC).named("metricType"),
+                new Index().on("bondId", Sort.Direction.ASC).on("timestamp", Sort.Direction.DESC)
+                        .named("bond_timestamp_idx"),
+                new Index().on("bondId", Sort.Direction.ASC).on("metricType", Sort.Direction.ASC)
+                        .on("timestamp", Sort.Direction.DESC).named("bond_metric_timestamp_idx"));
+    }
+
+    /**
+     * Creates the series indexes of metric documents. They are kept with every layout, since
+     * readers outside this store query the documents by series.
+     */
+    @PostConstruct
+    public void ensureDocumentIndexes() {
+        try {
+            documentSeriesIndexes().forEach(index -> mongoTemplate.indexOps(ImpactMetric.class).ensureIndex(index));
+        } catch (Exception e) {
+            log.error("Failed to create series indexes of impact metrics: {}", e.getMessage(), e);
+        }
+    }
+
+    public boolean isReadEnabled() {
+        return config.getLayout().readsBuckets();
+    }
+
+    /**
+     * Adds stored metrics to their buckets with one upsert per series hour.
+     */
+    public void applyMetrics(List<ImpactMetric> metrics) {
+        if (!config.getLayout().writesBuckets() || metrics.isEmpty()) {
+            return;
+        }
+
+        Map<String, List<ImpactMetric>> byBucket = new LinkedHashMap<>();
+        for (ImpactMetric metric : metrics) {
+            byBucket.computeIfAbsent(idOf(metric), id -> new ArrayList<>()).add(metric);
+        }
+
+        BulkOperations bulkOps = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, MetricBucket.class);
+        LocalDateTime now = LocalDateTime.now();
+
+        byBucket.forEach((id, bucketMetrics) -> {
+            ImpactMetric first = bucketMetrics.get(0);
+            LocalDateTime firstTimestamp = first.getTimestamp();
+            LocalDateTime lastTimestamp = first.getTimestamp();
+            Update update = new Update()
+                    .setOnInsert("bondId", first.getBondId())
+                    .setOnInsert("metricType", first.getMetricType())
+                    .setOnInsert("bucketStart", MetricBucket.bucketStartOf(first.getTimestamp()))
+                    .set("updatedAt", now);
+
+            for (ImpactMetric metric : bucketMetrics) {
+                update.set("readings." + metric.getMetricId(), MetricBucketReading.of(metric));
+                if (metric.getTimestamp().isBefore(firstTimestamp)) {
+                    firstTimestamp = metric.getTimestamp();
+                }
+                if (metric.getTimestamp().isAfter(lastTimestamp)) {
+                    lastTimestamp = metric.getTimestamp();
+                }
+            }
+
+            bulkOps.upsert(Query.query(Criteria.where("_id").is(id)),
+                    update.min("firstTimestamp", firstTimestamp).max("lastTimestamp", lastTimestamp));
+        });
+
+        bulkOps.execute();
+    }
+
+    /**
+     * Removes a deleted metric, and its bucket once empty.
+     */
+    public void removeMetric(ImpactMetric metric) {
+        if (!config.getLayout().writesBuckets()) {
+            return;
+        }
+        removeReadings(Map.of(idOf(metric), List.of(metric.getMetricId())));
+    }
+
+    /**
+     * Removes metrics moved out of MongoDB, and the buckets they leave empty.
+     */
+    public void removeMetrics(List<ImpactMetric> metrics) {
+        if (!config.getLayout().writesBuckets() || metrics.isEmpty()) {
+            return;
+        }
+        removeReadings(metrics.stream().collect(Collectors.groupingBy(MetricBucketStore::idOf,
+                Collectors.mapping(ImpactMetric::getMetricId, Collectors.toList()))));
+    }
+
+    /**
+     * Removes readings by bucket id, then the buckets left empty.
+     */
+    void removeReadings(Map<String, List<String>> metricIdsByBucket) {
+        if (metricIdsByBucket.isEmpty()) {
+            return;
+        }
+
+        BulkOperations bulkOps = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, MetricBucket.class);
+        LocalDateTime now = LocalDateTime.now();
+        metricIdsByBucket.forEach((id, metricIds) -> {
+            Update update = new Update().set("updatedAt", now);
+            metricIds.forEach(metricId -> update.unset("readings." + metricId));
+            bulkOps.updateOne(Query.query(Criteria.where("_id").is(id)), update);
+        });
+        bulkOps.execute();
+
+        mongoTemplate.remove(Query.query(Criteria.where("_id").in(metricIdsByBucket.keySet())
+                .and("readings").is(new Document())), MetricBucket.class);
+    }
+
+    /**
+     * Records the anchoring transaction on readings already in their bucket. Readings not yet
+     * backfilled get it from the metric document when they are copied.
+     *
+     * @param metricIdsByBucket anchored metric IDs by {@link MetricBucket#idOf bucket id}
+     */
+    public void applyAnchor(Map<String, List<String>> metricIdsByBucket, String transactionHash,
+                            LocalDateTime anchoredAt) {
+        if (!config.getLayout().writesBuckets() || metricIdsByBucket.isEmpty()) {
+            return;
+        }
+
+        BulkOperations bulkOps = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, MetricBucket.class);
+        metricIdsByBucket.forEach((id, metricIds) -> metricIds.forEach(metricId ->
+                setAnchor(bulkOps, id, metricId, transactionHash, anchoredAt)));
+        bulkOps.execute();
+    }
+
+    // Without the exists check, a reading not yet in its bucket would be created with only these fields
+    static void setAnchor(BulkOperations bulkOps, String bucketId, String metricId, String transactionHash,
+                          LocalDateTime anchoredAt) {
+        String reading = "readings." + metricId;
+        bulkOps.updateOne(Query.query(Criteria.where("_id").is(bucketId).and(reading).exists(true)),
+                new Update()
+                        .set(reading + ".tx", transactionHash)
+                        .set(reading + ".ta", anchoredAt));
+    }
+
+    /**
+     * @return the latest {@code limit} readings of a series, newest first
+     */
+    public List<ImpactMetric> findLatest(String bondId, MetricType metricType, int limit) {
+        Query query = new Query(Criteria.where("bondId").is(bondId).and("metricType").is(metricType))
+                .with(Sort.by(Sort.Direction.DESC, "bucketStart"))
+                .cursorBatchSize(config.getReadBatchSize());
+
+        List<ImpactMetric> metrics = new ArrayList<>();
+        // Buckets cover disjoint hours: once the newest buckets hold enough readings, older ones cannot contribute
+        try (Stream<MetricBucket> buckets = mongoTemplate.stream(query, MetricBucket.class)) {
+            for (MetricBucket bucket : (Iterable<MetricBucket>) buckets::iterator) {
+                metrics.addAll(toMetrics(bucket));
+                if (metrics.size() >= limit) {
+                    break;
+                }
+            }
+        }
+
+        metrics.sort(BY_TIMESTAMP.reversed());
+        return metrics.size() > limit ? new ArrayList<>(metrics.subList(0, limit)) : metrics;
+    }
+
+    /**
+     * @return the readings of a series with timestamps in [start, end], oldest first
+     */
+    public List<ImpactMetric> findRange(String bondId, MetricType metricType, LocalDateTime start, LocalDateTime end) {
+        try (Stream<ImpactMetric> metrics = streamRange(bondId, metricType, start, end)) {
+            return metrics.toList();
+        }
+    }
+
+    /**
+     * Streams the readings of a series with timestamps in [start, end], oldest first, holding
+     * one cursor batch of buckets at a time. The stream must be closed.
+     */
+    public Stream<ImpactMetric> streamRange(String bondId, MetricType metricType, LocalDateTime start,
+                                            LocalDateTime end) {
+        Query query = new Query(Criteria.where("bondId").is(bondId)
+                .and("metricType").is(metricType)
+                .and("bucketStart").gte(MetricBucket.bucketStartOf(start)).lte(end))
+                .with(Sort.by(Sort.Direction.ASC, "bucketStart"))
+                .cursorBatchSize(config.getReadBatchSize());
+
+        Stream<MetricBucket> buckets = mongoTemplate.stream(query, MetricBucket.class);
+        return buckets.flatMap(bucket -> toMetrics(bucket).stream()
+                        .filter(metric -> !metric.getTimestamp().isBefore(start) && !metric.getTimestamp().isAfter(end))
+                        .sorted(BY_TIMESTAMP))
+                .onClose(buckets::close);
+    }
+
+    /**
+     * Streams the readings of all series with timestamps from {@code from} on, bucket by bucket,
+     * so each series is in timestamp order. The stream must be closed.
+     */
+    public Stream<ImpactMetric> streamSince(LocalDateTime from) {
+        Query query = new Query(Criteria.where("bucketStart").gte(MetricBucket.bucketStartOf(from)))
+                .with(Sort.by(Sort.Direction.ASC, "bucketStart"))
+                .cursorBatchSize(config.getReadBatchSize());
+
+        Stream<MetricBucket> buckets = mongoTemplate.stream(query, MetricBucket.class);
+        return buckets.flatMap(bucket -> toMetrics(bucket).stream()
+                        .filter(metric -> !metric.getTimestamp().isBefore(from))
+                        .sorted(BY_TIMESTAMP))
+                .onClose(buckets::close);
+    }
+
+    /**
+     * Page of a bond's readings, newest first, optionally of one metric type. The page is found
+     * from reading counts per hour, so only the buckets it overlaps are read.
+     */
+    public Page<ImpactMetric> findPage(String bondId, MetricType metricType, Pageable pageable) {
+        Criteria criteria = Criteria.where("bondId").is(bondId);
+        if (metricType != null) {
+            criteria.and("metricType").is(metricType);
+        }
+
+        TypedAggregation<MetricBucket> countsByHour = Aggregation.newAggregation(MetricBucket.class,
+                Aggregation.match(criteria),
+                context -> new Document("$group", new Document("_id", "$bucketStart")
+                        .append("count", new Document("$sum",
+                                new Document("$size", new Document("$objectToArray", "$readings"))))),
+                context -> new Document("$sort", new Document("_id", -1)));
+        List<Document> hours = mongoTemplate.aggregate(countsByHour, Document.class).getMappedResults();
+
+        long total = 0;
+        long skipped = 0;
+        List<LocalDateTime> pageHours = new ArrayList<>();
+        for (Document hour : hours) {
+            long count = ((Number) hour.get("count")).longValue();
+            if (total + count > pageable.getOffset() && total < pageable.getOffset() + pageable.getPageSize()) {
+                pageHours.add(LocalDateTime.ofInstant(hour.getDate("_id").toInstant(), ZoneId.systemDefault()));
+            } else if (total + count <= pageable.getOffset()) {
+                skipped += count;
+            }
+            total += count;
+        }
+        if (pageHours.isEmpty()) {
+            return new PageImpl<>(List.of(), pageable, total);
+        }
+
+        List<ImpactMetric> metrics = new ArrayList<>();
+        mongoTemplate.find(new Query(criteria.and("bucketStart").in(pageHours)), MetricBucket.class)
+                .forEach(bucket -> metrics.addAll(toMetrics(bucket)));
+        metrics.sort(BY_TIMESTAMP.reversed());
+
+        int from = (int) Math.min(pageable.getOffset() - skipped, metrics.size());
+        int to = Math.min(from + pageable.getPageSize(), metrics.size());
+        return new PageImpl<>(new ArrayList<>(metrics.subList(from, to)), pageable, total);
+    }
+
+    static String idOf(ImpactMetric metric) {
+        return MetricBucket.idOf(metric.getBondId(), metric.getMetricType(),
+                MetricBucket.bucketStartOf(metric.getTimestamp()));
+    }
+
+    private static List<ImpactMetric> toMetrics(MetricBucket bucket) {
+        if (bucket.getReadings() == null) {
+            return List.of();
+        }
+        List<ImpactMetric> metrics = new ArrayList<>(bucket.getReadings().size());
+        bucket.getReadings().forEach((metricId, reading) -> metrics.add(reading.toMetric(metricId, bucket)));
+        return metrics;
+    }
+}
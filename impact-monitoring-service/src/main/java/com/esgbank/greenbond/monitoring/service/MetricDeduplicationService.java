@@ -0,0 +1,215 @@
+package com.esgbank.greenbond.monitoring.service;
+
+import com.esgbank.greenbond.monitoring.config.DeduplicationConfig;
+import com.esgbank.greenbond.monitoring.dto.ImpactMetricRequest;
+import com.esgbank.greenbond.monitoring.model.ImpactMetric;
+import com.esgbank.greenbond.monitoring.model.enums.MetricType;
+import com.esgbank.greenbond.monitoring.util.BloomFilter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * Drops device readings that were already stored, keyed on (deviceId, metricType, timestamp, sourceId).
+ * <p>
+ * A per-device LRU of recently stored keys answers replays of the last sync window outright. Other
+ * keys go through a Bloom filter: a negative answer means the reading is new, and only the rare
+ * positive answers are checked against MongoDB in one query per batch. The unique
+ * {@code device_reading_idx} index on {@code impact_metrics}, created by
+ * {@link DeviceReadingIndexMigration}, backs this up for concurrent writers.
+ * Readings without a device ID are never deduplicated.
+ */
+@Slf4j
+@Service
+public class MetricDeduplicationService {
+
+    private final MongoTemplate mongoTemplate;
+    private final DeduplicationConfig deduplicationConfig;
+
+    // Two generations, so the filter never saturates: the older one is dropped on rotation
+    private BloomFilter currentFilter;
+    private BloomFilter previousFilter;
+    private final Map<String, LinkedHashMap<String, Boolean>> recentKeys = new HashMap<>();
+
+    public MetricDeduplicationService(MongoTemplate mongoTemplate, DeduplicationConfig deduplicationConfig) {
+        this.mongoTemplate = mongoTemplate;
+        this.deduplicationConfig = deduplicationConfig;
+        this.currentFilter = newFilter();
+    }
+
+    /**
+     * @return positions of the requests that duplicate a stored reading or an earlier request in the list
+     */
+    public Set<Integer> findDuplicates(List<ImpactMetricRequest> requests) {
+        Set<Integer> duplicates = new HashSet<>();
+        if (!deduplicationConfig.isEnabled()) {
+            return duplicates;
+        }
+
+        Set<String> batchKeys = new HashSet<>();
+        Map<String, List<Integer>> maybeStored = new LinkedHashMap<>();
+        List<ImpactMetricRequest> candidates = new ArrayList<>();
+
+        synchronized (this) {
+            for (int i = 0; i < requests.size(); i++) {
+                ImpactMetricRequest request = requests.get(i);
+                String key = keyOf(request.getDeviceId(), request.getMetricType(), request.getTimestamp(), request.getSourceId());
+                if (key == null) {
+                    continue;
+                }
+                if (!batchKeys.add(key) || isRecent(request.getDeviceId(), key)) {
+                    duplicates.add(i);
+                } else if (mightBeStored(key)) {
+                    maybeStored.computeIfAbsent(key, k -> new ArrayList<>()).add(i);
+                    candidates.add(request);
+                }
+            }
+        }
+
+        if (!maybeStored.isEmpty()) {
+            for (String key : findStoredKeys(candidates)) {
+                duplicates.addAll(maybeStored.getOrDefault(key, List.of()));
+            }
+        }
+
+        if (!duplicates.isEmpty()) {
+            log.debug("Dropping {} duplicate readings out of {}", duplicates.size(), requests.size());
+        }
+        return duplicates;
+    }
+
+    /**
+     * Records stored metrics so that later replays are dropped without a lookup.
+     */
+    public synchronized void remember(List<ImpactMetric> metrics) {
+        for (ImpactMetric metric : metrics) {
+            String key = keyOf(metric.getDeviceId(), metric.getMetricType(), metric.getTimestamp(), metric.getSourceId());
+            if (key != null) {
+                addToFilter(key);
+                recentKeysOf(metric.getDeviceId()).put(key, Boolean.TRUE);
+            }
+        }
+    }
+
+    /**
+     * Forgets a deleted metric, so the same reading can be ingested again.
+     */
+    public synchronized void forget(ImpactMetric metric) {
+        String key = keyOf(metric.getDeviceId(), metric.getMetricType(), metric.getTimestamp(), metric.getSourceId());
+        LinkedHashMap<String, Boolean> deviceKeys = key != null ? recentKeys.get(metric.getDeviceId()) : null;
+        if (deviceKeys != null) {
+            deviceKeys.remove(key);
+        }
+    }
+
+    /**
+     * Loads keys of recently stored readings into the filter, so a restart does not turn every
+     * replay of the last sync window into a unique index violation.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        if (!deduplicationConfig.isEnabled()) {
+            return;
+        }
+
+        Query query = new Query(Criteria.where("deviceId").exists(true)
+                .and("timestamp").gte(LocalDateTime.now().minus(deduplicationConfig.getWarmupLookback())));
+        query.fields().include("deviceId", "metricType", "timestamp", "sourceId");
+        int loaded = 0;
+
+        try (Stream<ImpactMetric> metrics = mongoTemplate.stream(query, ImpactMetric.class)) {
+            for (ImpactMetric metric : (Iterable<ImpactMetric>) metrics::iterator) {
+                String key = keyOf(metric.getDeviceId(), metric.getMetricType(), metric.getTimestamp(), metric.getSourceId());
+                synchronized (this) {
+                    addToFilter(key);
+                }
+                loaded++;
+            }
+            log.info("Loaded {} recent reading keys into the deduplication filter", loaded);
+        } catch (Exception e) {
+            log.error("Failed to warm up deduplication filter: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Natural key of a device reading. Timestamps are truncated to milliseconds, the precision
+     * MongoDB stores them with.
+     */
+    static String keyOf(String deviceId, MetricType metricType, LocalDateTime timestamp, String sourceId) {
+        if (deviceId == null || metricType == null || timestamp == null) {
+            return null;
+        }
+        return deviceId + '\u0000' + metricType + '\u0000' + timestamp.toInstant(ZoneOffset.UTC).toEpochMilli()
+                + '\u0000' + (sourceId != null ? sourceId : "");
+    }
+
+    private Set<String> findStoredKeys(List<ImpactMetricRequest> candidates) {
+        List<Criteria> keys = candidates.stream()
+                .map(request -> Criteria.where("deviceId").is(request.getDeviceId())
+                        .and("metricType").is(request.getMetricType())
+                        .and("timestamp").is(request.getTimestamp())
+                        .and("sourceId").is(request.getSourceId()))
+                .toList();
+
+        Query query = new Query(new Criteria().orOperator(keys));
+        query.fields().include("deviceId", "metricType", "timestamp", "sourceId");
+
+        Set<String> stored = new HashSet<>();
+        List<ImpactMetric> found = mongoTemplate.find(query, ImpactMetric.class);
+        synchronized (this) {
+            for (ImpactMetric metric : found) {
+                String key = keyOf(metric.getDeviceId(), metric.getMetricType(), metric.getTimestamp(), metric.getSourceId());
+                stored.add(key);
+                recentKeysOf(metric.getDeviceId()).put(key, Boolean.TRUE);
+            }
+        }
+        return stored;
+    }
+
+    private boolean isRecent(String deviceId, String key) {
+        LinkedHashMap<String, Boolean> deviceKeys = recentKeys.get(deviceId);
+        // get() refreshes the access order
+        return deviceKeys != null && deviceKeys.get(key) != null;
+    }
+
+    private boolean mightBeStored(String key) {
+        return currentFilter.mightContain(key) || (previousFilter != null && previousFilter.mightContain(key));
+    }
+
+    private void addToFilter(String key) {
+        if (currentFilter.getInsertions() >= deduplicationConfig.getExpectedKeys()) {
+            previousFilter = currentFilter;
+            currentFilter = newFilter();
+        }
+        currentFilter.add(key);
+    }
+
+    private LinkedHashMap<String, Boolean> recentKeysOf(String deviceId) {
+        int capacity = deduplicationConfig.getRecentKeysPerDevice();
+        return recentKeys.computeIfAbsent(deviceId, id -> new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Boolean> eldest) {
+                return size() > capacity;
+            }
+        });
+    }
+
+    private BloomFilter newFilter() {
+        return new BloomFilter(deduplicationConfig.getExpectedKeys(), deduplicationConfig.getFalsePositiveRate());
+    }
+}
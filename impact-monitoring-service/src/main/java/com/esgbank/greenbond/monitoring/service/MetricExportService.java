@@ -0,0 +1,187 @@
+package com.esgbank.greenbond.monitoring.service;
+
+import com.esgbank.greenbond.monitoring.config.ExportConfig;
+import com.esgbank.greenbond.monitoring.dto.ImpactMetricResponse;
+import com.esgbank.greenbond.monitoring.exception.ImpactMonitoringException;
+import com.esgbank.greenbond.monitoring.mapper.ImpactMetricMapper;
+import com.esgbank.greenbond.monitoring.model.ImpactMetric;
+import com.esgbank.greenbond.monitoring.model.enums.ExportFormat;
+import com.esgbank.greenbond.monitoring.model.enums.MetricType;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Streams raw metrics of one bond and metric type from a MongoDB cursor straight to an output
+ * stream, so memory use does not depend on the size of the exported range.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class MetricExportService {
+
+    static final String[] CSV_COLUMNS = {
+            "metricId", "bondId", "projectId", "metricType", "value", "unit", "timestamp", "sourceType",
+            "sourceId", "deviceId", "location", "confidenceScore", "qualityStatus", "blockchainTxHash"
+    };
+
+    private static final int WRITE_BUFFER_SIZE = 64 * 1024;
+
+    private final MongoTemplate mongoTemplate;
+    private final ImpactMetricMapper metricMapper;
+    private final ObjectMapper objectMapper;
+    private final ExportConfig exportConfig;
+    private final MetricBucketStore bucketStore;
+    private final MetricArchiveStore archiveStore;
+
+    public void validateRange(LocalDateTime start, LocalDateTime end) {
+        if (start.isAfter(end)) {
+            throw new ImpactMonitoringException("INVALID_TIME_RANGE", "Export start must not be after end");
+        }
+    }
+
+    /**
+     * Writes all metrics with timestamps in [start, end] in timestamp order.
+     *
+     * @return the number of exported metrics
+     */
+    public long exportMetrics(String bondId, MetricType metricType, LocalDateTime start, LocalDateTime end,
+                              ExportFormat format, OutputStream out) throws IOException {
+        validateRange(start, end);
+
+        long exported;
+        try (Stream<ImpactMetric> metrics = streamMetrics(bondId, metricType, start, end)) {
+            exported = format == ExportFormat.CSV
+                    ? writeCsv(metrics.iterator(), out)
+                    : writeNdjson(metrics.iterator(), out);
+        }
+
+        log.info("Exported {} metrics for bond: {}, type: {} as {}", exported, bondId, metricType, format);
+        return exported;
+    }
+
+    private Stream<ImpactMetric> streamMetrics(String bondId, MetricType metricType, LocalDateTime start,
+                                               LocalDateTime end) {
+        if (archiveStore.covers(start)) {
+            return MetricArchiveStore.mergeSorted(archiveStore.streamRange(bondId, metricType, start, end),
+                    streamHotMetrics(bondId, metricType, start, end));
+        }
+        return streamHotMetrics(bondId, metricType, start, end);
+    }
+
+    private Stream<ImpactMetric> streamHotMetrics(String bondId, MetricType metricType, LocalDateTime start,
+                                                  LocalDateTime end) {
+        if (bucketStore.isReadEnabled()) {
+            return bucketStore.streamRange(bondId, metricType, start, end);
+        }
+
+        Query query = new Query(Criteria.where("bondId").is(bondId)
+                .and("metricType").is(metricType)
+                .and("timestamp").gte(start).lte(end))
+                .with(Sort.by(Sort.Direction.ASC, "timestamp"))
+                .cursorBatchSize(exportConfig.getBatchSize());
+        return mongoTemplate.stream(query, ImpactMetric.class);
+    }
+
+    private long writeNdjson(Iterator<ImpactMetric> metrics, OutputStream out) throws IOException {
+        ObjectWriter writer = objectMapper.writerFor(ImpactMetricResponse.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        long count = 0;
+
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.setRootValueSeparator(new SerializedString("\n"));
+
+            while (metrics.hasNext()) {
+                writer.writeValue(generator, metricMapper.toResponse(metrics.next()));
+                if (++count % exportConfig.getBatchSize() == 0) {
+                    generator.flush();
+                }
+            }
+            if (count > 0) {
+                generator.writeRaw('\n');
+            }
+        }
+        return count;
+    }
+
+    private long writeCsv(Iterator<ImpactMetric> metrics, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), WRITE_BUFFER_SIZE);
+        long count = 0;
+
+        writer.write(String.join(",", CSV_COLUMNS));
+        writer.write('\n');
+
+        while (metrics.hasNext()) {
+            ImpactMetric metric = metrics.next();
+            writeCsvRow(writer,
+                    metric.getMetricId(),
+                    metric.getBondId(),
+                    metric.getProjectId(),
+                    metric.getMetricType(),
+                    metric.getValue() != null ? metric.getValue().toPlainString() : null,
+                    metric.getUnit(),
+                    metric.getTimestamp(),
+                    metric.getSourceType(),
+                    metric.getSourceId(),
+                    metric.getDeviceId(),
+                    metric.getLocation(),
+                    metric.getDataQuality() != null ? metric.getDataQuality().getConfidenceScore() : null,
+                    metric.getDataQuality() != null ? metric.getDataQuality().getQualityStatus() : null,
+                    metric.getBlockchainTxHash());
+            if (++count % exportConfig.getBatchSize() == 0) {
+                writer.flush();
+            }
+        }
+
+        writer.flush();
+        return count;
+    }
+
+    static void writeCsvRow(Writer writer, Object... fields) throws IOException {
+        for (int i = 0; i < fields.length; i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            if (fields[i] != null) {
+                writeCsvField(writer, fields[i].toString());
+            }
+        }
+        writer.write('\n');
+    }
+
+    // RFC 4180 quoting: fields with separators, quotes or line breaks are quoted, quotes doubled
+    private static void writeCsvField(Writer writer, String field) throws IOException {
+        boolean quote = false;
+        for (int i = 0; i < field.length() && !quote; i++) {
+            char c = field.charAt(i);
+            quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!quote) {
+            writer.write(field);
+            return;
+        }
+        writer.write('"');
+        writer.write(field.replace("\"", "\"\""));
+        writer.write('"');
+    }
+}
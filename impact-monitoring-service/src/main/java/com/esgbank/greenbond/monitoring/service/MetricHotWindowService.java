@@ -0,0 +1,578 @@
+package com.esgbank.greenbond.monitoring.service;
+
+import com.esgbank.greenbond.monitoring.config.HotWindowConfig;
+import com.esgbank.greenbond.monitoring.dto.MetricAggregationRequest;
+import com.esgbank.greenbond.monitoring.dto.MetricAggregationResponse;
+import com.esgbank.greenbond.monitoring.dto.TimeSeriesPoint;
+import com.esgbank.greenbond.monitoring.model.ImpactMetric;
+import com.esgbank.greenbond.monitoring.model.enums.MetricType;
+import com.esgbank.greenbond.monitoring.util.CompressedSeriesBlock;
+import com.esgbank.greenbond.monitoring.util.FluxDuration;
+import com.esgbank.greenbond.monitoring.util.StreamingStatistics;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * In-process hot tier with the most recent points of every series.
+ * <p>
+ * Points are kept in {@link CompressedSeriesBlock}s of {@code block-span} each, about one to two
+ * bytes per regular reading, and the newest full metrics of each series are kept for "latest N"
+ * reads. Blocks older than {@code window} are evicted, and when compressed blocks exceed
+ * {@code max-bytes} the oldest blocks across all series go first.
+ * <p>
+ * Each series records from when on it holds every point, so a query is answered from memory only
+ * if the hot tier can answer it completely; otherwise it returns empty and the caller reads from
+ * storage. The tier is loaded from MongoDB at startup and then follows the metrics written and
+ * deleted through this instance only. With several replicas a series would look complete while
+ * missing the writes of the others, so the tier is off by default and must only be enabled for
+ * single-instance deployments.
+ * <p>
+ * Timestamps are treated as UTC wall-clock times, as in the InfluxDB write path.
+ */
+@Slf4j
+@Service
+public class MetricHotWindowService {
+
+    private static final List<String> SUPPORTED_FUNCTIONS =
+            List.of("mean", "avg", "sum", "min", "max", "count", "stddev", "first", "last");
+
+    private static final int WARMUP_BATCH_SIZE = 1000;
+    private static final int WARMUP_EVICTION_CHECK = 100_000;
+
+    private final MongoTemplate mongoTemplate;
+    private final MetricBucketStore bucketStore;
+    private final HotWindowConfig config;
+
+    private final Map<String, Series> series = new ConcurrentHashMap<>();
+    private final Map<String, ImpactMetric> recentById = new ConcurrentHashMap<>();
+    private final Set<String> removedDuringWarmUp = ConcurrentHashMap.newKeySet();
+    private final AtomicLong blockBytes = new AtomicLong();
+    private final LocalDateTime startedAt = LocalDateTime.now();
+    private final long initialCoveredFrom;
+    private volatile boolean ready;
+
+    private final Counter hits;
+    private final Counter misses;
+
+    public MetricHotWindowService(MongoTemplate mongoTemplate, MetricBucketStore bucketStore, HotWindowConfig config,
+                                  MeterRegistry meterRegistry) {
+        this.mongoTemplate = mongoTemplate;
+        this.bucketStore = bucketStore;
+        this.config = config;
+        // Warm-up loads everything from here on, so series first seen later are complete from here too
+        this.initialCoveredFrom = toMillis(startedAt.minus(config.getWindow()));
+
+        this.hits = Counter.builder("impact.hot.window.reads")
+                .description("Reads answered by the hot window")
+                .tag("result", "hit")
+                .register(meterRegistry);
+        this.misses = Counter.builder("impact.hot.window.reads")
+                .description("Reads answered by the hot window")
+                .tag("result", "miss")
+                .register(meterRegistry);
+        Gauge.builder("impact.hot.window.bytes", blockBytes, AtomicLong::get)
+                .description("Size of the compressed blocks of the hot window")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        Gauge.builder("impact.hot.window.series", series, Map::size)
+                .description("Series held in the hot window")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Loads the last {@code window} of metrics that existed before startup. Metrics written
+     * meanwhile are added by {@link #applyMetrics}, so each metric is added exactly once.
+     */
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        if (!config.isEnabled()) {
+            return;
+        }
+
+        LocalDateTime from = startedAt.minus(config.getWindow());
+        long loaded = 0;
+        try (Stream<ImpactMetric> metrics = storedBeforeStartup(from)) {
+            Iterator<ImpactMetric> iterator = metrics.iterator();
+            while (iterator.hasNext()) {
+                ImpactMetric metric = iterator.next();
+                if (!removedDuringWarmUp.contains(metric.getMetricId())) {
+                    add(metric);
+                    if (++loaded % WARMUP_EVICTION_CHECK == 0) {
+                        evictOverBudget();
+                    }
+                }
+            }
+            removedDuringWarmUp.clear();
+            ready = true;
+            evict();
+            log.info("Hot window loaded {} metrics of {} series since {}, {} bytes compressed",
+                    loaded, series.size(), from, blockBytes.get());
+
+        } catch (Exception e) {
+            log.error("Hot window warm-up failed, recent reads will go to storage. Error: {}", e.getMessage(), e);
+        }
+    }
+
+    // Metrics stored before startup with timestamps from the given time on, in timestamp order per series
+    private Stream<ImpactMetric> storedBeforeStartup(LocalDateTime from) {
+        if (bucketStore.isReadEnabled()) {
+            return bucketStore.streamSince(from)
+                    .filter(metric -> metric.getCreatedAt() == null || metric.getCreatedAt().isBefore(startedAt));
+        }
+
+        Query query = new Query(Criteria.where("timestamp").gte(from)
+                .orOperator(Criteria.where("createdAt").lt(startedAt), Criteria.where("createdAt").exists(false)))
+                .with(Sort.by(Sort.Direction.ASC, "timestamp"))
+                .cursorBatchSize(WARMUP_BATCH_SIZE);
+        return mongoTemplate.stream(query, ImpactMetric.class);
+    }
+
+    public void applyMetrics(List<ImpactMetric> metrics) {
+        if (!config.isEnabled()) {
+            return;
+        }
+        for (ImpactMetric metric : metrics) {
+            add(metric);
+        }
+    }
+
+    public void removeMetric(ImpactMetric metric) {
+        if (!config.isEnabled()) {
+            return;
+        }
+        if (!ready) {
+            removedDuringWarmUp.add(metric.getMetricId());
+        }
+        Series target = series.get(keyOf(metric.getBondId(), metric.getMetricType()));
+        if (target != null) {
+            target.remove(metric);
+        }
+    }
+
+    /**
+     * Copies the anchoring result onto the metrics held for "latest N" reads.
+     */
+    public void applyAnchor(List<String> metricIds, String transactionHash, LocalDateTime recordedAt) {
+        for (String metricId : metricIds) {
+            ImpactMetric metric = recentById.get(metricId);
+            if (metric != null) {
+                Series target = series.get(keyOf(metric.getBondId(), metric.getMetricType()));
+                if (target != null) {
+                    synchronized (target) {
+                        metric.setBlockchainTxHash(transactionHash);
+                        metric.setBlockchainRecordedAt(recordedAt);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * @return the newest metrics of a series, newest first, or empty if they are not all in memory
+     */
+    public Optional<List<ImpactMetric>> getLatestMetrics(String bondId, MetricType metricType, int limit) {
+        if (!config.isEnabled() || !ready || limit > config.getRecentMetricsPerSeries()) {
+            return Optional.empty();
+        }
+
+        Series target = series.get(keyOf(bondId, metricType));
+        Optional<List<ImpactMetric>> latest = target != null ? target.latest(limit) : Optional.empty();
+        (latest.isPresent() ? hits : misses).increment();
+        return latest;
+    }
+
+    /**
+     * Aggregates raw points of a range covered by the hot window into epoch-aligned windows, or
+     * returns empty when the range, interval or function cannot be served from memory.
+     */
+    public Optional<MetricAggregationResponse> calculateAggregation(MetricAggregationRequest request) {
+        if (!config.isEnabled() || !ready) {
+            return Optional.empty();
+        }
+
+        String interval = request.getInterval() != null ? request.getInterval() : "1h";
+        String function = (request.getAggregationFunction() != null ? request.getAggregationFunction() : "mean")
+                .toLowerCase(Locale.ROOT);
+        Optional<Duration> windowSize = FluxDuration.parse(interval);
+        if (windowSize.isEmpty() || windowSize.get().toMillis() < 1 || !SUPPORTED_FUNCTIONS.contains(function)) {
+            return Optional.empty();
+        }
+
+        long start = toMillis(request.getStartTime());
+        long end = toMillis(request.getEndTime());
+        Series target = series.get(keyOf(request.getBondId(), request.getMetricType()));
+
+        TreeMap<Long, WindowStats> windows = new TreeMap<>();
+        boolean covered = target != null
+                ? target.aggregate(start, end, windowSize.get().toMillis(), windows)
+                : start >= initialCoveredFrom;
+        if (!covered) {
+            misses.increment();
+            return Optional.empty();
+        }
+
+        hits.increment();
+        log.debug("Serving aggregation for bond: {}, metric: {} from the hot window, {} windows",
+                request.getBondId(), request.getMetricType(), windows.size());
+        return Optional.of(buildResponse(request, function, windows));
+    }
+
+    /**
+     * Drops blocks that left the window, then the oldest blocks while over the memory budget.
+     */
+    @Scheduled(fixedDelayString = "${app.hot-window.eviction-interval:60000}")
+    public void evict() {
+        if (!config.isEnabled()) {
+            return;
+        }
+        long cutoff = toMillis(LocalDateTime.now().minus(config.getWindow()));
+        for (Series entry : series.values()) {
+            entry.evictBefore(cutoff);
+        }
+        evictOverBudget();
+    }
+
+    long getBlockBytes() {
+        return blockBytes.get();
+    }
+
+    private void evictOverBudget() {
+        if (blockBytes.get() <= config.getMaxBytes()) {
+            return;
+        }
+
+        PriorityQueue<Series> oldestFirst = new PriorityQueue<>(Comparator.comparingLong(Series::oldestBlockStart));
+        for (Series entry : series.values()) {
+            if (entry.oldestBlockStart() != Long.MAX_VALUE) {
+                oldestFirst.add(entry);
+            }
+        }
+
+        long evicted = 0;
+        while (blockBytes.get() > config.getMaxBytes() && !oldestFirst.isEmpty()) {
+            Series oldest = oldestFirst.poll();
+            oldest.evictOldestBlock();
+            evicted++;
+            if (oldest.oldestBlockStart() != Long.MAX_VALUE) {
+                oldestFirst.add(oldest);
+            }
+        }
+        log.info("Hot window over its memory budget, evicted {} blocks, {} bytes remain", evicted, blockBytes.get());
+    }
+
+    private void add(ImpactMetric metric) {
+        if (metric.getTimestamp() == null || metric.getValue() == null) {
+            return;
+        }
+        series.computeIfAbsent(keyOf(metric.getBondId(), metric.getMetricType()), key -> new Series()).add(metric);
+    }
+
+    private MetricAggregationResponse buildResponse(MetricAggregationRequest request, String function,
+                                                    TreeMap<Long, WindowStats> windows) {
+        List<TimeSeriesPoint> timeSeries = new ArrayList<>(windows.size());
+        StreamingStatistics stats = new StreamingStatistics();
+        long samples = 0;
+
+        for (Map.Entry<Long, WindowStats> entry : windows.entrySet()) {
+            WindowStats window = entry.getValue();
+            double value = window.value(function);
+            stats.add(value);
+            samples += window.count;
+
+            timeSeries.add(TimeSeriesPoint.builder()
+                    .timestamp(toLocalDateTime(entry.getKey()))
+                    .value(BigDecimal.valueOf(value))
+                    .count((int) window.count)
+                    .build());
+        }
+
+        MetricAggregationResponse response = MetricAggregationResponse.builder()
+                .bondId(request.getBondId())
+                .projectId(request.getProjectId())
+                .metricType(request.getMetricType().name())
+                .interval(request.getInterval())
+                .aggregationFunction(request.getAggregationFunction())
+                .startTime(request.getStartTime())
+                .endTime(request.getEndTime())
+                .timeSeries(timeSeries)
+                .statistics(new HashMap<>())
+                .build();
+
+        AggregationStatistics.apply(response, stats);
+        response.getStatistics().put("resolution", "RAW");
+        response.getStatistics().put("sampleCount", samples);
+        return response;
+    }
+
+    private static String keyOf(String bondId, MetricType metricType) {
+        return bondId + "|" + metricType;
+    }
+
+    private static long toMillis(LocalDateTime timestamp) {
+        return timestamp.toInstant(ZoneOffset.UTC).toEpochMilli();
+    }
+
+    private static LocalDateTime toLocalDateTime(long millis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(millis), ZoneOffset.UTC);
+    }
+
+    /**
+     * Blocks and newest metrics of one series. {@code coveredFrom} and {@code recentFrom} are the
+     * points in time from which on every point, respectively every metric, is held.
+     */
+    private final class Series {
+        private final TreeMap<Long, CompressedSeriesBlock> blocks = new TreeMap<>();
+        private final List<ImpactMetric> recent = new ArrayList<>(); // ascending by timestamp
+        private long coveredFrom = initialCoveredFrom;
+        private LocalDateTime recentFrom = toLocalDateTime(initialCoveredFrom);
+
+        synchronized void add(ImpactMetric metric) {
+            long timestamp = toMillis(metric.getTimestamp());
+            double value = metric.getValue().doubleValue();
+
+            if (timestamp >= coveredFrom) {
+                long blockStart = blockStart(timestamp);
+                CompressedSeriesBlock block = blocks.get(blockStart);
+                if (block == null) {
+                    if (!blocks.isEmpty() && blockStart > blocks.lastKey()) {
+                        // The previous block will not be appended to again, except for late points
+                        resize(blocks.lastEntry().getValue(), CompressedSeriesBlock::seal);
+                    }
+                    block = new CompressedSeriesBlock();
+                    block.append(timestamp, value);
+                    blocks.put(blockStart, block);
+                    blockBytes.addAndGet(block.getSizeInBytes());
+                } else if (timestamp >= block.getLastTimestamp()) {
+                    resize(block, b -> b.append(timestamp, value));
+                } else {
+                    // Late point: the block is re-encoded with the point in place
+                    replace(blockStart, block, withPoint(block, timestamp, value));
+                }
+            }
+
+            if (!metric.getTimestamp().isBefore(recentFrom)) {
+                int index = recent.size();
+                while (index > 0 && recent.get(index - 1).getTimestamp().isAfter(metric.getTimestamp())) {
+                    index--;
+                }
+                recent.add(index, metric);
+                recentById.put(metric.getMetricId(), metric);
+
+                if (recent.size() > config.getRecentMetricsPerSeries()) {
+                    ImpactMetric dropped = recent.remove(0);
+                    recentById.remove(dropped.getMetricId());
+                    recentFrom = dropped.getTimestamp().plusNanos(1);
+                }
+            }
+        }
+
+        synchronized void remove(ImpactMetric metric) {
+            long timestamp = toMillis(metric.getTimestamp());
+            long blockStart = blockStart(timestamp);
+            CompressedSeriesBlock block = blocks.get(blockStart);
+            if (block != null) {
+                CompressedSeriesBlock remaining = withoutPoint(block, timestamp, metric.getValue().doubleValue());
+                if (remaining != block) {
+                    replace(blockStart, block, remaining);
+                }
+            }
+
+            if (recent.removeIf(held -> held.getMetricId().equals(metric.getMetricId()))) {
+                recentById.remove(metric.getMetricId());
+            }
+        }
+
+        synchronized Optional<List<ImpactMetric>> latest(int limit) {
+            int complete = 0;
+            for (int i = recent.size() - 1; i >= 0 && !recent.get(i).getTimestamp().isBefore(recentFrom); i--) {
+                complete++;
+            }
+            // Older metrics may exist in storage only
+            if (complete < limit) {
+                return Optional.empty();
+            }
+
+            List<ImpactMetric> latest = new ArrayList<>(limit);
+            for (int i = recent.size() - 1; latest.size() < limit; i--) {
+                latest.add(recent.get(i));
+            }
+            return Optional.of(latest);
+        }
+
+        /**
+         * Adds the points in [start, end) to epoch-aligned windows.
+         *
+         * @return false if points before {@code start} may be missing
+         */
+        synchronized boolean aggregate(long start, long end, long windowMillis, TreeMap<Long, WindowStats> windows) {
+            if (start < coveredFrom) {
+                return false;
+            }
+            if (start >= end) {
+                return true;
+            }
+            Long from = blocks.floorKey(start);
+            for (CompressedSeriesBlock block : blocks.subMap(from != null ? from : start, true, end, false).values()) {
+                block.forEach((timestamp, value) -> {
+                    if (timestamp >= start && timestamp < end) {
+                        windows.computeIfAbsent(timestamp - Math.floorMod(timestamp, windowMillis),
+                                key -> new WindowStats()).add(value);
+                    }
+                });
+            }
+            return true;
+        }
+
+        synchronized void evictBefore(long cutoff) {
+            while (!blocks.isEmpty() && blocks.firstKey() + config.getBlockSpan().toMillis() <= cutoff) {
+                evictOldestBlock();
+            }
+            coveredFrom = Math.max(coveredFrom, cutoff);
+        }
+
+        synchronized void evictOldestBlock() {
+            Map.Entry<Long, CompressedSeriesBlock> oldest = blocks.pollFirstEntry();
+            if (oldest != null) {
+                blockBytes.addAndGet(-oldest.getValue().getSizeInBytes());
+                coveredFrom = Math.max(coveredFrom, oldest.getKey() + config.getBlockSpan().toMillis());
+            }
+        }
+
+        synchronized long oldestBlockStart() {
+            return blocks.isEmpty() ? Long.MAX_VALUE : blocks.firstKey();
+        }
+
+        private long blockStart(long timestamp) {
+            long span = config.getBlockSpan().toMillis();
+            return timestamp - Math.floorMod(timestamp, span);
+        }
+
+        private void resize(CompressedSeriesBlock block, Consumer<CompressedSeriesBlock> change) {
+            long before = block.getSizeInBytes();
+            change.accept(block);
+            blockBytes.addAndGet(block.getSizeInBytes() - before);
+        }
+
+        private void replace(long blockStart, CompressedSeriesBlock old, CompressedSeriesBlock replacement) {
+            blockBytes.addAndGet(-old.getSizeInBytes());
+            if (replacement.getCount() == 0) {
+                blocks.remove(blockStart);
+                return;
+            }
+            if (blockStart != blocks.lastKey()) {
+                replacement.seal();
+            }
+            blocks.put(blockStart, replacement);
+            blockBytes.addAndGet(replacement.getSizeInBytes());
+        }
+    }
+
+    private static CompressedSeriesBlock withPoint(CompressedSeriesBlock block, long timestamp, double value) {
+        Points points = Points.of(block, 1);
+        int index = points.length;
+        while (index > 0 && points.timestamps[index - 1] > timestamp) {
+            index--;
+        }
+        System.arraycopy(points.timestamps, index, points.timestamps, index + 1, points.length - index);
+        System.arraycopy(points.values, index, points.values, index + 1, points.length - index);
+        points.timestamps[index] = timestamp;
+        points.values[index] = value;
+        return CompressedSeriesBlock.of(points.timestamps, points.values, points.length + 1);
+    }
+
+    private static CompressedSeriesBlock withoutPoint(CompressedSeriesBlock block, long timestamp, double value) {
+        Points points = Points.of(block, 0);
+        long valueBits = Double.doubleToLongBits(value);
+        for (int i = 0; i < points.length; i++) {
+            if (points.timestamps[i] == timestamp && Double.doubleToLongBits(points.values[i]) == valueBits) {
+                System.arraycopy(points.timestamps, i + 1, points.timestamps, i, points.length - i - 1);
+                System.arraycopy(points.values, i + 1, points.values, i, points.length - i - 1);
+                return CompressedSeriesBlock.of(points.timestamps, points.values, points.length - 1);
+            }
+        }
+        return block;
+    }
+
+    // Decoded points of a block, with room for extra points
+    private record Points(long[] timestamps, double[] values, int length) {
+
+        static Points of(CompressedSeriesBlock block, int extra) {
+            long[] timestamps = new long[block.getCount() + extra];
+            double[] values = new double[block.getCount() + extra];
+            int[] next = {0};
+            block.forEach((timestamp, value) -> {
+                timestamps[next[0]] = timestamp;
+                values[next[0]++] = value;
+            });
+            return new Points(timestamps, values, block.getCount());
+        }
+    }
+
+    private static final class WindowStats {
+        private long count;
+        private double sum;
+        private double sumSquares;
+        private double min = Double.POSITIVE_INFINITY;
+        private double max = Double.NEGATIVE_INFINITY;
+        private double first;
+        private double last;
+
+        private void add(double value) {
+            if (count == 0) {
+                first = value;
+            }
+            last = value;
+            count++;
+            sum += value;
+            sumSquares += value * value;
+            min = Math.min(min, value);
+            max = Math.max(max, value);
+        }
+
+        private double value(String function) {
+            return switch (function) {
+                case "sum" -> sum;
+                case "min" -> min;
+                case "max" -> max;
+                case "count" -> count;
+                case "first" -> first;
+                case "last" -> last;
+                case "stddev" -> count > 1 ? Math.sqrt(Math.max(0, (sumSquares - sum * sum / count) / (count - 1))) : 0;
+                default -> sum / count;
+            };
+        }
+    }
+}
@@ -0,0 +1,279 @@
+package com.esgbank.greenbond.monitoring.service;
+
+import com.esgbank.greenbond.monitoring.config.LiveFeedConfig;
+import com.esgbank.greenbond.monitoring.dto.ImpactMetricResponse;
+import com.esgbank.greenbond.monitoring.dto.LiveMetricUpdate;
+import com.esgbank.greenbond.monitoring.exception.ImpactMonitoringException;
+import com.esgbank.greenbond.monitoring.mapper.ImpactMetricMapper;
+import com.esgbank.greenbond.monitoring.model.ImpactMetric;
+import com.esgbank.greenbond.monitoring.model.enums.MetricType;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.FluxSink;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * In-process fan-out of stored metrics to live subscribers of a bond and metric type.
+ * <p>
+ * Each topic keeps the last {@code buffer-size} metrics in a ring with a running sequence number,
+ * and each subscriber only keeps its position in that ring. Publishing never waits for a
+ * subscriber: a subscriber is sent everything since its position as one update whenever it has
+ * demand, so a slow consumer gets fewer, larger updates, and one that falls more than a ring
+ * behind skips ahead and is told how many metrics it missed.
+ * <p>
+ * The feed follows the metrics stored through this instance only. Ingest reaches any replica, so
+ * a subscriber of a replicated deployment would miss the metrics stored elsewhere: the feed is
+ * meant for single-instance deployments and is off unless {@code enabled} is set. Event ids are
+ * {@code epoch:sequence}, with an epoch drawn whenever a topic buffer is created; an id of an
+ * earlier run or of a dropped buffer does not match and the subscriber starts over from a fresh
+ * snapshot.
+ * <p>
+ * A subscription holds one of {@code max-subscribers} permits from the moment its stream is
+ * subscribed until it terminates or is cancelled.
+ */
+@Slf4j
+@Service
+public class MetricLiveFeedService {
+
+    private final ImpactMetricMapper metricMapper;
+    private final LiveFeedConfig config;
+
+    private final Map<String, Topic> topics = new ConcurrentHashMap<>();
+    private final Semaphore subscriptions;
+
+    public MetricLiveFeedService(ImpactMetricMapper metricMapper, LiveFeedConfig config, MeterRegistry meterRegistry) {
+        this.metricMapper = metricMapper;
+        this.config = config;
+        this.subscriptions = new Semaphore(config.getMaxSubscribers());
+
+        Gauge.builder("impact.live.feed.subscribers", subscriptions,
+                        s -> config.getMaxSubscribers() - s.availablePermits())
+                .description("Open live metric subscriptions")
+                .register(meterRegistry);
+        Gauge.builder("impact.live.feed.topics", topics, Map::size)
+                .description("Bond and metric type feeds with a buffer")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Publishes stored metrics to the topics that have, or recently had, subscribers.
+     */
+    public void publish(List<ImpactMetric> metrics) {
+        if (!config.isEnabled() || topics.isEmpty()) {
+            return;
+        }
+
+        Map<Topic, List<ImpactMetric>> byTopic = new LinkedHashMap<>();
+        for (ImpactMetric metric : metrics) {
+            Topic topic = topics.get(keyOf(metric.getBondId(), metric.getMetricType()));
+            if (topic != null) {
+                byTopic.computeIfAbsent(topic, t -> new ArrayList<>()).add(metric);
+            }
+        }
+
+        byTopic.forEach((topic, published) -> {
+            published.sort(Comparator.comparing(ImpactMetric::getTimestamp,
+                    Comparator.nullsFirst(Comparator.naturalOrder())));
+            topic.append(published.stream().map(metricMapper::toResponse).toList());
+            topic.subscribers.forEach(Subscriber::drain);
+        });
+    }
+
+    /**
+     * Opens a subscription. It starts with the metrics after {@code lastEventId} if the feed
+     * issued that id and still knows that position, otherwise with a snapshot of the latest metrics.
+     *
+     * @return empty if the subscriber limit is reached; a stream subscribed once the limit has been
+     * reached in the meantime fails with {@code LIVE_FEED_SUBSCRIBER_LIMIT}
+     */
+    public Optional<Flux<LiveMetricUpdate>> subscribe(String bondId, MetricType metricType, String lastEventId,
+                                                      Supplier<List<ImpactMetricResponse>> snapshot) {
+        if (subscriptions.availablePermits() == 0) {
+            log.warn("Live feed subscriber limit of {} reached, rejecting subscription to bond: {}, type: {}",
+                    config.getMaxSubscribers(), bondId, metricType);
+            return Optional.empty();
+        }
+
+        String key = keyOf(bondId, metricType);
+        Flux<LiveMetricUpdate> updates = Flux.<LiveMetricUpdate>create(sink -> {
+            Subscriber[] created = new Subscriber[1];
+            // Registered inside compute, so cleanup cannot drop the topic in between
+            topics.compute(key, (k, existing) -> {
+                Topic topic = existing != null ? existing : new Topic(bondId, metricType.name());
+                created[0] = new Subscriber(topic, sink, topic.resumePosition(lastEventId));
+                topic.subscribers.add(created[0]);
+                return topic;
+            });
+            Subscriber subscriber = created[0];
+
+            sink.onRequest(n -> subscriber.drain());
+            sink.onDispose(() -> subscriber.topic.unsubscribe(subscriber));
+
+            if (subscriber.cursor < 0) {
+                // Metrics published while the snapshot is read may arrive twice; clients key them by metricId
+                subscriber.cursor = subscriber.topic.sequence();
+                sink.next(LiveMetricUpdate.builder()
+                        .bondId(bondId)
+                        .metricType(metricType.name())
+                        .snapshot(true)
+                        .sequence(subscriber.cursor)
+                        .eventId(subscriber.topic.eventId(subscriber.cursor))
+                        .metrics(snapshot.get())
+                        .build());
+            }
+            subscriber.drain();
+        });
+
+        // The permit is taken on subscription and returned on completion, error or cancel
+        return Optional.of(Flux.<LiveMetricUpdate, Boolean>using(subscriptions::tryAcquire,
+                acquired -> acquired ? updates : Flux.error(new ImpactMonitoringException(
+                        "LIVE_FEED_SUBSCRIBER_LIMIT", "Live feed subscriber limit reached")),
+                acquired -> {
+                    if (acquired) {
+                        subscriptions.release();
+                    }
+                }));
+    }
+
+    /**
+     * Drops the buffers of topics without subscribers for longer than {@code topic-idle-ttl}.
+     */
+    @Scheduled(fixedDelayString = "${app.live-feed.cleanup-interval:60000}")
+    public void removeIdleTopics() {
+        long cutoff = System.currentTimeMillis() - config.getTopicIdleTtl().toMillis();
+        for (String key : topics.keySet()) {
+            topics.computeIfPresent(key, (k, topic) -> topic.isIdleSince(cutoff) ? null : topic);
+        }
+    }
+
+    private static String keyOf(String bondId, MetricType metricType) {
+        return bondId + "|" + metricType;
+    }
+
+    /**
+     * Ring of the latest metrics of a bond and metric type. Metric {@code n} of the feed is held
+     * at {@code n % capacity} until it is overwritten.
+     */
+    private final class Topic {
+        private final String bondId;
+        private final String metricType;
+        private final ImpactMetricResponse[] ring = new ImpactMetricResponse[config.getBufferSize()];
+        private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+        private final String epoch = Long.toString(ThreadLocalRandom.current().nextLong() & Long.MAX_VALUE, 36);
+        private long sequence;
+        private volatile long idleSince = System.currentTimeMillis();
+
+        private Topic(String bondId, String metricType) {
+            this.bondId = bondId;
+            this.metricType = metricType;
+        }
+
+        synchronized void append(List<ImpactMetricResponse> metrics) {
+            for (ImpactMetricResponse metric : metrics) {
+                ring[(int) (sequence++ % ring.length)] = metric;
+            }
+        }
+
+        synchronized long sequence() {
+            return sequence;
+        }
+
+        String eventId(long position) {
+            return epoch + ":" + position;
+        }
+
+        // -1 when the subscriber has to start from a snapshot
+        synchronized long resumePosition(String lastEventId) {
+            if (lastEventId == null || !lastEventId.startsWith(epoch + ":")) {
+                return -1;
+            }
+            try {
+                long lastSequence = Long.parseLong(lastEventId.substring(epoch.length() + 1));
+                return lastSequence >= 0 && lastSequence <= sequence ? lastSequence : -1;
+            } catch (NumberFormatException e) {
+                return -1;
+            }
+        }
+
+        /**
+         * @return the metrics after {@code cursor} as one update, or null if there are none
+         */
+        synchronized LiveMetricUpdate since(long cursor) {
+            if (cursor >= sequence) {
+                return null;
+            }
+            long from = Math.max(cursor, sequence - ring.length);
+            List<ImpactMetricResponse> metrics = new ArrayList<>((int) (sequence - from));
+            for (long position = from; position < sequence; position++) {
+                metrics.add(ring[(int) (position % ring.length)]);
+            }
+            return LiveMetricUpdate.builder()
+                    .bondId(bondId)
+                    .metricType(metricType)
+                    .sequence(sequence)
+                    .eventId(eventId(sequence))
+                    .skipped(from - cursor)
+                    .metrics(metrics)
+                    .build();
+        }
+
+        void unsubscribe(Subscriber subscriber) {
+            subscribers.remove(subscriber);
+            idleSince = System.currentTimeMillis();
+        }
+
+        boolean isIdleSince(long cutoff) {
+            return subscribers.isEmpty() && idleSince < cutoff;
+        }
+    }
+
+    /**
+     * Position of one subscriber in its topic. {@link #drain()} may be called from the publishing
+     * and the requesting thread at once; only one of them emits, the other makes it loop again.
+     */
+    private static final class Subscriber {
+        private final Topic topic;
+        private final FluxSink<LiveMetricUpdate> sink;
+        private final AtomicInteger wip = new AtomicInteger();
+        private volatile long cursor;
+
+        private Subscriber(Topic topic, FluxSink<LiveMetricUpdate> sink, long cursor) {
+            this.topic = topic;
+            this.sink = sink;
+            this.cursor = cursor;
+        }
+
+        void drain() {
+            if (wip.getAndIncrement() != 0) {
+                return;
+            }
+            int missed = 1;
+            do {
+                if (cursor >= 0 && sink.requestedFromDownstream() > 0 && !sink.isCancelled()) {
+                    LiveMetricUpdate update = topic.since(cursor);
+                    if (update != null) {
+                        cursor = update.getSequence();
+                        sink.next(update);
+                    }
+                }
+                missed = wip.addAndGet(-missed);
+            } while (missed != 0);
+        }
+    }
+}
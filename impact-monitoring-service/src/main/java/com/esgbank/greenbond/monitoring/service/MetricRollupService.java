@@ -0,0 +1,465 @@
+package com.esgbank.greenbond.monitoring.service;
+
+import com.esgbank.greenbond.monitoring.config.RollupConfig;
+import com.esgbank.greenbond.monitoring.dto.MetricAggregationRequest;
+import com.esgbank.greenbond.monitoring.dto.MetricAggregationResponse;
+import com.esgbank.greenbond.monitoring.dto.TimeSeriesPoint;
+import com.esgbank.greenbond.monitoring.model.ImpactMetric;
+import com.esgbank.greenbond.monitoring.model.MetricRollup;
+import com.esgbank.greenbond.monitoring.model.enums.MetricType;
+import com.esgbank.greenbond.monitoring.model.enums.RollupResolution;
+import com.esgbank.greenbond.monitoring.repository.ImpactMetricRepository;
+import com.esgbank.greenbond.monitoring.repository.MetricRollupRepository;
+import com.esgbank.greenbond.monitoring.service.RollupQueryPlanner.Segment;
+import com.esgbank.greenbond.monitoring.util.FluxDuration;
+import com.esgbank.greenbond.monitoring.util.StreamingStatistics;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationOptions;
+import org.springframework.data.mongodb.core.aggregation.TypedAggregation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+
+/**
+ * Multi-resolution rollup store for metric aggregation queries.
+ * <p>
+ * Every ingested metric is folded into 1-minute, 1-hour and 1-day buckets of its series with a
+ * single bulk upsert per batch. Aggregation requests whose interval is a whole number of buckets
+ * and whose function is derivable from count/sum/min/max/sum of squares are answered from the
+ * buckets; anything else returns empty so the caller can fall back to InfluxDB.
+ * <p>
+ * Timestamps are treated as UTC wall-clock times, as in the InfluxDB write path.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class MetricRollupService {
+
+    private static final List<String> SUPPORTED_FUNCTIONS = List.of("mean", "avg", "sum", "min", "max", "count", "stddev");
+
+    private final MetricRollupRepository rollupRepository;
+    private final ImpactMetricRepository metricRepository;
+    private final MongoTemplate mongoTemplate;
+    private final MetricBucketStore bucketStore;
+    private final RollupConfig rollupConfig;
+
+    /**
+     * Count, sum, min and max of a series over a period. Min and max are infinite while the period
+     * has no data.
+     */
+    public record PeriodTotals(long count, double sum, double min, double max) {
+
+        public static final PeriodTotals EMPTY =
+                new PeriodTotals(0, 0, Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY);
+
+        public PeriodTotals merge(PeriodTotals other) {
+            return new PeriodTotals(count + other.count, sum + other.sum,
+                    Math.min(min, other.min), Math.max(max, other.max));
+        }
+    }
+
+    /**
+     * Adds saved metrics to their buckets at every resolution. Failures are logged rather than
+     * propagated: the metrics are already stored and the backfill job rebuilds the buckets.
+     */
+    public void applyMetrics(List<ImpactMetric> metrics) {
+        if (metrics.isEmpty()) {
+            return;
+        }
+
+        Map<String, BucketDelta> deltas = new LinkedHashMap<>();
+        for (ImpactMetric metric : metrics) {
+            for (RollupResolution resolution : RollupResolution.values()) {
+                LocalDateTime bucketStart = resolution.bucketStart(metric.getTimestamp());
+                String id = MetricRollup.idOf(metric.getBondId(), metric.getMetricType(), resolution, bucketStart);
+                deltas.computeIfAbsent(id, key -> new BucketDelta(metric.getBondId(), metric.getMetricType(),
+                        resolution, bucketStart)).add(metric.getValue().doubleValue());
+            }
+        }
+
+        try {
+            BulkOperations bulkOps = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, MetricRollup.class);
+            LocalDateTime now = LocalDateTime.now();
+
+            deltas.forEach((id, delta) -> bulkOps.upsert(Query.query(Criteria.where("_id").is(id)),
+                    delta.identity(new Update())
+                            .inc("count", delta.count)
+                            .inc("sum", delta.sum)
+                            .inc("sumSquares", delta.sumSquares)
+                            .min("min", delta.min)
+                            .max("max", delta.max)
+                            .set("updatedAt", now)));
+
+            bulkOps.execute();
+
+        } catch (DataAccessException e) {
+            log.error("Failed to update rollups for {} metrics. Error: {}", metrics.size(), e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Subtracts a deleted metric from its buckets. Min/max are left as they are until the next backfill.
+     */
+    public void removeMetric(ImpactMetric metric) {
+        double value = metric.getValue().doubleValue();
+
+        try {
+            BulkOperations bulkOps = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, MetricRollup.class);
+            for (RollupResolution resolution : RollupResolution.values()) {
+                String id = MetricRollup.idOf(metric.getBondId(), metric.getMetricType(), resolution,
+                        resolution.bucketStart(metric.getTimestamp()));
+                bulkOps.updateOne(Query.query(Criteria.where("_id").is(id)),
+                        new Update()
+                                .inc("count", -1L)
+                                .inc("sum", -value)
+                                .inc("sumSquares", -value * value)
+                                .set("updatedAt", LocalDateTime.now()));
+            }
+            bulkOps.execute();
+
+        } catch (DataAccessException e) {
+            log.error("Failed to update rollups for deleted metric: {}. Error: {}",
+                    metric.getMetricId(), e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Answers an aggregation request from rollups, or returns empty when the interval, function or
+     * range cannot be served from buckets.
+     */
+    public Optional<MetricAggregationResponse> calculateAggregation(MetricAggregationRequest request) {
+        if (!rollupConfig.isEnabled()) {
+            return Optional.empty();
+        }
+
+        String interval = request.getInterval() != null ? request.getInterval() : "1h";
+        String function = (request.getAggregationFunction() != null ? request.getAggregationFunction() : "mean")
+                .toLowerCase(Locale.ROOT);
+        Optional<Duration> windowSize = FluxDuration.parse(interval);
+        if (windowSize.isEmpty() || !SUPPORTED_FUNCTIONS.contains(function)) {
+            return Optional.empty();
+        }
+
+        Optional<RollupResolution> resolution = RollupQueryPlanner.chooseResolution(windowSize.get());
+        LocalDateTime minuteCutoff = minuteCutoff();
+        if (resolution.isEmpty()
+                || (resolution.get() == RollupResolution.MINUTE && request.getStartTime().isBefore(minuteCutoff))) {
+            return Optional.empty();
+        }
+
+        List<Segment> segments = RollupQueryPlanner.plan(request.getStartTime(), request.getEndTime(),
+                resolution.get(), minuteCutoff);
+        log.debug("Serving aggregation for bond: {}, metric: {} from rollups, resolution: {}, segments: {}",
+                request.getBondId(), request.getMetricType(), resolution.get(), segments.size());
+
+        // Merge buckets and edge raw points into epoch-aligned windows
+        TreeMap<LocalDateTime, WindowStats> windows = new TreeMap<>();
+        for (Segment segment : segments) {
+            if (segment.isRaw()) {
+                for (ImpactMetric metric : findRaw(
+                        request.getBondId(), request.getMetricType(), segment.from(), segment.to())) {
+                    // Raw range is inclusive of the end, segments are half-open
+                    if (metric.getTimestamp().isBefore(segment.to())) {
+                        windows.computeIfAbsent(RollupQueryPlanner.windowStart(metric.getTimestamp(), windowSize.get()),
+                                key -> new WindowStats()).add(metric.getValue().doubleValue());
+                    }
+                }
+            } else {
+                for (MetricRollup bucket : rollupRepository.findBuckets(request.getBondId(), request.getMetricType(),
+                        segment.resolution(), segment.from(), segment.to())) {
+                    windows.computeIfAbsent(RollupQueryPlanner.windowStart(bucket.getBucketStart(), windowSize.get()),
+                            key -> new WindowStats()).merge(bucket);
+                }
+            }
+        }
+
+        return Optional.of(buildResponse(request, function, resolution.get(), windows));
+    }
+
+    /**
+     * Totals of a series over [from, to), read from day buckets with finer buckets and raw metrics
+     * at the edges, or from raw metrics alone while rollups are disabled.
+     */
+    public PeriodTotals summarize(String bondId, MetricType metricType, LocalDateTime from, LocalDateTime to) {
+        List<Segment> segments = rollupConfig.isEnabled()
+                ? RollupQueryPlanner.plan(from, to, RollupResolution.DAY, minuteCutoff())
+                : List.of(new Segment(null, from, to));
+
+        WindowStats totals = new WindowStats();
+        for (Segment segment : segments) {
+            if (segment.isRaw()) {
+                for (ImpactMetric metric : findRaw(bondId, metricType, segment.from(), segment.to())) {
+                    // Raw range is inclusive of the end, segments are half-open
+                    if (metric.getTimestamp().isBefore(segment.to())) {
+                        totals.add(metric.getValue().doubleValue());
+                    }
+                }
+            } else {
+                rollupRepository.findBuckets(bondId, metricType, segment.resolution(), segment.from(), segment.to())
+                        .forEach(totals::merge);
+            }
+        }
+        return new PeriodTotals(totals.count, totals.sum, totals.min, totals.max);
+    }
+
+    // Raw metrics of a series in [from, to], from hourly buckets while series reads use them
+    private List<ImpactMetric> findRaw(String bondId, MetricType metricType, LocalDateTime from, LocalDateTime to) {
+        return bucketStore.isReadEnabled()
+                ? bucketStore.findRange(bondId, metricType, from, to)
+                : metricRepository.findMetricsByBondTypeAndTimeRange(bondId, metricType, from, to);
+    }
+
+    /**
+     * Rebuilds buckets of every resolution for metrics with timestamps in [from, to) from raw data,
+     * one day at a time. Increments applied to the same buckets while a day is rebuilt may be
+     * overwritten; the next backfill corrects them.
+     */
+    public void backfill(LocalDateTime from, LocalDateTime to) {
+        log.info("Starting rollup backfill from {} to {}", from, to);
+        int bucketCount = 0;
+
+        for (LocalDateTime dayStart = from; dayStart.isBefore(to); dayStart = dayStart.plusDays(1)) {
+            LocalDateTime dayEnd = dayStart.plusDays(1).isBefore(to) ? dayStart.plusDays(1) : to;
+            for (RollupResolution resolution : RollupResolution.values()) {
+                if (resolution == RollupResolution.MINUTE && dayEnd.isBefore(minuteCutoff())) {
+                    continue;
+                }
+                bucketCount += backfillRange(resolution, dayStart, dayEnd);
+            }
+        }
+
+        log.info("Rollup backfill completed: {} buckets rebuilt", bucketCount);
+    }
+
+    @Scheduled(cron = "${app.rollups.backfill-cron:0 15 1 * * ?}")
+    public void backfillRecent() {
+        try {
+            LocalDateTime to = LocalDateTime.now().truncatedTo(ChronoUnit.MINUTES);
+            backfill(to.minus(rollupConfig.getBackfillLookback()).truncatedTo(ChronoUnit.DAYS), to);
+        } catch (Exception e) {
+            log.error("Scheduled rollup backfill failed: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Populates an empty rollup store from all existing metrics.
+     */
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialBackfill() {
+        if (!rollupConfig.isBackfillOnStartup()) {
+            return;
+        }
+
+        try {
+            if (mongoTemplate.exists(new Query(), MetricRollup.class)) {
+                return;
+            }
+
+            Query oldest = new Query().with(Sort.by(Sort.Direction.ASC, "timestamp")).limit(1);
+            ImpactMetric first = mongoTemplate.findOne(oldest, ImpactMetric.class);
+            if (first != null) {
+                backfill(first.getTimestamp().truncatedTo(ChronoUnit.DAYS), LocalDateTime.now().plusMinutes(1));
+            }
+        } catch (Exception e) {
+            log.error("Initial rollup backfill failed: {}", e.getMessage(), e);
+        }
+    }
+
+    private int backfillRange(RollupResolution resolution, LocalDateTime from, LocalDateTime to) {
+        Document toDouble = new Document("$toDouble", "$value");
+        // Truncate in the JVM zone: LocalDateTime values are stored as Dates in that zone
+        Document bucketStart = new Document("$dateTrunc", new Document("date", "$timestamp")
+                .append("unit", resolution.getMongoUnit())
+                .append("timezone", ZoneId.systemDefault().getId()));
+
+        TypedAggregation<ImpactMetric> aggregation = Aggregation.newAggregation(ImpactMetric.class,
+                Aggregation.match(Criteria.where("timestamp").gte(from).lt(to)),
+                context -> new Document("$group", new Document("_id", new Document("bondId", "$bondId")
+                        .append("metricType", "$metricType")
+                        .append("bucketStart", bucketStart))
+                        .append("count", new Document("$sum", 1))
+                        .append("sum", new Document("$sum", toDouble))
+                        .append("min", new Document("$min", toDouble))
+                        .append("max", new Document("$max", toDouble))
+                        .append("sumSquares", new Document("$sum", new Document("$multiply", List.of(toDouble, toDouble))))))
+                .withOptions(AggregationOptions.builder().allowDiskUse(true).build());
+
+        List<Document> groups = mongoTemplate.aggregate(aggregation, Document.class).getMappedResults();
+        if (groups.isEmpty()) {
+            return 0;
+        }
+
+        BulkOperations bulkOps = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, MetricRollup.class);
+        LocalDateTime now = LocalDateTime.now();
+
+        for (Document group : groups) {
+            Document key = group.get("_id", Document.class);
+            BucketDelta delta = new BucketDelta(key.getString("bondId"), MetricType.valueOf(key.getString("metricType")),
+                    resolution, LocalDateTime.ofInstant(key.getDate("bucketStart").toInstant(), ZoneId.systemDefault()));
+
+            bulkOps.upsert(Query.query(Criteria.where("_id").is(delta.id())),
+                    delta.identity(new Update())
+                            .set("count", ((Number) group.get("count")).longValue())
+                            .set("sum", group.getDouble("sum"))
+                            .set("sumSquares", group.getDouble("sumSquares"))
+                            .set("min", group.getDouble("min"))
+                            .set("max", group.getDouble("max"))
+                            .set("updatedAt", now));
+        }
+
+        bulkOps.execute();
+        return groups.size();
+    }
+
+    private MetricAggregationResponse buildResponse(MetricAggregationRequest request, String function,
+                                                    RollupResolution resolution, TreeMap<LocalDateTime, WindowStats> windows) {
+        List<TimeSeriesPoint> timeSeries = new ArrayList<>(windows.size());
+        StreamingStatistics stats = new StreamingStatistics();
+        long samples = 0;
+
+        for (Map.Entry<LocalDateTime, WindowStats> entry : windows.entrySet()) {
+            WindowStats window = entry.getValue();
+            if (window.count <= 0) {
+                continue;
+            }
+            double value = window.value(function);
+            stats.add(value);
+            samples += window.count;
+
+            timeSeries.add(TimeSeriesPoint.builder()
+                    .timestamp(entry.getKey())
+                    .value(BigDecimal.valueOf(value))
+                    .count((int) window.count)
+                    .build());
+        }
+
+        MetricAggregationResponse response = MetricAggregationResponse.builder()
+                .bondId(request.getBondId())
+                .projectId(request.getProjectId())
+                .metricType(request.getMetricType().name())
+                .interval(request.getInterval())
+                .aggregationFunction(request.getAggregationFunction())
+                .startTime(request.getStartTime())
+                .endTime(request.getEndTime())
+                .timeSeries(timeSeries)
+                .statistics(new HashMap<>())
+                .build();
+
+        AggregationStatistics.apply(response, stats);
+        response.getStatistics().put("resolution", resolution.name());
+        response.getStatistics().put("sampleCount", samples);
+        return response;
+    }
+
+    private LocalDateTime minuteCutoff() {
+        return LocalDateTime.now().minus(rollupConfig.getMinuteRetention());
+    }
+
+    private final class BucketDelta {
+        private final String bondId;
+        private final MetricType metricType;
+        private final RollupResolution resolution;
+        private final LocalDateTime bucketStart;
+        private long count;
+        private double sum;
+        private double sumSquares;
+        private double min = Double.POSITIVE_INFINITY;
+        private double max = Double.NEGATIVE_INFINITY;
+
+        private BucketDelta(String bondId, MetricType metricType, RollupResolution resolution, LocalDateTime bucketStart) {
+            this.bondId = bondId;
+            this.metricType = metricType;
+            this.resolution = resolution;
+            this.bucketStart = bucketStart;
+        }
+
+        private void add(double value) {
+            count++;
+            sum += value;
+            sumSquares += value * value;
+            min = Math.min(min, value);
+            max = Math.max(max, value);
+        }
+
+        private String id() {
+            return MetricRollup.idOf(bondId, metricType, resolution, bucketStart);
+        }
+
+        // Series key fields, plus the expiry of buckets with limited retention
+        private Update identity(Update update) {
+            update.setOnInsert("bondId", bondId)
+                    .setOnInsert("metricType", metricType)
+                    .setOnInsert("resolution", resolution)
+                    .setOnInsert("bucketStart", bucketStart);
+            if (resolution == RollupResolution.MINUTE) {
+                update.setOnInsert("expireAt", bucketStart.plus(rollupConfig.getMinuteRetention()));
+            }
+            return update;
+        }
+    }
+
+    private static final class WindowStats {
+        private long count;
+        private double sum;
+        private double sumSquares;
+        private double min = Double.POSITIVE_INFINITY;
+        private double max = Double.NEGATIVE_INFINITY;
+
+        private void add(double value) {
+            count++;
+            sum += value;
+            sumSquares += value * value;
+            min = Math.min(min, value);
+            max = Math.max(max, value);
+        }
+
+        private void merge(MetricRollup bucket) {
+            if (bucket.getCount() == null || bucket.getCount() <= 0) {
+                return;
+            }
+            count += bucket.getCount();
+            sum += bucket.getSum();
+            sumSquares += bucket.getSumSquares();
+            min = Math.min(min, bucket.getMin());
+            max = Math.max(max, bucket.getMax());
+        }
+
+        private double value(String function) {
+            return switch (function) {
+                case "sum" -> sum;
+                case "min" -> min;
+                case "max" -> max;
+                case "count" -> count;
+                case "stddev" -> count > 1 ? Math.sqrt(Math.max(0, (sumSquares - sum * sum / count) / (count - 1))) : 0;
+                default -> sum / count;
+            };
+        }
+    }
+}
@@ -0,0 +1,319 @@
+package com.esgbank.greenbond.monitoring.service;
+
+import com.esgbank.greenbond.monitoring.config.RunningTotalsConfig;
+import com.esgbank.greenbond.monitoring.config.SummaryCacheConfig;
+import com.esgbank.greenbond.monitoring.model.ImpactMetric;
+import com.esgbank.greenbond.monitoring.model.MetricArchiveSegment;
+import com.esgbank.greenbond.monitoring.model.MetricRunningTotal;
+import com.esgbank.greenbond.monitoring.model.enums.MetricType;
+import com.esgbank.greenbond.monitoring.repository.MetricRunningTotalRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationOptions;
+import org.springframework.data.mongodb.core.aggregation.ConvertOperators;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.Collections;
+import java.util.Date;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Maintains per-(bondId, metricType) running aggregates so that summaries, statistics and goal
+ * progress are answered from one small document per series instead of scanning raw data.
+ * <p>
+ * Totals are updated incrementally on ingest and delete. Min/max cannot be decremented, so a
+ * deleted extreme stays in place until the nightly reconciliation rebuilds the totals from
+ * {@code impact_metrics} and the per-series statistics of archive segments.
+ * <p>
+ * Per-bond summaries are cached and invalidated whenever this instance changes a total of the
+ * bond. Concurrent misses for a bond share one load, and an invalidation waits for a load in
+ * flight, so a summary read before a write is never cached after it. Writes through other
+ * instances are picked up when the entry expires.
+ */
+@Slf4j
+@Service
+public class MetricRunningTotalsService {
+
+    private static final String METRICS_COLLECTION = "impact_metrics";
+    private static final String RECONCILE_JOB = "running-totals-reconcile";
+
+    private final MetricRunningTotalRepository runningTotalRepository;
+    private final MongoTemplate mongoTemplate;
+    private final SummaryCacheConfig cacheConfig;
+    private final RunningTotalsConfig totalsConfig;
+    private final JobLeaseStore leaseStore;
+    private final Cache<String, Map<MetricType, BigDecimal>> summaries;
+
+    public MetricRunningTotalsService(MetricRunningTotalRepository runningTotalRepository, MongoTemplate mongoTemplate,
+                                      SummaryCacheConfig cacheConfig, RunningTotalsConfig totalsConfig,
+                                      JobLeaseStore leaseStore, MeterRegistry meterRegistry) {
+        this.runningTotalRepository = runningTotalRepository;
+        this.mongoTemplate = mongoTemplate;
+        this.cacheConfig = cacheConfig;
+        this.totalsConfig = totalsConfig;
+        this.leaseStore = leaseStore;
+        this.summaries = Caffeine.newBuilder()
+                .maximumSize(cacheConfig.getMaxSize())
+                .expireAfterWrite(cacheConfig.getTtl())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, summaries, "bond.metric.summaries");
+    }
+
+    /**
+     * Folds saved metrics into their running totals with one unordered bulk upsert. Failures are
+     * logged rather than propagated: the metrics are already stored and reconciliation will catch up.
+     */
+    public void applyMetrics(List<ImpactMetric> metrics) {
+        if (metrics.isEmpty()) {
+            return;
+        }
+
+        Map<String, Delta> deltas = new LinkedHashMap<>();
+        for (ImpactMetric metric : metrics) {
+            deltas.computeIfAbsent(MetricRunningTotal.idOf(metric.getBondId(), metric.getMetricType()),
+                    id -> new Delta(metric.getBondId(), metric.getMetricType())).add(metric);
+        }
+
+        try {
+            BulkOperations bulkOps = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, MetricRunningTotal.class);
+            LocalDateTime now = LocalDateTime.now();
+
+            deltas.forEach((id, delta) -> bulkOps.upsert(Query.query(Criteria.where("_id").is(id)),
+                    new Update()
+                            .setOnInsert("bondId", delta.bondId)
+                            .setOnInsert("metricType", delta.metricType)
+                            .inc("sum", delta.sum)
+                            .inc("count", delta.count)
+                            .min("min", delta.min)
+                            .max("max", delta.max)
+                            .max("lastTimestamp", delta.lastTimestamp)
+                            .set("updatedAt", now)));
+
+            bulkOps.execute();
+
+        } catch (DataAccessException e) {
+            log.error("Failed to update running totals for {} metrics. Error: {}", metrics.size(), e.getMessage(), e);
+        } finally {
+            summaries.invalidateAll(deltas.values().stream().map(delta -> delta.bondId).toList());
+        }
+    }
+
+    /**
+     * Subtracts a deleted metric from its running total.
+     */
+    public void removeMetric(ImpactMetric metric) {
+        try {
+            mongoTemplate.updateFirst(
+                    Query.query(Criteria.where("_id").is(MetricRunningTotal.idOf(metric.getBondId(), metric.getMetricType()))),
+                    new Update()
+                            .inc("sum", -metric.getValue().doubleValue())
+                            .inc("count", -1L)
+                            .set("updatedAt", LocalDateTime.now()),
+                    MetricRunningTotal.class);
+
+        } catch (DataAccessException e) {
+            log.error("Failed to update running total for deleted metric: {}. Error: {}",
+                    metric.getMetricId(), e.getMessage(), e);
+        } finally {
+            summaries.invalidate(metric.getBondId());
+        }
+    }
+
+    public List<MetricRunningTotal> getTotals(String bondId) {
+        return runningTotalRepository.findByBondId(bondId);
+    }
+
+    /**
+     * @return the sum per metric type of a bond; the map is shared and must not be modified
+     */
+    public Map<MetricType, BigDecimal> getSummary(String bondId) {
+        return cacheConfig.isEnabled() ? summaries.get(bondId, this::loadSummary) : loadSummary(bondId);
+    }
+
+    public long getMetricCount(String bondId) {
+        return getTotals(bondId).stream()
+                .mapToLong(total -> total.getCount() != null ? total.getCount() : 0L)
+                .sum();
+    }
+
+    public long getMetricCount(String bondId, MetricType metricType) {
+        return runningTotalRepository.findById(MetricRunningTotal.idOf(bondId, metricType))
+                .map(MetricRunningTotal::getCount)
+                .orElse(0L);
+    }
+
+    /**
+     * Rebuilds all running totals from raw metrics and removes totals of series that no longer exist.
+     * <p>
+     * Runs on one instance per night under a job lease. Totals are taken as a snapshot before the
+     * raw metrics created up to then are aggregated, and each total is corrected by the difference
+     * between the two with $inc, so increments applied while the run is in progress are kept. Extremes
+     * are only replaced on totals not written since the snapshot. A metric stored within moments of
+     * the snapshot may be counted twice or not at all; the next run corrects it.
+     */
+    @Scheduled(cron = "${app.running-totals.reconcile-cron:0 30 1 * * ?}")
+    public void reconcile() {
+        String runId = LocalDate.now().toString();
+        if (!leaseStore.claim(RECONCILE_JOB, runId, totalsConfig.getReconcileLeaseTtl())) {
+            log.info("Running totals reconciliation {} skipped, held or completed by another instance", runId);
+            return;
+        }
+
+        log.info("Starting running totals reconciliation {}", runId);
+        try {
+            reconcile(LocalDateTime.now().truncatedTo(ChronoUnit.MILLIS));
+            leaseStore.complete(RECONCILE_JOB, runId);
+        } catch (Exception e) {
+            log.error("Running totals reconciliation failed: {}", e.getMessage(), e);
+            leaseStore.release(RECONCILE_JOB);
+        }
+    }
+
+    void reconcile(LocalDateTime snapshotAt) {
+        Map<String, MetricRunningTotal> snapshot = new HashMap<>();
+        Query snapshotQuery = new Query();
+        snapshotQuery.fields().include("sum", "count");
+        try (Stream<MetricRunningTotal> stored = mongoTemplate.stream(snapshotQuery, MetricRunningTotal.class)) {
+            stored.forEach(total -> snapshot.put(total.getId(), total));
+        }
+
+        // BigDecimal values are stored as strings, convert them before aggregating
+        ConvertOperators.ConvertOperatorFactory value = ConvertOperators.valueOf("value");
+        Aggregation aggregation = Aggregation.newAggregation(
+                        Aggregation.match(Criteria.where("createdAt").not().gt(snapshotAt)),
+                        Aggregation.group("bondId", "metricType")
+                                .sum(value.convertToDouble()).as("sum")
+                                .count().as("count")
+                                .min(value.convertToDouble()).as("min")
+                                .max(value.convertToDouble()).as("max")
+                                .max("timestamp").as("lastTimestamp"))
+                .withOptions(AggregationOptions.builder().allowDiskUse(true).build());
+
+        List<Document> groups = mongoTemplate.aggregate(aggregation, METRICS_COLLECTION, Document.class)
+                .getMappedResults();
+
+        Map<String, Delta> totals = new LinkedHashMap<>();
+        for (Document group : groups) {
+            Document key = group.get("_id", Document.class);
+            MetricType metricType = MetricType.valueOf(key.getString("metricType"));
+            totals.computeIfAbsent(MetricRunningTotal.idOf(key.getString("bondId"), metricType),
+                            id -> new Delta(key.getString("bondId"), metricType))
+                    .add(group.getDouble("sum"), ((Number) group.get("count")).longValue(),
+                            group.getDouble("min"), group.getDouble("max"),
+                            toLocalDateTime(group.getDate("lastTimestamp")));
+        }
+
+        // Metrics moved to archive segments no longer are in impact_metrics
+        List<MetricArchiveSegment> segments = mongoTemplate.find(
+                Query.query(Criteria.where("evicted").is(true)), MetricArchiveSegment.class);
+        for (MetricArchiveSegment segment : segments) {
+            segment.getSeries().forEach((metricType, range) -> totals
+                    .computeIfAbsent(MetricRunningTotal.idOf(segment.getBondId(), metricType),
+                            id -> new Delta(segment.getBondId(), metricType))
+                    .add(range.getSum(), range.getCount(), range.getMinValue(), range.getMaxValue(),
+                            range.getMaxTimestamp()));
+        }
+
+        if (!totals.isEmpty()) {
+            // Ordered, so a total created by the first update exists for the second
+            BulkOperations bulkOps = mongoTemplate.bulkOps(BulkOperations.BulkMode.ORDERED, MetricRunningTotal.class);
+            totals.forEach((id, total) -> {
+                MetricRunningTotal before = snapshot.get(id);
+                double sumBefore = before != null && before.getSum() != null ? before.getSum() : 0;
+                long countBefore = before != null && before.getCount() != null ? before.getCount() : 0;
+
+                bulkOps.upsert(Query.query(Criteria.where("_id").is(id)),
+                        new Update()
+                                .setOnInsert("bondId", total.bondId)
+                                .setOnInsert("metricType", total.metricType)
+                                .inc("sum", total.sum - sumBefore)
+                                .inc("count", total.count - countBefore)
+                                .set("reconciledAt", snapshotAt));
+                bulkOps.updateOne(Query.query(Criteria.where("_id").is(id).and("updatedAt").not().gt(snapshotAt)),
+                        new Update()
+                                .set("min", total.min)
+                                .set("max", total.max)
+                                .set("lastTimestamp", total.lastTimestamp));
+            });
+            bulkOps.execute();
+        }
+
+        // Totals not reconciled in this run and not written since the snapshot have no metrics left
+        long removed = mongoTemplate.remove(Query.query(new Criteria().andOperator(
+                        Criteria.where("reconciledAt").ne(snapshotAt),
+                        Criteria.where("updatedAt").not().gt(snapshotAt))),
+                MetricRunningTotal.class).getDeletedCount();
+
+        summaries.invalidateAll();
+
+        log.info("Running totals reconciliation completed: {} series reconciled, {} stale removed",
+                totals.size(), removed);
+    }
+
+    private Map<MetricType, BigDecimal> loadSummary(String bondId) {
+        Map<MetricType, BigDecimal> summary = new EnumMap<>(MetricType.class);
+        for (MetricRunningTotal total : getTotals(bondId)) {
+            if (total.getCount() != null && total.getCount() > 0) {
+                summary.put(total.getMetricType(), BigDecimal.valueOf(total.getSum()));
+            }
+        }
+        return Collections.unmodifiableMap(summary);
+    }
+
+    private LocalDateTime toLocalDateTime(Date date) {
+        return date != null ? LocalDateTime.ofInstant(date.toInstant(), ZoneId.systemDefault()) : null;
+    }
+
+    private static final class Delta {
+        private final String bondId;
+        private final MetricType metricType;
+        private double sum;
+        private long count;
+        private double min = Double.POSITIVE_INFINITY;
+        private double max = Double.NEGATIVE_INFINITY;
+        private LocalDateTime lastTimestamp;
+
+        private Delta(String bondId, MetricType metricType) {
+            this.bondId = bondId;
+            this.metricType = metricType;
+        }
+
+        private void add(ImpactMetric metric) {
+            double value = metric.getValue().doubleValue();
+            add(value, 1, value, value, metric.getTimestamp());
+        }
+
+        private void add(double sum, long count, double min, double max, LocalDateTime lastTimestamp) {
+            this.sum += sum;
+            this.count += count;
+            this.min = Math.min(this.min, min);
+            this.max = Math.max(this.max, max);
+            if (lastTimestamp != null && (this.lastTimestamp == null || lastTimestamp.isAfter(this.lastTimestamp))) {
+                this.lastTimestamp = lastTimestamp;
+            }
+        }
+    }
+}
@@ -0,0 +1,197 @@
+package com.esgbank.greenbond.monitoring.service;
+
+import com.esgbank.greenbond.monitoring.config.PortfolioConfig;
+import com.esgbank.greenbond.monitoring.dto.PortfolioAggregationRequest;
+import com.esgbank.greenbond.monitoring.dto.PortfolioAggregationResponse;
+import com.esgbank.greenbond.monitoring.dto.PortfolioBondSeries;
+import com.esgbank.greenbond.monitoring.dto.PortfolioMetricSeries;
+import com.esgbank.greenbond.monitoring.exception.ImpactMonitoringException;
+import com.esgbank.greenbond.monitoring.model.enums.MetricType;
+import com.esgbank.greenbond.monitoring.service.TimeSeriesService.BondWindow;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Aggregates several metric types over a portfolio of bonds.
+ * <p>
+ * Bonds are grouped into Flux queries of {@code bondsPerQuery} per metric type, which run with
+ * bounded parallelism. Partial results are reduced into one map as they arrive, then every
+ * series is laid out on a single time axis together with a combined portfolio series.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class PortfolioAggregationService {
+
+    private final TimeSeriesService timeSeriesService;
+    private final PortfolioConfig portfolioConfig;
+
+    public PortfolioAggregationResponse aggregate(PortfolioAggregationRequest request) {
+        String interval = request.getInterval() != null ? request.getInterval() : "1h";
+        String function = request.getAggregationFunction() != null ? request.getAggregationFunction() : "mean";
+        List<String> bondIds = List.copyOf(new LinkedHashSet<>(request.getBondIds()));
+
+        List<QueryUnit> units = new ArrayList<>();
+        for (MetricType metricType : new LinkedHashSet<>(request.getMetricTypes())) {
+            for (int i = 0; i < bondIds.size(); i += portfolioConfig.getBondsPerQuery()) {
+                units.add(new QueryUnit(metricType,
+                        bondIds.subList(i, Math.min(i + portfolioConfig.getBondsPerQuery(), bondIds.size()))));
+            }
+        }
+
+        log.debug("Portfolio aggregation for {} bonds, {} metric types in {} queries",
+                bondIds.size(), request.getMetricTypes().size(), units.size());
+
+        PartialResult result;
+        try {
+            result = Flux.fromIterable(units)
+                    .flatMap(unit -> Mono.fromCallable(() -> query(unit, request, interval, function))
+                            .subscribeOn(Schedulers.boundedElastic()), portfolioConfig.getMaxParallelQueries())
+                    .reduce(new PartialResult(), PartialResult::merge)
+                    .block(portfolioConfig.getQueryTimeout());
+        } catch (Exception e) {
+            log.error("Portfolio aggregation failed for {} bonds. Error: {}", bondIds.size(), e.getMessage(), e);
+            throw new ImpactMonitoringException("Portfolio aggregation failed: " + e.getMessage(), e);
+        }
+
+        return buildResponse(request, interval, function, result != null ? result : new PartialResult());
+    }
+
+    private PartialResult query(QueryUnit unit, PortfolioAggregationRequest request, String interval, String function) {
+        PartialResult partial = new PartialResult();
+        for (BondWindow window : timeSeriesService.queryBondWindows(unit.metricType(), unit.bondIds(),
+                request.getStartTime(), request.getEndTime(), interval, function)) {
+            partial.add(unit.metricType(), window);
+        }
+        return partial;
+    }
+
+    private PortfolioAggregationResponse buildResponse(PortfolioAggregationRequest request, String interval,
+                                                       String function, PartialResult result) {
+        List<LocalDateTime> timeAxis = new ArrayList<>(result.timestamps);
+        Map<LocalDateTime, Integer> position = new HashMap<>();
+        for (int i = 0; i < timeAxis.size(); i++) {
+            position.put(timeAxis.get(i), i);
+        }
+
+        List<PortfolioMetricSeries> series = new ArrayList<>();
+        for (MetricType metricType : new LinkedHashSet<>(request.getMetricTypes())) {
+            Map<String, TreeMap<LocalDateTime, BondWindow>> byBond = result.windows.getOrDefault(metricType, Map.of());
+            CombinedWindow[] combined = new CombinedWindow[timeAxis.size()];
+            List<PortfolioBondSeries> bonds = new ArrayList<>();
+
+            for (String bondId : new LinkedHashSet<>(request.getBondIds())) {
+                TreeMap<LocalDateTime, BondWindow> windows = byBond.get(bondId);
+                if (windows == null) {
+                    continue;
+                }
+                List<BigDecimal> values = new ArrayList<>(Collections.nCopies(timeAxis.size(), null));
+                long points = 0;
+                for (BondWindow window : windows.values()) {
+                    int index = position.get(window.timestamp());
+                    values.set(index, BigDecimal.valueOf(window.value()));
+                    points += window.count();
+                    if (combined[index] == null) {
+                        combined[index] = new CombinedWindow();
+                    }
+                    combined[index].add(window);
+                }
+                bonds.add(PortfolioBondSeries.builder()
+                        .bondId(bondId)
+                        .values(values)
+                        .dataPointCount(points)
+                        .build());
+            }
+
+            List<BigDecimal> combinedValues = new ArrayList<>(timeAxis.size());
+            for (CombinedWindow window : combined) {
+                combinedValues.add(window != null ? BigDecimal.valueOf(window.value(function)) : null);
+            }
+
+            series.add(PortfolioMetricSeries.builder()
+                    .metricType(metricType)
+                    .combined(combinedValues)
+                    .bonds(bonds)
+                    .build());
+        }
+
+        return PortfolioAggregationResponse.builder()
+                .interval(interval)
+                .aggregationFunction(function)
+                .startTime(request.getStartTime())
+                .endTime(request.getEndTime())
+                .timeAxis(timeAxis)
+                .series(series)
+                .build();
+    }
+
+    private record QueryUnit(MetricType metricType, List<String> bondIds) {
+    }
+
+    /**
+     * Windows returned by one or more queries. Queries never overlap in (metricType, bondId), so
+     * merging is a union of maps.
+     */
+    private static final class PartialResult {
+        private final Map<MetricType, Map<String, TreeMap<LocalDateTime, BondWindow>>> windows = new EnumMap<>(MetricType.class);
+        private final TreeSet<LocalDateTime> timestamps = new TreeSet<>();
+
+        void add(MetricType metricType, BondWindow window) {
+            windows.computeIfAbsent(metricType, type -> new HashMap<>())
+                    .computeIfAbsent(window.bondId(), bondId -> new TreeMap<>())
+                    .put(window.timestamp(), window);
+            timestamps.add(window.timestamp());
+        }
+
+        PartialResult merge(PartialResult other) {
+            other.windows.forEach((metricType, byBond) ->
+                    windows.computeIfAbsent(metricType, type -> new HashMap<>()).putAll(byBond));
+            timestamps.addAll(other.timestamps);
+            return this;
+        }
+    }
+
+    /**
+     * Combines the windows of several bonds at one timestamp. Means are weighted by point count.
+     */
+    private static final class CombinedWindow {
+        private double sum;
+        private double weightedSum;
+        private long count;
+        private double min = Double.POSITIVE_INFINITY;
+        private double max = Double.NEGATIVE_INFINITY;
+
+        void add(BondWindow window) {
+            sum += window.value();
+            weightedSum += window.value() * window.count();
+            count += window.count();
+            min = Math.min(min, window.value());
+            max = Math.max(max, window.value());
+        }
+
+        double value(String function) {
+            return switch (function) {
+                case "min" -> min;
+                case "max" -> max;
+                case "mean" -> count > 0 ? weightedSum / count : 0;
+                default -> sum;
+            };
+        }
+    }
+}
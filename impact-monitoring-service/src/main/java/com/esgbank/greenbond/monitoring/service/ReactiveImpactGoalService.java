@@ -0,0 +1,46 @@
+package com.esgbank.greenbond.monitoring.service;
+
+import com.esgbank.greenbond.monitoring.dto.ImpactGoalResponse;
+import com.esgbank.greenbond.monitoring.exception.GoalNotFoundException;
+import com.esgbank.greenbond.monitoring.mapper.ImpactGoalMapper;
+import com.esgbank.greenbond.monitoring.model.enums.GoalStatus;
+import com.esgbank.greenbond.monitoring.repository.ReactiveImpactGoalRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Non-blocking reads of impact goals over the reactive MongoDB driver.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ReactiveImpactGoalService {
+
+    private final ReactiveImpactGoalRepository goalRepository;
+    private final ImpactGoalMapper goalMapper;
+
+    public Mono<ImpactGoalResponse> getGoal(String goalId) {
+        log.debug("Fetching impact goal (reactive): {}", goalId);
+
+        return goalRepository.findByGoalId(goalId)
+                .switchIfEmpty(Mono.error(() -> new GoalNotFoundException("Impact goal not found: " + goalId)))
+                .map(goalMapper::toResponse);
+    }
+
+    public Flux<ImpactGoalResponse> getGoalsByBond(String bondId, Pageable pageable) {
+        log.debug("Fetching goals for bond (reactive): {}, page: {}", bondId, pageable.getPageNumber());
+
+        return goalRepository.findByBondId(bondId, pageable).map(goalMapper::toResponse);
+    }
+
+    public Flux<ImpactGoalResponse> getGoalsByBondAndStatus(String bondId, GoalStatus status, Pageable pageable) {
+        log.debug("Fetching goals for bond (reactive): {}, status: {}, page: {}",
+                bondId, status, pageable.getPageNumber());
+
+        return goalRepository.findByBondIdAndStatus(bondId, status, pageable).map(goalMapper::toResponse);
+    }
+}
@@ -0,0 +1,223 @@
+package com.esgbank.greenbond.monitoring.service;
+
+import com.esgbank.greenbond.monitoring.dto.ImpactMetricBatchResponse;
+import com.esgbank.greenbond.monitoring.dto.ImpactMetricRequest;
+import com.esgbank.greenbond.monitoring.dto.ImpactMetricResponse;
+import com.esgbank.greenbond.monitoring.dto.MetricAggregationRequest;
+import com.esgbank.greenbond.monitoring.dto.MetricAggregationResponse;
+import com.esgbank.greenbond.monitoring.exception.ImpactMonitoringException;
+import com.esgbank.greenbond.monitoring.exception.MetricNotFoundException;
+import com.esgbank.greenbond.monitoring.mapper.ImpactMetricMapper;
+import com.esgbank.greenbond.monitoring.model.ImpactMetric;
+import com.esgbank.greenbond.monitoring.model.enums.MetricType;
+import com.esgbank.greenbond.monitoring.repository.ReactiveImpactMetricRepository;
+import com.esgbank.greenbond.monitoring.service.ImpactMetricService.PreparedBatch;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+
+/**
+ * Reactive counterpart of {@link ImpactMetricService} for ingestion and queries.
+ * <p>
+ * Metric documents are read and inserted through the reactive MongoDB driver, and aggregations
+ * fall back to the asynchronous InfluxDB query API. Validation, deduplication, quality scoring
+ * and the derived state updated after a write (buckets, running totals, rollups, anchoring) are
+ * shared with the blocking path and still use the blocking template; here they run on the bounded
+ * elastic scheduler, off the request thread, and hold one of its threads while they wait on
+ * MongoDB. So do series reads from hourly buckets, see {@link MetricBucketStore}. Ingestion is
+ * therefore not cheaper than the blocking path, it only frees the request thread.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ReactiveImpactMetricService {
+
+    private final ReactiveImpactMetricRepository metricRepository;
+    private final ImpactMetricService impactMetricService;
+    private final ImpactMetricMapper metricMapper;
+    private final TimeSeriesService timeSeriesService;
+    private final MetricRollupService rollupService;
+    private final MetricHotWindowService hotWindowService;
+    private final MetricBucketStore bucketStore;
+    private final MetricArchiveStore archiveStore;
+
+    /**
+     * Creates a batch of metrics with the same per-item results as
+     * {@link ImpactMetricService#createMetrics}.
+     */
+    public Mono<ImpactMetricBatchResponse> createMetrics(List<ImpactMetricRequest> requests) {
+        log.info("Creating {} impact metrics in bulk (reactive)", requests.size());
+
+        return Mono.fromCallable(() -> impactMetricService.prepareBatch(requests))
+                .subscribeOn(Schedulers.boundedElastic())
+                .flatMap(batch -> batch.accepted().isEmpty() ? Mono.just(batch) : store(batch))
+                .map(impactMetricService::summarize)
+                .onErrorMap(e -> !(e instanceof ImpactMonitoringException), e -> {
+                    log.error("Failed to create impact metrics in bulk. Error: {}", e.getMessage(), e);
+                    return new ImpactMonitoringException("Bulk impact metric creation failed: " + e.getMessage(), e);
+                });
+    }
+
+    public Mono<ImpactMetricResponse> getMetric(String metricId) {
+        log.debug("Fetching impact metric (reactive): {}", metricId);
+
+        return metricRepository.findByMetricId(metricId)
+                .switchIfEmpty(Mono.error(() -> new MetricNotFoundException("Impact metric not found: " + metricId)))
+                .map(metricMapper::toResponse);
+    }
+
+    public Flux<ImpactMetricResponse> getMetricsByBond(String bondId, Pageable pageable) {
+        log.debug("Fetching metrics for bond (reactive): {}, page: {}", bondId, pageable.getPageNumber());
+
+        if (bucketStore.isReadEnabled()) {
+            return fromBuckets(() -> bucketStore.findPage(bondId, null, pageable).getContent());
+        }
+        return metricRepository.findByBondId(bondId, pageable).map(metricMapper::toResponse);
+    }
+
+    public Flux<ImpactMetricResponse> getMetricsByBondAndType(String bondId, MetricType metricType, Pageable pageable) {
+        log.debug("Fetching metrics for bond (reactive): {}, type: {}, page: {}",
+                bondId, metricType, pageable.getPageNumber());
+
+        if (bucketStore.isReadEnabled()) {
+            return fromBuckets(() -> bucketStore.findPage(bondId, metricType, pageable).getContent());
+        }
+        return metricRepository.findByBondIdAndMetricType(bondId, metricType, pageable).map(metricMapper::toResponse);
+    }
+
+    public Flux<ImpactMetricResponse> getMetricsByBondTypeAndTimeRange(
+            String bondId, MetricType metricType, LocalDateTime start, LocalDateTime end) {
+
+        log.debug("Fetching metrics for bond (reactive): {}, type: {}, range: {} to {}",
+                bondId, metricType, start, end);
+
+        if (archiveStore.covers(start)) {
+            // Older months come from archive segments, merged with what is still in MongoDB
+            Mono<List<ImpactMetric>> archived = Mono.fromCallable(() ->
+                            archiveStore.findRange(bondId, metricType, start, end))
+                    .subscribeOn(Schedulers.boundedElastic());
+            Mono<List<ImpactMetric>> hot = bucketStore.isReadEnabled()
+                    ? Mono.fromCallable(() -> bucketStore.findRange(bondId, metricType, start, end))
+                            .subscribeOn(Schedulers.boundedElastic())
+                    : metricRepository.findMetricsByBondTypeAndTimeRange(bondId, metricType, start, end).collectList();
+            return Mono.zip(archived, hot, MetricArchiveStore::merge)
+                    .flatMapIterable(metrics -> metrics)
+                    .map(metricMapper::toResponse);
+        }
+        if (bucketStore.isReadEnabled()) {
+            return fromBuckets(() -> bucketStore.findRange(bondId, metricType, start, end));
+        }
+        return metricRepository.findMetricsByBondTypeAndTimeRange(bondId, metricType, start, end)
+                .map(metricMapper::toResponse);
+    }
+
+    public Flux<ImpactMetricResponse> getLatestMetrics(String bondId, MetricType metricType, int limit) {
+        log.debug("Fetching latest {} metrics for bond (reactive): {}, type: {}", limit, bondId, metricType);
+
+        Optional<List<ImpactMetric>> hot = hotWindowService.getLatestMetrics(bondId, metricType, limit);
+        if (hot.isEmpty() && bucketStore.isReadEnabled()) {
+            return fromBuckets(() -> bucketStore.findLatest(bondId, metricType, limit));
+        }
+        return hot.map(Flux::fromIterable)
+                .orElseGet(() -> metricRepository.findLatestMetrics(bondId, metricType, PageRequest.of(0, limit)))
+                .map(metricMapper::toResponse);
+    }
+
+    /**
+     * Served from the hot window or rollups where possible, otherwise by an asynchronous InfluxDB query.
+     */
+    public Mono<MetricAggregationResponse> getMetricAggregation(MetricAggregationRequest request) {
+        log.debug("Calculating metric aggregation (reactive) for bond: {}, type: {}",
+                request.getBondId(), request.getMetricType());
+
+        Optional<MetricAggregationResponse> hot = hotWindowService.calculateAggregation(request);
+        if (hot.isPresent()) {
+            return Mono.just(hot.get());
+        }
+
+        return Mono.fromCallable(() -> rollupService.calculateAggregation(request))
+                .subscribeOn(Schedulers.boundedElastic())
+                .flatMap(rollup -> rollup.map(Mono::just)
+                        .orElseGet(() -> timeSeriesService.calculateAggregationAsync(request)))
+                .onErrorMap(e -> {
+                    log.error("Metric aggregation failed for bond: {}. Error: {}",
+                            request.getBondId(), e.getMessage(), e);
+                    return new ImpactMonitoringException("Metric aggregation failed: " + e.getMessage(), e);
+                });
+    }
+
+    private Flux<ImpactMetricResponse> fromBuckets(Callable<List<ImpactMetric>> read) {
+        return Mono.fromCallable(read)
+                .subscribeOn(Schedulers.boundedElastic())
+                .flatMapIterable(metrics -> metrics)
+                .map(metricMapper::toResponse);
+    }
+
+    private Mono<PreparedBatch> store(PreparedBatch batch) {
+        // One insertMany for the batch; if a reading was stored concurrently, fall back to single inserts
+        return metricRepository.insert(batch.accepted())
+                .collectList()
+                .map(saved -> new Stored(saved, batch.acceptedIndexes()))
+                .onErrorResume(DuplicateKeyException.class, e -> insertIndividually(batch))
+                .publishOn(Schedulers.boundedElastic())
+                .map(stored -> {
+                    impactMetricService.applyStoredMetrics(batch, stored.metrics(), stored.indexes());
+                    return batch;
+                })
+                .onErrorResume(DataAccessException.class, e -> {
+                    impactMetricService.failStorage(batch, e);
+                    return Mono.just(batch);
+                });
+    }
+
+    // insertMany is ordered: items before the duplicate were stored and are found by metricId
+    private Mono<Stored> insertIndividually(PreparedBatch batch) {
+        return Flux.range(0, batch.accepted().size())
+                .concatMap(i -> {
+                    ImpactMetric metric = batch.accepted().get(i);
+                    int index = batch.acceptedIndexes().get(i);
+                    return metricRepository.insert(metric)
+                            .map(Optional::of)
+                            .onErrorResume(DuplicateKeyException.class, e -> metricRepository
+                                    .findByMetricId(metric.getMetricId())
+                                    .map(Optional::of)
+                                    .defaultIfEmpty(Optional.empty()))
+                            .map(saved -> {
+                                if (saved.isEmpty()) {
+                                    batch.results()[index] = impactMetricService.duplicateItem(index);
+                                }
+                                return new IndexedMetric(index, saved);
+                            });
+                })
+                .filter(indexed -> indexed.metric().isPresent())
+                .collectList()
+                .map(indexed -> {
+                    List<ImpactMetric> metrics = new ArrayList<>(indexed.size());
+                    List<Integer> indexes = new ArrayList<>(indexed.size());
+                    for (IndexedMetric item : indexed) {
+                        metrics.add(item.metric().get());
+                        indexes.add(item.index());
+                    }
+                    return new Stored(metrics, indexes);
+                });
+    }
+
+    private record Stored(List<ImpactMetric> metrics, List<Integer> indexes) {
+    }
+
+    private record IndexedMetric(int index, Optional<ImpactMetric> metric) {
+    }
+}
@@ -0,0 +1,108 @@
+package com.esgbank.greenbond.monitoring.service;
+
+import com.esgbank.greenbond.monitoring.config.ReportConfig;
+import com.esgbank.greenbond.monitoring.model.ReportFragment;
+import com.esgbank.greenbond.monitoring.model.enums.MetricType;
+import com.esgbank.greenbond.monitoring.service.MetricRollupService.PeriodTotals;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Series totals over report periods, assembled from calendar months.
+ * <p>
+ * Every whole month inside a period is read from {@code report_fragments}; a month not cached
+ * yet is computed from rollups and cached once it ended {@code fragment-settle-delay} ago, so a
+ * quarterly or annual report combines the months earlier monthly reports already computed.
+ * Partial months at the edges of a period are always computed. Cached months expire after
+ * {@code fragment-ttl}, which bounds how long late data can be missing from them.
+ */
+@Slf4j
+@Service
+public class ReportFragmentStore {
+
+    private final MongoTemplate mongoTemplate;
+    private final MetricRollupService rollupService;
+    private final ReportConfig config;
+
+    private final Counter fragmentHits;
+    private final Counter fragmentMisses;
+
+    public ReportFragmentStore(MongoTemplate mongoTemplate, MetricRollupService rollupService, ReportConfig config,
+                               MeterRegistry meterRegistry) {
+        this.mongoTemplate = mongoTemplate;
+        this.rollupService = rollupService;
+        this.config = config;
+        this.fragmentHits = Counter.builder("impact.report.fragments")
+                .tag("result", "hit")
+                .description("Report months read from cached fragments")
+                .register(meterRegistry);
+        this.fragmentMisses = Counter.builder("impact.report.fragments")
+                .tag("result", "miss")
+                .description("Report months computed from rollups")
+                .register(meterRegistry);
+    }
+
+    /**
+     * @return totals of the series over [from, to)
+     */
+    public PeriodTotals totals(String bondId, MetricType metricType, LocalDateTime from, LocalDateTime to) {
+        PeriodTotals totals = PeriodTotals.EMPTY;
+        LocalDateTime cursor = from;
+        while (cursor.isBefore(to)) {
+            LocalDateTime monthStart = cursor.truncatedTo(ChronoUnit.DAYS).withDayOfMonth(1);
+            LocalDateTime monthEnd = monthStart.plusMonths(1);
+
+            if (cursor.equals(monthStart) && !monthEnd.isAfter(to)) {
+                totals = totals.merge(monthTotals(bondId, metricType, monthStart));
+                cursor = monthEnd;
+            } else {
+                LocalDateTime partEnd = monthEnd.isBefore(to) ? monthEnd : to;
+                totals = totals.merge(rollupService.summarize(bondId, metricType, cursor, partEnd));
+                cursor = partEnd;
+            }
+        }
+        return totals;
+    }
+
+    private PeriodTotals monthTotals(String bondId, MetricType metricType, LocalDateTime monthStart) {
+        String id = ReportFragment.idOf(bondId, metricType, monthStart);
+        ReportFragment cached = mongoTemplate.findById(id, ReportFragment.class);
+        if (cached != null) {
+            fragmentHits.increment();
+            return new PeriodTotals(cached.getCount(), cached.getSum(), cached.getMin(), cached.getMax());
+        }
+
+        fragmentMisses.increment();
+        LocalDateTime monthEnd = monthStart.plusMonths(1);
+        PeriodTotals totals = rollupService.summarize(bondId, metricType, monthStart, monthEnd);
+
+        LocalDateTime now = LocalDateTime.now();
+        if (monthEnd.plus(config.getFragmentSettleDelay()).isBefore(now)) {
+            try {
+                mongoTemplate.save(ReportFragment.builder()
+                        .id(id)
+                        .bondId(bondId)
+                        .metricType(metricType)
+                        .monthStart(monthStart)
+                        .count(totals.count())
+                        .sum(totals.sum())
+                        .min(totals.min())
+                        .max(totals.max())
+                        .computedAt(now)
+                        .expireAt(now.plus(config.getFragmentTtl()))
+                        .build());
+            } catch (DataAccessException e) {
+                // The totals are correct either way; the month is computed again next time
+                log.warn("Failed to cache report fragment {}: {}", id, e.getMessage());
+            }
+        }
+        return totals;
+    }
+}
@@ -0,0 +1,89 @@
+package com.esgbank.greenbond.monitoring.service;
+
+import com.esgbank.greenbond.monitoring.model.enums.RollupResolution;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Splits an aggregation range into rollup reads.
+ * <p>
+ * The interior of the range is read at the coarsest resolution that divides the requested
+ * interval; the partial buckets at either edge are covered by successively finer resolutions and
+ * finally by raw metrics. Output windows are aligned to the Unix epoch in UTC, like Flux
+ * {@code aggregateWindow}, so every bucket falls into exactly one window.
+ */
+public final class RollupQueryPlanner {
+
+    private static final RollupResolution[] RESOLUTIONS = RollupResolution.values();
+
+    private RollupQueryPlanner() {
+    }
+
+    /**
+     * A contiguous part of the range served by one resolution, or by raw metrics when
+     * {@code resolution} is null.
+     */
+    public record Segment(RollupResolution resolution, LocalDateTime from, LocalDateTime to) {
+
+        public boolean isRaw() {
+            return resolution == null;
+        }
+    }
+
+    public static Optional<RollupResolution> chooseResolution(Duration interval) {
+        for (int i = RESOLUTIONS.length - 1; i >= 0; i--) {
+            Duration bucket = RESOLUTIONS[i].getDuration();
+            if (interval.compareTo(bucket) >= 0 && interval.toSeconds() % bucket.toSeconds() == 0
+                    && interval.getNano() == 0) {
+                return Optional.of(RESOLUTIONS[i]);
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * @param minuteCutoff 1-minute buckets older than this have expired; edges before it are read raw
+     */
+    public static List<Segment> plan(LocalDateTime start, LocalDateTime end, RollupResolution resolution,
+                                     LocalDateTime minuteCutoff) {
+        List<Segment> segments = new ArrayList<>();
+        cover(start, end, resolution.ordinal(), minuteCutoff, segments);
+        return segments;
+    }
+
+    public static LocalDateTime windowStart(LocalDateTime timestamp, Duration interval) {
+        long seconds = timestamp.toEpochSecond(ZoneOffset.UTC);
+        long size = interval.toSeconds();
+        return LocalDateTime.ofEpochSecond(seconds - Math.floorMod(seconds, size), 0, ZoneOffset.UTC);
+    }
+
+    private static void cover(LocalDateTime from, LocalDateTime to, int level, LocalDateTime minuteCutoff,
+                              List<Segment> segments) {
+        if (!from.isBefore(to)) {
+            return;
+        }
+        if (level < 0 || (RESOLUTIONS[level] == RollupResolution.MINUTE && from.isBefore(minuteCutoff))) {
+            segments.add(new Segment(null, from, to));
+            return;
+        }
+
+        RollupResolution resolution = RESOLUTIONS[level];
+        LocalDateTime alignedFrom = resolution.ceil(from);
+        LocalDateTime alignedTo = resolution.bucketStart(to);
+
+        if (!alignedFrom.isBefore(alignedTo)) {
+            // The range does not contain a whole bucket at this resolution
+            cover(from, to, level - 1, minuteCutoff, segments);
+            return;
+        }
+
+        cover(from, alignedFrom, level - 1, minuteCutoff, segments);
+        segments.add(new Segment(resolution, alignedFrom, alignedTo));
+        cover(alignedTo, to, level - 1, minuteCutoff, segments);
+    }
+}
@@ -0,0 +1,231 @@
+package com.esgbank.greenbond.monitoring.service;
+
+import com.esgbank.greenbond.monitoring.config.DataQualityConfig;
+import com.esgbank.greenbond.monitoring.model.SeriesQualityState;
+import com.esgbank.greenbond.monitoring.model.enums.MetricType;
+import com.mongodb.bulk.BulkWriteResult;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/**
+ * In-memory per-series state for data quality scoring.
+ * <p>
+ * Each reading updates the EWMA mean and variance of its series, its last value and the EWMA of
+ * the inter-arrival time in O(1), and gets back the state as it was before the reading. States
+ * are loaded once at startup and written back in bulk on a fixed delay and on shutdown, so
+ * scoring a reading never touches MongoDB.
+ * <p>
+ * Several instances may score readings of the same series. Every write is guarded by the version
+ * the local state was based on; a series written by another instance in the meantime is reloaded
+ * from MongoDB and the local updates since the last write are dropped.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class SeriesStateStore {
+
+    private final MongoTemplate mongoTemplate;
+    private final DataQualityConfig dataQualityConfig;
+
+    private final Map<String, SeriesQualityState> states = new ConcurrentHashMap<>();
+    private final Set<String> dirty = ConcurrentHashMap.newKeySet();
+
+    /**
+     * State of the series before a reading, plus the gap to the previous reading.
+     *
+     * @param gapSeconds seconds since the previous reading, null for the first or an out-of-order reading
+     */
+    public record Observation(long priorCount, double priorMean, double priorStdDev,
+                              Double gapSeconds, Double expectedIntervalSeconds) {
+    }
+
+    @PostConstruct
+    public void load() {
+        try (Stream<SeriesQualityState> stored = mongoTemplate.stream(new Query(), SeriesQualityState.class)) {
+            stored.forEach(state -> states.put(state.getId(), state));
+            log.info("Loaded {} series quality states", states.size());
+        } catch (DataAccessException e) {
+            // Scoring starts from an empty baseline rather than blocking startup
+            log.error("Failed to load series quality states: {}", e.getMessage(), e);
+        }
+    }
+
+    public Observation observe(String bondId, MetricType metricType, String deviceId,
+                               double value, LocalDateTime timestamp) {
+        String id = SeriesQualityState.idOf(bondId, metricType, deviceId);
+        SeriesQualityState state = states.computeIfAbsent(id, key -> SeriesQualityState.builder()
+                .id(key)
+                .bondId(bondId)
+                .metricType(metricType)
+                .deviceId(deviceId)
+                .build());
+
+        Observation observation;
+        synchronized (state) {
+            Double gap = state.getLastTimestamp() != null && timestamp.isAfter(state.getLastTimestamp())
+                    ? Duration.between(state.getLastTimestamp(), timestamp).toMillis() / 1000.0
+                    : null;
+
+            observation = new Observation(state.getCount(), state.getEwmaMean(),
+                    Math.sqrt(state.getEwmaVariance()), gap, state.getEwmaIntervalSeconds());
+
+            update(state, value, timestamp, gap);
+        }
+
+        dirty.add(id);
+        return observation;
+    }
+
+    @Scheduled(fixedDelayString = "${app.data-quality.persist-interval:30000}")
+    public void persist() {
+        if (dirty.isEmpty()) {
+            return;
+        }
+
+        List<SeriesQualityState> snapshots = new ArrayList<>();
+        for (Iterator<String> it = dirty.iterator(); it.hasNext(); ) {
+            String id = it.next();
+            it.remove();
+            SeriesQualityState state = states.get(id);
+            if (state != null) {
+                synchronized (state) {
+                    snapshots.add(state.toBuilder().build());
+                }
+            }
+        }
+
+        String writeId = UUID.randomUUID().toString();
+        int written;
+        try {
+            BulkOperations bulkOps = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, SeriesQualityState.class);
+            for (SeriesQualityState snapshot : snapshots) {
+                SeriesQualityState next = snapshot.toBuilder()
+                        .version(snapshot.getVersion() + 1)
+                        .writeId(writeId)
+                        .build();
+                if (snapshot.getVersion() == 0) {
+                    bulkOps.insert(next);
+                } else {
+                    bulkOps.replaceOne(Query.query(Criteria.where("_id").is(snapshot.getId())
+                            .and("version").is(snapshot.getVersion())), next);
+                }
+            }
+            BulkWriteResult result = bulkOps.execute();
+            written = result.getInsertedCount() + result.getMatchedCount();
+
+        } catch (BulkOperationException e) {
+            // A series inserted concurrently by another instance; resolved below
+            written = e.getResult().getInsertedCount() + e.getResult().getMatchedCount();
+
+        } catch (DataAccessException e) {
+            snapshots.forEach(snapshot -> dirty.add(snapshot.getId()));
+            log.error("Failed to persist {} series quality states, will retry. Error: {}",
+                    snapshots.size(), e.getMessage());
+            return;
+        }
+
+        if (written == snapshots.size()) {
+            snapshots.forEach(snapshot -> advanceVersion(snapshot.getId(), snapshot.getVersion() + 1));
+            log.debug("Persisted {} series quality states", snapshots.size());
+            return;
+        }
+
+        try {
+            resolveConflicts(snapshots, writeId);
+        } catch (DataAccessException e) {
+            snapshots.forEach(snapshot -> dirty.add(snapshot.getId()));
+            log.error("Failed to resolve series quality state conflicts, will retry. Error: {}", e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        persist();
+    }
+
+    /**
+     * Advances the versions of the states this write produced and reloads the states that another
+     * instance wrote first.
+     */
+    private void resolveConflicts(List<SeriesQualityState> snapshots, String writeId) {
+        Map<String, SeriesQualityState> stored = new HashMap<>();
+        mongoTemplate.find(Query.query(Criteria.where("_id").in(snapshots.stream().map(SeriesQualityState::getId).toList())),
+                        SeriesQualityState.class)
+                .forEach(state -> stored.put(state.getId(), state));
+
+        int conflicts = 0;
+        for (SeriesQualityState snapshot : snapshots) {
+            SeriesQualityState current = stored.get(snapshot.getId());
+            if (current != null && writeId.equals(current.getWriteId())) {
+                advanceVersion(snapshot.getId(), current.getVersion());
+            } else if (current != null) {
+                states.put(current.getId(), current);
+                conflicts++;
+            } else {
+                dirty.add(snapshot.getId());
+            }
+        }
+        if (conflicts > 0) {
+            log.info("Reloaded {} series quality states written by another instance", conflicts);
+        }
+    }
+
+    private void advanceVersion(String id, long version) {
+        SeriesQualityState state = states.get(id);
+        if (state != null) {
+            synchronized (state) {
+                state.setVersion(Math.max(state.getVersion(), version));
+            }
+        }
+    }
+
+    private void update(SeriesQualityState state, double value, LocalDateTime timestamp, Double gap) {
+        double alpha = dataQualityConfig.getEwmaAlpha();
+
+        if (state.getCount() == 0) {
+            state.setEwmaMean(value);
+            state.setEwmaVariance(0);
+        } else {
+            // Incremental EWMA of mean and variance (West, 1979)
+            double diff = value - state.getEwmaMean();
+            double increment = alpha * diff;
+            state.setEwmaMean(state.getEwmaMean() + increment);
+            state.setEwmaVariance((1 - alpha) * (state.getEwmaVariance() + diff * increment));
+        }
+
+        if (gap != null) {
+            state.setEwmaIntervalSeconds(state.getEwmaIntervalSeconds() == null
+                    ? gap
+                    : alpha * gap + (1 - alpha) * state.getEwmaIntervalSeconds());
+        }
+        if (state.getLastTimestamp() == null || timestamp.isAfter(state.getLastTimestamp())) {
+            state.setLastTimestamp(timestamp);
+            state.setLastValue(value);
+        }
+
+        state.setCount(state.getCount() + 1);
+        state.setUpdatedAt(LocalDateTime.now());
+    }
+}
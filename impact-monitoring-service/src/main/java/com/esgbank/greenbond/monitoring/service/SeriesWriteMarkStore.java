@@ -0,0 +1,169 @@
+package com.esgbank.greenbond.monitoring.service;
+
+import com.esgbank.greenbond.monitoring.config.AggregationCacheConfig;
+import com.esgbank.greenbond.monitoring.model.ImpactMetric;
+import com.esgbank.greenbond.monitoring.model.SeriesWriteMark;
+import com.esgbank.greenbond.monitoring.model.enums.MetricType;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * Shared per-day write watermarks of metric series, so that the aggregation result cache of every
+ * instance sees data written through any of them.
+ * <p>
+ * {@link InfluxWritePipeline} raises the mark of a series day when it spools a point into it and
+ * again when InfluxDB accepts the point, so a window cached while the point was still waiting in
+ * the spool is dropped once it becomes visible. A mark expires once no cached window can predate it.
+ */
+@Service
+@RequiredArgsConstructor
+public class SeriesWriteMarkStore {
+
+    private static final String MEASUREMENT = "impact_metrics";
+    private static final String ESCAPED = ", =";
+
+    private final MongoTemplate mongoTemplate;
+    private final AggregationCacheConfig config;
+
+    /**
+     * One day of a (bondId, metricType) series.
+     */
+    record SeriesDay(String bondId, MetricType metricType, LocalDate day) {
+    }
+
+    /**
+     * Marks the series days of stored or deleted metrics as written now.
+     */
+    public void record(Iterable<ImpactMetric> metrics) {
+        Map<String, SeriesDay> days = new LinkedHashMap<>();
+        for (ImpactMetric metric : metrics) {
+            if (metric.getTimestamp() != null) {
+                add(days, new SeriesDay(metric.getBondId(), metric.getMetricType(),
+                        metric.getTimestamp().toLocalDate()));
+            }
+        }
+        upsert(days);
+    }
+
+    /**
+     * Marks the series days of line-protocol records of {@code impact_metrics} as written now.
+     */
+    public void recordPoints(List<String> records) {
+        Map<String, SeriesDay> days = new LinkedHashMap<>();
+        for (String record : records) {
+            SeriesDay day = seriesDayOf(record);
+            if (day != null) {
+                add(days, day);
+            }
+        }
+        upsert(days);
+    }
+
+    /**
+     * @return start of each marked day in {@code [from, to)} mapped to its latest write, both in epoch millis;
+     * days are UTC like metric timestamps, write times are wall-clock times
+     */
+    public NavigableMap<Long, Long> find(String bondId, MetricType metricType, long from, long to) {
+        String prefix = SeriesWriteMark.prefixOf(bondId, metricType);
+        Query query = Query.query(Criteria.where("_id")
+                .gte(prefix + toDay(from))
+                .lte(prefix + toDay(to - 1)));
+        query.fields().include("day", "writtenAt");
+
+        NavigableMap<Long, Long> marks = new TreeMap<>();
+        for (SeriesWriteMark mark : mongoTemplate.find(query, SeriesWriteMark.class)) {
+            marks.put(mark.getDay().atStartOfDay().toInstant(ZoneOffset.UTC).toEpochMilli(),
+                    mark.getWrittenAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli());
+        }
+        return marks;
+    }
+
+    /**
+     * @return the series day of a line-protocol record written with millisecond precision, or null
+     * for a record of another measurement or without bond and metric type tags
+     */
+    static SeriesDay seriesDayOf(String record) {
+        Map<String, String> tags = new HashMap<>();
+        StringBuilder token = new StringBuilder();
+        String key = null;
+        String measurement = null;
+        int end = record.length();
+        for (int i = 0; i < record.length(); i++) {
+            char c = record.charAt(i);
+            if (c == '\\' && i + 1 < record.length() && ESCAPED.indexOf(record.charAt(i + 1)) >= 0) {
+                token.append(record.charAt(++i));
+            } else if (c == ',' || c == ' ') {
+                if (measurement == null) {
+                    measurement = token.toString();
+                } else if (key != null) {
+                    tags.put(key, token.toString());
+                }
+                token.setLength(0);
+                key = null;
+                if (c == ' ') {
+                    end = i;
+                    break;
+                }
+            } else if (c == '=' && measurement != null && key == null) {
+                key = token.toString();
+                token.setLength(0);
+            } else {
+                token.append(c);
+            }
+        }
+
+        int timestampStart = record.lastIndexOf(' ') + 1;
+        if (!MEASUREMENT.equals(measurement) || timestampStart <= end
+                || !tags.containsKey("bond_id") || !tags.containsKey("metric_type")) {
+            return null;
+        }
+        try {
+            long millis = Long.parseLong(record.substring(timestampStart).trim());
+            return new SeriesDay(tags.get("bond_id"), MetricType.valueOf(tags.get("metric_type")), toDay(millis));
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private static void add(Map<String, SeriesDay> days, SeriesDay day) {
+        days.putIfAbsent(SeriesWriteMark.idOf(day.bondId(), day.metricType(), day.day()), day);
+    }
+
+    private void upsert(Map<String, SeriesDay> days) {
+        if (!config.isEnabled() || days.isEmpty()) {
+            return;
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime expireAt = now.plus(config.getTtl()).plus(config.getSettleDelay());
+        BulkOperations bulkOps = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, SeriesWriteMark.class);
+        days.forEach((id, day) -> bulkOps.upsert(Query.query(Criteria.where("_id").is(id)), new Update()
+                .setOnInsert("bondId", day.bondId())
+                .setOnInsert("metricType", day.metricType())
+                .setOnInsert("day", day.day())
+                .max("writtenAt", now)
+                .set("expireAt", expireAt)));
+        bulkOps.execute();
+    }
+
+    private static LocalDate toDay(long millis) {
+        return LocalDate.ofInstant(Instant.ofEpochMilli(millis), ZoneOffset.UTC);
+    }
+}
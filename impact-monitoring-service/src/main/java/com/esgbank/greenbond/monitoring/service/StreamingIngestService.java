@@ -0,0 +1,284 @@
+package com.esgbank.greenbond.monitoring.service;
+
+import com.esgbank.greenbond.monitoring.config.StreamingIngestConfig;
+import com.esgbank.greenbond.monitoring.dto.ImpactMetricBatchItemResult;
+import com.esgbank.greenbond.monitoring.dto.ImpactMetricBatchResponse;
+import com.esgbank.greenbond.monitoring.dto.ImpactMetricRequest;
+import com.esgbank.greenbond.monitoring.dto.StreamIngestResponse;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Semaphore;
+import java.util.stream.IntStream;
+
+/**
+ * Push ingestion of telemetry streamed over long-lived connections.
+ * <p>
+ * Readings from any push channel are written in micro-batches through
+ * {@link ImpactMetricService#createMetrics}, so they get the same validation, deduplication and
+ * data quality scoring as a bulk request. Backpressure runs end to end: a channel only receives
+ * as many readings as fit in its credit, i.e. the batch being written plus the batches queued
+ * behind it. For NDJSON streams that means the request body is not read while persistence is
+ * behind, and TCP flow control pushes back on the client.
+ */
+@Slf4j
+@Service
+public class StreamingIngestService {
+
+    private final ImpactMetricService impactMetricService;
+    private final ObjectMapper objectMapper;
+    private final StreamingIngestConfig config;
+
+    private final Semaphore connections;
+    private final Scheduler streamScheduler;
+    private final Counter readingsReceived;
+    private final Counter linesRejected;
+
+    /**
+     * A reading together with where it came from, e.g. a line number or an MQTT topic.
+     */
+    public record StreamedReading(String origin, ImpactMetricRequest request) {
+    }
+
+    public record StreamedBatch(List<StreamedReading> readings, ImpactMetricBatchResponse response) {
+    }
+
+    public StreamingIngestService(ImpactMetricService impactMetricService, ObjectMapper objectMapper,
+                                  StreamingIngestConfig config, MeterRegistry meterRegistry) {
+        this.impactMetricService = impactMetricService;
+        this.objectMapper = objectMapper;
+        this.config = config;
+        this.connections = new Semaphore(config.getMaxConnections());
+        // Readers block on the request body, so they get threads of their own
+        this.streamScheduler = Schedulers.newBoundedElastic(config.getMaxConnections(),
+                config.getMaxConnections(), "telemetry-stream");
+
+        this.readingsReceived = Counter.builder("impact.stream.readings")
+                .description("Readings received over push channels")
+                .register(meterRegistry);
+        this.linesRejected = Counter.builder("impact.stream.rejected.lines")
+                .description("Streamed lines that could not be parsed")
+                .register(meterRegistry);
+        Gauge.builder("impact.stream.connections", connections,
+                        semaphore -> config.getMaxConnections() - semaphore.availablePermits())
+                .description("Open telemetry streams")
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        streamScheduler.dispose();
+    }
+
+    /**
+     * Ingests an NDJSON stream of {@link ImpactMetricRequest} objects until the client closes it.
+     *
+     * @return the ingest summary, or empty when the connection limit is reached
+     */
+    public Optional<StreamIngestResponse> ingest(InputStream body) {
+        if (!connections.tryAcquire()) {
+            return Optional.empty();
+        }
+
+        try {
+            StreamTally tally = new StreamTally(config.getMaxReportedErrors());
+            LineReader lines = new LineReader(
+                    new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8)), config.getMaxLineLength());
+
+            // generate reads one line per request, so nothing is read beyond the downstream demand
+            Flux<StreamedReading> readings = Flux.<StreamedReading>generate(sink -> {
+                try {
+                    Line line;
+                    while ((line = lines.next()) != null) {
+                        StreamedReading reading = parse(line, tally);
+                        if (reading != null) {
+                            sink.next(reading);
+                            return;
+                        }
+                    }
+                    sink.complete();
+                } catch (IOException e) {
+                    sink.error(e);
+                }
+            }).subscribeOn(streamScheduler);
+
+            ingestBatches(readings)
+                    .doOnNext(tally::add)
+                    .onErrorResume(error -> {
+                        log.warn("Telemetry stream ended with error after {} lines: {}",
+                                tally.linesReceived, error.getMessage());
+                        tally.error("stream", error.getMessage());
+                        return Mono.empty();
+                    })
+                    .blockLast();
+
+            log.info("Telemetry stream completed: {} lines, {} created, {} duplicates, {} failed",
+                    tally.linesReceived, tally.created, tally.duplicates, tally.failed);
+            return Optional.of(tally.toResponse());
+
+        } finally {
+            connections.release();
+        }
+    }
+
+    /**
+     * Writes readings in micro-batches of {@code batch-size}, or whatever arrived within
+     * {@code batch-max-wait}. Only one batch is written at a time per channel and at most
+     * {@code connection-credit} readings are requested ahead of it.
+     */
+    public Flux<StreamedBatch> ingestBatches(Flux<StreamedReading> readings) {
+        int prefetch = Math.max(1, config.getConnectionCredit() / config.getBatchSize() - 1);
+
+        return readings
+                .doOnNext(reading -> readingsReceived.increment())
+                .bufferTimeout(config.getBatchSize(), config.getBatchMaxWait(), true)
+                .concatMap(batch -> Mono.fromCallable(() -> write(batch))
+                        .subscribeOn(Schedulers.boundedElastic()), prefetch);
+    }
+
+    private StreamedBatch write(List<StreamedReading> batch) {
+        List<ImpactMetricRequest> requests = batch.stream().map(StreamedReading::request).toList();
+        try {
+            return new StreamedBatch(batch, impactMetricService.createMetrics(requests));
+        } catch (Exception e) {
+            // A failed write fails its batch only, the channel keeps going
+            log.error("Failed to write micro-batch of {} streamed readings: {}", batch.size(), e.getMessage(), e);
+            return new StreamedBatch(batch, ImpactMetricBatchResponse.builder()
+                    .totalReceived(batch.size())
+                    .createdCount(0)
+                    .duplicateCount(0)
+                    .failedCount(batch.size())
+                    .results(IntStream.range(0, batch.size())
+                            .mapToObj(i -> ImpactMetricBatchItemResult.builder()
+                                    .index(i)
+                                    .status(ImpactMetricBatchItemResult.STATUS_FAILED)
+                                    .error(e.getMessage())
+                                    .build())
+                            .toList())
+                    .build());
+        }
+    }
+
+    private StreamedReading parse(Line line, StreamTally tally) {
+        if (!line.truncated() && line.text().isBlank()) {
+            return null;
+        }
+        tally.linesReceived++;
+        String origin = "line " + line.number();
+
+        if (line.truncated()) {
+            linesRejected.increment();
+            tally.failed++;
+            tally.error(origin, "Line exceeds " + config.getMaxLineLength() + " characters");
+            return null;
+        }
+        try {
+            return new StreamedReading(origin, objectMapper.readValue(line.text(), ImpactMetricRequest.class));
+        } catch (JsonProcessingException e) {
+            linesRejected.increment();
+            tally.failed++;
+            tally.error(origin, "Malformed JSON: " + e.getOriginalMessage());
+            return null;
+        }
+    }
+
+    private record Line(long number, String text, boolean truncated) {
+    }
+
+    /**
+     * Reads lines of bounded length; the remainder of an over-long line is skipped.
+     */
+    private static final class LineReader {
+        private final BufferedReader reader;
+        private final int maxLength;
+        private long lineNumber;
+
+        LineReader(BufferedReader reader, int maxLength) {
+            this.reader = reader;
+            this.maxLength = maxLength;
+        }
+
+        Line next() throws IOException {
+            StringBuilder text = new StringBuilder();
+            boolean truncated = false;
+            int c;
+            while ((c = reader.read()) != -1 && c != '\n') {
+                if (text.length() < maxLength) {
+                    text.append((char) c);
+                } else {
+                    truncated = true;
+                }
+            }
+            if (c == -1 && text.isEmpty() && !truncated) {
+                return null;
+            }
+            return new Line(++lineNumber, text.toString(), truncated);
+        }
+    }
+
+    /**
+     * Counts of one stream. Lines are counted by the reader, batch results by the writer; both
+     * run one at a time, and the totals are read after the stream has completed.
+     */
+    private static final class StreamTally {
+        private final int maxErrors;
+        private final List<String> errors = new ArrayList<>();
+        private long linesReceived;
+        private long created;
+        private long duplicates;
+        private long failed;
+        private long batches;
+
+        StreamTally(int maxErrors) {
+            this.maxErrors = maxErrors;
+        }
+
+        synchronized void add(StreamedBatch batch) {
+            ImpactMetricBatchResponse response = batch.response();
+            batches++;
+            created += response.getCreatedCount();
+            duplicates += response.getDuplicateCount();
+            failed += response.getFailedCount();
+            for (ImpactMetricBatchItemResult result : response.getResults()) {
+                if (ImpactMetricBatchItemResult.STATUS_FAILED.equals(result.getStatus())) {
+                    error(batch.readings().get(result.getIndex()).origin(), result.getError());
+                }
+            }
+        }
+
+        synchronized void error(String origin, String message) {
+            if (errors.size() < maxErrors) {
+                errors.add(origin + ": " + message);
+            }
+        }
+
+        synchronized StreamIngestResponse toResponse() {
+            return StreamIngestResponse.builder()
+                    .linesReceived(linesReceived)
+                    .createdCount(created)
+                    .duplicateCount(duplicates)
+                    .failedCount(failed)
+                    .batchCount(batches)
+                    .errors(List.copyOf(errors))
+                    .build();
+        }
+    }
+}
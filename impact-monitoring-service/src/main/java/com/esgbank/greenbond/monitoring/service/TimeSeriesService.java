@@ -5,61 +5,147 @@ import com.esgbank.greenbond.monitoring.dto.MetricAggregationResponse;
 import com.esgbank.greenbond.monitoring.dto.TimeSeriesPoint;
 import com.esgbank.greenbond.monitoring.model.ImpactMetric;
 import com.esgbank.greenbond.monitoring.model.enums.MetricType;
+import com.esgbank.greenbond.monitoring.service.MetricRollupService.PeriodTotals;
+import com.esgbank.greenbond.monitoring.util.StreamingStatistics;
 import com.influxdb.client.InfluxDBClient;
-import com.influxdb.client.WriteApi;
-import com.influxdb.client.WriteApiBlocking;
 import com.influxdb.client.domain.WritePrecision;
 import com.influxdb.client.write.Point;
 import com.influxdb.query.FluxRecord;
 import com.influxdb.query.FluxTable;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
 import java.math.BigDecimal;
 import java.time.Instant;
 import java.time.LocalDateTime;
-import java.time.ZoneId;
 import java.time.ZoneOffset;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
-
+import java.util.stream.Collectors;
+
+/**
+ * Time series of impact metrics in InfluxDB.
+ * <p>
+ * Points are written through the {@link InfluxWritePipeline}. Metrics whose points it rejects, e.g.
+ * while the spool is out of disk budget, are flagged {@code timeSeriesPending} in MongoDB and
+ * re-exported by a scheduled job, one instance at a time under a job lease.
+ */
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class TimeSeriesService {
 
+    static final String REEXPORT_JOB = "time-series-reexport";
+
     private final InfluxDBClient influxDBClient;
     private final com.esgbank.greenbond.monitoring.config.InfluxDBProperties influxDBProperties;
+    private final InfluxWritePipeline writePipeline;
+    private final MongoTemplate mongoTemplate;
+    private final JobLeaseStore leaseStore;
+
+    /**
+     * One aggregation window of one bond.
+     */
+    public record BondWindow(String bondId, LocalDateTime timestamp, double value, long count) {
+    }
+
+    /**
+     * Totals of one series over a queried period.
+     */
+    public record SeriesTotals(String bondId, MetricType metricType, PeriodTotals totals) {
+    }
 
     public void storeMetricInTimeSeries(ImpactMetric metric) {
         log.debug("Storing metric in time series: {}", metric.getMetricId());
 
-        try (WriteApi writeApi = influxDBClient.getWriteApi()) {
-            Point point = Point.measurement("impact_metrics")
-                    .addTag("bond_id", metric.getBondId())
-                    .addTag("project_id", metric.getProjectId())
-                    .addTag("metric_type", metric.getMetricType().name())
-                    .addTag("source_type", metric.getSourceType().name())
-                    .addTag("device_id", metric.getDeviceId())
-                    .addTag("location", metric.getLocation())
-                    .addField("value", metric.getValue().doubleValue())
-                    .addField("confidence_score", metric.getDataQuality().getConfidenceScore())
-                    .time(metric.getTimestamp().toInstant(ZoneOffset.UTC), WritePrecision.MS);
-
-            writeApi.writePoint(influxDBProperties.getBucket(), influxDBProperties.getOrg(), point);
+        try {
+            writePipeline.enqueue(List.of(toPoint(metric).toLineProtocol()));
 
-            log.debug("Metric stored in time series successfully: {}", metric.getMetricId());
+            log.debug("Metric queued for time series storage: {}", metric.getMetricId());
 
         } catch (Exception e) {
             log.error("Failed to store metric in time series: {}. Error: {}",
                     metric.getMetricId(), e.getMessage(), e);
+            flagPending(List.of(metric));
+            throw new RuntimeException("Time series storage failed", e);
+        }
+    }
+
+    public void storeMetricsInTimeSeries(List<ImpactMetric> metrics) {
+        if (metrics.isEmpty()) {
+            return;
+        }
+
+        log.debug("Storing {} metrics in time series", metrics.size());
+
+        try {
+            // Batching and retries are handled by the shared write pipeline
+            List<String> records = metrics.stream().map(metric -> toPoint(metric).toLineProtocol()).toList();
+            writePipeline.enqueue(records);
+
+            log.debug("{} metrics queued for time series storage", metrics.size());
+
+        } catch (Exception e) {
+            log.error("Failed to store {} metrics in time series. Error: {}", metrics.size(), e.getMessage(), e);
+            flagPending(metrics);
             throw new RuntimeException("Time series storage failed", e);
         }
     }
 
+    /**
+     * Enqueues the points of metrics flagged {@code timeSeriesPending} and clears the flag, batch by
+     * batch, until none are left or the pipeline rejects a batch again.
+     */
+    @Scheduled(fixedDelayString = "${app.influxdb.reexport-interval:60000}")
+    public void reexportPendingMetrics() {
+        if (!leaseStore.acquire(REEXPORT_JOB, influxDBProperties.getReexportLeaseTtl())) {
+            return;
+        }
+
+        int exported = 0;
+        try {
+            Query query = Query.query(Criteria.where("timeSeriesPending").is(true))
+                    .limit(influxDBProperties.getBatchSize());
+            List<ImpactMetric> metrics;
+            while (!(metrics = mongoTemplate.find(query, ImpactMetric.class)).isEmpty()) {
+                writePipeline.enqueue(metrics.stream().map(metric -> toPoint(metric).toLineProtocol()).toList());
+                mongoTemplate.updateMulti(byMetricIds(metrics), new Update().unset("timeSeriesPending"),
+                        ImpactMetric.class);
+                exported += metrics.size();
+            }
+        } catch (Exception e) {
+            log.warn("Time series re-export stopped after {} metrics: {}", exported, e.getMessage());
+        } finally {
+            leaseStore.release(REEXPORT_JOB);
+        }
+        if (exported > 0) {
+            log.info("Re-exported {} metrics to time series", exported);
+        }
+    }
+
+    private void flagPending(List<ImpactMetric> metrics) {
+        try {
+            mongoTemplate.updateMulti(byMetricIds(metrics), Update.update("timeSeriesPending", true),
+                    ImpactMetric.class);
+        } catch (Exception e) {
+            log.error("Failed to flag {} metrics for time series re-export: {}", metrics.size(), e.getMessage());
+        }
+    }
+
+    private static Query byMetricIds(List<ImpactMetric> metrics) {
+        return Query.query(Criteria.where("metricId").in(metrics.stream().map(ImpactMetric::getMetricId).toList()));
+    }
+
     public MetricAggregationResponse calculateAggregation(MetricAggregationRequest request) {
         log.debug("Calculating aggregation for bond: {}, metric: {}",
                 request.getBondId(), request.getMetricType());
@@ -69,7 +155,8 @@ public class TimeSeriesService {
         try {
             List<FluxTable> tables = influxDBClient.getQueryApi().query(fluxQuery, influxDBProperties.getOrg());
 
-            return parseAggregationResults(tables, request);
+            return parseAggregationResults(tables.stream().flatMap(table -> table.getRecords().stream()).toList(),
+                    request);
 
         } catch (Exception e) {
             log.error("Aggregation query failed for bond: {}. Error: {}",
@@ -78,44 +165,89 @@ public class TimeSeriesService {
         }
     }
 
-    public Map<MetricType, BigDecimal> getBondMetricsSummary(String bondId) {
-        log.debug("Getting metrics summary for bond: {}", bondId);
+    /**
+     * Same as {@link #calculateAggregation} over the asynchronous query API: records are streamed
+     * on the InfluxDB client's HTTP threads and no caller thread waits for the response.
+     */
+    public Mono<MetricAggregationResponse> calculateAggregationAsync(MetricAggregationRequest request) {
+        log.debug("Calculating aggregation asynchronously for bond: {}, metric: {}",
+                request.getBondId(), request.getMetricType());
 
-        Map<MetricType, BigDecimal> summary = new HashMap<>();
+        String fluxQuery = buildAggregationQuery(request);
 
-        // Query for each metric type
-        String fluxQuery = String.format(
-                "from(bucket:\"%s\") " +
-                        "|> range(start: -1y) " +
-                        "|> filter(fn: (r) => r._measurement == \"impact_metrics\") " +
-                        "|> filter(fn: (r) => r.bond_id == \"%s\") " +
-                        "|> group(columns: [\"metric_type\"]) " +
-                        "|> sum()",
-                influxDBProperties.getBucket(), bondId);
+        return Flux.<FluxRecord>create(sink -> influxDBClient.getQueryApi().query(fluxQuery, influxDBProperties.getOrg(),
+                        (cancellable, record) -> {
+                            if (sink.isCancelled()) {
+                                cancellable.cancel();
+                            } else {
+                                sink.next(record);
+                            }
+                        },
+                        sink::error,
+                        sink::complete))
+                .collectList()
+                .map(records -> parseAggregationResults(records, request))
+                .onErrorMap(e -> {
+                    log.error("Aggregation query failed for bond: {}. Error: {}",
+                            request.getBondId(), e.getMessage(), e);
+                    return new RuntimeException("Aggregation calculation failed", e);
+                });
+    }
 
-        try {
-            List<FluxTable> tables = influxDBClient.getQueryApi().query(fluxQuery, influxDBProperties.getOrg());
+    /**
+     * Runs one grouped Flux query for a set of bonds and returns every window of every bond with
+     * its aggregated value and raw point count.
+     */
+    public List<BondWindow> queryBondWindows(MetricType metricType, Collection<String> bondIds,
+                                             LocalDateTime start, LocalDateTime end, String interval, String function) {
+        String fluxQuery = buildBondWindowsQuery(metricType, bondIds, start, end, interval, function);
+        List<BondWindow> windows = new ArrayList<>();
 
-            for (FluxTable table : tables) {
-                for (FluxRecord record : table.getRecords()) {
-                    String metricTypeStr = record.getValueByKey("metric_type").toString();
-                    Double sumValue = (Double) record.getValue();
+        for (FluxTable table : influxDBClient.getQueryApi().query(fluxQuery, influxDBProperties.getOrg())) {
+            for (FluxRecord record : table.getRecords()) {
+                if (record.getValueByKey("agg") instanceof Number value
+                        && record.getValueByKey("n") instanceof Number count) {
+                    windows.add(new BondWindow(
+                            (String) record.getValueByKey("bond_id"),
+                            LocalDateTime.ofInstant((Instant) record.getValueByKey("_time"), ZoneOffset.UTC),
+                            value.doubleValue(),
+                            count.longValue()));
+                }
+            }
+        }
+        return windows;
+    }
 
+    /**
+     * Runs one Flux query grouped by bond and metric type over all bonds and returns the totals of
+     * every series of the given metric types with points in [start, end).
+     */
+    public List<SeriesTotals> querySeriesTotals(Collection<MetricType> metricTypes,
+                                                LocalDateTime start, LocalDateTime end) {
+        String fluxQuery = buildSeriesTotalsQuery(metricTypes, start, end);
+        List<SeriesTotals> totals = new ArrayList<>();
+
+        for (FluxTable table : influxDBClient.getQueryApi().query(fluxQuery, influxDBProperties.getOrg())) {
+            for (FluxRecord record : table.getRecords()) {
+                if (record.getValueByKey("n") instanceof Number count
+                        && record.getValueByKey("sum") instanceof Number sum
+                        && record.getValueByKey("min") instanceof Number min
+                        && record.getValueByKey("max") instanceof Number max) {
+                    MetricType metricType;
                     try {
-                        MetricType metricType = MetricType.valueOf(metricTypeStr);
-                        summary.put(metricType, BigDecimal.valueOf(sumValue));
-                    } catch (IllegalArgumentException e) {
-                        log.warn("Unknown metric type in time series: {}", metricTypeStr);
+                        metricType = MetricType.valueOf((String) record.getValueByKey("metric_type"));
+                    } catch (IllegalArgumentException | NullPointerException e) {
+                        continue;
                     }
+                    totals.add(new SeriesTotals(
+                            (String) record.getValueByKey("bond_id"),
+                            metricType,
+                            new PeriodTotals(count.longValue(), sum.doubleValue(), min.doubleValue(),
+                                    max.doubleValue())));
                 }
             }
-
-            return summary;
-
-        } catch (Exception e) {
-            log.error("Metrics summary query failed for bond: {}. Error: {}", bondId, e.getMessage(), e);
-            throw new RuntimeException("Metrics summary calculation failed", e);
         }
+        return totals;
     }
 
     public void deleteMetricFromTimeSeries(ImpactMetric metric) {
@@ -126,6 +258,33 @@ public class TimeSeriesService {
         log.warn("Time series deletion not implemented for metric: {}", metric.getMetricId());
     }
 
+    /**
+     * Deletes every point of a bond with a timestamp in [start, end), once its metrics are archived.
+     */
+    public void deleteRange(String bondId, LocalDateTime start, LocalDateTime end) {
+        String predicate = "_measurement=\"impact_metrics\" AND bond_id=" + quoted(bondId);
+        influxDBClient.getDeleteApi().delete(
+                start.atOffset(ZoneOffset.UTC),
+                end.minusNanos(1_000_000).atOffset(ZoneOffset.UTC),
+                predicate,
+                influxDBProperties.getBucket(),
+                influxDBProperties.getOrg());
+        log.debug("Deleted time series points of bond {} from {} to {}", bondId, start, end);
+    }
+
+    private Point toPoint(ImpactMetric metric) {
+        return Point.measurement("impact_metrics")
+                .addTag("bond_id", metric.getBondId())
+                .addTag("project_id", metric.getProjectId())
+                .addTag("metric_type", metric.getMetricType().name())
+                .addTag("source_type", metric.getSourceType().name())
+                .addTag("device_id", metric.getDeviceId())
+                .addTag("location", metric.getLocation())
+                .addField("value", metric.getValue().doubleValue())
+                .addField("confidence_score", metric.getDataQuality().getConfidenceScore())
+                .time(metric.getTimestamp().toInstant(ZoneOffset.UTC), WritePrecision.MS);
+    }
+
     private String buildAggregationQuery(MetricAggregationRequest request) {
         String rangeStart = request.getStartTime().toInstant(ZoneOffset.UTC).toString();
         String rangeStop = request.getEndTime().toInstant(ZoneOffset.UTC).toString();
@@ -137,16 +296,69 @@ public class TimeSeriesService {
         return String.format(
                 "from(bucket:\"%s\") " +
                         "|> range(start: %s, stop: %s) " +
-                        "|> filter(fn: (r) => r._measurement == \"impact_metrics\") " +
-                        "|> filter(fn: (r) => r.bond_id == \"%s\") " +
+                        "|> filter(fn: (r) => r._measurement == \"impact_metrics\" and r._field == \"value\") " +
+                        "|> filter(fn: (r) => r.bond_id == %s) " +
                         "|> filter(fn: (r) => r.metric_type == \"%s\") " +
-                        "|> aggregateWindow(every: %s, fn: %s, createEmpty: false) " +
+                        "|> aggregateWindow(every: %s, fn: %s, timeSrc: \"_start\", createEmpty: false) " +
                         "|> yield(name: \"aggregated\")",
                 influxDBProperties.getBucket(), rangeStart, rangeStop,
-                request.getBondId(), request.getMetricType().name(), interval, aggregation);
+                quoted(request.getBondId()), request.getMetricType().name(), interval, aggregation);
+    }
+
+    // Value and point count per window, pivoted into one row per bond and window
+    private String buildBondWindowsQuery(MetricType metricType, Collection<String> bondIds,
+                                         LocalDateTime start, LocalDateTime end, String interval, String function) {
+        String bondSet = bondIds.stream()
+                .map(TimeSeriesService::quoted)
+                .collect(Collectors.joining(", ", "[", "]"));
+
+        return String.format(
+                "data = from(bucket:\"%s\") " +
+                        "|> range(start: %s, stop: %s) " +
+                        "|> filter(fn: (r) => r._measurement == \"impact_metrics\" and r._field == \"value\") " +
+                        "|> filter(fn: (r) => r.metric_type == \"%s\") " +
+                        "|> filter(fn: (r) => contains(value: r.bond_id, set: %s)) " +
+                        "|> group(columns: [\"bond_id\"]) " +
+                        "agg = data |> aggregateWindow(every: %s, fn: %s, timeSrc: \"_start\", createEmpty: false) " +
+                        "|> toFloat() |> set(key: \"_field\", value: \"agg\") " +
+                        "n = data |> aggregateWindow(every: %s, fn: count, timeSrc: \"_start\", createEmpty: false) " +
+                        "|> toFloat() |> set(key: \"_field\", value: \"n\") " +
+                        "union(tables: [agg, n]) " +
+                        "|> pivot(rowKey: [\"_time\"], columnKey: [\"_field\"], valueColumn: \"_value\")",
+                influxDBProperties.getBucket(),
+                start.toInstant(ZoneOffset.UTC), end.toInstant(ZoneOffset.UTC),
+                metricType.name(), bondSet, interval, function, interval);
     }
 
-    private MetricAggregationResponse parseAggregationResults(List<FluxTable> tables, MetricAggregationRequest request) {
+    // Sum, count, min and max per series, pivoted into one row per (bond_id, metric_type)
+    private String buildSeriesTotalsQuery(Collection<MetricType> metricTypes, LocalDateTime start, LocalDateTime end) {
+        String typeSet = metricTypes.stream()
+                .map(metricType -> "\"" + metricType.name() + "\"")
+                .collect(Collectors.joining(", ", "[", "]"));
+
+        return String.format(
+                "data = from(bucket:\"%s\") " +
+                        "|> range(start: %s, stop: %s) " +
+                        "|> filter(fn: (r) => r._measurement == \"impact_metrics\" and r._field == \"value\") " +
+                        "|> filter(fn: (r) => contains(value: r.metric_type, set: %s)) " +
+                        "|> group(columns: [\"bond_id\", \"metric_type\"]) " +
+                        "s = data |> sum() |> toFloat() |> set(key: \"_field\", value: \"sum\") " +
+                        "n = data |> count() |> toFloat() |> set(key: \"_field\", value: \"n\") " +
+                        "lo = data |> min() |> toFloat() |> set(key: \"_field\", value: \"min\") " +
+                        "hi = data |> max() |> toFloat() |> set(key: \"_field\", value: \"max\") " +
+                        "union(tables: [s, n, lo, hi]) " +
+                        "|> keep(columns: [\"bond_id\", \"metric_type\", \"_field\", \"_value\"]) " +
+                        "|> pivot(rowKey: [\"bond_id\", \"metric_type\"], columnKey: [\"_field\"], valueColumn: \"_value\")",
+                influxDBProperties.getBucket(),
+                start.toInstant(ZoneOffset.UTC), end.toInstant(ZoneOffset.UTC), typeSet);
+    }
+
+    // Double-quoted string literal for Flux queries and delete predicates
+    private static String quoted(String value) {
+        return "\"" + value.replace("\\", "\\\\").replace("\"", "\\\"") + "\"";
+    }
+
+    private MetricAggregationResponse parseAggregationResults(List<FluxRecord> records, MetricAggregationRequest request) {
         MetricAggregationResponse response = MetricAggregationResponse.builder()
                 .bondId(request.getBondId())
                 .projectId(request.getProjectId())
@@ -159,63 +371,24 @@ public class TimeSeriesService {
                 .statistics(new HashMap<>())
                 .build();
 
-        BigDecimal total = BigDecimal.ZERO;
-        BigDecimal min = null;
-        BigDecimal max = null;
-        int count = 0;
+        // One pass over primitive values; BigDecimal is only created for the returned points
+        StreamingStatistics stats = new StreamingStatistics();
 
-        for (FluxTable table : tables) {
-            for (FluxRecord record : table.getRecords()) {
-                Double value = (Double) record.getValue();
-                Instant time = (Instant) record.getValueByKey("_time");
+        for (FluxRecord record : records) {
+            if (record.getValue() instanceof Number number) {
+                double value = number.doubleValue();
+                stats.add(value);
 
-                if (value != null) {
-                    BigDecimal decimalValue = BigDecimal.valueOf(value);
-
-                    // Update statistics
-                    total = total.add(decimalValue);
-                    if (min == null || decimalValue.compareTo(min) < 0) min = decimalValue;
-                    if (max == null || decimalValue.compareTo(max) > 0) max = decimalValue;
-                    count++;
-
-                    // Add to time series
-                    LocalDateTime timestamp = LocalDateTime.ofInstant(time, ZoneId.systemDefault());
-                    response.getTimeSeries().add(TimeSeriesPoint.builder()
-                            .timestamp(timestamp)
-                            .value(decimalValue)
-                            .count(1)
-                            .build());
-                }
+                Instant time = (Instant) record.getValueByKey("_time");
+                response.getTimeSeries().add(TimeSeriesPoint.builder()
+                        .timestamp(LocalDateTime.ofInstant(time, ZoneOffset.UTC))
+                        .value(BigDecimal.valueOf(value))
+                        .count(1)
+                        .build());
             }
         }
 
-        // Calculate final statistics
-        response.setTotalValue(total);
-        response.setMinValue(min != null ? min : BigDecimal.ZERO);
-        response.setMaxValue(max != null ? max : BigDecimal.ZERO);
-        response.setDataPointCount(count);
-        response.setAverageValue(count > 0 ? total.divide(BigDecimal.valueOf(count), 4, RoundingMode.HALF_UP) : BigDecimal.ZERO);
-
-        response.getStatistics().put("variance", calculateVariance(response.getTimeSeries(), response.getAverageValue()));
-        response.getStatistics().put("standardDeviation", calculateStandardDeviation(response.getTimeSeries(), response.getAverageValue()));
-
+        AggregationStatistics.apply(response, stats);
         return response;
     }
-
-    private BigDecimal calculateVariance(List<TimeSeriesPoint> timeSeries, BigDecimal mean) {
-        if (timeSeries.size() <= 1) return BigDecimal.ZERO;
-
-        BigDecimal sumSquaredDifferences = BigDecimal.ZERO;
-        for (TimeSeriesPoint point : timeSeries) {
-            BigDecimal difference = point.getValue().subtract(mean);
-            sumSquaredDifferences = sumSquaredDifferences.add(difference.pow(2));
-        }
-
-        return sumSquaredDifferences.divide(BigDecimal.valueOf(timeSeries.size() - 1), 4, RoundingMode.HALF_UP);
-    }
-
-    private BigDecimal calculateStandardDeviation(List<TimeSeriesPoint> timeSeries, BigDecimal mean) {
-        BigDecimal variance = calculateVariance(timeSeries, mean);
-        return BigDecimal.valueOf(Math.sqrt(variance.doubleValue()));
-    }
-}
\ No newline at end of file
+}
@@ -0,0 +1,443 @@
+package com.esgbank.greenbond.monitoring.service;
+
+import com.esgbank.greenbond.monitoring.config.InfluxDBProperties;
+import com.esgbank.greenbond.monitoring.exception.ImpactMonitoringException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Durable write-ahead spool for line-protocol records bound for InfluxDB.
+ * <p>
+ * Records are appended to fixed-size memory-mapped segment files as {@code [length][crc32][payload]}.
+ * A checkpoint file holds the position up to which records have been acknowledged by InfluxDB;
+ * fully acknowledged segments are deleted. Disk usage is bounded by {@code max-segments}, after
+ * which appends are rejected. On startup the spool resumes from the checkpoint and truncates any
+ * torn record at the tail.
+ */
+@Slf4j
+@Service
+public class TimeSeriesSpool {
+
+    private static final int HEADER_SIZE = 8;
+    private static final String SEGMENT_SUFFIX = ".seg";
+    private static final String CHECKPOINT_FILE = "checkpoint";
+
+    private final Path directory;
+    private final int segmentSize;
+    private final int maxSegments;
+
+    private final Counter recordsAppended;
+    private final Counter recordsRejected;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition recordsAvailable = lock.newCondition();
+    private final NavigableMap<Long, MappedByteBuffer> segments = new TreeMap<>();
+
+    private long writeSegment;
+    private int writeOffset;
+    private long readSegment;
+    private int readOffset;
+    private long pendingRecords;
+    private boolean open;
+
+    public TimeSeriesSpool(InfluxDBProperties properties, MeterRegistry meterRegistry) {
+        InfluxDBProperties.Spool spool = properties.getSpool();
+        this.directory = Paths.get(spool.getDirectory());
+        this.segmentSize = spool.getSegmentSize();
+        this.maxSegments = spool.getMaxSegments();
+
+        this.recordsAppended = Counter.builder("impact.spool.records")
+                .tag("result", "appended")
+                .description("Records appended to the time series spool")
+                .register(meterRegistry);
+        this.recordsRejected = Counter.builder("impact.spool.records")
+                .tag("result", "rejected")
+                .description("Records rejected because the time series spool was full")
+                .register(meterRegistry);
+        Gauge.builder("impact.spool.pending.records", this, TimeSeriesSpool::getPendingRecords)
+                .description("Records spooled but not yet acknowledged by InfluxDB")
+                .register(meterRegistry);
+        Gauge.builder("impact.spool.pending.bytes", this, TimeSeriesSpool::getPendingBytes)
+                .baseUnit("bytes")
+                .description("Spool bytes not yet acknowledged by InfluxDB")
+                .register(meterRegistry);
+        Gauge.builder("impact.spool.segments", this, TimeSeriesSpool::getSegmentCount)
+                .description("Segment files currently held by the time series spool")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void open() {
+        lock.lock();
+        try {
+            Files.createDirectories(directory);
+            try (Stream<Path> files = Files.list(directory)) {
+                for (Path file : files.filter(f -> f.getFileName().toString().endsWith(SEGMENT_SUFFIX)).toList()) {
+                    String name = file.getFileName().toString();
+                    segments.put(Long.parseLong(name.substring(0, name.length() - SEGMENT_SUFFIX.length())), map(file));
+                }
+            }
+
+            readCheckpoint();
+
+            // Segments behind the checkpoint were acknowledged before the last shutdown
+            while (!segments.isEmpty() && segments.firstKey() < readSegment) {
+                deleteSegment(segments.firstKey());
+            }
+            if (segments.isEmpty()) {
+                segments.put(readSegment, map(segmentPath(readSegment)));
+                readOffset = 0;
+            } else if (segments.firstKey() > readSegment) {
+                readSegment = segments.firstKey();
+                readOffset = 0;
+            }
+
+            recover();
+            open = true;
+
+            log.info("Time series spool opened at {}: {} segments, {} pending records",
+                    directory, segments.size(), pendingRecords);
+
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to open time series spool at " + directory, e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Appends records atomically: either all of them are spooled or, when the disk budget would
+     * be exceeded, none are and the call fails.
+     */
+    public void append(List<String> records) {
+        List<byte[]> payloads = records.stream().map(r -> r.getBytes(StandardCharsets.UTF_8)).toList();
+
+        lock.lock();
+        try {
+            if (!open) {
+                throw new ImpactMonitoringException("TIME_SERIES_UNAVAILABLE", "Time series spool is closed");
+            }
+            ensureCapacity(payloads);
+
+            for (byte[] payload : payloads) {
+                if (writeOffset + HEADER_SIZE + payload.length + HEADER_SIZE > segmentSize) {
+                    rollSegment();
+                }
+                writeRecord(segments.get(writeSegment), writeOffset, payload);
+                writeOffset += HEADER_SIZE + payload.length;
+            }
+
+            pendingRecords += payloads.size();
+            recordsAppended.increment(payloads.size());
+            recordsAvailable.signalAll();
+
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Reads up to {@code maxRecords} records from the acknowledged position without consuming them.
+     * Pass the result to {@link #commit(SpoolBatch)} once InfluxDB has accepted it.
+     */
+    public SpoolBatch read(int maxRecords) {
+        lock.lock();
+        try {
+            List<String> records = new ArrayList<>(Math.min(maxRecords, (int) Math.min(pendingRecords, Integer.MAX_VALUE)));
+            long segment = readSegment;
+            int offset = readOffset;
+
+            while (records.size() < maxRecords) {
+                byte[] payload = readRecord(segments.get(segment), offset);
+                if (payload != null) {
+                    records.add(new String(payload, StandardCharsets.UTF_8));
+                    offset += HEADER_SIZE + payload.length;
+                } else if (segment < writeSegment) {
+                    segment++;
+                    offset = 0;
+                } else {
+                    break;
+                }
+            }
+
+            return new SpoolBatch(records, segment, offset);
+
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Advances the checkpoint past the given batch and removes segments that are fully acknowledged.
+     */
+    public void commit(SpoolBatch batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        lock.lock();
+        try {
+            readSegment = batch.getSegment();
+            readOffset = batch.getOffset();
+            pendingRecords -= batch.size();
+
+            while (segments.firstKey() < readSegment) {
+                deleteSegment(segments.firstKey());
+            }
+            writeCheckpoint();
+
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to checkpoint time series spool", e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Waits until at least {@code minRecords} are pending or the timeout elapses.
+     */
+    public long awaitRecords(int minRecords, long timeoutMillis) throws InterruptedException {
+        lock.lock();
+        try {
+            long remaining = TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+            while (pendingRecords < minRecords && remaining > 0) {
+                remaining = recordsAvailable.awaitNanos(remaining);
+            }
+            return pendingRecords;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long getPendingRecords() {
+        lock.lock();
+        try {
+            return pendingRecords;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long getPendingBytes() {
+        lock.lock();
+        try {
+            return (writeSegment - readSegment) * segmentSize + writeOffset - readOffset;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getSegmentCount() {
+        lock.lock();
+        try {
+            return segments.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        lock.lock();
+        try {
+            if (!open) {
+                return;
+            }
+            open = false;
+            segments.values().forEach(MappedByteBuffer::force);
+            writeCheckpoint();
+            log.info("Time series spool closed with {} pending records", pendingRecords);
+        } catch (IOException e) {
+            log.error("Failed to checkpoint time series spool on close: {}", e.getMessage(), e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void ensureCapacity(List<byte[]> payloads) {
+        int segmentCount = segments.size();
+        int offset = writeOffset;
+
+        for (byte[] payload : payloads) {
+            int recordSize = HEADER_SIZE + payload.length;
+            if (recordSize + HEADER_SIZE > segmentSize) {
+                recordsRejected.increment(payloads.size());
+                throw new ImpactMonitoringException("TIME_SERIES_RECORD_TOO_LARGE",
+                        "Time series record exceeds spool segment size");
+            }
+            if (offset + recordSize + HEADER_SIZE > segmentSize) {
+                segmentCount++;
+                offset = 0;
+            }
+            offset += recordSize;
+        }
+
+        if (segmentCount > maxSegments) {
+            recordsRejected.increment(payloads.size());
+            throw new ImpactMonitoringException("TIME_SERIES_SPOOL_FULL",
+                    "Time series spool is full, InfluxDB has not accepted writes for too long");
+        }
+    }
+
+    /**
+     * Scans pending records from the checkpoint to find the write position, stopping at the first
+     * torn or corrupt record in the last segment.
+     */
+    private void recover() {
+        pendingRecords = 0;
+        long lastSegment = segments.lastKey();
+
+        for (long segment = readSegment; segment <= lastSegment; segment++) {
+            MappedByteBuffer buffer = segments.get(segment);
+            if (buffer == null) {
+                continue;
+            }
+
+            int offset = segment == readSegment ? readOffset : 0;
+            byte[] payload;
+            while ((payload = readRecord(buffer, offset)) != null) {
+                pendingRecords++;
+                offset += HEADER_SIZE + payload.length;
+            }
+
+            if (segment == lastSegment) {
+                writeSegment = segment;
+                writeOffset = offset;
+                if (offset + HEADER_SIZE <= segmentSize) {
+                    buffer.putInt(offset, 0);
+                }
+            }
+        }
+    }
+
+    private void rollSegment() {
+        segments.get(writeSegment).force();
+        writeSegment++;
+        writeOffset = 0;
+        try {
+            segments.put(writeSegment, map(segmentPath(writeSegment)));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to create spool segment " + writeSegment, e);
+        }
+    }
+
+    private void writeRecord(ByteBuffer buffer, int offset, byte[] payload) {
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+
+        buffer.put(offset + HEADER_SIZE, payload);
+        int next = offset + HEADER_SIZE + payload.length;
+        if (next + HEADER_SIZE <= segmentSize) {
+            buffer.putInt(next, 0);
+        }
+        buffer.putInt(offset + 4, (int) crc.getValue());
+        // Length goes last so a reader never sees a record before its payload
+        buffer.putInt(offset, payload.length);
+    }
+
+    private byte[] readRecord(ByteBuffer buffer, int offset) {
+        if (buffer == null || offset + HEADER_SIZE > segmentSize) {
+            return null;
+        }
+        int length = buffer.getInt(offset);
+        if (length <= 0 || offset + HEADER_SIZE + length > segmentSize) {
+            return null;
+        }
+
+        byte[] payload = new byte[length];
+        buffer.get(offset + HEADER_SIZE, payload);
+
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+        return (int) crc.getValue() == buffer.getInt(offset + 4) ? payload : null;
+    }
+
+    private MappedByteBuffer map(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            return channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+        }
+    }
+
+    private void deleteSegment(long segment) throws IOException {
+        segments.remove(segment);
+        Files.deleteIfExists(segmentPath(segment));
+    }
+
+    private Path segmentPath(long segment) {
+        return directory.resolve(String.format("%020d%s", segment, SEGMENT_SUFFIX));
+    }
+
+    private void readCheckpoint() throws IOException {
+        Path checkpoint = directory.resolve(CHECKPOINT_FILE);
+        if (!Files.exists(checkpoint)) {
+            readSegment = segments.isEmpty() ? 0 : segments.firstKey();
+            readOffset = 0;
+            return;
+        }
+
+        ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(checkpoint));
+        readSegment = buffer.getLong();
+        readOffset = buffer.getInt();
+    }
+
+    private void writeCheckpoint() throws IOException {
+        Path temp = directory.resolve(CHECKPOINT_FILE + ".tmp");
+        ByteBuffer buffer = ByteBuffer.allocate(Long.BYTES + Integer.BYTES)
+                .putLong(readSegment)
+                .putInt(readOffset)
+                .flip();
+
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            channel.write(buffer);
+            channel.force(true);
+        }
+        Files.move(temp, directory.resolve(CHECKPOINT_FILE),
+                StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class SpoolBatch {
+        private final List<String> records;
+        private final long segment;
+        private final int offset;
+
+        public boolean isEmpty() {
+            return records.isEmpty();
+        }
+
+        public int size() {
+            return records.size();
+        }
+    }
+}
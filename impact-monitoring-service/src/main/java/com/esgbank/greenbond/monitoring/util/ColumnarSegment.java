@@ -0,0 +1,360 @@
+package com.esgbank.greenbond.monitoring.util;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Immutable table of equally long columns, stored column by column with each column deflated
+ * on its own.
+ * <p>
+ * Long columns hold the zigzag varint of each value's delta of deltas, so timestamps at a regular
+ * cadence and slowly moving counters shrink to runs of zero bytes before compression. String
+ * columns are dictionary encoded when at most half of their values are distinct, and written
+ * as length-prefixed UTF-8 otherwise; both keep nulls. A reader can skip columns it does not
+ * need. The file ends with a CRC32 of everything before it.
+ * <p>
+ * Layout: magic, version, row count, column count; per column its name, type, encoding, raw and
+ * compressed length and the compressed bytes; then the checksum.
+ */
+public final class ColumnarSegment {
+
+    private static final int MAGIC = 0x494D5347; // "IMSG"
+    private static final byte VERSION = 1;
+    private static final byte TYPE_LONG = 1;
+    private static final byte TYPE_STRING = 2;
+    private static final byte ENCODING_DELTA = 1;
+    private static final byte ENCODING_DICTIONARY = 2;
+    private static final byte ENCODING_PLAIN = 3;
+
+    private final int rowCount;
+    private final Map<String, long[]> longColumns;
+    private final Map<String, String[]> stringColumns;
+
+    private ColumnarSegment(int rowCount, Map<String, long[]> longColumns, Map<String, String[]> stringColumns) {
+        this.rowCount = rowCount;
+        this.longColumns = longColumns;
+        this.stringColumns = stringColumns;
+    }
+
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    public boolean hasColumn(String name) {
+        return longColumns.containsKey(name) || stringColumns.containsKey(name);
+    }
+
+    public long[] getLongs(String name) {
+        long[] column = longColumns.get(name);
+        if (column == null) {
+            throw new IllegalArgumentException("No long column " + name);
+        }
+        return column;
+    }
+
+    public String[] getStrings(String name) {
+        String[] column = stringColumns.get(name);
+        if (column == null) {
+            throw new IllegalArgumentException("No string column " + name);
+        }
+        return column;
+    }
+
+    /**
+     * Reads a segment, decoding only the given columns.
+     *
+     * @param columns names of the columns to decode, or null for all
+     * @throws IOException if the segment is truncated or fails its checksum
+     */
+    public static ColumnarSegment read(InputStream in, Set<String> columns) throws IOException {
+        CheckedInputStream checked = new CheckedInputStream(in, new CRC32());
+        DataInputStream data = new DataInputStream(checked);
+
+        if (data.readInt() != MAGIC) {
+            throw new IOException("Not a columnar segment");
+        }
+        byte version = data.readByte();
+        if (version != VERSION) {
+            throw new IOException("Unsupported segment version " + version);
+        }
+        int rowCount = data.readInt();
+        int columnCount = data.readInt();
+
+        Map<String, long[]> longColumns = new HashMap<>();
+        Map<String, String[]> stringColumns = new HashMap<>();
+        for (int c = 0; c < columnCount; c++) {
+            String name = data.readUTF();
+            byte type = data.readByte();
+            byte encoding = data.readByte();
+            int rawLength = data.readInt();
+            int compressedLength = data.readInt();
+
+            if (columns != null && !columns.contains(name)) {
+                data.skipNBytes(compressedLength);
+                continue;
+            }
+            byte[] compressed = new byte[compressedLength];
+            data.readFully(compressed);
+            Cursor cursor = new Cursor(inflate(compressed, rawLength));
+
+            if (type == TYPE_LONG) {
+                longColumns.put(name, decodeLongs(cursor, rowCount));
+            } else if (type == TYPE_STRING) {
+                stringColumns.put(name, decodeStrings(cursor, rowCount, encoding));
+            } else {
+                throw new IOException("Unknown column type " + type + " of column " + name);
+            }
+        }
+
+        long expected = checked.getChecksum().getValue();
+        if (data.readLong() != expected) {
+            throw new IOException("Segment checksum mismatch");
+        }
+        return new ColumnarSegment(rowCount, longColumns, stringColumns);
+    }
+
+    /**
+     * Collects the columns of one segment; every column must have {@code rowCount} values.
+     */
+    public static final class Writer {
+        private final int rowCount;
+        private final Map<String, Object> columns = new LinkedHashMap<>();
+
+        public Writer(int rowCount) {
+            this.rowCount = rowCount;
+        }
+
+        public Writer longs(String name, long[] values) {
+            return add(name, values, values.length);
+        }
+
+        public Writer strings(String name, String[] values) {
+            return add(name, values, values.length);
+        }
+
+        public void writeTo(OutputStream out) throws IOException {
+            CheckedOutputStream checked = new CheckedOutputStream(out, new CRC32());
+            DataOutputStream data = new DataOutputStream(checked);
+
+            data.writeInt(MAGIC);
+            data.writeByte(VERSION);
+            data.writeInt(rowCount);
+            data.writeInt(columns.size());
+
+            for (Map.Entry<String, Object> column : columns.entrySet()) {
+                ByteArrayOutputStream raw = new ByteArrayOutputStream();
+                byte type;
+                byte encoding;
+                if (column.getValue() instanceof long[] longs) {
+                    type = TYPE_LONG;
+                    encoding = ENCODING_DELTA;
+                    encodeLongs(longs, raw);
+                } else {
+                    type = TYPE_STRING;
+                    encoding = encodeStrings((String[]) column.getValue(), raw);
+                }
+                byte[] compressed = deflate(raw.toByteArray());
+
+                data.writeUTF(column.getKey());
+                data.writeByte(type);
+                data.writeByte(encoding);
+                data.writeInt(raw.size());
+                data.writeInt(compressed.length);
+                data.write(compressed);
+            }
+
+            data.flush();
+            data.writeLong(checked.getChecksum().getValue());
+            data.flush();
+        }
+
+        private Writer add(String name, Object values, int length) {
+            if (length != rowCount) {
+                throw new IllegalArgumentException(
+                        "Column " + name + " has " + length + " values, expected " + rowCount);
+            }
+            if (columns.putIfAbsent(name, values) != null) {
+                throw new IllegalArgumentException("Duplicate column " + name);
+            }
+            return this;
+        }
+    }
+
+    private static void encodeLongs(long[] values, ByteArrayOutputStream out) {
+        long previous = 0;
+        long previousDelta = 0;
+        for (long value : values) {
+            long delta = value - previous;
+            writeVarLong(out, zigzag(delta - previousDelta));
+            previous = value;
+            previousDelta = delta;
+        }
+    }
+
+    private static long[] decodeLongs(Cursor cursor, int rowCount) {
+        long[] values = new long[rowCount];
+        long previous = 0;
+        long previousDelta = 0;
+        for (int i = 0; i < rowCount; i++) {
+            long delta = previousDelta + unzigzag(cursor.readVarLong());
+            previous += delta;
+            previousDelta = delta;
+            values[i] = previous;
+        }
+        return values;
+    }
+
+    private static byte encodeStrings(String[] values, ByteArrayOutputStream out) {
+        Map<String, Integer> dictionary = new LinkedHashMap<>();
+        for (String value : values) {
+            if (value != null) {
+                dictionary.putIfAbsent(value, dictionary.size() + 1);
+            }
+        }
+
+        if (dictionary.size() * 2 <= values.length) {
+            writeVarLong(out, dictionary.size());
+            dictionary.keySet().forEach(value -> writeString(out, value));
+            for (String value : values) {
+                writeVarLong(out, value == null ? 0 : dictionary.get(value));
+            }
+            return ENCODING_DICTIONARY;
+        }
+
+        for (String value : values) {
+            if (value == null) {
+                writeVarLong(out, 0);
+            } else {
+                byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+                writeVarLong(out, bytes.length + 1L);
+                out.writeBytes(bytes);
+            }
+        }
+        return ENCODING_PLAIN;
+    }
+
+    private static String[] decodeStrings(Cursor cursor, int rowCount, byte encoding) throws IOException {
+        String[] values = new String[rowCount];
+        if (encoding == ENCODING_DICTIONARY) {
+            String[] dictionary = new String[(int) cursor.readVarLong() + 1];
+            for (int i = 1; i < dictionary.length; i++) {
+                dictionary[i] = cursor.readString((int) cursor.readVarLong());
+            }
+            for (int i = 0; i < rowCount; i++) {
+                values[i] = dictionary[(int) cursor.readVarLong()];
+            }
+        } else if (encoding == ENCODING_PLAIN) {
+            for (int i = 0; i < rowCount; i++) {
+                int length = (int) cursor.readVarLong();
+                values[i] = length == 0 ? null : cursor.readString(length - 1);
+            }
+        } else {
+            throw new IOException("Unknown string encoding " + encoding);
+        }
+        return values;
+    }
+
+    private static void writeString(ByteArrayOutputStream out, String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeVarLong(out, bytes.length);
+        out.writeBytes(bytes);
+    }
+
+    private static void writeVarLong(ByteArrayOutputStream out, long value) {
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+
+    private static long zigzag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static long unzigzag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private static byte[] deflate(byte[] raw) {
+        Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION);
+        try {
+            deflater.setInput(raw);
+            deflater.finish();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, raw.length / 4));
+            byte[] buffer = new byte[8192];
+            while (!deflater.finished()) {
+                out.write(buffer, 0, deflater.deflate(buffer));
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static byte[] inflate(byte[] compressed, int rawLength) throws IOException {
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(compressed);
+            byte[] raw = new byte[rawLength];
+            int read = 0;
+            while (read < rawLength && !inflater.finished()) {
+                int n = inflater.inflate(raw, read, rawLength - read);
+                if (n == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    break;
+                }
+                read += n;
+            }
+            if (read != rawLength) {
+                throw new IOException("Column is truncated: " + read + " of " + rawLength + " bytes");
+            }
+            return raw;
+        } catch (DataFormatException e) {
+            throw new IOException("Column is corrupt: " + e.getMessage(), e);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    private static final class Cursor {
+        private final byte[] bytes;
+        private int position;
+
+        Cursor(byte[] bytes) {
+            this.bytes = bytes;
+        }
+
+        long readVarLong() {
+            long value = 0;
+            int shift = 0;
+            byte b;
+            do {
+                b = bytes[position++];
+                value |= (long) (b & 0x7F) << shift;
+                shift += 7;
+            } while ((b & 0x80) != 0);
+            return value;
+        }
+
+        String readString(int length) {
+            String value = new String(bytes, position, length, StandardCharsets.UTF_8);
+            position += length;
+            return value;
+        }
+    }
+}
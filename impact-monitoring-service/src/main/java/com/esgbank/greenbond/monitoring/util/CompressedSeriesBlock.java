@@ -0,0 +1,233 @@
+package com.esgbank.greenbond.monitoring.util;
+
+import java.util.Arrays;
+
+/**
+ * Append-only block of (timestamp, value) points, compressed as in the Gorilla time series store.
+ * <p>
+ * Timestamps are stored as the delta of their deltas behind a variable-length prefix, so a
+ * reading at a regular cadence costs one bit. Values are stored as the XOR with the previous
+ * value, keeping only the bits between the leading and trailing zeros; an unchanged value costs
+ * one bit and a slowly changing one a dozen or so. Bits are packed into a {@code long[]} that
+ * grows while the block is open and is trimmed by {@link #seal()}.
+ * <p>
+ * Timestamps must not decrease. Not thread safe.
+ */
+public final class CompressedSeriesBlock {
+
+    private static final int INITIAL_WORDS = 4;
+    private static final long OBJECT_OVERHEAD_BYTES = 64;
+
+    private long[] words = new long[INITIAL_WORDS];
+    private long bitCount;
+    private int count;
+    private long firstTimestamp;
+    private long lastTimestamp;
+    private long lastDelta;
+    private long lastValueBits;
+    private int lastLeadingZeros = -1; // -1 until the first XOR window is written
+    private int lastTrailingZeros;
+
+    @FunctionalInterface
+    public interface PointConsumer {
+        void accept(long timestamp, double value);
+    }
+
+    /**
+     * Encodes the first {@code length} points of two parallel arrays, ordered by timestamp.
+     */
+    public static CompressedSeriesBlock of(long[] timestamps, double[] values, int length) {
+        CompressedSeriesBlock block = new CompressedSeriesBlock();
+        for (int i = 0; i < length; i++) {
+            block.append(timestamps[i], values[i]);
+        }
+        return block;
+    }
+
+    public void append(long timestamp, double value) {
+        if (count > 0 && timestamp < lastTimestamp) {
+            throw new IllegalArgumentException("Timestamp " + timestamp + " is before the last one, " + lastTimestamp);
+        }
+        long valueBits = Double.doubleToRawLongBits(value);
+
+        if (count == 0) {
+            writeBits(timestamp, 64);
+            writeBits(valueBits, 64);
+            firstTimestamp = timestamp;
+        } else {
+            long delta = timestamp - lastTimestamp;
+            writeDeltaOfDelta(delta - lastDelta);
+            writeXor(valueBits ^ lastValueBits);
+            lastDelta = delta;
+        }
+
+        lastTimestamp = timestamp;
+        lastValueBits = valueBits;
+        count++;
+    }
+
+    /**
+     * Decodes all points in timestamp order.
+     */
+    public void forEach(PointConsumer consumer) {
+        if (count == 0) {
+            return;
+        }
+        BitReader reader = new BitReader();
+        long timestamp = reader.read(64);
+        long valueBits = reader.read(64);
+        consumer.accept(timestamp, Double.longBitsToDouble(valueBits));
+
+        long delta = 0;
+        int leadingZeros = 0;
+        int trailingZeros = 0;
+        for (int i = 1; i < count; i++) {
+            delta += readDeltaOfDelta(reader);
+            timestamp += delta;
+
+            if (reader.read(1) == 1) {
+                if (reader.read(1) == 1) {
+                    leadingZeros = (int) reader.read(5);
+                    int significantBits = (int) reader.read(6) + 1;
+                    trailingZeros = 64 - leadingZeros - significantBits;
+                }
+                valueBits ^= reader.read(64 - leadingZeros - trailingZeros) << trailingZeros;
+            }
+            consumer.accept(timestamp, Double.longBitsToDouble(valueBits));
+        }
+    }
+
+    /**
+     * Releases the unused capacity of a block that will not be appended to again.
+     */
+    public void seal() {
+        int used = (int) ((bitCount + 63) >>> 6);
+        if (used < words.length) {
+            words = Arrays.copyOf(words, Math.max(used, 1));
+        }
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    public long getFirstTimestamp() {
+        return firstTimestamp;
+    }
+
+    public long getLastTimestamp() {
+        return lastTimestamp;
+    }
+
+    public long getSizeInBytes() {
+        return OBJECT_OVERHEAD_BYTES + words.length * 8L;
+    }
+
+    // Prefixes 0, 10, 110, 1110 and 1111 select 0, 7, 9, 12 or 64 bits of two's complement
+    private void writeDeltaOfDelta(long deltaOfDelta) {
+        if (deltaOfDelta == 0) {
+            writeBits(0b0, 1);
+        } else if (deltaOfDelta >= -64 && deltaOfDelta <= 63) {
+            writeBits(0b10, 2);
+            writeBits(deltaOfDelta, 7);
+        } else if (deltaOfDelta >= -256 && deltaOfDelta <= 255) {
+            writeBits(0b110, 3);
+            writeBits(deltaOfDelta, 9);
+        } else if (deltaOfDelta >= -2048 && deltaOfDelta <= 2047) {
+            writeBits(0b1110, 4);
+            writeBits(deltaOfDelta, 12);
+        } else {
+            writeBits(0b1111, 4);
+            writeBits(deltaOfDelta, 64);
+        }
+    }
+
+    private static long readDeltaOfDelta(BitReader reader) {
+        if (reader.read(1) == 0) {
+            return 0;
+        }
+        if (reader.read(1) == 0) {
+            return signExtend(reader.read(7), 7);
+        }
+        if (reader.read(1) == 0) {
+            return signExtend(reader.read(9), 9);
+        }
+        if (reader.read(1) == 0) {
+            return signExtend(reader.read(12), 12);
+        }
+        return reader.read(64);
+    }
+
+    // 0: same value; 10: meaningful bits fit the previous window; 11: new window, 5 bits of
+    // leading zeros and 6 bits of length, then the meaningful bits
+    private void writeXor(long xor) {
+        if (xor == 0) {
+            writeBits(0b0, 1);
+            return;
+        }
+        writeBits(0b1, 1);
+
+        int leadingZeros = Math.min(Long.numberOfLeadingZeros(xor), 31);
+        int trailingZeros = Long.numberOfTrailingZeros(xor);
+
+        if (lastLeadingZeros >= 0 && leadingZeros >= lastLeadingZeros && trailingZeros >= lastTrailingZeros) {
+            writeBits(0b0, 1);
+            writeBits(xor >>> lastTrailingZeros, 64 - lastLeadingZeros - lastTrailingZeros);
+        } else {
+            int significantBits = 64 - leadingZeros - trailingZeros;
+            writeBits(0b1, 1);
+            writeBits(leadingZeros, 5);
+            writeBits(significantBits - 1, 6);
+            writeBits(xor >>> trailingZeros, significantBits);
+            lastLeadingZeros = leadingZeros;
+            lastTrailingZeros = trailingZeros;
+        }
+    }
+
+    private void writeBits(long value, int bits) {
+        int required = (int) ((bitCount + bits + 63) >>> 6);
+        if (required > words.length) {
+            words = Arrays.copyOf(words, Math.max(required, words.length * 2));
+        }
+        if (bits < 64) {
+            value &= (1L << bits) - 1;
+        }
+
+        int index = (int) (bitCount >>> 6);
+        int free = 64 - (int) (bitCount & 63);
+        if (bits <= free) {
+            words[index] |= value << (free - bits);
+        } else {
+            int spill = bits - free;
+            words[index] |= value >>> spill;
+            words[index + 1] |= value << (64 - spill);
+        }
+        bitCount += bits;
+    }
+
+    private static long signExtend(long value, int bits) {
+        return (value << (64 - bits)) >> (64 - bits);
+    }
+
+    private final class BitReader {
+        private long position;
+
+        long read(int bits) {
+            int index = (int) (position >>> 6);
+            int free = 64 - (int) (position & 63);
+            long result;
+            if (bits <= free) {
+                result = words[index] >>> (free - bits);
+                if (bits < 64) {
+                    result &= (1L << bits) - 1;
+                }
+            } else {
+                int spill = bits - free;
+                long high = words[index] & ((1L << free) - 1);
+                result = (high << spill) | (words[index + 1] >>> (64 - spill));
+            }
+            position += bits;
+            return result;
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.esgbank.greenbond.monitoring.util;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Parser for fixed-length Flux duration literals such as {@code 15m}, {@code 1h30m} or {@code 1w}.
+ * Calendar units ({@code mo}, {@code y}) have no fixed length and are reported as unsupported.
+ */
+public final class FluxDuration {
+
+    private static final Pattern LITERAL = Pattern.compile("(?:\\d+(?:ns|us|µs|ms|s|m|h|d|w))+");
+    private static final Pattern PART = Pattern.compile("(\\d+)(ns|us|µs|ms|s|m|h|d|w)");
+
+    private FluxDuration() {
+    }
+
+    public static Optional<Duration> parse(String literal) {
+        if (literal == null || !LITERAL.matcher(literal.trim()).matches()) {
+            return Optional.empty();
+        }
+
+        Duration total = Duration.ZERO;
+        Matcher matcher = PART.matcher(literal.trim());
+        while (matcher.find()) {
+            long amount = Long.parseLong(matcher.group(1));
+            total = total.plus(switch (matcher.group(2)) {
+                case "ns" -> Duration.ofNanos(amount);
+                case "us", "µs" -> Duration.ofNanos(amount * 1000);
+                case "ms" -> Duration.ofMillis(amount);
+                case "s" -> Duration.ofSeconds(amount);
+                case "m" -> Duration.ofMinutes(amount);
+                case "h" -> Duration.ofHours(amount);
+                case "d" -> Duration.ofDays(amount);
+                default -> Duration.ofDays(amount * 7);
+            });
+        }
+        return total.isZero() ? Optional.empty() : Optional.of(total);
+    }
+}
@@ -0,0 +1,117 @@
+package com.esgbank.greenbond.monitoring.util;
+
+import com.esgbank.greenbond.monitoring.model.MerkleProofStep;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+
+/**
+ * Binary SHA-256 Merkle tree.
+ * <p>
+ * Leaves are hashed as {@code H(0x00 || data)} and inner nodes as {@code H(0x01 || left || right)},
+ * so a leaf can never be passed off as an inner node. A node without a sibling is promoted to the
+ * next level unchanged rather than duplicated.
+ */
+public final class MerkleTree {
+
+    private static final byte LEAF_PREFIX = 0x00;
+    private static final byte NODE_PREFIX = 0x01;
+    private static final HexFormat HEX = HexFormat.of();
+
+    private final List<byte[][]> levels = new ArrayList<>();
+
+    /**
+     * @param leafHashes leaf hashes as produced by {@link #leafHash(String)}
+     */
+    public MerkleTree(List<byte[]> leafHashes) {
+        if (leafHashes.isEmpty()) {
+            throw new IllegalArgumentException("Merkle tree requires at least one leaf");
+        }
+
+        byte[][] level = leafHashes.toArray(new byte[0][]);
+        levels.add(level);
+
+        while (level.length > 1) {
+            byte[][] parent = new byte[(level.length + 1) / 2][];
+            for (int i = 0; i < level.length; i += 2) {
+                parent[i / 2] = i + 1 < level.length ? nodeHash(level[i], level[i + 1]) : level[i];
+            }
+            levels.add(parent);
+            level = parent;
+        }
+    }
+
+    public int getLeafCount() {
+        return levels.get(0).length;
+    }
+
+    public String getRoot() {
+        return HEX.formatHex(levels.get(levels.size() - 1)[0]);
+    }
+
+    /**
+     * Returns the sibling path from the leaf at {@code index} up to the root.
+     */
+    public List<MerkleProofStep> getProof(int index) {
+        if (index < 0 || index >= getLeafCount()) {
+            throw new IndexOutOfBoundsException("Leaf index " + index + " out of range");
+        }
+
+        List<MerkleProofStep> path = new ArrayList<>();
+        for (int depth = 0; depth < levels.size() - 1; depth++) {
+            byte[][] level = levels.get(depth);
+            int sibling = index ^ 1;
+            if (sibling < level.length) {
+                path.add(MerkleProofStep.builder()
+                        .siblingHash(HEX.formatHex(level[sibling]))
+                        .left(sibling < index)
+                        .build());
+            }
+            index /= 2;
+        }
+        return path;
+    }
+
+    /**
+     * Folds the proof path over the leaf hash and compares the result with the expected root.
+     */
+    public static boolean verify(String leafHash, List<MerkleProofStep> path, String expectedRoot) {
+        byte[] current = HEX.parseHex(leafHash);
+        for (MerkleProofStep step : path) {
+            byte[] sibling = HEX.parseHex(step.getSiblingHash());
+            current = step.isLeft() ? nodeHash(sibling, current) : nodeHash(current, sibling);
+        }
+        return MessageDigest.isEqual(current, HEX.parseHex(expectedRoot));
+    }
+
+    public static byte[] leafHash(String canonicalData) {
+        MessageDigest digest = sha256();
+        digest.update(LEAF_PREFIX);
+        digest.update(canonicalData.getBytes(StandardCharsets.UTF_8));
+        return digest.digest();
+    }
+
+    public static String toHex(byte[] hash) {
+        return HEX.formatHex(hash);
+    }
+
+    private static byte[] nodeHash(byte[] left, byte[] right) {
+        MessageDigest digest = sha256();
+        digest.update(NODE_PREFIX);
+        digest.update(left);
+        digest.update(right);
+        return digest.digest();
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
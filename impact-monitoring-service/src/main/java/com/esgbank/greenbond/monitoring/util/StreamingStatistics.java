@@ -0,0 +1,88 @@
+package com.esgbank.greenbond.monitoring.util;
+
+/**
+ * Single-pass accumulator of count, sum, min, max, mean and variance over primitive doubles.
+ * <p>
+ * Mean and variance use Welford's update, which stays numerically stable where the naive
+ * sum-of-squares formula cancels out. Accumulators can be merged (Chan et al.), and each one
+ * keeps a {@link QuantileSketch} so percentiles come without retaining the values.
+ */
+public final class StreamingStatistics {
+
+    private final QuantileSketch sketch = new QuantileSketch();
+    private long count;
+    private double sum;
+    private double mean;
+    private double m2;
+    private double min = Double.POSITIVE_INFINITY;
+    private double max = Double.NEGATIVE_INFINITY;
+
+    public void add(double value) {
+        count++;
+        sum += value;
+        double delta = value - mean;
+        mean += delta / count;
+        m2 += delta * (value - mean);
+        min = Math.min(min, value);
+        max = Math.max(max, value);
+        sketch.add(value);
+    }
+
+    public void merge(StreamingStatistics other) {
+        if (other.count == 0) {
+            return;
+        }
+        if (count == 0) {
+            mean = other.mean;
+            m2 = other.m2;
+        } else {
+            long combined = count + other.count;
+            double delta = other.mean - mean;
+            mean += delta * other.count / combined;
+            m2 += other.m2 + delta * delta * count * other.count / combined;
+        }
+        count += other.count;
+        sum += other.sum;
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+        sketch.merge(other.sketch);
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public double getSum() {
+        return sum;
+    }
+
+    public double getMean() {
+        return count > 0 ? mean : 0;
+    }
+
+    public double getMin() {
+        return count > 0 ? min : 0;
+    }
+
+    public double getMax() {
+        return count > 0 ? max : 0;
+    }
+
+    /**
+     * Sample variance, zero for fewer than two values.
+     */
+    public double getVariance() {
+        return count > 1 ? m2 / (count - 1) : 0;
+    }
+
+    public double getStandardDeviation() {
+        return Math.sqrt(getVariance());
+    }
+
+    /**
+     * @return the estimated quantile, or zero when nothing was added
+     */
+    public double getQuantile(double quantile) {
+        return count > 0 ? sketch.getQuantile(quantile) : 0;
+    }
+}
@@ -0,0 +1,41 @@
+package com.esgbank.greenbond.monitoring.util;
+
+/**
+ * Token bucket rate limiter that never blocks: callers that get no permit are expected to retry
+ * later. Tokens refill continuously at {@code permitsPerSecond} up to a burst of one second.
+ */
+public final class TokenBucket {
+
+    private final double permitsPerSecond;
+    private final double capacity;
+    private double tokens;
+    private long lastRefillNanos;
+
+    public TokenBucket(double permitsPerSecond) {
+        if (permitsPerSecond <= 0) {
+            throw new IllegalArgumentException("Permits per second must be positive");
+        }
+        this.permitsPerSecond = permitsPerSecond;
+        this.capacity = Math.max(1, permitsPerSecond);
+        this.tokens = capacity;
+        this.lastRefillNanos = System.nanoTime();
+    }
+
+    public synchronized boolean tryAcquire() {
+        long nowNanos = System.nanoTime();
+        tokens = Math.min(capacity, tokens + (nowNanos - lastRefillNanos) / 1e9 * permitsPerSecond);
+        lastRefillNanos = nowNanos;
+        if (tokens < 1) {
+            return false;
+        }
+        tokens--;
+        return true;
+    }
+
+    /**
+     * @return milliseconds until the next permit becomes available
+     */
+    public synchronized long millisUntilPermit() {
+        return tokens >= 1 ? 0 : (long) Math.ceil((1 - tokens) / permitsPerSecond * 1000);
+    }
+}
@@ -1,11 +1,15 @@
 package com.esgbank.greenbond.monitoring.controller;
 
+import com.esgbank.greenbond.monitoring.dto.ImpactMetricBatchItemResult;
+import com.esgbank.greenbond.monitoring.dto.ImpactMetricBatchRequest;
+import com.esgbank.greenbond.monitoring.dto.ImpactMetricBatchResponse;
 import com.esgbank.greenbond.monitoring.dto.ImpactMetricRequest;
 import com.esgbank.greenbond.monitoring.dto.ImpactMetricResponse;
 import com.esgbank.greenbond.monitoring.model.enums.DataSourceType;
 import com.esgbank.greenbond.monitoring.model.enums.MetricType;
 import com.esgbank.greenbond.monitoring.model.enums.MetricUnit;
 import com.esgbank.greenbond.monitoring.service.ImpactMetricService;
+import com.esgbank.greenbond.monitoring.service.MetricExportService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -38,6 +42,9 @@ class ImpactMetricControllerTest {
     @MockBean
     private ImpactMetricService impactMetricService;
 
+    @MockBean
+    private MetricExportService metricExportService;
+
     @Test
     void shouldCreateMetricSuccessfully() throws Exception {
         // Given
@@ -57,6 +64,40 @@ class ImpactMetricControllerTest {
                 .andExpect(jsonPath("$.value").value(150.5));
     }
 
+    @Test
+    void shouldCreateMetricsInBulk() throws Exception {
+        // Given
+        ImpactMetricBatchRequest request = new ImpactMetricBatchRequest(List.of(createMetricRequest()));
+        ImpactMetricBatchResponse response = ImpactMetricBatchResponse.builder()
+                .totalReceived(1)
+                .createdCount(1)
+                .failedCount(0)
+                .results(List.of(ImpactMetricBatchItemResult.builder()
+                        .index(0)
+                        .status(ImpactMetricBatchItemResult.STATUS_CREATED)
+                        .metricId("METRIC-123")
+                        .build()))
+                .build();
+
+        when(impactMetricService.createMetrics(anyList())).thenReturn(response);
+
+        // When & Then
+        mockMvc.perform(post("/api/v1/impact/metrics/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.createdCount").value(1))
+                .andExpect(jsonPath("$.results[0].metricId").value("METRIC-123"));
+    }
+
+    @Test
+    void shouldRejectEmptyBatch() throws Exception {
+        mockMvc.perform(post("/api/v1/impact/metrics/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new ImpactMetricBatchRequest(List.of()))))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     void shouldGetMetricSuccessfully() throws Exception {
         // Given
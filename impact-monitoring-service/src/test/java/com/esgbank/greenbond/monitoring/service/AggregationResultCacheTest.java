@@ -0,0 +1,230 @@
+package com.esgbank.greenbond.monitoring.service;
+
+import com.esgbank.greenbond.monitoring.config.AggregationCacheConfig;
+import com.esgbank.greenbond.monitoring.dto.MetricAggregationRequest;
+import com.esgbank.greenbond.monitoring.dto.MetricAggregationResponse;
+import com.esgbank.greenbond.monitoring.dto.TimeSeriesPoint;
+import com.esgbank.greenbond.monitoring.model.ImpactMetric;
+import com.esgbank.greenbond.monitoring.model.enums.MetricType;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class AggregationResultCacheTest {
+
+    private static final LocalDateTime BASE = LocalDateTime.now().truncatedTo(ChronoUnit.DAYS).minusDays(3);
+
+    private final List<ImpactMetric> stored = new ArrayList<>();
+    private final List<MetricAggregationRequest> computed = new ArrayList<>();
+
+    private final SeriesWriteMarkStore writeMarks = mock(SeriesWriteMarkStore.class);
+
+    private AggregationResultCache aggregationCache;
+
+    @BeforeEach
+    void setUp() {
+        aggregationCache = new AggregationResultCache(new AggregationCacheConfig(), writeMarks, new SimpleMeterRegistry());
+        when(writeMarks.find(any(), any(), anyLong(), anyLong())).thenReturn(new TreeMap<>());
+        for (int minutes = 0; minutes < 12 * 60; minutes += 20) {
+            stored.add(metric(BASE.plusMinutes(minutes), 1 + minutes / 60));
+        }
+    }
+
+    @Test
+    void shouldServeRepeatedClosedRangeFromCache() {
+        // Given
+        MetricAggregationResponse first = aggregationCache.calculate(request(BASE, BASE.plusHours(6)), this::compute);
+
+        // When
+        MetricAggregationResponse second = aggregationCache.calculate(request(BASE, BASE.plusHours(6)), this::compute);
+
+        // Then
+        assertThat(computed).hasSize(1);
+        assertThat(second.getTimeSeries()).isEqualTo(first.getTimeSeries());
+        assertThat(second.getTotalValue()).isEqualByComparingTo(first.getTotalValue());
+        assertThat(second.getStatistics()).containsEntry("cachedWindows", 6);
+    }
+
+    @Test
+    void shouldComputeOnlyWindowsMissingFromOverlappingRequest() {
+        // Given
+        aggregationCache.calculate(request(BASE, BASE.plusHours(6)), this::compute);
+        computed.clear();
+
+        // When
+        MetricAggregationResponse response =
+                aggregationCache.calculate(request(BASE.plusHours(2), BASE.plusHours(8)), this::compute);
+
+        // Then
+        assertThat(computed).singleElement().satisfies(range -> {
+            assertThat(range.getStartTime()).isEqualTo(BASE.plusHours(6));
+            assertThat(range.getEndTime()).isEqualTo(BASE.plusHours(8));
+        });
+        assertThat(response.getTimeSeries()).extracting(TimeSeriesPoint::getTimestamp)
+                .containsExactly(BASE.plusHours(2), BASE.plusHours(3), BASE.plusHours(4),
+                        BASE.plusHours(5), BASE.plusHours(6), BASE.plusHours(7));
+        assertThat(response.getTimeSeries().get(0).getValue()).isEqualByComparingTo("9");
+    }
+
+    @Test
+    void shouldRecomputeOnlyWindowWithLateData() {
+        // Given
+        aggregationCache.calculate(request(BASE, BASE.plusHours(6)), this::compute);
+        computed.clear();
+        ImpactMetric late = metric(BASE.plusHours(3).plusMinutes(30), 100);
+        stored.add(late);
+
+        // When
+        aggregationCache.invalidate(List.of(late));
+        MetricAggregationResponse response =
+                aggregationCache.calculate(request(BASE, BASE.plusHours(6)), this::compute);
+
+        // Then
+        assertThat(computed).singleElement().satisfies(range -> {
+            assertThat(range.getStartTime()).isEqualTo(BASE.plusHours(3));
+            assertThat(range.getEndTime()).isEqualTo(BASE.plusHours(4));
+        });
+        assertThat(response.getTimeSeries().get(3).getValue()).isEqualByComparingTo("112");
+    }
+
+    @Test
+    void shouldDropFragmentsOfDayWrittenByAnotherInstance() {
+        // Given
+        aggregationCache.calculate(request(BASE, BASE.plusHours(6)), this::compute);
+        computed.clear();
+        long day = BASE.toLocalDate().atStartOfDay().toInstant(ZoneOffset.UTC).toEpochMilli();
+        when(writeMarks.find(any(), any(), anyLong(), anyLong()))
+                .thenReturn(new TreeMap<>(Map.of(day, System.currentTimeMillis())));
+
+        // When
+        aggregationCache.calculate(request(BASE, BASE.plusHours(6)), this::compute);
+        MetricAggregationResponse response = aggregationCache.calculate(request(BASE, BASE.plusHours(6)), this::compute);
+
+        // Then
+        assertThat(computed).hasSize(2).allSatisfy(range -> {
+            assertThat(range.getStartTime()).isEqualTo(BASE);
+            assertThat(range.getEndTime()).isEqualTo(BASE.plusHours(6));
+        });
+        assertThat(response.getStatistics()).containsEntry("cachedWindows", 0);
+    }
+
+    @Test
+    void shouldBypassCacheWithoutWriteMarks() {
+        // Given
+        when(writeMarks.find(any(), any(), anyLong(), anyLong())).thenReturn(null);
+
+        // When
+        aggregationCache.calculate(request(BASE, BASE.plusHours(6)), this::compute);
+        MetricAggregationResponse response = aggregationCache.calculate(request(BASE, BASE.plusHours(6)), this::compute);
+
+        // Then
+        assertThat(computed).hasSize(2).allSatisfy(range -> assertThat(range.getStartTime()).isEqualTo(BASE));
+        assertThat(response.getTimeSeries()).hasSize(6);
+    }
+
+    @Test
+    void shouldRecordWrittenMetricsForOtherInstances() {
+        // Given
+        ImpactMetric late = metric(BASE.plusHours(3).plusMinutes(30), 100);
+
+        // When
+        aggregationCache.invalidate(List.of(late));
+
+        // Then
+        verify(writeMarks).record(List.of(late));
+    }
+
+    @Test
+    void shouldAlwaysComputePartialEdgeWindows() {
+        // Given
+        MetricAggregationRequest request = request(BASE.plusMinutes(30), BASE.plusHours(4).plusMinutes(30));
+        aggregationCache.calculate(request, this::compute);
+        computed.clear();
+
+        // When
+        aggregationCache.calculate(request, this::compute);
+
+        // Then
+        assertThat(computed).extracting(MetricAggregationRequest::getStartTime, MetricAggregationRequest::getEndTime)
+                .containsExactly(
+                        tuple(BASE.plusMinutes(30), BASE.plusHours(1)),
+                        tuple(BASE.plusHours(4), BASE.plusHours(4).plusMinutes(30)));
+    }
+
+    @Test
+    void shouldPassThroughCalendarIntervals() {
+        // Given
+        MetricAggregationRequest request = request(BASE, BASE.plusHours(6));
+        request.setInterval("1mo");
+
+        // When
+        aggregationCache.calculate(request, this::compute);
+        aggregationCache.calculate(request, this::compute);
+
+        // Then
+        assertThat(computed).hasSize(2).allSatisfy(range -> assertThat(range).isSameAs(request));
+    }
+
+    // Hourly sums over the stored metrics, like aggregateWindow with createEmpty: false
+    private MetricAggregationResponse compute(MetricAggregationRequest request) {
+        computed.add(request);
+        TreeMap<LocalDateTime, double[]> windows = new TreeMap<>();
+        for (ImpactMetric metric : stored) {
+            if (!metric.getTimestamp().isBefore(request.getStartTime())
+                    && metric.getTimestamp().isBefore(request.getEndTime())) {
+                LocalDateTime window = metric.getTimestamp().truncatedTo(ChronoUnit.HOURS);
+                LocalDateTime label = window.isBefore(request.getStartTime()) ? request.getStartTime() : window;
+                double[] sum = windows.computeIfAbsent(label, key -> new double[2]);
+                sum[0] += metric.getValue().doubleValue();
+                sum[1]++;
+            }
+        }
+
+        List<TimeSeriesPoint> points = new ArrayList<>();
+        for (Map.Entry<LocalDateTime, double[]> window : windows.entrySet()) {
+            points.add(TimeSeriesPoint.builder()
+                    .timestamp(window.getKey())
+                    .value(BigDecimal.valueOf(window.getValue()[0]))
+                    .count((int) window.getValue()[1])
+                    .build());
+        }
+        return MetricAggregationResponse.builder().timeSeries(points).build();
+    }
+
+    private MetricAggregationRequest request(LocalDateTime start, LocalDateTime end) {
+        MetricAggregationRequest request = new MetricAggregationRequest();
+        request.setBondId("BOND-123");
+        request.setMetricType(MetricType.CARBON_EMISSIONS_REDUCTION);
+        request.setStartTime(start);
+        request.setEndTime(end);
+        request.setInterval("1h");
+        request.setAggregationFunction("sum");
+        return request;
+    }
+
+    private ImpactMetric metric(LocalDateTime timestamp, double value) {
+        return ImpactMetric.builder()
+                .bondId("BOND-123")
+                .metricType(MetricType.CARBON_EMISSIONS_REDUCTION)
+                .value(BigDecimal.valueOf(value))
+                .timestamp(timestamp)
+                .build();
+    }
+}
@@ -0,0 +1,104 @@
+package com.esgbank.greenbond.monitoring.service;
+
+import com.esgbank.greenbond.monitoring.config.DataQualityConfig;
+import com.esgbank.greenbond.monitoring.dto.ImpactMetricRequest;
+import com.esgbank.greenbond.monitoring.model.DataQuality;
+import com.esgbank.greenbond.monitoring.model.enums.DataSourceType;
+import com.esgbank.greenbond.monitoring.model.enums.MetricType;
+import com.esgbank.greenbond.monitoring.model.enums.MetricUnit;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+@ExtendWith(MockitoExtension.class)
+class DataQualityServiceTest {
+
+    private static final LocalDateTime START = LocalDateTime.now().minusDays(1);
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    private DataQualityService dataQualityService;
+
+    @BeforeEach
+    void setUp() {
+        DataQualityConfig config = new DataQualityConfig();
+        config.setWarmupReadings(5);
+        dataQualityService = new DataQualityService(new SeriesStateStore(mongoTemplate, config), config);
+    }
+
+    @Test
+    void shouldScoreIdenticalHistoriesIdentically() {
+        DataQualityService other = new DataQualityService(
+                new SeriesStateStore(mongoTemplate, new DataQualityConfig()), new DataQualityConfig());
+
+        DataQuality first = dataQualityService.assessDataQuality(request("BOND-1", 100, START));
+        DataQuality second = other.assessDataQuality(request("BOND-1", 100, START));
+
+        assertThat(first.getConfidenceScore()).isEqualTo(second.getConfidenceScore());
+        assertThat(first.getQualityMetrics().get("consistency")).isEqualTo(1.0);
+    }
+
+    @Test
+    void shouldFlagOutlierAfterWarmup() {
+        DataQuality last = null;
+        for (int i = 0; i < 20; i++) {
+            last = dataQualityService.assessDataQuality(request("BOND-1", 100 + (i % 3), START.plusMinutes(i)));
+        }
+        assertThat(last.getQualityMetrics().get("outlier")).isEqualTo(false);
+        assertThat(last.getStandardDeviation()).isPositive();
+
+        DataQuality spike = dataQualityService.assessDataQuality(request("BOND-1", 500, START.plusMinutes(20)));
+
+        assertThat(spike.getQualityMetrics().get("outlier")).isEqualTo(true);
+        assertThat((Double) spike.getQualityMetrics().get("consistency")).isZero();
+        assertThat(spike.getIsVerified()).isFalse();
+        assertThat(spike.getConfidenceScore()).isLessThan(last.getConfidenceScore());
+    }
+
+    @Test
+    void shouldLowerTimelinessForMissedCadence() {
+        for (int i = 0; i < 10; i++) {
+            dataQualityService.assessDataQuality(request("BOND-1", 100, START.plusMinutes(i)));
+        }
+
+        DataQuality late = dataQualityService.assessDataQuality(request("BOND-1", 100, START.plusMinutes(60)));
+
+        assertThat((Double) late.getQualityMetrics().get("timeliness")).isEqualTo(0.2);
+    }
+
+    @Test
+    void shouldKeepSeriesSeparatePerBondAndNeverQueryHistory() {
+        for (int i = 0; i < 10; i++) {
+            dataQualityService.assessDataQuality(request("BOND-1", 100, START.plusMinutes(i)));
+        }
+
+        DataQuality otherBond = dataQualityService.assessDataQuality(request("BOND-2", 500, START.plusMinutes(10)));
+
+        assertThat(otherBond.getQualityMetrics().get("outlier")).isEqualTo(false);
+        assertThat(otherBond.getDataPoints()).isEqualTo(1);
+        verifyNoInteractions(mongoTemplate);
+    }
+
+    private ImpactMetricRequest request(String bondId, double value, LocalDateTime timestamp) {
+        ImpactMetricRequest request = new ImpactMetricRequest();
+        request.setBondId(bondId);
+        request.setProjectId("PROJ-456");
+        request.setMetricType(MetricType.CARBON_EMISSIONS_REDUCTION);
+        request.setValue(BigDecimal.valueOf(value));
+        request.setUnit(MetricUnit.TONS_CO2);
+        request.setTimestamp(timestamp);
+        request.setSourceType(DataSourceType.IOT_SENSOR);
+        request.setDeviceId("device-123");
+        return request;
+    }
+}
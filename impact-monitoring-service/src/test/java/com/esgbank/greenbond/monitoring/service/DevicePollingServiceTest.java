@@ -0,0 +1,162 @@
+package com.esgbank.greenbond.monitoring.service;
+
+import com.esgbank.greenbond.monitoring.config.IoTPollingConfig;
+import com.esgbank.greenbond.monitoring.dto.ImpactMetricRequest;
+import com.esgbank.greenbond.monitoring.integration.IoTIntegrationService;
+import com.esgbank.greenbond.monitoring.model.IoTDevice;
+import com.esgbank.greenbond.monitoring.model.enums.MetricType;
+import com.esgbank.greenbond.monitoring.repository.IoTDeviceRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class DevicePollingServiceTest {
+
+    private static final LocalDateTime NEWEST = LocalDateTime.now().minusMinutes(5);
+
+    @Mock
+    private IoTDeviceRepository deviceRepository;
+
+    @Mock
+    private IoTIntegrationService ioTIntegrationService;
+
+    @Mock
+    private ImpactMetricService impactMetricService;
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private BulkOperations bulkOperations;
+
+    @Mock
+    private JobLeaseStore leaseStore;
+
+    private SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private DevicePollingService pollingService;
+
+    @BeforeEach
+    void setUp() {
+        IoTPollingConfig config = new IoTPollingConfig();
+        config.setPlatformRateLimits(Map.of("slow-platform", 1.0));
+        pollingService = new DevicePollingService(deviceRepository, ioTIntegrationService, impactMetricService,
+                mongoTemplate, leaseStore, config, meterRegistry);
+
+        lenient().when(leaseStore.acquire(eq(DevicePollingService.POLLING_JOB), any())).thenReturn(true);
+        lenient().when(mongoTemplate.bulkOps(any(BulkOperations.BulkMode.class), eq(IoTDevice.class)))
+                .thenReturn(bulkOperations);
+    }
+
+    @Test
+    void shouldAdvanceCursorAfterReadingsAreIngested() {
+        // Given
+        when(deviceRepository.findByEnabledTrue()).thenReturn(List.of(device("device-1", "aws-iot")));
+        when(ioTIntegrationService.fetchIoTDataSince(eq("device-1"), eq("BOND-123"), isNull()))
+                .thenReturn(List.of(reading(NEWEST.minusMinutes(5)), reading(NEWEST)));
+        pollingService.refreshRegistry();
+
+        // When
+        pollingService.poll(pollingService.getTracked("device-1"));
+        pollingService.flush();
+
+        // Then
+        verify(impactMetricService).createMetrics(anyList());
+        assertThat(pollingService.getPollingStatus()).singleElement().satisfies(status -> {
+            assertThat(status.getCursor()).isEqualTo(NEWEST);
+            assertThat(status.getConsecutiveFailures()).isZero();
+        });
+        assertThat(meterRegistry.get("impact.iot.device.lag").tag("device", "device-1").gauge().value())
+                .isGreaterThanOrEqualTo(300);
+    }
+
+    @Test
+    void shouldKeepCursorWhenIngestionFails() {
+        // Given
+        when(deviceRepository.findByEnabledTrue()).thenReturn(List.of(device("device-1", "aws-iot")));
+        when(ioTIntegrationService.fetchIoTDataSince(any(), any(), any())).thenReturn(List.of(reading(NEWEST)));
+        when(impactMetricService.createMetrics(anyList())).thenThrow(new IllegalStateException("MongoDB unavailable"));
+        pollingService.refreshRegistry();
+
+        // When
+        pollingService.poll(pollingService.getTracked("device-1"));
+        pollingService.flush();
+
+        // Then
+        assertThat(pollingService.getPollingStatus()).singleElement()
+                .satisfies(status -> assertThat(status.getCursor()).isNull());
+    }
+
+    @Test
+    void shouldThrottlePollsPerPlatform() {
+        // Given
+        when(deviceRepository.findByEnabledTrue()).thenReturn(List.of(
+                device("device-1", "slow-platform"), device("device-2", "slow-platform")));
+        when(ioTIntegrationService.fetchIoTDataSince(any(), any(), any())).thenReturn(List.of());
+        pollingService.refreshRegistry();
+
+        // When
+        pollingService.poll(pollingService.getTracked("device-1"));
+        pollingService.poll(pollingService.getTracked("device-2"));
+
+        // Then
+        verify(ioTIntegrationService, times(1)).fetchIoTDataSince(any(), any(), any());
+        assertThat(meterRegistry.get("impact.iot.device.polls").tag("result", "throttled").counter().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    void shouldNotPollWithoutTheLease() {
+        // Given
+        when(deviceRepository.findByEnabledTrue()).thenReturn(List.of(device("device-1", "aws-iot")));
+        pollingService.refreshRegistry();
+        when(leaseStore.acquire(eq(DevicePollingService.POLLING_JOB), any())).thenReturn(false);
+
+        // When
+        pollingService.refreshRegistry();
+
+        // Then
+        assertThat(pollingService.getPollingStatus()).isEmpty();
+        verify(deviceRepository, times(1)).findByEnabledTrue();
+    }
+
+    private IoTDevice device(String deviceId, String platform) {
+        return IoTDevice.builder()
+                .deviceId(deviceId)
+                .bondId("BOND-123")
+                .platform(platform)
+                .pollIntervalSeconds(60L)
+                .build();
+    }
+
+    private ImpactMetricRequest reading(LocalDateTime timestamp) {
+        ImpactMetricRequest request = new ImpactMetricRequest();
+        request.setBondId("BOND-123");
+        request.setMetricType(MetricType.SOLAR_ENERGY_GENERATED);
+        request.setValue(BigDecimal.TEN);
+        request.setTimestamp(timestamp);
+        request.setDeviceId("device-1");
+        return request;
+    }
+}
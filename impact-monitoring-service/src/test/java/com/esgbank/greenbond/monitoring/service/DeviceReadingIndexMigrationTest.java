@@ -0,0 +1,84 @@
+package com.esgbank.greenbond.monitoring.service;
+
+import com.esgbank.greenbond.monitoring.model.ImpactMetric;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DeviceReadingIndexMigrationTest {
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private JobLeaseStore leaseStore;
+
+    @Mock
+    private MetricBucketStore bucketStore;
+
+    @Mock
+    private MetricRunningTotalsService runningTotalsService;
+
+    @Mock
+    private MetricRollupService rollupService;
+
+    @Mock
+    private IndexOperations indexOps;
+
+    @Captor
+    private ArgumentCaptor<Query> queryCaptor;
+
+    private DeviceReadingIndexMigration migration;
+
+    @BeforeEach
+    void setUp() {
+        migration = new DeviceReadingIndexMigration(mongoTemplate, leaseStore, bucketStore,
+                runningTotalsService, rollupService);
+    }
+
+    @Test
+    void shouldKeepOldestReadingAndBuildIndexAfterRemovingDuplicates() {
+        // Given
+        when(mongoTemplate.getCollectionName(ImpactMetric.class)).thenReturn("impact_metrics");
+        when(mongoTemplate.aggregateStream(any(Aggregation.class), eq("impact_metrics"), eq(Document.class)))
+                .thenReturn(Stream.of(new Document("metricIds", List.of("MTR-1", "MTR-2", "MTR-3"))
+                        .append("count", 3)));
+        ImpactMetric second = ImpactMetric.builder().metricId("MTR-2").build();
+        ImpactMetric third = ImpactMetric.builder().metricId("MTR-3").build();
+        when(mongoTemplate.findAllAndRemove(any(Query.class), eq(ImpactMetric.class))).thenReturn(List.of(second, third));
+        when(mongoTemplate.indexOps(ImpactMetric.class)).thenReturn(indexOps);
+
+        // When
+        migration.migrate();
+
+        // Then
+        verify(mongoTemplate).findAllAndRemove(queryCaptor.capture(), eq(ImpactMetric.class));
+        assertThat(queryCaptor.getValue().getQueryObject().get("metricId", Document.class).getList("$in", String.class))
+                .containsExactly("MTR-2", "MTR-3");
+        verify(bucketStore).removeMetrics(List.of(second, third));
+        verify(runningTotalsService).removeMetric(second);
+        verify(rollupService).removeMetric(third);
+
+        var inOrder = inOrder(mongoTemplate, indexOps);
+        inOrder.verify(mongoTemplate).findAllAndRemove(any(Query.class), eq(ImpactMetric.class));
+        inOrder.verify(indexOps).ensureIndex(any());
+    }
+}
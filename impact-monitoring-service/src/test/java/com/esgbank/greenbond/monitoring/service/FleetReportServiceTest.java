@@ -0,0 +1,143 @@
+package com.esgbank.greenbond.monitoring.service;
+
+import com.esgbank.greenbond.monitoring.config.ReportConfig;
+import com.esgbank.greenbond.monitoring.model.ImpactGoal;
+import com.esgbank.greenbond.monitoring.model.ImpactReport;
+import com.esgbank.greenbond.monitoring.model.MetricRunningTotal;
+import com.esgbank.greenbond.monitoring.model.MetricSummary;
+import com.esgbank.greenbond.monitoring.model.enums.GoalStatus;
+import com.esgbank.greenbond.monitoring.model.enums.MetricType;
+import com.esgbank.greenbond.monitoring.model.enums.ReportStatus;
+import com.esgbank.greenbond.monitoring.model.enums.ReportType;
+import com.esgbank.greenbond.monitoring.service.MetricRollupService.PeriodTotals;
+import com.esgbank.greenbond.monitoring.service.TimeSeriesService.SeriesTotals;
+import com.mongodb.bulk.BulkWriteResult;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class FleetReportServiceTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2024, 5, 15, 4, 0);
+    private static final LocalDateTime DAY = LocalDateTime.of(2024, 5, 14, 0, 0);
+
+    @Mock
+    private TimeSeriesService timeSeriesService;
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private BulkOperations bulkOps;
+
+    @Captor
+    private ArgumentCaptor<List<ImpactReport>> reportsCaptor;
+
+    private SimpleMeterRegistry meterRegistry;
+    private FleetReportService fleetReportService;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        fleetReportService = new FleetReportService(timeSeriesService, mongoTemplate, new ReportConfig(), meterRegistry);
+    }
+
+    @Test
+    void shouldCoverEveryMetricTypeWithOneFamily() {
+        List<MetricType> covered = FleetReportService.METRIC_FAMILIES.values().stream()
+                .flatMap(Collection::stream)
+                .toList();
+
+        assertThat(covered).containsExactlyInAnyOrder(MetricType.values());
+    }
+
+    @Test
+    void shouldFanGroupedQueriesOutIntoReportsPerBond() {
+        // Given
+        when(timeSeriesService.querySeriesTotals(any(), any(), any())).thenAnswer(invocation -> {
+            Collection<MetricType> metricTypes = invocation.getArgument(0);
+            LocalDateTime start = invocation.getArgument(1);
+            if (!metricTypes.contains(MetricType.CARBON_EMISSIONS_REDUCTION)) {
+                return List.of();
+            }
+            return start.equals(DAY)
+                    ? List.of(new SeriesTotals("BOND-A", MetricType.CARBON_EMISSIONS_REDUCTION,
+                            new PeriodTotals(4, 120, 10, 50)))
+                    : List.of(new SeriesTotals("BOND-A", MetricType.CARBON_EMISSIONS_REDUCTION,
+                            new PeriodTotals(2, 80, 30, 50)));
+        });
+        ImpactGoal goal = ImpactGoal.builder()
+                .goalId("GOAL-B")
+                .bondId("BOND-B")
+                .metricType(MetricType.WATER_SAVINGS)
+                .targetValue(BigDecimal.valueOf(100))
+                .status(GoalStatus.IN_PROGRESS)
+                .build();
+        when(mongoTemplate.stream(any(Query.class), eq(ImpactGoal.class))).thenReturn(Stream.of(goal));
+        when(mongoTemplate.stream(any(Query.class), eq(MetricRunningTotal.class))).thenReturn(Stream.of(
+                MetricRunningTotal.builder().bondId("BOND-A").metricType(MetricType.CARBON_EMISSIONS_REDUCTION)
+                        .sum(900.0).count(30L).build(),
+                MetricRunningTotal.builder().bondId("BOND-B").metricType(MetricType.WATER_SAVINGS)
+                        .sum(40.0).count(5L).build()));
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, ImpactReport.class)).thenReturn(bulkOps);
+        when(bulkOps.insert(anyList())).thenReturn(bulkOps);
+        BulkWriteResult result = mock(BulkWriteResult.class);
+        when(result.getInsertedCount()).thenReturn(2);
+        when(bulkOps.execute()).thenReturn(result);
+
+        // When
+        int inserted = fleetReportService.generate(ReportType.DAILY, NOW);
+
+        // Then
+        assertThat(inserted).isEqualTo(2);
+        verify(timeSeriesService, times(2 * FleetReportService.METRIC_FAMILIES.size()))
+                .querySeriesTotals(any(), any(), any());
+        verify(timeSeriesService, times(FleetReportService.METRIC_FAMILIES.size()))
+                .querySeriesTotals(any(), eq(DAY), eq(DAY.plusDays(1)));
+
+        verify(bulkOps).insert(reportsCaptor.capture());
+        List<ImpactReport> reports = new ArrayList<>(reportsCaptor.getValue());
+        assertThat(reports).extracting(ImpactReport::getId)
+                .containsExactly("BOND-A:DAILY:2024-05-14", "BOND-B:DAILY:2024-05-14");
+        assertThat(reports).allSatisfy(report -> {
+            assertThat(report.getStatus()).isEqualTo(ReportStatus.GENERATED);
+            assertThat(report.getReportingPeriodStart()).isEqualTo(DAY);
+            assertThat(report.getGeneratedBy()).isEqualTo(FleetReportService.GENERATED_BY);
+        });
+
+        MetricSummary carbon = reports.get(0).getMetricSummaries().get(0);
+        assertThat(carbon.getMetricType()).isEqualTo(MetricType.CARBON_EMISSIONS_REDUCTION);
+        assertThat(carbon.getTotalValue()).isEqualByComparingTo("120");
+        assertThat(carbon.getDataPoints()).isEqualTo(4);
+        assertThat(carbon.getPeriodOverPeriodChange()).isEqualByComparingTo("50");
+
+        ImpactReport bondB = reports.get(1);
+        assertThat(bondB.getMetricSummaries()).singleElement()
+                .satisfies(summary -> assertThat(summary.getDataPoints()).isZero());
+        assertThat(bondB.getGoalProgress()).singleElement()
+                .satisfies(progress -> assertThat(progress.getCurrentValue()).isEqualByComparingTo("40"));
+        assertThat(meterRegistry.get("impact.reports").tag("result", "generated").counter().count()).isEqualTo(2);
+    }
+}
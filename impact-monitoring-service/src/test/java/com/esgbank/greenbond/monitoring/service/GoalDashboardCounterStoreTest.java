@@ -0,0 +1,171 @@
+package com.esgbank.greenbond.monitoring.service;
+
+import com.esgbank.greenbond.monitoring.config.GoalDashboardConfig;
+import com.esgbank.greenbond.monitoring.model.GoalDashboardCounters;
+import com.esgbank.greenbond.monitoring.model.ImpactGoal;
+import com.esgbank.greenbond.monitoring.model.enums.GoalStatus;
+import com.mongodb.client.result.DeleteResult;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class GoalDashboardCounterStoreTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2024, 6, 1);
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private BulkOperations bulkOps;
+
+    @Mock
+    private JobLeaseStore leaseStore;
+
+    @Captor
+    private ArgumentCaptor<Query> queryCaptor;
+
+    @Captor
+    private ArgumentCaptor<Update> updateCaptor;
+
+    private GoalDashboardCounterStore counterStore;
+
+    @BeforeEach
+    void setUp() {
+        counterStore = new GoalDashboardCounterStore(mongoTemplate, leaseStore, new GoalDashboardConfig());
+    }
+
+    @Test
+    void shouldIncrementOnlyCountersThatChanged() {
+        // Given
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, GoalDashboardCounters.class))
+                .thenReturn(bulkOps);
+        ImpactGoal goal = goal(GoalStatus.ON_TRACK, "40", TODAY.plusDays(10));
+        GoalDashboardCounterStore.GoalState before = GoalDashboardCounterStore.GoalState.of(goal);
+        goal.setStatus(GoalStatus.ACHIEVED);
+        goal.setProgressPercentage(BigDecimal.valueOf(100));
+
+        // When
+        counterStore.apply(List.of(
+                new GoalDashboardCounterStore.Transition(before, GoalDashboardCounterStore.GoalState.of(goal)),
+                new GoalDashboardCounterStore.Transition(null,
+                        GoalDashboardCounterStore.GoalState.of(goal(GoalStatus.NOT_STARTED, "0", TODAY)))));
+
+        // Then
+        verify(bulkOps).upsert(queryCaptor.capture(), updateCaptor.capture());
+        verify(bulkOps).execute();
+        assertThat(queryCaptor.getValue().getQueryObject()).containsEntry("_id", "BOND-1");
+        assertThat(updateCaptor.getValue().getUpdateObject().get("$inc", Document.class))
+                .containsExactlyInAnyOrderEntriesOf(Map.of(
+                        "totalGoals", 1L,
+                        "progressSum", 600_000L,
+                        "statusCounts.ON_TRACK", -1L,
+                        "statusCounts.ACHIEVED", 1L,
+                        "statusCounts.NOT_STARTED", 1L,
+                        "deadlines." + TODAY.plusDays(10), -1L,
+                        "deadlines." + TODAY, 1L));
+    }
+
+    @Test
+    void shouldSkipWritesThatLeaveCountersUnchanged() {
+        // Given
+        GoalDashboardCounterStore.GoalState state =
+                GoalDashboardCounterStore.GoalState.of(goal(GoalStatus.AT_RISK, "12.5", TODAY));
+
+        // When
+        counterStore.apply(state, state);
+
+        // Then
+        verifyNoInteractions(mongoTemplate);
+    }
+
+    @Test
+    void shouldAnswerDashboardFiguresFromCounters() {
+        // Given
+        GoalDashboardCounters counters = GoalDashboardCounters.builder()
+                .bondId("BOND-1")
+                .totalGoals(3L)
+                .progressSum(1_000_000L)
+                .statusCounts(Map.of("ON_TRACK", 2L, "ACHIEVED", 1L))
+                .deadlines(Map.of(
+                        TODAY.toString(), 4L,
+                        TODAY.plusDays(1).toString(), 1L,
+                        TODAY.plusDays(30).toString(), 2L,
+                        TODAY.plusDays(31).toString(), 8L))
+                .build();
+
+        // When / Then
+        assertThat(GoalDashboardCounterStore.upcomingDeadlines(counters, TODAY, 30)).isEqualTo(3);
+        assertThat(GoalDashboardCounterStore.statusCount(counters, GoalStatus.ON_TRACK)).isEqualTo(2);
+        assertThat(GoalDashboardCounterStore.statusCount(counters, GoalStatus.AT_RISK)).isZero();
+        assertThat(GoalDashboardCounterStore.averageProgress(counters)).isEqualByComparingTo("33.33");
+    }
+
+    @Test
+    void shouldBuildCountersOnFirstStartAndMarkBackfillDone() {
+        // Given
+        when(leaseStore.claim(eq(GoalDashboardCounterStore.BACKFILL_JOB), eq(GoalDashboardCounterStore.BACKFILL_RUN),
+                any())).thenReturn(true);
+        when(mongoTemplate.stream(any(Query.class), eq(ImpactGoal.class)))
+                .thenReturn(Stream.of(goal(GoalStatus.ON_TRACK, "40", TODAY.plusDays(10))));
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, GoalDashboardCounters.class))
+                .thenReturn(bulkOps);
+        when(mongoTemplate.remove(any(Query.class), eq(GoalDashboardCounters.class)))
+                .thenReturn(DeleteResult.acknowledged(0));
+
+        // When
+        counterStore.backfillOnStartup();
+
+        // Then
+        verify(bulkOps).upsert(queryCaptor.capture(), updateCaptor.capture());
+        Document set = updateCaptor.getValue().getUpdateObject().get("$set", Document.class);
+        assertThat(set).containsEntry("totalGoals", 1L).containsEntry("progressSum", 400_000L);
+        verify(leaseStore).complete(GoalDashboardCounterStore.BACKFILL_JOB, GoalDashboardCounterStore.BACKFILL_RUN);
+    }
+
+    @Test
+    void shouldSkipBackfillOnceDone() {
+        // Given
+        when(leaseStore.claim(eq(GoalDashboardCounterStore.BACKFILL_JOB), eq(GoalDashboardCounterStore.BACKFILL_RUN),
+                any())).thenReturn(false);
+
+        // When
+        counterStore.backfillOnStartup();
+
+        // Then
+        verifyNoInteractions(mongoTemplate);
+    }
+
+    private static ImpactGoal goal(GoalStatus status, String progress, LocalDate targetDay) {
+        return ImpactGoal.builder()
+                .goalId("GOAL-1")
+                .bondId("BOND-1")
+                .status(status)
+                .progressPercentage(new BigDecimal(progress))
+                .targetDate(LocalDateTime.of(targetDay, LocalTime.NOON))
+                .build();
+    }
+}
@@ -0,0 +1,127 @@
+package com.esgbank.greenbond.monitoring.service;
+
+import com.esgbank.greenbond.monitoring.config.GoalDashboardConfig;
+import com.esgbank.greenbond.monitoring.model.ImpactGoal;
+import com.esgbank.greenbond.monitoring.model.enums.GoalStatus;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class GoalDeadlineTimerTest {
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private GoalDashboardCounterStore counterStore;
+
+    @Captor
+    private ArgumentCaptor<Query> queryCaptor;
+
+    @Captor
+    private ArgumentCaptor<Update> updateCaptor;
+
+    private SimpleMeterRegistry meterRegistry;
+    private GoalDeadlineTimer deadlineTimer;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        deadlineTimer = new GoalDeadlineTimer(mongoTemplate, counterStore, new GoalDashboardConfig(), meterRegistry);
+    }
+
+    @Test
+    void shouldPollOnlyPassedDeadlinesInTargetDateOrder() {
+        // Given
+        LocalDateTime now = LocalDateTime.now();
+        deadlineTimer.schedule(goal("GOAL-2", GoalStatus.ON_TRACK, now.minusMinutes(1)));
+        deadlineTimer.schedule(goal("GOAL-1", GoalStatus.AT_RISK, now.minusMinutes(5)));
+        deadlineTimer.schedule(goal("GOAL-3", GoalStatus.ON_TRACK, now.plusMinutes(30)));
+        deadlineTimer.schedule(goal("GOAL-4", GoalStatus.ON_TRACK, now.plusDays(3)));
+        deadlineTimer.schedule(goal("GOAL-5", GoalStatus.ACHIEVED, now.minusMinutes(1)));
+
+        // When / Then
+        assertThat(deadlineTimer.pollDue(now)).containsExactly("GOAL-1", "GOAL-2");
+        assertThat(deadlineTimer.pollDue(now)).isEmpty();
+        assertThat(deadlineTimer.size()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldSkipDeadlineOfRescheduledGoal() {
+        // Given
+        LocalDateTime now = LocalDateTime.now();
+        deadlineTimer.schedule(goal("GOAL-1", GoalStatus.ON_TRACK, now.minusMinutes(1)));
+        deadlineTimer.schedule(goal("GOAL-1", GoalStatus.ON_TRACK, now.plusMinutes(10)));
+
+        // When / Then
+        assertThat(deadlineTimer.pollDue(now)).isEmpty();
+        assertThat(deadlineTimer.pollDue(now.plusMinutes(10))).containsExactly("GOAL-1");
+    }
+
+    @Test
+    void shouldMoveRunningGoalBehindScheduleAndUpdateCounters() {
+        // Given
+        ImpactGoal before = goal("GOAL-1", GoalStatus.ON_TRACK, LocalDateTime.now().minusMinutes(1));
+        deadlineTimer.schedule(before);
+        when(mongoTemplate.findAndModify(queryCaptor.capture(), updateCaptor.capture(), eq(ImpactGoal.class)))
+                .thenReturn(before);
+
+        // When
+        deadlineTimer.fireDueDeadlines();
+
+        // Then
+        assertThat(queryCaptor.getValue().getQueryObject())
+                .containsEntry("goalId", "GOAL-1")
+                .containsKeys("status", "targetDate");
+        assertThat(updateCaptor.getValue().getUpdateObject().get("$set", Document.class))
+                .containsEntry("status", GoalStatus.BEHIND_SCHEDULE);
+        GoalDashboardCounterStore.GoalState state = GoalDashboardCounterStore.GoalState.of(before);
+        verify(counterStore).apply(state, state.withStatus(GoalStatus.BEHIND_SCHEDULE));
+        assertThat(meterRegistry.get("impact.goal.deadlines").tag("result", "expired").counter().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    void shouldLeaveCountersAloneWhenGoalIsNoLongerRunning() {
+        // Given
+        deadlineTimer.schedule(goal("GOAL-1", GoalStatus.ON_TRACK, LocalDateTime.now().minusMinutes(1)));
+        when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), eq(ImpactGoal.class)))
+                .thenReturn(null);
+
+        // When
+        deadlineTimer.fireDueDeadlines();
+
+        // Then
+        verifyNoInteractions(counterStore);
+        assertThat(meterRegistry.get("impact.goal.deadlines").tag("result", "skipped").counter().count())
+                .isEqualTo(1);
+    }
+
+    private static ImpactGoal goal(String goalId, GoalStatus status, LocalDateTime targetDate) {
+        return ImpactGoal.builder()
+                .goalId(goalId)
+                .bondId("BOND-1")
+                .status(status)
+                .progressPercentage(BigDecimal.TEN)
+                .targetDate(targetDate)
+                .build();
+    }
+}
@@ -0,0 +1,126 @@
+package com.esgbank.greenbond.monitoring.service;
+
+import com.esgbank.greenbond.monitoring.config.GoalHistoryConfig;
+import com.esgbank.greenbond.monitoring.model.GoalProgressHistoryBucket;
+import com.esgbank.greenbond.monitoring.model.enums.GoalStatus;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.BulkWriteOptions;
+import com.mongodb.client.model.UpdateOneModel;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class GoalProgressHistoryStoreTest {
+
+    private static final LocalDateTime MONTH = LocalDateTime.of(2024, 3, 1, 0, 0);
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private MongoCollection<Document> collection;
+
+    @Captor
+    private ArgumentCaptor<List<UpdateOneModel<Document>>> updatesCaptor;
+
+    private GoalProgressHistoryStore historyStore;
+
+    @BeforeEach
+    void setUp() {
+        historyStore = new GoalProgressHistoryStore(mongoTemplate, new GoalHistoryConfig());
+    }
+
+    @Test
+    void shouldAppendSnapshotsWithServerSideDeltas() {
+        // Given
+        when(mongoTemplate.getCollectionName(GoalProgressHistoryBucket.class)).thenReturn("goal_progress_history");
+        when(mongoTemplate.getCollection("goal_progress_history")).thenReturn(collection);
+        GoalProgressHistoryStore.Snapshot snapshot = new GoalProgressHistoryStore.Snapshot("GOAL-1", "BOND-1",
+                MONTH.plusDays(2), new BigDecimal("12.5"), new BigDecimal("15.25"), GoalStatus.ON_TRACK);
+
+        // When
+        historyStore.record(List.of(snapshot));
+
+        // Then
+        verify(collection).bulkWrite(updatesCaptor.capture(), any(BulkWriteOptions.class));
+        UpdateOneModel<Document> update = updatesCaptor.getValue().get(0);
+        assertThat(update.getFilter().toBsonDocument().getString("_id").getValue())
+                .isEqualTo(GoalProgressHistoryBucket.idOf("GOAL-1", MONTH));
+        assertThat(update.getOptions().isUpsert()).isTrue();
+        Document set = ((Document) update.getUpdatePipeline().get(0)).get("$set", Document.class);
+        assertThat(set.getInteger("lastOffset")).isEqualTo(2 * 24 * 3600);
+        assertThat(set.getInteger("lastProgress")).isEqualTo(152_500);
+        assertThat(set.get("baseProgress", Document.class).getList("$ifNull", Object.class))
+                .containsExactly("$baseProgress", 125_000);
+    }
+
+    @Test
+    void shouldDecodeBucketsIntoPointsInTimeOrder() {
+        // Given
+        GoalProgressHistoryBucket march = bucket(MONTH, 100_000, List.of(3600, 86_400), List.of(50_000, 25_000));
+        GoalProgressHistoryBucket april = bucket(MONTH.plusMonths(1), 175_000, List.of(60), List.of(-5_000));
+        when(mongoTemplate.find(any(Query.class), eq(GoalProgressHistoryBucket.class)))
+                .thenReturn(List.of(march, april));
+
+        // When
+        List<GoalProgressHistoryStore.Point> points = historyStore.findHistory("GOAL-1", MONTH.plusDays(10),
+                MONTH.plusMonths(2));
+
+        // Then
+        assertThat(points).extracting(GoalProgressHistoryStore.Point::timestamp).containsExactly(
+                MONTH, MONTH.plusHours(1), MONTH.plusHours(25), MONTH.plusMonths(1).plusMinutes(1));
+        assertThat(points).extracting(point -> point.progress().doubleValue())
+                .containsExactly(10.0, 15.0, 17.5, 17.0);
+    }
+
+    @Test
+    void shouldCarryProgressForwardAndWidenStepForLongRanges() {
+        // Given
+        List<GoalProgressHistoryStore.Point> points = List.of(
+                new GoalProgressHistoryStore.Point(MONTH.plusDays(3), BigDecimal.ONE),
+                new GoalProgressHistoryStore.Point(MONTH.plusDays(9), BigDecimal.TEN));
+
+        // When
+        Map<LocalDateTime, BigDecimal> samples = GoalProgressHistoryStore.sample(points, MONTH,
+                MONTH.plusDays(21), Duration.ofDays(7));
+
+        // Then
+        assertThat(samples).containsExactly(
+                Map.entry(MONTH.plusDays(7), BigDecimal.ONE),
+                Map.entry(MONTH.plusDays(14), BigDecimal.TEN));
+        assertThat(historyStore.stepFor(MONTH, MONTH.plusMonths(1))).isEqualTo(Duration.ofDays(7));
+        assertThat(historyStore.stepFor(MONTH, MONTH.plusYears(10)).toDays())
+                .isGreaterThan(7)
+                .isLessThanOrEqualTo(15);
+    }
+
+    private static GoalProgressHistoryBucket bucket(LocalDateTime monthStart, int baseProgress,
+                                                    List<Integer> timeDeltas, List<Integer> progressDeltas) {
+        return GoalProgressHistoryBucket.builder()
+                .goalId("GOAL-1")
+                .monthStart(monthStart)
+                .baseProgress(baseProgress)
+                .timeDeltas(timeDeltas)
+                .progressDeltas(progressDeltas)
+                .build();
+    }
+}
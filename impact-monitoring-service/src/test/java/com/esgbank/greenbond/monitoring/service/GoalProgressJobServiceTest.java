@@ -0,0 +1,189 @@
+package com.esgbank.greenbond.monitoring.service;
+
+import com.esgbank.greenbond.monitoring.config.GoalProgressJobConfig;
+import com.esgbank.greenbond.monitoring.model.ImpactGoal;
+import com.esgbank.greenbond.monitoring.model.enums.MetricType;
+import com.mongodb.bulk.BulkWriteResult;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bson.Document;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class GoalProgressJobServiceTest {
+
+    private static final String RUN = "2024-06-01";
+    private static final String NODE = "node-a";
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private ImpactGoalService goalService;
+
+    @Mock
+    private MetricRunningTotalsService runningTotalsService;
+
+    @Mock
+    private JobLeaseStore leaseStore;
+
+    @Mock
+    private GoalProgressHistoryStore historyStore;
+
+    @Mock
+    private GoalDashboardCounterStore counterStore;
+
+    @Mock
+    private BulkOperations bulkOps;
+
+    @Captor
+    private ArgumentCaptor<Query> queryCaptor;
+
+    @Captor
+    private ArgumentCaptor<Update> updateCaptor;
+
+    @Captor
+    private ArgumentCaptor<List<GoalProgressHistoryStore.Snapshot>> snapshotsCaptor;
+
+    private SimpleMeterRegistry meterRegistry;
+    private GoalProgressJobService jobService;
+    private int partition;
+
+    @BeforeEach
+    void setUp() {
+        GoalProgressJobConfig config = new GoalProgressJobConfig();
+        config.setPartitions(2);
+        config.setHeartbeatInterval(Duration.ofMillis(10));
+        meterRegistry = new SimpleMeterRegistry();
+        when(leaseStore.getInstanceId()).thenReturn(NODE);
+        jobService = new GoalProgressJobService(mongoTemplate, goalService, runningTotalsService, leaseStore,
+                historyStore, counterStore, config, meterRegistry);
+        partition = GoalProgressJobService.partitionOf("BOND-1", 2);
+
+        when(mongoTemplate.findDistinct(any(Query.class), eq("bondId"), eq(ImpactGoal.class), eq(String.class)))
+                .thenReturn(List.of("BOND-1"));
+        lenient().when(leaseStore.renew(anyString(), any())).thenReturn(true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        jobService.shutdown();
+    }
+
+    @Test
+    void shouldBulkWriteChangedGoalsOfClaimedPartitionsOnly() {
+        // Given
+        ImpactGoal changed = goal("GOAL-1", 3L);
+        changed.setProgressPercentage(BigDecimal.valueOf(40));
+        ImpactGoal unchanged = goal("GOAL-2", 1L);
+        Map<MetricType, BigDecimal> summary = Map.of(MetricType.CARBON_EMISSIONS_REDUCTION, BigDecimal.TEN);
+        when(leaseStore.findIncomplete(anyList(), eq(RUN))).thenReturn(List.of(job(0), job(1)), List.of());
+        when(leaseStore.claim(eq(job(partition)), eq(RUN), any())).thenReturn(true);
+        when(leaseStore.claim(eq(job(1 - partition)), eq(RUN), any())).thenReturn(false);
+        when(mongoTemplate.find(any(Query.class), eq(ImpactGoal.class))).thenReturn(List.of(changed, unchanged));
+        when(runningTotalsService.getSummary("BOND-1")).thenReturn(summary);
+        when(goalService.updateGoalProgress(changed, summary)).thenAnswer(invocation -> {
+            changed.setProgressPercentage(BigDecimal.valueOf(55));
+            return true;
+        });
+        when(goalService.updateGoalProgress(unchanged, summary)).thenReturn(false);
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, ImpactGoal.class)).thenReturn(bulkOps);
+        BulkWriteResult result = mock(BulkWriteResult.class);
+        when(result.getModifiedCount()).thenReturn(1);
+        when(bulkOps.execute()).thenReturn(result);
+        when(leaseStore.complete(job(partition), RUN)).thenReturn(true);
+
+        // When
+        int claimed = jobService.run(RUN);
+
+        // Then
+        assertThat(claimed).isEqualTo(1);
+        verify(runningTotalsService, times(1)).getSummary("BOND-1");
+        verify(bulkOps).updateOne(queryCaptor.capture(), updateCaptor.capture());
+        assertThat(queryCaptor.getValue().getQueryObject())
+                .containsEntry("_id", "ID-GOAL-1")
+                .containsEntry("version", 3L);
+        assertThat(updateCaptor.getValue().getUpdateObject().get("$inc", Document.class))
+                .containsEntry("version", 1);
+        verify(leaseStore).complete(job(partition), RUN);
+        verify(historyStore).record(snapshotsCaptor.capture());
+        assertThat(snapshotsCaptor.getValue()).singleElement().satisfies(snapshot -> {
+            assertThat(snapshot.goalId()).isEqualTo("GOAL-1");
+            assertThat(snapshot.previousProgress()).isEqualByComparingTo("40");
+            assertThat(snapshot.progress()).isEqualByComparingTo("55");
+        });
+        assertThat(meterRegistry.get("impact.goal.progress.goals").tag("result", "updated").counter().count())
+                .isEqualTo(1);
+        assertThat(meterRegistry.get("impact.goal.progress.lease.claims").tag("result", "contended").counter()
+                .count()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldReleaseLeaseOfFailedPartition() {
+        // Given
+        when(leaseStore.findIncomplete(anyList(), eq(RUN))).thenReturn(List.of(job(partition)), List.of());
+        when(leaseStore.claim(eq(job(partition)), eq(RUN), any())).thenReturn(true);
+        when(mongoTemplate.find(any(Query.class), eq(ImpactGoal.class))).thenThrow(new IllegalStateException("down"));
+
+        // When
+        jobService.run(RUN);
+
+        // Then
+        verify(leaseStore).release(job(partition));
+        verify(leaseStore, never()).complete(anyString(), anyString());
+        assertThat(meterRegistry.get("impact.goal.progress.partitions").tag("result", "failed").counter().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    void shouldWaitForPartitionsHeldByOtherInstances() {
+        // Given: the other instance finishes the partition between two passes
+        when(leaseStore.findIncomplete(anyList(), eq(RUN)))
+                .thenReturn(List.of(job(partition)), List.of(job(partition)), List.of());
+        when(leaseStore.claim(eq(job(partition)), eq(RUN), any())).thenReturn(false);
+
+        // When
+        int claimed = jobService.run(RUN);
+
+        // Then
+        assertThat(claimed).isZero();
+        verify(leaseStore, times(2)).claim(eq(job(partition)), eq(RUN), any());
+        verify(leaseStore, times(3)).findIncomplete(List.of(job(0), job(1)), RUN);
+    }
+
+    private static String job(int partition) {
+        return GoalProgressJobService.partitionJob(partition);
+    }
+
+    private static ImpactGoal goal(String goalId, Long version) {
+        return ImpactGoal.builder()
+                .id("ID-" + goalId)
+                .goalId(goalId)
+                .bondId("BOND-1")
+                .metricType(MetricType.CARBON_EMISSIONS_REDUCTION)
+                .version(version)
+                .build();
+    }
+}
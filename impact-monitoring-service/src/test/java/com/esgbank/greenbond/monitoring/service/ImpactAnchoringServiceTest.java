@@ -0,0 +1,187 @@
+package com.esgbank.greenbond.monitoring.service;
+
+import com.esgbank.greenbond.blockchain.proto.ImpactDataResponse;
+import com.esgbank.greenbond.monitoring.config.AnchoringConfig;
+import com.esgbank.greenbond.monitoring.exception.ImpactMonitoringException;
+import com.esgbank.greenbond.monitoring.integration.BlockchainService;
+import com.esgbank.greenbond.monitoring.model.ImpactAnchor;
+import com.esgbank.greenbond.monitoring.model.ImpactMetric;
+import com.esgbank.greenbond.monitoring.model.enums.AnchorStatus;
+import com.esgbank.greenbond.monitoring.model.enums.MetricType;
+import com.esgbank.greenbond.monitoring.repository.ImpactAnchorRepository;
+import com.esgbank.greenbond.monitoring.repository.ImpactMetricRepository;
+import com.mongodb.bulk.BulkWriteResult;
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ImpactAnchoringServiceTest {
+
+    @Mock
+    private ImpactMetricRepository metricRepository;
+
+    @Mock
+    private ImpactAnchorRepository anchorRepository;
+
+    @Mock
+    private BlockchainService blockchainService;
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private MetricHotWindowService hotWindowService;
+
+    @Mock
+    private MetricBucketStore bucketStore;
+
+    @Mock
+    private JobLeaseStore leaseStore;
+
+    @Mock
+    private BulkOperations bulkOps;
+
+    private AnchoringConfig config;
+
+    private ImpactAnchoringService anchoringService;
+
+    @BeforeEach
+    void setUp() {
+        config = new AnchoringConfig();
+        config.setBatchSize(1);
+        config.setWriteRetryBackoff(Duration.ofMillis(1));
+        anchoringService = new ImpactAnchoringService(metricRepository, anchorRepository, blockchainService,
+                mongoTemplate, config, hotWindowService, bucketStore, leaseStore);
+    }
+
+    @Test
+    void shouldRetryOnlyMongoWritesAfterConfirmedTransaction() {
+        // Given
+        List<AnchorStatus> savedStatuses = new ArrayList<>();
+        when(anchorRepository.save(any(ImpactAnchor.class))).thenAnswer(invocation -> {
+            ImpactAnchor anchor = invocation.getArgument(0);
+            savedStatuses.add(anchor.getStatus());
+            return anchor;
+        });
+        when(blockchainService.anchorMerkleRoot(any())).thenReturn(ImpactDataResponse.newBuilder()
+                .setTransactionHash("0xabc")
+                .setImpactId("IMPACT-1")
+                .setBlockNumber(42L)
+                .build());
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, ImpactMetric.class)).thenReturn(bulkOps);
+        when(bulkOps.updateOne(any(Query.class), any(Update.class))).thenReturn(bulkOps);
+        when(bulkOps.execute())
+                .thenThrow(new DataAccessResourceFailureException("primary stepped down"))
+                .thenReturn(mock(BulkWriteResult.class));
+
+        // When
+        anchoringService.submit(List.of(metric()));
+        anchoringService.shutdown();
+
+        // Then
+        verify(blockchainService, times(1)).anchorMerkleRoot(any());
+        verify(bulkOps, times(2)).execute();
+        assertThat(savedStatuses).containsExactly(AnchorStatus.PENDING, AnchorStatus.CONFIRMED, AnchorStatus.CONFIRMED);
+        verify(mongoTemplate).updateFirst(any(Query.class), eq(Update.update("status", AnchorStatus.COMPLETED)),
+                eq(ImpactAnchor.class));
+    }
+
+    @Test
+    void shouldDiscardPendingAnchorWhenChainCallFails() {
+        // Given
+        when(anchorRepository.save(any(ImpactAnchor.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(blockchainService.anchorMerkleRoot(any())).thenThrow(new IllegalStateException("node unavailable"));
+
+        // When
+        anchoringService.submit(List.of(metric()));
+        anchoringService.shutdown();
+
+        // Then
+        verify(anchorRepository).delete(any(ImpactAnchor.class));
+        verifyNoInteractions(bulkOps, hotWindowService, bucketStore);
+    }
+
+    @Test
+    void shouldKeepPendingAnchorWhenChainOutcomeIsUnknown() {
+        // Given
+        when(anchorRepository.save(any(ImpactAnchor.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(blockchainService.anchorMerkleRoot(any())).thenThrow(new ImpactMonitoringException(
+                "BLOCKCHAIN_ANCHOR_FAILED", "deadline exceeded", new StatusRuntimeException(Status.DEADLINE_EXCEEDED)));
+
+        // When
+        anchoringService.submit(List.of(metric()));
+        anchoringService.shutdown();
+
+        // Then
+        verify(blockchainService, times(1)).anchorMerkleRoot(any());
+        verify(anchorRepository, never()).delete(any(ImpactAnchor.class));
+    }
+
+    @Test
+    void shouldFlagMetricsDeferredByFullBacklog() {
+        // Given
+        config.setMaxPending(0);
+
+        // When
+        anchoringService.submit(List.of(metric()));
+
+        // Then
+        verify(mongoTemplate).updateMulti(any(Query.class), eq(Update.update("anchorDeferred", true)),
+                eq(ImpactMetric.class));
+        verifyNoInteractions(anchorRepository, blockchainService);
+    }
+
+    @Test
+    void shouldResubmitDeferredMetricsFromSweep() {
+        // Given
+        when(leaseStore.acquire(eq("anchoring-sweep"), any(Duration.class))).thenReturn(true);
+        when(mongoTemplate.find(any(Query.class), eq(ImpactMetric.class))).thenReturn(List.of(metric()), List.of());
+        when(anchorRepository.save(any(ImpactAnchor.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(blockchainService.anchorMerkleRoot(any())).thenReturn(ImpactDataResponse.newBuilder()
+                .setTransactionHash("0xabc")
+                .build());
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, ImpactMetric.class)).thenReturn(bulkOps);
+        when(bulkOps.updateOne(any(Query.class), any(Update.class))).thenReturn(bulkOps);
+
+        // When
+        anchoringService.sweepDeferredMetrics();
+        anchoringService.shutdown();
+
+        // Then
+        verify(mongoTemplate).updateMulti(any(Query.class), eq(new Update().unset("anchorDeferred")),
+                eq(ImpactMetric.class));
+        verify(blockchainService).anchorMerkleRoot(any());
+        verify(leaseStore).release("anchoring-sweep");
+    }
+
+    private ImpactMetric metric() {
+        return ImpactMetric.builder()
+                .metricId("MTR-1")
+                .bondId("BOND-1")
+                .metricType(MetricType.CARBON_EMISSIONS_REDUCTION)
+                .value(BigDecimal.TEN)
+                .timestamp(LocalDateTime.of(2024, 1, 1, 10, 15))
+                .build();
+    }
+}
@@ -2,7 +2,6 @@ package com.esgbank.greenbond.monitoring.service;
 
 import com.esgbank.greenbond.monitoring.dto.ImpactMetricRequest;
 import com.esgbank.greenbond.monitoring.exception.MetricNotFoundException;
-import com.esgbank.greenbond.monitoring.integration.BlockchainService;
 import com.esgbank.greenbond.monitoring.mapper.ImpactMetricMapper;
 import com.esgbank.greenbond.monitoring.mapper.ImpactMetricMapperImpl;
 import com.esgbank.greenbond.monitoring.model.ImpactMetric;
@@ -10,11 +9,14 @@ import com.esgbank.greenbond.monitoring.model.enums.DataSourceType;
 import com.esgbank.greenbond.monitoring.model.enums.MetricType;
 import com.esgbank.greenbond.monitoring.model.enums.MetricUnit;
 import com.esgbank.greenbond.monitoring.repository.ImpactMetricRepository;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
@@ -24,10 +26,12 @@ import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -43,16 +47,44 @@ class ImpactMetricServiceTest {
     private DataQualityService dataQualityService;
 
     @Mock
-    private BlockchainService blockchainService;
+    private ImpactAnchoringService anchoringService;
+
+    @Mock
+    private MetricRunningTotalsService runningTotalsService;
+
+    @Mock
+    private MetricRollupService rollupService;
+
+    @Mock
+    private MetricHotWindowService hotWindowService;
+
+    @Mock
+    private MetricLiveFeedService liveFeedService;
+
+    @Mock
+    private AggregationResultCache aggregationCache;
+
+    @Mock
+    private MetricDeduplicationService deduplicationService;
+
+    @Mock
+    private MetricBucketStore bucketStore;
+
+    @Mock
+    private MetricArchiveStore archiveStore;
 
     private ImpactMetricMapper metricMapper = new ImpactMetricMapperImpl();
 
+    private Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
+
     private ImpactMetricService impactMetricService;
 
     @BeforeEach
     void setUp() {
         impactMetricService = new ImpactMetricService(metricRepository, metricMapper,
-                timeSeriesService, dataQualityService, blockchainService);
+                timeSeriesService, dataQualityService, anchoringService,
+                runningTotalsService, rollupService, hotWindowService, liveFeedService, aggregationCache,
+                deduplicationService, bucketStore, archiveStore, validator);
     }
 
     @Test
@@ -63,8 +95,6 @@ class ImpactMetricServiceTest {
 
         when(metricRepository.save(any(ImpactMetric.class))).thenReturn(metric);
         when(dataQualityService.assessDataQuality(any())).thenReturn(metric.getDataQuality());
-        doNothing().when(timeSeriesService).storeMetricInTimeSeries(any());
-        doNothing().when(blockchainService).recordImpactMetric(any());
 
         // When
         var result = impactMetricService.createMetric(request);
@@ -75,8 +105,120 @@ class ImpactMetricServiceTest {
         assertThat(result.getBondId()).isEqualTo("BOND-123");
 
         verify(metricRepository).save(any(ImpactMetric.class));
-        verify(timeSeriesService).storeMetricInTimeSeries(any());
-        verify(blockchainService).recordImpactMetric(any());
+        verify(timeSeriesService).storeMetricsInTimeSeries(anyList());
+        verify(anchoringService).submit(anyList());
+    }
+
+    @Test
+    void shouldCreateMetricsInBulkWithSingleWrites() {
+        // Given
+        List<ImpactMetricRequest> requests = List.of(createMetricRequest(), createMetricRequest());
+        ImpactMetric metric = createMetric();
+
+        when(dataQualityService.assessDataQuality(any())).thenReturn(metric.getDataQuality());
+        when(metricRepository.insert(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // When
+        var result = impactMetricService.createMetrics(requests);
+
+        // Then
+        assertThat(result.getTotalReceived()).isEqualTo(2);
+        assertThat(result.getCreatedCount()).isEqualTo(2);
+        assertThat(result.getFailedCount()).isZero();
+        assertThat(result.getResults()).allSatisfy(item -> {
+            assertThat(item.getStatus()).isEqualTo("CREATED");
+            assertThat(item.getMetricId()).startsWith("METRIC-");
+        });
+
+        verify(metricRepository).insert(anyList());
+        verify(metricRepository, never()).save(any(ImpactMetric.class));
+        verify(timeSeriesService).storeMetricsInTimeSeries(anyList());
+        verify(runningTotalsService).applyMetrics(anyList());
+        verify(rollupService).applyMetrics(anyList());
+    }
+
+    @Test
+    void shouldReportStoredItemsAsCreatedWhenDerivedUpdatesFail() {
+        // Given
+        List<ImpactMetricRequest> requests = List.of(createMetricRequest(), createMetricRequest());
+        ImpactMetric metric = createMetric();
+
+        when(dataQualityService.assessDataQuality(any())).thenReturn(metric.getDataQuality());
+        when(metricRepository.insert(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+        doThrow(new DataAccessResourceFailureException("bulk write failed"))
+                .when(runningTotalsService).applyMetrics(anyList());
+
+        // When
+        var result = impactMetricService.createMetrics(requests);
+
+        // Then
+        assertThat(result.getCreatedCount()).isEqualTo(2);
+        assertThat(result.getFailedCount()).isZero();
+        verify(rollupService).applyMetrics(anyList());
+        verify(anchoringService).submit(anyList());
+    }
+
+    @Test
+    void shouldReportInvalidItemsInBulkResults() {
+        // Given
+        ImpactMetricRequest negativeValue = createMetricRequest();
+        negativeValue.setValue(BigDecimal.valueOf(-1));
+        ImpactMetricRequest missingBond = createMetricRequest();
+        missingBond.setBondId(null);
+        List<ImpactMetricRequest> requests = List.of(createMetricRequest(), negativeValue, missingBond);
+
+        when(dataQualityService.assessDataQuality(any())).thenReturn(createMetric().getDataQuality());
+        when(metricRepository.insert(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // When
+        var result = impactMetricService.createMetrics(requests);
+
+        // Then
+        assertThat(result.getCreatedCount()).isEqualTo(1);
+        assertThat(result.getFailedCount()).isEqualTo(2);
+        assertThat(result.getResults().get(0).getStatus()).isEqualTo("CREATED");
+        assertThat(result.getResults().get(1).getError()).contains("cannot be negative");
+        assertThat(result.getResults().get(2).getError()).contains("bondId");
+    }
+
+    @Test
+    void shouldSkipDuplicateReadingsInBulk() {
+        // Given
+        List<ImpactMetricRequest> requests = List.of(createMetricRequest(), createMetricRequest());
+
+        when(deduplicationService.findDuplicates(anyList())).thenReturn(Set.of(1));
+        when(dataQualityService.assessDataQuality(any())).thenReturn(createMetric().getDataQuality());
+        when(metricRepository.insert(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // When
+        var result = impactMetricService.createMetrics(requests);
+
+        // Then
+        assertThat(result.getCreatedCount()).isEqualTo(1);
+        assertThat(result.getDuplicateCount()).isEqualTo(1);
+        assertThat(result.getFailedCount()).isZero();
+        assertThat(result.getResults().get(1).getStatus()).isEqualTo("DUPLICATE");
+
+        verify(dataQualityService, times(1)).assessDataQuality(any());
+        verify(deduplicationService).remember(anyList());
+    }
+
+    @Test
+    void shouldReturnStoredMetricForDuplicateReading() {
+        // Given
+        ImpactMetric stored = createMetric();
+
+        when(deduplicationService.findDuplicates(anyList())).thenReturn(Set.of(0));
+        when(metricRepository.findByDeviceIdAndMetricTypeAndTimestampAndSourceId(any(), any(), any(), any()))
+                .thenReturn(Optional.of(stored));
+
+        // When
+        var result = impactMetricService.createMetric(createMetricRequest());
+
+        // Then
+        assertThat(result.getMetricId()).isEqualTo("METRIC-123");
+        verify(metricRepository, never()).save(any(ImpactMetric.class));
+        verifyNoInteractions(dataQualityService, timeSeriesService);
     }
 
     @Test
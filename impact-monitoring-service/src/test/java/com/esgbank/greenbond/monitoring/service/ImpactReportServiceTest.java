@@ -0,0 +1,151 @@
+package com.esgbank.greenbond.monitoring.service;
+
+import com.esgbank.greenbond.monitoring.config.ReportConfig;
+import com.esgbank.greenbond.monitoring.exception.ImpactMonitoringException;
+import com.esgbank.greenbond.monitoring.model.ImpactGoal;
+import com.esgbank.greenbond.monitoring.model.ImpactReport;
+import com.esgbank.greenbond.monitoring.model.MetricSummary;
+import com.esgbank.greenbond.monitoring.model.enums.GoalStatus;
+import com.esgbank.greenbond.monitoring.model.enums.MetricType;
+import com.esgbank.greenbond.monitoring.model.enums.ReportStatus;
+import com.esgbank.greenbond.monitoring.model.enums.ReportType;
+import com.esgbank.greenbond.monitoring.repository.ImpactGoalRepository;
+import com.esgbank.greenbond.monitoring.repository.ImpactReportRepository;
+import com.esgbank.greenbond.monitoring.service.ImpactReportService.ReportPeriod;
+import com.esgbank.greenbond.monitoring.service.MetricRollupService.PeriodTotals;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ImpactReportServiceTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2024, 5, 15, 10, 30);
+
+    @Mock
+    private ImpactReportRepository reportRepository;
+
+    @Mock
+    private ImpactGoalRepository goalRepository;
+
+    @Mock
+    private MetricRunningTotalsService runningTotalsService;
+
+    @Mock
+    private ReportFragmentStore fragmentStore;
+
+    private SimpleMeterRegistry meterRegistry;
+    private ImpactReportService reportService;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        reportService = new ImpactReportService(reportRepository, goalRepository, runningTotalsService,
+                fragmentStore, new ReportConfig(), meterRegistry);
+    }
+
+    @Test
+    void shouldResolveLastCompletePeriods() {
+        assertThat(ReportPeriod.of(ReportType.DAILY, null, null, NOW))
+                .isEqualTo(new ReportPeriod(LocalDateTime.of(2024, 5, 14, 0, 0), LocalDateTime.of(2024, 5, 15, 0, 0)));
+        assertThat(ReportPeriod.of(ReportType.WEEKLY, null, null, NOW))
+                .isEqualTo(new ReportPeriod(LocalDateTime.of(2024, 5, 6, 0, 0), LocalDateTime.of(2024, 5, 13, 0, 0)));
+        assertThat(ReportPeriod.of(ReportType.QUARTERLY, null, null, NOW))
+                .isEqualTo(new ReportPeriod(LocalDateTime.of(2024, 1, 1, 0, 0), LocalDateTime.of(2024, 4, 1, 0, 0)));
+        assertThat(ReportPeriod.of(ReportType.QUARTERLY, null, null, NOW).previous(ReportType.QUARTERLY))
+                .isEqualTo(new ReportPeriod(LocalDateTime.of(2023, 10, 1, 0, 0), LocalDateTime.of(2024, 1, 1, 0, 0)));
+        assertThatThrownBy(() -> ReportPeriod.of(ReportType.AD_HOC, NOW.minusDays(3), null, NOW))
+                .isInstanceOf(ImpactMonitoringException.class);
+    }
+
+    @Test
+    void shouldGenerateSectionsFromFragmentsAndRunningTotals() {
+        // Given
+        LocalDateTime start = LocalDateTime.of(2024, 1, 1, 0, 0);
+        ImpactReport report = ImpactReport.builder()
+                .reportId("REPORT-1")
+                .bondId("BOND-1")
+                .reportType(ReportType.QUARTERLY)
+                .status(ReportStatus.GENERATING)
+                .reportingPeriodStart(start)
+                .reportingPeriodEnd(start.plusMonths(3))
+                .build();
+        ImpactGoal goal = ImpactGoal.builder()
+                .goalId("GOAL-1")
+                .bondId("BOND-1")
+                .metricType(MetricType.CARBON_EMISSIONS_REDUCTION)
+                .targetValue(BigDecimal.valueOf(1000))
+                .progressPercentage(BigDecimal.valueOf(25))
+                .status(GoalStatus.ON_TRACK)
+                .build();
+        when(goalRepository.findByBondId("BOND-1", Pageable.unpaged())).thenReturn(new PageImpl<>(List.of(goal)));
+        when(runningTotalsService.getSummary("BOND-1")).thenReturn(Map.of(
+                MetricType.CARBON_EMISSIONS_REDUCTION, BigDecimal.valueOf(250),
+                MetricType.WATER_SAVINGS, BigDecimal.valueOf(40)));
+        doReturn(new PeriodTotals(3, 150, 20, 80)).when(fragmentStore)
+                .totals("BOND-1", MetricType.CARBON_EMISSIONS_REDUCTION, start, start.plusMonths(3));
+        doReturn(new PeriodTotals(2, 100, 40, 60)).when(fragmentStore)
+                .totals("BOND-1", MetricType.CARBON_EMISSIONS_REDUCTION, start.minusMonths(3), start);
+        doReturn(PeriodTotals.EMPTY).when(fragmentStore)
+                .totals(eq("BOND-1"), eq(MetricType.WATER_SAVINGS), any(), any());
+        when(reportRepository.save(any(ImpactReport.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // When
+        ImpactReport generated = reportService.generate(report);
+
+        // Then
+        assertThat(generated.getStatus()).isEqualTo(ReportStatus.GENERATED);
+        assertThat(generated.getMetricSummaries()).extracting(MetricSummary::getMetricType)
+                .containsExactly(MetricType.CARBON_EMISSIONS_REDUCTION, MetricType.WATER_SAVINGS);
+        MetricSummary carbon = generated.getMetricSummaries().get(0);
+        assertThat(carbon.getTotalValue()).isEqualByComparingTo("150");
+        assertThat(carbon.getAverageValue()).isEqualByComparingTo("50");
+        assertThat(carbon.getPeriodOverPeriodChange()).isEqualByComparingTo("50");
+        assertThat(carbon.getVsTarget()).isEqualByComparingTo("15");
+        assertThat(generated.getMetricSummaries().get(1).getDataPoints()).isZero();
+        assertThat(generated.getGoalProgress()).singleElement().satisfies(progress -> {
+            assertThat(progress.getCurrentValue()).isEqualByComparingTo("250");
+            assertThat(progress.getRemainingValue()).isEqualByComparingTo("750");
+        });
+        assertThat(generated.getExecutiveSummary()).containsEntry("metricsReported", 1L);
+    }
+
+    @Test
+    void shouldKeepFailedReportAsDraftWithError() {
+        // Given
+        ImpactReport report = ImpactReport.builder()
+                .reportId("REPORT-1")
+                .bondId("BOND-1")
+                .reportType(ReportType.MONTHLY)
+                .status(ReportStatus.GENERATING)
+                .reportingPeriodStart(LocalDateTime.of(2024, 4, 1, 0, 0))
+                .reportingPeriodEnd(LocalDateTime.of(2024, 5, 1, 0, 0))
+                .build();
+        when(goalRepository.findByBondId("BOND-1", Pageable.unpaged())).thenThrow(new IllegalStateException("down"));
+        when(reportRepository.save(any(ImpactReport.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // When
+        ImpactReport failed = reportService.generate(report);
+
+        // Then
+        assertThat(failed.getStatus()).isEqualTo(ReportStatus.DRAFT);
+        assertThat(failed.getMetadata()).containsEntry("error", "down");
+        assertThat(meterRegistry.get("impact.reports").tag("result", "failed").counter().count()).isEqualTo(1);
+    }
+}
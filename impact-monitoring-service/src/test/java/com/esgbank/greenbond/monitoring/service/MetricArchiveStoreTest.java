@@ -0,0 +1,211 @@
+package com.esgbank.greenbond.monitoring.service;
+
+import com.esgbank.greenbond.monitoring.config.ArchiveConfig;
+import com.esgbank.greenbond.monitoring.model.DataQuality;
+import com.esgbank.greenbond.monitoring.model.ImpactMetric;
+import com.esgbank.greenbond.monitoring.model.MerkleProof;
+import com.esgbank.greenbond.monitoring.model.MetricArchiveSegment;
+import com.esgbank.greenbond.monitoring.model.enums.DataSourceType;
+import com.esgbank.greenbond.monitoring.model.enums.MetricType;
+import com.esgbank.greenbond.monitoring.model.enums.MetricUnit;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mongodb.client.gridfs.model.GridFSFile;
+import org.bson.BsonObjectId;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.gridfs.GridFsOperations;
+import org.springframework.data.mongodb.gridfs.GridFsResource;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class MetricArchiveStoreTest {
+
+    private static final LocalDateTime MONTH = LocalDateTime.of(2020, 3, 1, 0, 0);
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private GridFsOperations gridFs;
+
+    @Captor
+    private ArgumentCaptor<MetricArchiveSegment> segmentCaptor;
+
+    @Captor
+    private ArgumentCaptor<Query> queryCaptor;
+
+    // Contents of the GridFS files stored through the mock, by file id
+    private final Map<ObjectId, byte[]> files = new HashMap<>();
+
+    private MetricArchiveStore archiveStore;
+
+    @BeforeEach
+    void setUp() {
+        ArchiveConfig config = new ArchiveConfig();
+        config.setEnabled(true);
+        archiveStore = new MetricArchiveStore(mongoTemplate, gridFs, new ObjectMapper().findAndRegisterModules(),
+                config);
+    }
+
+    @Test
+    void shouldReadBackArchivedMetricsWithinRange() throws Exception {
+        // Given
+        storeFilesInMemory();
+        ImpactMetric anchored = metric("METRIC-1", MetricType.CARBON_EMISSIONS_REDUCTION, MONTH.plusDays(1), 10);
+        anchored.setBlockchainTxHash("0xabc");
+        anchored.setBlockchainRecordedAt(MONTH.plusDays(2));
+        anchored.setMerkleProof(MerkleProof.builder().anchorId("ANCHOR-1").leafIndex(3).leafCount(8).build());
+        archiveStore.writeSegment("BOND/123", MONTH, List.of(
+                metric("METRIC-3", MetricType.CARBON_EMISSIONS_REDUCTION, MONTH.plusDays(20), 30),
+                anchored,
+                metric("METRIC-2", MetricType.WATER_SAVINGS, MONTH.plusDays(5), 20)));
+        verify(mongoTemplate).save(segmentCaptor.capture());
+        MetricArchiveSegment segment = segmentCaptor.getValue();
+        when(mongoTemplate.find(queryCaptor.capture(), eq(MetricArchiveSegment.class))).thenReturn(List.of(segment));
+
+        // When
+        List<ImpactMetric> range = archiveStore.findRange("BOND/123", MetricType.CARBON_EMISSIONS_REDUCTION,
+                MONTH, MONTH.plusDays(10));
+
+        // Then
+        assertThat(range).hasSize(1);
+        ImpactMetric restored = range.get(0);
+        assertThat(restored).usingRecursiveComparison().ignoringFields("id").isEqualTo(anchored);
+        assertThat(restored.getBondId()).isEqualTo("BOND/123");
+        assertThat(files).containsKey(new ObjectId(segment.getFileId()));
+        verify(gridFs).store(any(InputStream.class), eq("BOND/123:2020-03"), any(Document.class));
+        assertThat(segment.getSeries().get(MetricType.CARBON_EMISSIONS_REDUCTION))
+                .satisfies(series -> {
+                    assertThat(series.getCount()).isEqualTo(2);
+                    assertThat(series.getSum()).isEqualTo(40.0);
+                    assertThat(series.getMinTimestamp()).isEqualTo(MONTH.plusDays(1));
+                    assertThat(series.getMaxTimestamp()).isEqualTo(MONTH.plusDays(20));
+                });
+        Document query = queryCaptor.getValue().getQueryObject();
+        assertThat(query).containsKeys("series.CARBON_EMISSIONS_REDUCTION.minTimestamp",
+                "series.CARBON_EMISSIONS_REDUCTION.maxTimestamp");
+    }
+
+    @Test
+    void shouldMergeLateMetricsIntoExistingSegment() throws Exception {
+        // Given
+        storeFilesInMemory();
+        archiveStore.writeSegment("BOND-123", MONTH, List.of(
+                metric("METRIC-1", MetricType.CARBON_EMISSIONS_REDUCTION, MONTH.plusDays(1), 10),
+                metric("METRIC-2", MetricType.CARBON_EMISSIONS_REDUCTION, MONTH.plusDays(2), 20)));
+        verify(mongoTemplate).save(segmentCaptor.capture());
+        MetricArchiveSegment first = segmentCaptor.getValue();
+        first.setEvicted(true);
+        when(mongoTemplate.findById(first.getId(), MetricArchiveSegment.class)).thenReturn(first);
+
+        // When
+        MetricArchiveSegment merged = archiveStore.writeSegment("BOND-123", MONTH, List.of(
+                metric("METRIC-2", MetricType.CARBON_EMISSIONS_REDUCTION, MONTH.plusDays(2), 25),
+                metric("METRIC-0", MetricType.CARBON_EMISSIONS_REDUCTION, MONTH, 5)));
+
+        // Then
+        assertThat(merged.getRowCount()).isEqualTo(3);
+        assertThat(merged.getMinTimestamp()).isEqualTo(MONTH);
+        assertThat(merged.getSeries().get(MetricType.CARBON_EMISSIONS_REDUCTION).getSum()).isEqualTo(40.0);
+        assertThat(merged.getEvicted()).isTrue();
+        assertThat(merged.getFileId()).isNotEqualTo(first.getFileId());
+        verify(gridFs).delete(queryCaptor.capture());
+        assertThat(queryCaptor.getValue().getQueryObject().get("_id")).isEqualTo(new ObjectId(first.getFileId()));
+    }
+
+    @Test
+    void shouldNotReadSegmentsForRangesAfterColdCutoff() {
+        // When
+        List<ImpactMetric> range = archiveStore.findRange("BOND-123", MetricType.CARBON_EMISSIONS_REDUCTION,
+                LocalDateTime.now().minusDays(1), LocalDateTime.now());
+
+        // Then
+        assertThat(range).isEmpty();
+        verifyNoInteractions(mongoTemplate);
+    }
+
+    @Test
+    void shouldMergeSortedStreamsPreferringHotCopies() {
+        // Given
+        ImpactMetric archivedCopy = metric("METRIC-2", MetricType.CARBON_EMISSIONS_REDUCTION, MONTH.plusDays(2), 20);
+        ImpactMetric hotCopy = metric("METRIC-2", MetricType.CARBON_EMISSIONS_REDUCTION, MONTH.plusDays(2), 21);
+
+        // When
+        List<ImpactMetric> merged;
+        try (Stream<ImpactMetric> stream = MetricArchiveStore.mergeSorted(
+                Stream.of(metric("METRIC-1", MetricType.CARBON_EMISSIONS_REDUCTION, MONTH.plusDays(1), 10),
+                        archivedCopy,
+                        metric("METRIC-4", MetricType.CARBON_EMISSIONS_REDUCTION, MONTH.plusDays(4), 40)),
+                Stream.of(hotCopy,
+                        metric("METRIC-3", MetricType.CARBON_EMISSIONS_REDUCTION, MONTH.plusDays(3), 30)))) {
+            merged = stream.toList();
+        }
+
+        // Then
+        assertThat(merged).extracting(ImpactMetric::getMetricId)
+                .containsExactly("METRIC-1", "METRIC-2", "METRIC-3", "METRIC-4");
+        assertThat(merged.get(1)).isSameAs(hotCopy);
+    }
+
+    private void storeFilesInMemory() {
+        when(gridFs.store(any(InputStream.class), anyString(), any(Document.class))).thenAnswer(invocation -> {
+            ObjectId fileId = new ObjectId();
+            files.put(fileId, invocation.<InputStream>getArgument(0).readAllBytes());
+            return fileId;
+        });
+        when(gridFs.findOne(any(Query.class))).thenAnswer(invocation -> {
+            ObjectId fileId = (ObjectId) invocation.<Query>getArgument(0).getQueryObject().get("_id");
+            byte[] content = files.get(fileId);
+            return content != null
+                    ? new GridFSFile(new BsonObjectId(fileId), "segment", content.length, 255 * 1024, new Date(), null)
+                    : null;
+        });
+        when(gridFs.getResource(any(GridFSFile.class))).thenAnswer(invocation -> {
+            GridFSFile file = invocation.getArgument(0);
+            return new GridFsResource(file, new ByteArrayInputStream(files.get(file.getObjectId())));
+        });
+    }
+
+    private static ImpactMetric metric(String metricId, MetricType metricType, LocalDateTime timestamp,
+                                       double value) {
+        return ImpactMetric.builder()
+                .metricId(metricId)
+                .bondId("BOND/123")
+                .projectId("PROJ-1")
+                .metricType(metricType)
+                .timestamp(timestamp)
+                .value(BigDecimal.valueOf(value))
+                .unit(MetricUnit.TONS_CO2)
+                .sourceType(DataSourceType.IOT_SENSOR)
+                .sourceId("sensor-1")
+                .deviceId("device-1")
+                .metadata(Map.of("firmware", "2.4.1"))
+                .dataQuality(DataQuality.builder().confidenceScore(0.95).qualityStatus("EXCELLENT").build())
+                .createdAt(timestamp)
+                .build();
+    }
+}
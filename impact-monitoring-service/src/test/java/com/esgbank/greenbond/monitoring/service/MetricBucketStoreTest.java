@@ -0,0 +1,194 @@
+package com.esgbank.greenbond.monitoring.service;
+
+import com.esgbank.greenbond.monitoring.config.StorageLayoutConfig;
+import com.esgbank.greenbond.monitoring.model.ImpactMetric;
+import com.esgbank.greenbond.monitoring.model.MetricBucket;
+import com.esgbank.greenbond.monitoring.model.MetricBucketReading;
+import com.esgbank.greenbond.monitoring.model.enums.MetricStorageLayout;
+import com.esgbank.greenbond.monitoring.model.enums.MetricType;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.AggregationResults;
+import org.springframework.data.mongodb.core.aggregation.TypedAggregation;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class MetricBucketStoreTest {
+
+    private static final LocalDateTime HOUR = LocalDateTime.of(2024, 1, 1, 10, 0);
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private BulkOperations bulkOps;
+
+    @Captor
+    private ArgumentCaptor<Query> queryCaptor;
+
+    @Captor
+    private ArgumentCaptor<Update> updateCaptor;
+
+    private StorageLayoutConfig config;
+    private MetricBucketStore bucketStore;
+
+    @BeforeEach
+    void setUp() {
+        config = new StorageLayoutConfig();
+        config.setLayout(MetricStorageLayout.BUCKETED);
+        bucketStore = new MetricBucketStore(mongoTemplate, config);
+    }
+
+    @Test
+    void shouldWriteOneUpsertPerSeriesHour() {
+        // Given
+        when(mongoTemplate.bulkOps(eq(BulkOperations.BulkMode.UNORDERED), eq(MetricBucket.class))).thenReturn(bulkOps);
+
+        // When
+        bucketStore.applyMetrics(List.of(
+                metric("METRIC-1", HOUR.plusMinutes(5), 1),
+                metric("METRIC-2", HOUR.plusMinutes(50), 2),
+                metric("METRIC-3", HOUR.plusHours(1), 3)));
+
+        // Then
+        verify(bulkOps, times(2)).upsert(queryCaptor.capture(), updateCaptor.capture());
+        verify(bulkOps).execute();
+        assertThat(queryCaptor.getAllValues().get(0).getQueryObject().get("_id"))
+                .isEqualTo(MetricBucket.idOf("BOND-123", MetricType.CARBON_EMISSIONS_REDUCTION, HOUR));
+        Document firstBucket = updateCaptor.getAllValues().get(0).getUpdateObject();
+        assertThat(firstBucket.get("$set", Document.class)).containsKeys("readings.METRIC-1", "readings.METRIC-2");
+        assertThat(firstBucket.get("$min", Document.class)).containsEntry("firstTimestamp", HOUR.plusMinutes(5));
+        assertThat(firstBucket.get("$max", Document.class)).containsEntry("lastTimestamp", HOUR.plusMinutes(50));
+    }
+
+    @Test
+    void shouldNotWriteBucketsInDocumentLayout() {
+        // Given
+        config.setLayout(MetricStorageLayout.DOCUMENT);
+
+        // When
+        bucketStore.applyMetrics(List.of(metric("METRIC-1", HOUR, 1)));
+
+        // Then
+        verifyNoInteractions(mongoTemplate);
+    }
+
+    @Test
+    void shouldStopReadingBucketsOnceLatestReadingsAreFound() {
+        // Given
+        AtomicInteger bucketsRead = new AtomicInteger();
+        Stream<MetricBucket> buckets = Stream.of(
+                        bucket(HOUR.plusHours(2), metric("METRIC-5", HOUR.plusHours(2).plusMinutes(1), 5)),
+                        bucket(HOUR.plusHours(1), metric("METRIC-3", HOUR.plusHours(1).plusMinutes(10), 3),
+                                metric("METRIC-4", HOUR.plusHours(1).plusMinutes(40), 4)),
+                        bucket(HOUR, metric("METRIC-1", HOUR, 1)))
+                .peek(bucket -> bucketsRead.incrementAndGet());
+        when(mongoTemplate.stream(any(Query.class), eq(MetricBucket.class))).thenReturn(buckets);
+
+        // When
+        List<ImpactMetric> latest = bucketStore.findLatest("BOND-123", MetricType.CARBON_EMISSIONS_REDUCTION, 2);
+
+        // Then
+        assertThat(latest).extracting(ImpactMetric::getMetricId).containsExactly("METRIC-5", "METRIC-4");
+        assertThat(latest.get(0).getBondId()).isEqualTo("BOND-123");
+        assertThat(bucketsRead).hasValue(2);
+    }
+
+    @Test
+    void shouldReturnRangeReadingsInTimestampOrderWithinInclusiveBounds() {
+        // Given
+        when(mongoTemplate.stream(queryCaptor.capture(), eq(MetricBucket.class))).thenReturn(Stream.of(
+                bucket(HOUR, metric("METRIC-2", HOUR.plusMinutes(30), 2), metric("METRIC-1", HOUR.plusMinutes(10), 1),
+                        metric("METRIC-0", HOUR.plusMinutes(5), 0)),
+                bucket(HOUR.plusHours(1), metric("METRIC-3", HOUR.plusHours(1), 3),
+                        metric("METRIC-4", HOUR.plusHours(1).plusMinutes(1), 4))));
+
+        // When
+        List<ImpactMetric> range = bucketStore.findRange("BOND-123", MetricType.CARBON_EMISSIONS_REDUCTION,
+                HOUR.plusMinutes(10), HOUR.plusHours(1));
+
+        // Then
+        assertThat(range).extracting(ImpactMetric::getMetricId).containsExactly("METRIC-1", "METRIC-2", "METRIC-3");
+        Document bucketStart = queryCaptor.getValue().getQueryObject().get("bucketStart", Document.class);
+        assertThat(bucketStart).containsEntry("$gte", HOUR).containsEntry("$lte", HOUR.plusHours(1));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldReadOnlyTheHoursOverlappingThePage() {
+        // Given: 2 readings at 12:00, 3 at 11:00, 2 at 10:00; page 1 of size 2 spans 11:00 only
+        when(mongoTemplate.aggregate(any(TypedAggregation.class), eq(Document.class)))
+                .thenReturn(new AggregationResults<>(List.of(
+                        hourCount(HOUR.plusHours(2), 2), hourCount(HOUR.plusHours(1), 3), hourCount(HOUR, 2)),
+                        new Document()));
+        when(mongoTemplate.find(queryCaptor.capture(), eq(MetricBucket.class))).thenReturn(List.of(
+                bucket(HOUR.plusHours(1), metric("METRIC-3", HOUR.plusHours(1).plusMinutes(10), 3),
+                        metric("METRIC-4", HOUR.plusHours(1).plusMinutes(20), 4),
+                        metric("METRIC-5", HOUR.plusHours(1).plusMinutes(30), 5))));
+
+        // When
+        Page<ImpactMetric> page = bucketStore.findPage("BOND-123", MetricType.CARBON_EMISSIONS_REDUCTION,
+                PageRequest.of(1, 2));
+
+        // Then
+        assertThat(page.getTotalElements()).isEqualTo(7);
+        assertThat(page.getContent()).extracting(ImpactMetric::getMetricId).containsExactly("METRIC-5", "METRIC-4");
+        assertThat(queryCaptor.getValue().getQueryObject().get("bucketStart", Document.class).get("$in", List.class))
+                .containsExactly(HOUR.plusHours(1));
+    }
+
+    private static Document hourCount(LocalDateTime bucketStart, int count) {
+        return new Document("_id", Date.from(bucketStart.atZone(ZoneId.systemDefault()).toInstant()))
+                .append("count", count);
+    }
+
+    private static MetricBucket bucket(LocalDateTime bucketStart, ImpactMetric... metrics) {
+        Map<String, MetricBucketReading> readings = new LinkedHashMap<>();
+        for (ImpactMetric metric : metrics) {
+            readings.put(metric.getMetricId(), MetricBucketReading.of(metric));
+        }
+        return MetricBucket.builder()
+                .id(MetricBucket.idOf("BOND-123", MetricType.CARBON_EMISSIONS_REDUCTION, bucketStart))
+                .bondId("BOND-123")
+                .metricType(MetricType.CARBON_EMISSIONS_REDUCTION)
+                .bucketStart(bucketStart)
+                .readings(readings)
+                .build();
+    }
+
+    private static ImpactMetric metric(String metricId, LocalDateTime timestamp, double value) {
+        return ImpactMetric.builder()
+                .metricId(metricId)
+                .bondId("BOND-123")
+                .metricType(MetricType.CARBON_EMISSIONS_REDUCTION)
+                .timestamp(timestamp)
+                .value(BigDecimal.valueOf(value))
+                .build();
+    }
+}
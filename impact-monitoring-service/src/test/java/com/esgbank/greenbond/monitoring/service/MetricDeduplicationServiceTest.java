@@ -0,0 +1,103 @@
+package com.esgbank.greenbond.monitoring.service;
+
+import com.esgbank.greenbond.monitoring.config.DeduplicationConfig;
+import com.esgbank.greenbond.monitoring.dto.ImpactMetricRequest;
+import com.esgbank.greenbond.monitoring.model.ImpactMetric;
+import com.esgbank.greenbond.monitoring.model.enums.MetricType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+@ExtendWith(MockitoExtension.class)
+class MetricDeduplicationServiceTest {
+
+    private static final LocalDateTime TIMESTAMP = LocalDateTime.of(2024, 3, 1, 12, 0, 0, 123_456_789);
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    private MetricDeduplicationService deduplicationService;
+
+    @BeforeEach
+    void setUp() {
+        DeduplicationConfig config = new DeduplicationConfig();
+        config.setExpectedKeys(1_000);
+        deduplicationService = new MetricDeduplicationService(mongoTemplate, config);
+    }
+
+    @Test
+    void shouldFlagRepeatedReadingsWithinBatch() {
+        List<ImpactMetricRequest> requests = List.of(
+                reading("device-1", TIMESTAMP), reading("device-1", TIMESTAMP), reading("device-2", TIMESTAMP));
+
+        assertThat(deduplicationService.findDuplicates(requests)).containsExactly(1);
+        verifyNoInteractions(mongoTemplate);
+    }
+
+    @Test
+    void shouldFlagReplayOfRememberedReadingsWithoutLookup() {
+        deduplicationService.remember(List.of(stored("device-1", TIMESTAMP)));
+
+        // MongoDB keeps millisecond precision, so the replayed timestamp may be truncated
+        var duplicates = deduplicationService.findDuplicates(List.of(
+                reading("device-1", TIMESTAMP.withNano(123_000_000)), reading("device-1", TIMESTAMP.plusSeconds(60))));
+
+        assertThat(duplicates).containsExactly(0);
+        verify(mongoTemplate, never()).find(any(Query.class), eq(ImpactMetric.class));
+    }
+
+    @Test
+    void shouldAcceptReadingAgainAfterItIsForgotten() {
+        ImpactMetric metric = stored("device-1", TIMESTAMP);
+        deduplicationService.remember(List.of(metric));
+        deduplicationService.forget(metric);
+
+        // The filter still answers "maybe", so the reading is checked against MongoDB, which no longer has it
+        assertThat(deduplicationService.findDuplicates(List.of(reading("device-1", TIMESTAMP)))).isEmpty();
+        verify(mongoTemplate).find(any(Query.class), eq(ImpactMetric.class));
+    }
+
+    @Test
+    void shouldNotDeduplicateReadingsWithoutDevice() {
+        List<ImpactMetricRequest> requests = List.of(reading(null, TIMESTAMP), reading(null, TIMESTAMP));
+
+        assertThat(deduplicationService.findDuplicates(requests)).isEmpty();
+    }
+
+    private ImpactMetricRequest reading(String deviceId, LocalDateTime timestamp) {
+        ImpactMetricRequest request = new ImpactMetricRequest();
+        request.setBondId("BOND-123");
+        request.setMetricType(MetricType.CARBON_EMISSIONS_REDUCTION);
+        request.setValue(BigDecimal.TEN);
+        request.setTimestamp(timestamp);
+        request.setSourceId("sensor-001");
+        request.setDeviceId(deviceId);
+        return request;
+    }
+
+    private ImpactMetric stored(String deviceId, LocalDateTime timestamp) {
+        return ImpactMetric.builder()
+                .bondId("BOND-123")
+                .metricType(MetricType.CARBON_EMISSIONS_REDUCTION)
+                .value(BigDecimal.TEN)
+                .timestamp(timestamp)
+                .sourceId("sensor-001")
+                .deviceId(deviceId)
+                .build();
+    }
+}
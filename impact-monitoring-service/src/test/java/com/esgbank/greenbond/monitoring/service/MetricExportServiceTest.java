@@ -0,0 +1,111 @@
+package com.esgbank.greenbond.monitoring.service;
+
+import com.esgbank.greenbond.monitoring.config.ExportConfig;
+import com.esgbank.greenbond.monitoring.exception.ImpactMonitoringException;
+import com.esgbank.greenbond.monitoring.mapper.ImpactMetricMapperImpl;
+import com.esgbank.greenbond.monitoring.model.ImpactMetric;
+import com.esgbank.greenbond.monitoring.model.enums.DataSourceType;
+import com.esgbank.greenbond.monitoring.model.enums.ExportFormat;
+import com.esgbank.greenbond.monitoring.model.enums.MetricType;
+import com.esgbank.greenbond.monitoring.model.enums.MetricUnit;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class MetricExportServiceTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2024, 1, 1, 0, 0);
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private MetricBucketStore bucketStore;
+
+    @Mock
+    private MetricArchiveStore archiveStore;
+
+    private ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    private MetricExportService metricExportService;
+
+    @BeforeEach
+    void setUp() {
+        ExportConfig exportConfig = new ExportConfig();
+        exportConfig.setBatchSize(2);
+        metricExportService = new MetricExportService(mongoTemplate, new ImpactMetricMapperImpl(), objectMapper,
+                exportConfig, bucketStore, archiveStore);
+    }
+
+    @Test
+    void shouldWriteOneJsonObjectPerLine() throws Exception {
+        when(mongoTemplate.stream(any(Query.class), eq(ImpactMetric.class)))
+                .thenReturn(Stream.of(metric("METRIC-1", "1.5"), metric("METRIC-2", "2"), metric("METRIC-3", "3")));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long exported = metricExportService.exportMetrics("BOND-123", MetricType.CARBON_EMISSIONS_REDUCTION,
+                START, START.plusDays(1), ExportFormat.NDJSON, out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n", -1);
+        assertThat(exported).isEqualTo(3);
+        assertThat(lines).hasSize(4);
+        assertThat(lines[3]).isEmpty();
+        JsonNode first = objectMapper.readTree(lines[0]);
+        assertThat(first.get("metricId").asText()).isEqualTo("METRIC-1");
+        assertThat(first.get("value").decimalValue()).isEqualByComparingTo("1.5");
+    }
+
+    @Test
+    void shouldQuoteCsvFieldsWithSeparators() throws Exception {
+        ImpactMetric metric = metric("METRIC-1", "100.50");
+        metric.setLocation("Berlin, \"Solar\" park");
+        when(mongoTemplate.stream(any(Query.class), eq(ImpactMetric.class))).thenReturn(Stream.of(metric));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        metricExportService.exportMetrics("BOND-123", MetricType.CARBON_EMISSIONS_REDUCTION,
+                START, START.plusDays(1), ExportFormat.CSV, out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertThat(lines[0]).isEqualTo(String.join(",", MetricExportService.CSV_COLUMNS));
+        assertThat(lines[1]).isEqualTo("METRIC-1,BOND-123,PROJ-456,CARBON_EMISSIONS_REDUCTION,100.50,TONS_CO2,"
+                + "2024-01-01T06:00,IOT_SENSOR,,,\"Berlin, \"\"Solar\"\" park\",,,");
+    }
+
+    @Test
+    void shouldRejectInvertedRange() {
+        assertThatThrownBy(() -> metricExportService.validateRange(START, START.minusDays(1)))
+                .isInstanceOf(ImpactMonitoringException.class);
+    }
+
+    private ImpactMetric metric(String metricId, String value) {
+        ImpactMetric metric = new ImpactMetric();
+        metric.setMetricId(metricId);
+        metric.setBondId("BOND-123");
+        metric.setProjectId("PROJ-456");
+        metric.setMetricType(MetricType.CARBON_EMISSIONS_REDUCTION);
+        metric.setValue(new BigDecimal(value));
+        metric.setUnit(MetricUnit.TONS_CO2);
+        metric.setTimestamp(START.plusHours(6));
+        metric.setSourceType(DataSourceType.IOT_SENSOR);
+        return metric;
+    }
+}
@@ -0,0 +1,211 @@
+package com.esgbank.greenbond.monitoring.service;
+
+import com.esgbank.greenbond.monitoring.config.HotWindowConfig;
+import com.esgbank.greenbond.monitoring.dto.MetricAggregationRequest;
+import com.esgbank.greenbond.monitoring.dto.MetricAggregationResponse;
+import com.esgbank.greenbond.monitoring.dto.TimeSeriesPoint;
+import com.esgbank.greenbond.monitoring.model.ImpactMetric;
+import com.esgbank.greenbond.monitoring.model.enums.MetricType;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class MetricHotWindowServiceTest {
+
+    // Start of an epoch-aligned two-hour block well inside the 72h window
+    private static final LocalDateTime BASE = alignedBase();
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private MetricBucketStore bucketStore;
+
+    private HotWindowConfig config;
+    private MetricHotWindowService hotWindowService;
+
+    @BeforeEach
+    void setUp() {
+        config = new HotWindowConfig();
+        config.setEnabled(true);
+        config.setRecentMetricsPerSeries(3);
+        hotWindowService = new MetricHotWindowService(mongoTemplate, bucketStore, config, new SimpleMeterRegistry());
+    }
+
+    @Test
+    void shouldServeLatestMetricsNewestFirst() {
+        // Given
+        warmUp();
+        hotWindowService.applyMetrics(List.of(
+                metric("M-1", BASE, 10), metric("M-3", BASE.plusMinutes(20), 30), metric("M-2", BASE.plusMinutes(10), 20)));
+
+        // When
+        Optional<List<ImpactMetric>> latest =
+                hotWindowService.getLatestMetrics("BOND-123", MetricType.CARBON_EMISSIONS_REDUCTION, 2);
+
+        // Then
+        assertThat(latest).hasValueSatisfying(metrics ->
+                assertThat(metrics).extracting(ImpactMetric::getMetricId).containsExactly("M-3", "M-2"));
+    }
+
+    @Test
+    void shouldFallBackWhenMoreMetricsAreRequestedThanHeld() {
+        // Given
+        warmUp();
+        hotWindowService.applyMetrics(List.of(metric("M-1", BASE, 10), metric("M-2", BASE.plusMinutes(10), 20)));
+
+        // When / Then
+        assertThat(hotWindowService.getLatestMetrics("BOND-123", MetricType.CARBON_EMISSIONS_REDUCTION, 3)).isEmpty();
+        assertThat(hotWindowService.getLatestMetrics("BOND-123", MetricType.CARBON_EMISSIONS_REDUCTION, 5)).isEmpty();
+    }
+
+    @Test
+    void shouldAggregateRecentRangeFromMemory() {
+        // Given
+        warmUp();
+        hotWindowService.applyMetrics(List.of(
+                metric("M-1", BASE, 10),
+                metric("M-2", BASE.plusMinutes(30), 20),
+                metric("M-4", BASE.plusMinutes(90), 40),
+                metric("M-3", BASE.plusMinutes(60), 30)));
+
+        // When
+        Optional<MetricAggregationResponse> response =
+                hotWindowService.calculateAggregation(request(BASE, BASE.plusHours(2), "sum"));
+
+        // Then
+        assertThat(response).isPresent();
+        assertThat(response.get().getTimeSeries()).extracting(TimeSeriesPoint::getTimestamp)
+                .containsExactly(BASE, BASE.plusHours(1));
+        assertThat(response.get().getTimeSeries()).extracting(point -> point.getValue().doubleValue())
+                .containsExactly(30.0, 70.0);
+        assertThat(response.get().getStatistics()).containsEntry("resolution", "RAW").containsEntry("sampleCount", 4L);
+    }
+
+    @Test
+    void shouldNotServeRangeBeforeWindow() {
+        // Given
+        warmUp();
+
+        // When / Then
+        assertThat(hotWindowService.calculateAggregation(
+                request(LocalDateTime.now().minusDays(10), LocalDateTime.now(), "mean"))).isEmpty();
+    }
+
+    @Test
+    void shouldNotServeReadsBeforeWarmUp() {
+        // Given
+        hotWindowService.applyMetrics(List.of(metric("M-1", BASE, 10)));
+
+        // When / Then
+        assertThat(hotWindowService.calculateAggregation(request(BASE, BASE.plusHours(1), "sum"))).isEmpty();
+        assertThat(hotWindowService.getLatestMetrics("BOND-123", MetricType.CARBON_EMISSIONS_REDUCTION, 1)).isEmpty();
+    }
+
+    @Test
+    void shouldEvictOldestBlocksOverMemoryBudget() {
+        // Given
+        warmUp();
+        hotWindowService.applyMetrics(List.of(metric("M-1", BASE, 10), metric("M-2", BASE.plusHours(2), 20)));
+        long total = hotWindowService.getBlockBytes();
+        config.setMaxBytes(total - 1);
+
+        // When
+        hotWindowService.evict();
+
+        // Then
+        assertThat(hotWindowService.getBlockBytes()).isLessThan(total).isPositive();
+        assertThat(hotWindowService.calculateAggregation(request(BASE, BASE.plusHours(4), "sum"))).isEmpty();
+        assertThat(hotWindowService.calculateAggregation(request(BASE.plusHours(2), BASE.plusHours(4), "sum")))
+                .hasValueSatisfying(response -> assertThat(response.getTimeSeries()).hasSize(1));
+    }
+
+    @Test
+    void shouldForgetRemovedMetric() {
+        // Given
+        warmUp();
+        ImpactMetric removed = metric("M-2", BASE.plusMinutes(10), 20);
+        hotWindowService.applyMetrics(List.of(metric("M-1", BASE, 10), removed));
+
+        // When
+        hotWindowService.removeMetric(removed);
+
+        // Then
+        assertThat(hotWindowService.calculateAggregation(request(BASE, BASE.plusHours(1), "count")))
+                .hasValueSatisfying(response ->
+                        assertThat(response.getTimeSeries().get(0).getValue()).isEqualByComparingTo("1"));
+        assertThat(hotWindowService.getLatestMetrics("BOND-123", MetricType.CARBON_EMISSIONS_REDUCTION, 1))
+                .hasValueSatisfying(metrics ->
+                        assertThat(metrics).extracting(ImpactMetric::getMetricId).containsExactly("M-1"));
+    }
+
+    @Test
+    void shouldWarmUpFromBucketsWithBucketedLayout() {
+        // Given
+        ImpactMetric storedLater = metric("M-2", BASE.plusMinutes(10), 20);
+        storedLater.setCreatedAt(LocalDateTime.now().plusMinutes(1));
+        when(bucketStore.isReadEnabled()).thenReturn(true);
+        when(bucketStore.streamSince(any(LocalDateTime.class)))
+                .thenReturn(Stream.of(metric("M-1", BASE, 10), storedLater));
+
+        // When
+        hotWindowService.warmUp();
+
+        // Then
+        verify(mongoTemplate, never()).stream(any(Query.class), eq(ImpactMetric.class));
+        assertThat(hotWindowService.calculateAggregation(request(BASE, BASE.plusHours(1), "count")))
+                .hasValueSatisfying(response ->
+                        assertThat(response.getTimeSeries().get(0).getValue()).isEqualByComparingTo("1"));
+    }
+
+    private void warmUp() {
+        when(mongoTemplate.stream(any(Query.class), eq(ImpactMetric.class))).thenReturn(Stream.empty());
+        hotWindowService.warmUp();
+    }
+
+    private static LocalDateTime alignedBase() {
+        LocalDateTime base = LocalDateTime.now().truncatedTo(ChronoUnit.HOURS).minusHours(12);
+        return base.getHour() % 2 == 0 ? base : base.minusHours(1);
+    }
+
+    private MetricAggregationRequest request(LocalDateTime start, LocalDateTime end, String function) {
+        MetricAggregationRequest request = new MetricAggregationRequest();
+        request.setBondId("BOND-123");
+        request.setMetricType(MetricType.CARBON_EMISSIONS_REDUCTION);
+        request.setStartTime(start);
+        request.setEndTime(end);
+        request.setInterval("1h");
+        request.setAggregationFunction(function);
+        return request;
+    }
+
+    private ImpactMetric metric(String metricId, LocalDateTime timestamp, double value) {
+        return ImpactMetric.builder()
+                .metricId(metricId)
+                .bondId("BOND-123")
+                .metricType(MetricType.CARBON_EMISSIONS_REDUCTION)
+                .value(BigDecimal.valueOf(value))
+                .timestamp(timestamp)
+                .build();
+    }
+}
@@ -0,0 +1,205 @@
+package com.esgbank.greenbond.monitoring.service;
+
+import com.esgbank.greenbond.monitoring.config.LiveFeedConfig;
+import com.esgbank.greenbond.monitoring.dto.ImpactMetricResponse;
+import com.esgbank.greenbond.monitoring.dto.LiveMetricUpdate;
+import com.esgbank.greenbond.monitoring.exception.ImpactMonitoringException;
+import com.esgbank.greenbond.monitoring.mapper.ImpactMetricMapperImpl;
+import com.esgbank.greenbond.monitoring.model.ImpactMetric;
+import com.esgbank.greenbond.monitoring.model.enums.MetricType;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MetricLiveFeedServiceTest {
+
+    private static final LocalDateTime TIMESTAMP = LocalDateTime.of(2024, 3, 1, 12, 0);
+
+    private LiveFeedConfig config;
+    private MetricLiveFeedService liveFeedService;
+
+    @BeforeEach
+    void setUp() {
+        config = new LiveFeedConfig();
+        config.setEnabled(true);
+        config.setBufferSize(4);
+        config.setMaxSubscribers(2);
+        liveFeedService = new MetricLiveFeedService(new ImpactMetricMapperImpl(), config, new SimpleMeterRegistry());
+    }
+
+    @Test
+    void shouldStartWithSnapshotAndDeliverNewMetrics() {
+        // Given
+        ImpactMetricResponse latest = ImpactMetricResponse.builder().metricId("M-0").build();
+
+        // When / Then
+        StepVerifier.create(subscribe(null, List.of(latest)))
+                .assertNext(update -> {
+                    assertThat(update.isSnapshot()).isTrue();
+                    assertThat(update.getMetrics()).containsExactly(latest);
+                })
+                .then(() -> liveFeedService.publish(List.of(metric("M-1", 0))))
+                .assertNext(update -> {
+                    assertThat(update.isSnapshot()).isFalse();
+                    assertThat(update.getSequence()).isEqualTo(1);
+                    assertThat(update.getMetrics()).extracting(ImpactMetricResponse::getMetricId)
+                            .containsExactly("M-1");
+                })
+                .thenCancel()
+                .verify();
+    }
+
+    @Test
+    void shouldCoalesceUpdatesForSlowSubscriber() {
+        StepVerifier.create(subscribe(null, List.of()), 1)
+                .expectNextMatches(LiveMetricUpdate::isSnapshot)
+                .then(() -> {
+                    liveFeedService.publish(List.of(metric("M-1", 0)));
+                    liveFeedService.publish(List.of(metric("M-3", 2), metric("M-2", 1)));
+                })
+                .expectNoEvent(Duration.ofMillis(50))
+                .thenRequest(1)
+                .assertNext(update -> {
+                    assertThat(update.getSkipped()).isZero();
+                    assertThat(update.getMetrics()).extracting(ImpactMetricResponse::getMetricId)
+                            .containsExactly("M-1", "M-2", "M-3");
+                })
+                .thenCancel()
+                .verify();
+    }
+
+    @Test
+    void shouldSkipAheadWhenSubscriberFallsBehindBuffer() {
+        StepVerifier.create(subscribe(null, List.of()), 1)
+                .expectNextMatches(LiveMetricUpdate::isSnapshot)
+                .then(() -> {
+                    for (int i = 1; i <= 6; i++) {
+                        liveFeedService.publish(List.of(metric("M-" + i, i)));
+                    }
+                })
+                .thenRequest(1)
+                .assertNext(update -> {
+                    assertThat(update.getSequence()).isEqualTo(6);
+                    assertThat(update.getSkipped()).isEqualTo(2);
+                    assertThat(update.getMetrics()).extracting(ImpactMetricResponse::getMetricId)
+                            .containsExactly("M-3", "M-4", "M-5", "M-6");
+                })
+                .thenCancel()
+                .verify();
+    }
+
+    @Test
+    void shouldResumeFromLastEventIdWithoutSnapshot() {
+        // Given
+        AtomicReference<String> lastEventId = new AtomicReference<>();
+        StepVerifier.create(subscribe(null, List.of()))
+                .expectNextMatches(LiveMetricUpdate::isSnapshot)
+                .then(() -> liveFeedService.publish(List.of(metric("M-1", 1))))
+                .consumeNextWith(update -> lastEventId.set(update.getEventId()))
+                .thenCancel()
+                .verify();
+        liveFeedService.publish(List.of(metric("M-2", 2)));
+
+        // When / Then
+        StepVerifier.create(subscribe(lastEventId.get(), List.of()))
+                .assertNext(update -> {
+                    assertThat(update.isSnapshot()).isFalse();
+                    assertThat(update.getMetrics()).extracting(ImpactMetricResponse::getMetricId)
+                            .containsExactly("M-2");
+                })
+                .thenCancel()
+                .verify();
+    }
+
+    @Test
+    void shouldSendSnapshotForEventIdOfAnotherFeed() {
+        // Given
+        StepVerifier.create(subscribe(null, List.of()))
+                .expectNextMatches(LiveMetricUpdate::isSnapshot)
+                .thenCancel()
+                .verify();
+        liveFeedService.publish(List.of(metric("M-1", 1), metric("M-2", 2)));
+        ImpactMetricResponse latest = ImpactMetricResponse.builder().metricId("M-2").build();
+
+        // When / Then
+        StepVerifier.create(subscribe("other-instance:1", List.of(latest)))
+                .assertNext(update -> {
+                    assertThat(update.isSnapshot()).isTrue();
+                    assertThat(update.getSequence()).isEqualTo(2);
+                    assertThat(update.getMetrics()).containsExactly(latest);
+                })
+                .thenCancel()
+                .verify();
+    }
+
+    @Test
+    void shouldRejectSubscribersOverLimit() {
+        // Given
+        Disposable first = subscribe(null, List.of()).subscribe();
+        subscribe(null, List.of()).subscribe();
+
+        // When / Then
+        assertThat(liveFeedService.subscribe("BOND-123", MetricType.CARBON_EMISSIONS_REDUCTION, null, List::of))
+                .isEmpty();
+
+        first.dispose();
+        assertThat(liveFeedService.subscribe("BOND-123", MetricType.CARBON_EMISSIONS_REDUCTION, null, List::of))
+                .isPresent();
+    }
+
+    @Test
+    void shouldTakePermitOnlyWhileSubscribed() {
+        // Given
+        Flux<LiveMetricUpdate> late = subscribe(null, List.of());
+        subscribe(null, List.of());
+        subscribe(null, List.of());
+
+        // When
+        subscribe(null, List.of()).subscribe();
+        subscribe(null, List.of()).subscribe();
+
+        // Then
+        StepVerifier.create(late)
+                .expectErrorSatisfies(error -> assertThat(error).isInstanceOf(ImpactMonitoringException.class)
+                        .hasFieldOrPropertyWithValue("errorCode", "LIVE_FEED_SUBSCRIBER_LIMIT"))
+                .verify();
+    }
+
+    @Test
+    void shouldIgnoreMetricsWithoutSubscribers() {
+        liveFeedService.publish(List.of(metric("M-1", 0)));
+
+        StepVerifier.create(subscribe(null, List.of()))
+                .assertNext(update -> assertThat(update.getSequence()).isZero())
+                .expectNoEvent(Duration.ofMillis(50))
+                .thenCancel()
+                .verify();
+    }
+
+    private Flux<LiveMetricUpdate> subscribe(String lastEventId, List<ImpactMetricResponse> snapshot) {
+        return liveFeedService
+                .subscribe("BOND-123", MetricType.CARBON_EMISSIONS_REDUCTION, lastEventId, () -> snapshot)
+                .orElseThrow();
+    }
+
+    private ImpactMetric metric(String metricId, int minutes) {
+        return ImpactMetric.builder()
+                .metricId(metricId)
+                .bondId("BOND-123")
+                .metricType(MetricType.CARBON_EMISSIONS_REDUCTION)
+                .value(BigDecimal.TEN)
+                .timestamp(TIMESTAMP.plusMinutes(minutes))
+                .build();
+    }
+}
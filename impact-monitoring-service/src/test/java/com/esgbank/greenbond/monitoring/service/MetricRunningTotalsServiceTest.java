@@ -0,0 +1,189 @@
+package com.esgbank.greenbond.monitoring.service;
+
+import com.esgbank.greenbond.monitoring.config.RunningTotalsConfig;
+import com.esgbank.greenbond.monitoring.config.SummaryCacheConfig;
+import com.esgbank.greenbond.monitoring.model.ImpactMetric;
+import com.esgbank.greenbond.monitoring.model.MetricRunningTotal;
+import com.esgbank.greenbond.monitoring.model.enums.MetricType;
+import com.esgbank.greenbond.monitoring.repository.MetricRunningTotalRepository;
+import com.mongodb.client.result.DeleteResult;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.bson.Document;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationResults;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class MetricRunningTotalsServiceTest {
+
+    @Mock
+    private MetricRunningTotalRepository runningTotalRepository;
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private JobLeaseStore leaseStore;
+
+    @Captor
+    private ArgumentCaptor<Update> updateCaptor;
+
+    private SimpleMeterRegistry meterRegistry;
+    private MetricRunningTotalsService runningTotalsService;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        runningTotalsService = new MetricRunningTotalsService(runningTotalRepository, mongoTemplate,
+                new SummaryCacheConfig(), new RunningTotalsConfig(), leaseStore, meterRegistry);
+    }
+
+    @Test
+    void shouldServeRepeatedSummaryFromCache() {
+        // Given
+        when(runningTotalRepository.findByBondId("BOND-123")).thenReturn(List.of(total(150.5, 3)));
+
+        // When
+        runningTotalsService.getSummary("BOND-123");
+        var summary = runningTotalsService.getSummary("BOND-123");
+
+        // Then
+        assertThat(summary).containsEntry(MetricType.CARBON_EMISSIONS_REDUCTION, BigDecimal.valueOf(150.5));
+        verify(runningTotalRepository, times(1)).findByBondId("BOND-123");
+        assertThat(meterRegistry.get("cache.gets").tag("result", "hit").functionCounter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldReloadSummaryAfterMetricsOfBondAreApplied() {
+        // Given
+        when(runningTotalRepository.findByBondId("BOND-123"))
+                .thenReturn(List.of(total(150.5, 3)))
+                .thenReturn(List.of(total(160.5, 4)));
+        when(mongoTemplate.bulkOps(eq(BulkOperations.BulkMode.UNORDERED), eq(MetricRunningTotal.class)))
+                .thenReturn(mock(BulkOperations.class));
+        runningTotalsService.getSummary("BOND-123");
+
+        // When
+        runningTotalsService.applyMetrics(List.of(metric(10)));
+
+        // Then
+        assertThat(runningTotalsService.getSummary("BOND-123"))
+                .containsEntry(MetricType.CARBON_EMISSIONS_REDUCTION, BigDecimal.valueOf(160.5));
+        verify(runningTotalRepository, times(2)).findByBondId("BOND-123");
+    }
+
+    @Test
+    void shouldMergeConcurrentMissesIntoOneLoad() throws Exception {
+        // Given
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(runningTotalRepository.findByBondId("BOND-123")).thenAnswer(invocation -> {
+            loading.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return List.of(total(150.5, 3));
+        });
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+
+        try {
+            // When
+            List<CompletableFuture<?>> calls = List.of(
+                    CompletableFuture.supplyAsync(() -> runningTotalsService.getSummary("BOND-123"), executor),
+                    CompletableFuture.supplyAsync(() -> runningTotalsService.getSummary("BOND-123"), executor),
+                    CompletableFuture.supplyAsync(() -> runningTotalsService.getSummary("BOND-123"), executor));
+            assertThat(loading.await(5, TimeUnit.SECONDS)).isTrue();
+            release.countDown();
+            CompletableFuture.allOf(calls.toArray(CompletableFuture[]::new)).get(5, TimeUnit.SECONDS);
+
+            // Then
+            verify(runningTotalRepository, times(1)).findByBondId(any());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void shouldSkipReconciliationHeldByAnotherInstance() {
+        // Given
+        when(leaseStore.claim(eq("running-totals-reconcile"), any(), any())).thenReturn(false);
+
+        // When
+        runningTotalsService.reconcile();
+
+        // Then
+        verifyNoInteractions(mongoTemplate);
+        verify(leaseStore, never()).complete(any(), any());
+    }
+
+    @Test
+    void shouldCorrectTotalsByTheirDifferenceToTheSnapshot() {
+        // Given
+        LocalDateTime snapshotAt = LocalDateTime.of(2024, 5, 15, 1, 30);
+        when(mongoTemplate.stream(any(Query.class), eq(MetricRunningTotal.class))).thenReturn(Stream.of(total(100, 2)));
+        Document group = new Document("_id", new Document("bondId", "BOND-123")
+                .append("metricType", MetricType.CARBON_EMISSIONS_REDUCTION.name()))
+                .append("sum", 150.0)
+                .append("count", 3)
+                .append("min", 20.0)
+                .append("max", 80.0);
+        when(mongoTemplate.aggregate(any(Aggregation.class), eq("impact_metrics"), eq(Document.class)))
+                .thenReturn(new AggregationResults<>(List.of(group), new Document()));
+        BulkOperations bulkOps = mock(BulkOperations.class);
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.ORDERED, MetricRunningTotal.class)).thenReturn(bulkOps);
+        when(mongoTemplate.remove(any(Query.class), eq(MetricRunningTotal.class))).thenReturn(DeleteResult.acknowledged(0));
+
+        // When
+        runningTotalsService.reconcile(snapshotAt);
+
+        // Then
+        verify(bulkOps).upsert(any(Query.class), updateCaptor.capture());
+        Document increments = updateCaptor.getValue().getUpdateObject().get("$inc", Document.class);
+        assertThat(increments).containsEntry("sum", 50.0).containsEntry("count", 1L);
+        verify(bulkOps).updateOne(any(Query.class), any(Update.class));
+        verify(bulkOps).execute();
+    }
+
+    private MetricRunningTotal total(double sum, long count) {
+        MetricRunningTotal total = new MetricRunningTotal();
+        total.setId(MetricRunningTotal.idOf("BOND-123", MetricType.CARBON_EMISSIONS_REDUCTION));
+        total.setBondId("BOND-123");
+        total.setMetricType(MetricType.CARBON_EMISSIONS_REDUCTION);
+        total.setSum(sum);
+        total.setCount(count);
+        return total;
+    }
+
+    private ImpactMetric metric(double value) {
+        return ImpactMetric.builder()
+                .metricId("METRIC-1")
+                .bondId("BOND-123")
+                .metricType(MetricType.CARBON_EMISSIONS_REDUCTION)
+                .value(BigDecimal.valueOf(value))
+                .timestamp(LocalDateTime.now())
+                .build();
+    }
+}
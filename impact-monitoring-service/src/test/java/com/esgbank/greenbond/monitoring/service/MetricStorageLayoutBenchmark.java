@@ -0,0 +1,219 @@
+package com.esgbank.greenbond.monitoring.service;
+
+import com.esgbank.greenbond.monitoring.config.StorageLayoutConfig;
+import com.esgbank.greenbond.monitoring.model.DataQuality;
+import com.esgbank.greenbond.monitoring.model.ImpactMetric;
+import com.esgbank.greenbond.monitoring.model.MetricBucket;
+import com.esgbank.greenbond.monitoring.model.enums.DataSourceType;
+import com.esgbank.greenbond.monitoring.model.enums.MetricStorageLayout;
+import com.esgbank.greenbond.monitoring.model.enums.MetricType;
+import com.esgbank.greenbond.monitoring.model.enums.MetricUnit;
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import org.bson.Document;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.MongoPersistentEntityIndexResolver;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.testcontainers.containers.MongoDBContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Storage size and read/write throughput of the per-reading document layout against the
+ * hourly bucket layout, on the same readings in a real MongoDB.
+ * <p>
+ * Readings arrive as batches of consecutive minutes across all series, like polled devices.
+ * Both layouts keep all series indexes of {@code impact_metrics}; the bucket layout writes each
+ * reading to its bucket as well, so its storage and write figures include both collections.
+ * <p>
+ * Needs Docker; not part of the regular test run. Run with
+ * {@code mvn -pl impact-monitoring-service test -Dtest=MetricStorageLayoutBenchmark -Dsurefire.failIfNoSpecifiedTests=false}.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class MetricStorageLayoutBenchmark {
+
+    private static final MetricType[] TYPES = {
+            MetricType.CARBON_EMISSIONS_REDUCTION, MetricType.RENEWABLE_ENERGY_PRODUCTION,
+            MetricType.ENERGY_CONSUMPTION, MetricType.WATER_SAVINGS};
+    private static final int BONDS = 5;
+    private static final int MINUTES = 7 * 24 * 60;
+    private static final int MINUTES_PER_BATCH = 25;
+    private static final int LATEST_LIMIT = 20;
+    private static final int QUERY_ROUNDS = 50;
+    private static final LocalDateTime START = LocalDateTime.of(2024, 1, 1, 0, 0);
+
+    @Container
+    private static final MongoDBContainer MONGO = new MongoDBContainer("mongo:7.0");
+
+    private static MongoClient client;
+
+    @BeforeAll
+    static void connect() {
+        client = MongoClients.create(MONGO.getConnectionString());
+    }
+
+    @AfterAll
+    static void disconnect() {
+        client.close();
+    }
+
+    @Test
+    void compareDocumentAndBucketLayouts() {
+        Layout documents = new Layout(MetricStorageLayout.DOCUMENT, "layout_document");
+        Layout buckets = new Layout(MetricStorageLayout.BUCKETED, "layout_bucketed");
+
+        double documentWrites = ingest(documents);
+        double bucketWrites = ingest(buckets);
+
+        String bondId = "BOND-0";
+        MetricType type = TYPES[0];
+        LocalDateTime rangeStart = START.plusDays(3).plusMinutes(17);
+        LocalDateTime rangeEnd = rangeStart.plusHours(6);
+
+        double documentLatest = rounds(i -> documents.template.find(new Query(seriesOf("BOND-" + i % BONDS,
+                        TYPES[i % TYPES.length])).with(Sort.by(Sort.Direction.DESC, "timestamp")).limit(LATEST_LIMIT),
+                ImpactMetric.class));
+        double bucketLatest = rounds(i -> buckets.store.findLatest("BOND-" + i % BONDS, TYPES[i % TYPES.length],
+                LATEST_LIMIT));
+        double documentRange = rounds(i -> documents.template.find(new Query(seriesOf("BOND-" + i % BONDS,
+                        TYPES[i % TYPES.length]).and("timestamp").gte(rangeStart).lte(rangeEnd)),
+                ImpactMetric.class));
+        double bucketRange = rounds(i -> buckets.store.findRange("BOND-" + i % BONDS, TYPES[i % TYPES.length],
+                rangeStart, rangeEnd));
+
+        Storage documentStorage = documents.storage("impact_metrics");
+        Storage bucketStorage = buckets.storage("impact_metrics").plus(buckets.storage("impact_metric_buckets"));
+
+        System.out.printf("Storage layouts, %d series x %d readings, %d readings per write batch%n",
+                BONDS * TYPES.length, MINUTES, BONDS * TYPES.length * MINUTES_PER_BATCH);
+        System.out.printf("  %-9s %12s %12s %12s %14s %14s%n",
+                "layout", "data", "indexes", "writes/s", "latest q/s", "6h range q/s");
+        System.out.printf("  %-9s %12s %12s %12.0f %14.1f %14.1f%n", "document",
+                mib(documentStorage.storageSize()), mib(documentStorage.indexSize()),
+                documentWrites, documentLatest, documentRange);
+        System.out.printf("  %-9s %12s %12s %12.0f %14.1f %14.1f%n", "bucketed",
+                mib(bucketStorage.storageSize()), mib(bucketStorage.indexSize()),
+                bucketWrites, bucketLatest, bucketRange);
+
+        // Both layouts answer with the same readings
+        assertThat(buckets.store.findLatest(bondId, type, LATEST_LIMIT))
+                .extracting(ImpactMetric::getTimestamp)
+                .isEqualTo(documents.template.find(new Query(seriesOf(bondId, type))
+                        .with(Sort.by(Sort.Direction.DESC, "timestamp")).limit(LATEST_LIMIT), ImpactMetric.class)
+                        .stream().map(ImpactMetric::getTimestamp).toList());
+        assertThat(buckets.store.findRange(bondId, type, rangeStart, rangeEnd)).hasSize(6 * 60 + 1);
+    }
+
+    // Readings per second, including the bucket writes of the bucket layout
+    private double ingest(Layout layout) {
+        long started = System.nanoTime();
+        long written = 0;
+        for (int minute = 0; minute < MINUTES; minute += MINUTES_PER_BATCH) {
+            List<ImpactMetric> batch = new ArrayList<>();
+            for (int m = minute; m < Math.min(minute + MINUTES_PER_BATCH, MINUTES); m++) {
+                for (int bond = 0; bond < BONDS; bond++) {
+                    for (MetricType type : TYPES) {
+                        batch.add(reading("BOND-" + bond, type, START.plusMinutes(m), m));
+                    }
+                }
+            }
+            List<ImpactMetric> saved = new ArrayList<>(layout.template.insert(batch, ImpactMetric.class));
+            layout.store.applyMetrics(saved);
+            written += saved.size();
+        }
+        return written / ((System.nanoTime() - started) / 1e9);
+    }
+
+    private static double rounds(Consumer<Integer> query) {
+        for (int i = 0; i < QUERY_ROUNDS; i++) {
+            query.accept(i);
+        }
+        long started = System.nanoTime();
+        for (int i = 0; i < QUERY_ROUNDS * 4; i++) {
+            query.accept(i);
+        }
+        return QUERY_ROUNDS * 4 / ((System.nanoTime() - started) / 1e9);
+    }
+
+    private static Criteria seriesOf(String bondId, MetricType type) {
+        return Criteria.where("bondId").is(bondId).and("metricType").is(type);
+    }
+
+    private static ImpactMetric reading(String bondId, MetricType type, LocalDateTime timestamp, int minute) {
+        return ImpactMetric.builder()
+                .metricId("METRIC-" + UUID.randomUUID())
+                .bondId(bondId)
+                .projectId("PROJ-" + bondId)
+                .metricType(type)
+                .timestamp(timestamp)
+                .value(BigDecimal.valueOf(100 + Math.sin(minute / 60.0) * 10).setScale(3, RoundingMode.HALF_UP))
+                .unit(MetricUnit.TONS_CO2)
+                .sourceType(DataSourceType.IOT_SENSOR)
+                .sourceId("sensor-" + bondId)
+                .deviceId("device-" + bondId + "-" + type.ordinal())
+                .metadata(Map.of("firmware", "2.4.1"))
+                .dataQuality(DataQuality.builder()
+                        .confidenceScore(0.95)
+                        .isVerified(true)
+                        .verificationMethod("AUTOMATED")
+                        .dataPoints(1)
+                        .qualityStatus("EXCELLENT")
+                        .build())
+                .createdAt(timestamp)
+                .build();
+    }
+
+    private static String mib(long bytes) {
+        return String.format("%.1f MiB", bytes / (1024.0 * 1024.0));
+    }
+
+    private record Storage(long storageSize, long indexSize) {
+
+        Storage plus(Storage other) {
+            return new Storage(storageSize + other.storageSize, indexSize + other.indexSize);
+        }
+    }
+
+    private static final class Layout {
+        private final MongoTemplate template;
+        private final MetricBucketStore store;
+
+        Layout(MetricStorageLayout storageLayout, String database) {
+            template = new MongoTemplate(client, database);
+            StorageLayoutConfig config = new StorageLayoutConfig();
+            config.setLayout(storageLayout);
+            store = new MetricBucketStore(template, config);
+
+            // Annotated indexes, as created on startup, then the document series indexes
+            MongoPersistentEntityIndexResolver resolver =
+                    new MongoPersistentEntityIndexResolver(template.getConverter().getMappingContext());
+            for (Class<?> type : List.of(ImpactMetric.class, MetricBucket.class)) {
+                resolver.resolveIndexFor(type).forEach(index -> template.indexOps(type).ensureIndex(index));
+            }
+            store.ensureDocumentIndexes();
+        }
+
+        Storage storage(String collection) {
+            Document stats = template.executeCommand(new Document("collStats", collection));
+            Function<String, Long> size = key -> ((Number) stats.get(key)).longValue();
+            return new Storage(size.apply("storageSize"), size.apply("totalIndexSize"));
+        }
+    }
+}
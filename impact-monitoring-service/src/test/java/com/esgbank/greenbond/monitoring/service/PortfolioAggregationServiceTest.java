@@ -0,0 +1,106 @@
+package com.esgbank.greenbond.monitoring.service;
+
+import com.esgbank.greenbond.monitoring.config.PortfolioConfig;
+import com.esgbank.greenbond.monitoring.dto.PortfolioAggregationRequest;
+import com.esgbank.greenbond.monitoring.dto.PortfolioAggregationResponse;
+import com.esgbank.greenbond.monitoring.dto.PortfolioMetricSeries;
+import com.esgbank.greenbond.monitoring.exception.ImpactMonitoringException;
+import com.esgbank.greenbond.monitoring.model.enums.MetricType;
+import com.esgbank.greenbond.monitoring.service.TimeSeriesService.BondWindow;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class PortfolioAggregationServiceTest {
+
+    private static final LocalDateTime T0 = LocalDateTime.of(2024, 1, 1, 0, 0);
+    private static final LocalDateTime T1 = T0.plusHours(1);
+
+    @Mock
+    private TimeSeriesService timeSeriesService;
+
+    private PortfolioConfig portfolioConfig = new PortfolioConfig();
+
+    private PortfolioAggregationService portfolioAggregationService;
+
+    @BeforeEach
+    void setUp() {
+        portfolioConfig.setBondsPerQuery(2);
+        portfolioAggregationService = new PortfolioAggregationService(timeSeriesService, portfolioConfig);
+    }
+
+    @Test
+    void shouldAlignBondsOnSharedTimeAxisAndWeightCombinedMean() {
+        when(timeSeriesService.queryBondWindows(eq(MetricType.CARBON_EMISSIONS_REDUCTION), eq(List.of("BOND-1", "BOND-2")),
+                any(), any(), anyString(), anyString()))
+                .thenReturn(List.of(
+                        new BondWindow("BOND-1", T0, 10.0, 1),
+                        new BondWindow("BOND-2", T0, 40.0, 3),
+                        new BondWindow("BOND-2", T1, 5.0, 2)));
+        when(timeSeriesService.queryBondWindows(eq(MetricType.CARBON_EMISSIONS_REDUCTION), eq(List.of("BOND-3")),
+                any(), any(), anyString(), anyString()))
+                .thenReturn(List.of());
+
+        PortfolioAggregationResponse response = portfolioAggregationService.aggregate(
+                request("mean", MetricType.CARBON_EMISSIONS_REDUCTION));
+
+        assertThat(response.getTimeAxis()).containsExactly(T0, T1);
+        PortfolioMetricSeries series = response.getSeries().get(0);
+        assertThat(series.getBonds()).hasSize(2);
+        assertThat(series.getBonds().get(0).getValues()).containsExactly(BigDecimal.valueOf(10.0), null);
+        assertThat(series.getBonds().get(1).getValues()).containsExactly(BigDecimal.valueOf(40.0), BigDecimal.valueOf(5.0));
+        assertThat(series.getBonds().get(1).getDataPointCount()).isEqualTo(5);
+        assertThat(series.getCombined()).containsExactly(BigDecimal.valueOf(32.5), BigDecimal.valueOf(5.0));
+    }
+
+    @Test
+    void shouldQueryEachMetricTypeInBondChunks() {
+        when(timeSeriesService.queryBondWindows(any(), any(), any(), any(), anyString(), anyString()))
+                .thenReturn(List.of());
+
+        PortfolioAggregationResponse response = portfolioAggregationService.aggregate(
+                request("sum", MetricType.CARBON_EMISSIONS_REDUCTION, MetricType.RENEWABLE_ENERGY_PRODUCTION));
+
+        verify(timeSeriesService, times(4)).queryBondWindows(any(), any(), any(), any(), eq("1h"), eq("sum"));
+        assertThat(response.getSeries()).extracting(PortfolioMetricSeries::getMetricType)
+                .containsExactly(MetricType.CARBON_EMISSIONS_REDUCTION, MetricType.RENEWABLE_ENERGY_PRODUCTION);
+        assertThat(response.getTimeAxis()).isEmpty();
+    }
+
+    @Test
+    void shouldWrapQueryFailures() {
+        when(timeSeriesService.queryBondWindows(any(), any(), any(), any(), anyString(), anyString()))
+                .thenThrow(new IllegalStateException("influx down"));
+
+        assertThatThrownBy(() -> portfolioAggregationService.aggregate(request("sum", MetricType.CARBON_EMISSIONS_REDUCTION)))
+                .isInstanceOf(ImpactMonitoringException.class)
+                .hasMessageContaining("influx down");
+    }
+
+    private PortfolioAggregationRequest request(String function, MetricType... metricTypes) {
+        PortfolioAggregationRequest request = new PortfolioAggregationRequest();
+        request.setBondIds(List.of("BOND-1", "BOND-2", "BOND-3", "BOND-1"));
+        request.setMetricTypes(Arrays.asList(metricTypes));
+        request.setStartTime(T0);
+        request.setEndTime(T0.plusDays(1));
+        request.setAggregationFunction(function);
+        return request;
+    }
+}
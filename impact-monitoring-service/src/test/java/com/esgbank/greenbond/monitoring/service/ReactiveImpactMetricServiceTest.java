@@ -0,0 +1,162 @@
+package com.esgbank.greenbond.monitoring.service;
+
+import com.esgbank.greenbond.monitoring.dto.ImpactMetricRequest;
+import com.esgbank.greenbond.monitoring.exception.MetricNotFoundException;
+import com.esgbank.greenbond.monitoring.mapper.ImpactMetricMapper;
+import com.esgbank.greenbond.monitoring.mapper.ImpactMetricMapperImpl;
+import com.esgbank.greenbond.monitoring.model.DataQuality;
+import com.esgbank.greenbond.monitoring.model.ImpactMetric;
+import com.esgbank.greenbond.monitoring.model.enums.DataSourceType;
+import com.esgbank.greenbond.monitoring.model.enums.MetricType;
+import com.esgbank.greenbond.monitoring.model.enums.MetricUnit;
+import com.esgbank.greenbond.monitoring.repository.ImpactMetricRepository;
+import com.esgbank.greenbond.monitoring.repository.ReactiveImpactMetricRepository;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DuplicateKeyException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReactiveImpactMetricServiceTest {
+
+    @Mock
+    private ReactiveImpactMetricRepository reactiveRepository;
+
+    @Mock
+    private ImpactMetricRepository metricRepository;
+
+    @Mock
+    private TimeSeriesService timeSeriesService;
+
+    @Mock
+    private DataQualityService dataQualityService;
+
+    @Mock
+    private ImpactAnchoringService anchoringService;
+
+    @Mock
+    private MetricRunningTotalsService runningTotalsService;
+
+    @Mock
+    private MetricRollupService rollupService;
+
+    @Mock
+    private MetricHotWindowService hotWindowService;
+
+    @Mock
+    private MetricLiveFeedService liveFeedService;
+
+    @Mock
+    private AggregationResultCache aggregationCache;
+
+    @Mock
+    private MetricDeduplicationService deduplicationService;
+
+    @Mock
+    private MetricBucketStore bucketStore;
+
+    @Mock
+    private MetricArchiveStore archiveStore;
+
+    private final ImpactMetricMapper metricMapper = new ImpactMetricMapperImpl();
+
+    private ReactiveImpactMetricService reactiveService;
+
+    @BeforeEach
+    void setUp() {
+        ImpactMetricService impactMetricService = new ImpactMetricService(metricRepository, metricMapper,
+                timeSeriesService, dataQualityService, anchoringService, runningTotalsService, rollupService,
+                hotWindowService, liveFeedService, aggregationCache, deduplicationService, bucketStore,
+                archiveStore, Validation.buildDefaultValidatorFactory().getValidator());
+        reactiveService = new ReactiveImpactMetricService(reactiveRepository, impactMetricService, metricMapper,
+                timeSeriesService, rollupService, hotWindowService, bucketStore, archiveStore);
+    }
+
+    @Test
+    void shouldCreateMetricsThroughReactiveInsert() {
+        // Given
+        when(dataQualityService.assessDataQuality(any())).thenReturn(dataQuality());
+        when(reactiveRepository.insert(anyList())).thenAnswer(invocation ->
+                Flux.fromIterable(invocation.<List<ImpactMetric>>getArgument(0)));
+
+        // When / Then
+        StepVerifier.create(reactiveService.createMetrics(List.of(createMetricRequest(), createMetricRequest())))
+                .assertNext(response -> {
+                    assertThat(response.getCreatedCount()).isEqualTo(2);
+                    assertThat(response.getResults()).allSatisfy(item ->
+                            assertThat(item.getMetricId()).startsWith("METRIC-"));
+                })
+                .verifyComplete();
+
+        verifyNoInteractions(metricRepository);
+        verify(timeSeriesService).storeMetricsInTimeSeries(anyList());
+        verify(runningTotalsService).applyMetrics(anyList());
+        verify(anchoringService).submit(anyList());
+    }
+
+    @Test
+    void shouldFallBackToSingleInsertsOnDuplicateKey() {
+        // Given
+        when(dataQualityService.assessDataQuality(any())).thenReturn(dataQuality());
+        when(reactiveRepository.insert(anyList())).thenReturn(Flux.error(new DuplicateKeyException("duplicate")));
+        when(reactiveRepository.insert(any(ImpactMetric.class)))
+                .thenAnswer(invocation -> Mono.just(invocation.getArgument(0)))
+                .thenReturn(Mono.error(new DuplicateKeyException("duplicate")));
+        when(reactiveRepository.findByMetricId(any())).thenReturn(Mono.empty());
+
+        // When / Then
+        StepVerifier.create(reactiveService.createMetrics(List.of(createMetricRequest(), createMetricRequest())))
+                .assertNext(response -> {
+                    assertThat(response.getCreatedCount()).isEqualTo(1);
+                    assertThat(response.getDuplicateCount()).isEqualTo(1);
+                    assertThat(response.getResults().get(1).getStatus()).isEqualTo("DUPLICATE");
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    void shouldFailWhenMetricNotFound() {
+        // Given
+        when(reactiveRepository.findByMetricId("METRIC-404")).thenReturn(Mono.empty());
+
+        // When / Then
+        StepVerifier.create(reactiveService.getMetric("METRIC-404"))
+                .expectError(MetricNotFoundException.class)
+                .verify();
+    }
+
+    private ImpactMetricRequest createMetricRequest() {
+        return ImpactMetricRequest.builder()
+                .bondId("BOND-123")
+                .projectId("PROJ-456")
+                .metricType(MetricType.CARBON_EMISSIONS_REDUCTION)
+                .value(BigDecimal.valueOf(150.5))
+                .unit(MetricUnit.TONS_CO2)
+                .timestamp(LocalDateTime.now().minusHours(1))
+                .sourceType(DataSourceType.IOT_SENSOR)
+                .sourceId("sensor-001")
+                .build();
+    }
+
+    private DataQuality dataQuality() {
+        return DataQuality.builder()
+                .confidenceScore(0.95)
+                .qualityStatus("EXCELLENT")
+                .build();
+    }
+}
@@ -0,0 +1,120 @@
+package com.esgbank.greenbond.monitoring.service;
+
+import com.esgbank.greenbond.monitoring.config.ReportConfig;
+import com.esgbank.greenbond.monitoring.model.ReportFragment;
+import com.esgbank.greenbond.monitoring.model.enums.MetricType;
+import com.esgbank.greenbond.monitoring.service.MetricRollupService.PeriodTotals;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReportFragmentStoreTest {
+
+    private static final MetricType TYPE = MetricType.CARBON_EMISSIONS_REDUCTION;
+    private static final LocalDateTime QUARTER = LocalDateTime.of(2024, 1, 1, 0, 0);
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private MetricRollupService rollupService;
+
+    @Captor
+    private ArgumentCaptor<ReportFragment> fragmentCaptor;
+
+    private SimpleMeterRegistry meterRegistry;
+    private ReportFragmentStore fragmentStore;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        fragmentStore = new ReportFragmentStore(mongoTemplate, rollupService, new ReportConfig(), meterRegistry);
+    }
+
+    @Test
+    void shouldCombineCachedMonthsAndCacheMissingOnes() {
+        // Given: January and March are cached, February is not
+        when(mongoTemplate.findById(anyString(), eq(ReportFragment.class))).thenReturn(null);
+        when(mongoTemplate.findById(ReportFragment.idOf("BOND-1", TYPE, QUARTER), ReportFragment.class))
+                .thenReturn(fragment(QUARTER, 10, 100, 1, 20));
+        when(mongoTemplate.findById(ReportFragment.idOf("BOND-1", TYPE, QUARTER.plusMonths(2)), ReportFragment.class))
+                .thenReturn(fragment(QUARTER.plusMonths(2), 5, 50, 2, 30));
+        when(rollupService.summarize("BOND-1", TYPE, QUARTER.plusMonths(1), QUARTER.plusMonths(2)))
+                .thenReturn(new PeriodTotals(4, 40, 0.5, 12));
+
+        // When
+        PeriodTotals totals = fragmentStore.totals("BOND-1", TYPE, QUARTER, QUARTER.plusMonths(3));
+
+        // Then
+        assertThat(totals).isEqualTo(new PeriodTotals(19, 190, 0.5, 30));
+        verify(rollupService, times(1)).summarize(anyString(), any(), any(), any());
+        verify(mongoTemplate).save(fragmentCaptor.capture());
+        assertThat(fragmentCaptor.getValue().getId()).isEqualTo(ReportFragment.idOf("BOND-1", TYPE, QUARTER.plusMonths(1)));
+        assertThat(fragmentCaptor.getValue().getExpireAt()).isAfter(LocalDateTime.now());
+        assertThat(meterRegistry.get("impact.report.fragments").tag("result", "hit").counter().count())
+                .isEqualTo(2);
+    }
+
+    @Test
+    void shouldComputePartialMonthsWithoutCaching() {
+        // Given
+        LocalDateTime from = QUARTER.plusDays(10);
+        LocalDateTime to = QUARTER.plusMonths(1).plusDays(3);
+        when(rollupService.summarize("BOND-1", TYPE, from, QUARTER.plusMonths(1)))
+                .thenReturn(new PeriodTotals(2, 6, 1, 5));
+        when(rollupService.summarize("BOND-1", TYPE, QUARTER.plusMonths(1), to))
+                .thenReturn(new PeriodTotals(1, 4, 4, 4));
+
+        // When
+        PeriodTotals totals = fragmentStore.totals("BOND-1", TYPE, from, to);
+
+        // Then
+        assertThat(totals).isEqualTo(new PeriodTotals(3, 10, 1, 5));
+        verifyNoInteractions(mongoTemplate);
+    }
+
+    @Test
+    void shouldNotCacheMonthThatHasNotSettled() {
+        // Given
+        LocalDateTime month = LocalDateTime.now().withDayOfMonth(1).toLocalDate().atStartOfDay().minusMonths(1);
+        ReportConfig config = new ReportConfig();
+        config.setFragmentSettleDelay(Duration.ofDays(62));
+        fragmentStore = new ReportFragmentStore(mongoTemplate, rollupService, config, meterRegistry);
+        when(rollupService.summarize("BOND-1", TYPE, month, month.plusMonths(1))).thenReturn(PeriodTotals.EMPTY);
+
+        // When
+        fragmentStore.totals("BOND-1", TYPE, month, month.plusMonths(1));
+
+        // Then
+        verify(mongoTemplate, never()).save(any(ReportFragment.class));
+    }
+
+    private static ReportFragment fragment(LocalDateTime monthStart, long count, double sum, double min, double max) {
+        return ReportFragment.builder()
+                .id(ReportFragment.idOf("BOND-1", TYPE, monthStart))
+                .bondId("BOND-1")
+                .metricType(TYPE)
+                .monthStart(monthStart)
+                .count(count)
+                .sum(sum)
+                .min(min)
+                .max(max)
+                .build();
+    }
+}
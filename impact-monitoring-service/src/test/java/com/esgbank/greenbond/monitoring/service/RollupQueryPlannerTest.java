@@ -0,0 +1,71 @@
+package com.esgbank.greenbond.monitoring.service;
+
+import com.esgbank.greenbond.monitoring.model.enums.RollupResolution;
+import com.esgbank.greenbond.monitoring.service.RollupQueryPlanner.Segment;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RollupQueryPlannerTest {
+
+    private static final LocalDateTime NO_CUTOFF = LocalDateTime.of(2000, 1, 1, 0, 0);
+
+    @Test
+    void shouldChooseCoarsestResolutionDividingInterval() {
+        assertThat(RollupQueryPlanner.chooseResolution(Duration.ofDays(7))).contains(RollupResolution.DAY);
+        assertThat(RollupQueryPlanner.chooseResolution(Duration.ofHours(6))).contains(RollupResolution.HOUR);
+        assertThat(RollupQueryPlanner.chooseResolution(Duration.ofMinutes(90))).contains(RollupResolution.MINUTE);
+        assertThat(RollupQueryPlanner.chooseResolution(Duration.ofSeconds(30))).isEmpty();
+        assertThat(RollupQueryPlanner.chooseResolution(Duration.ofSeconds(90))).isEmpty();
+    }
+
+    @Test
+    void shouldCoverEdgesWithFinerResolutions() {
+        LocalDateTime start = LocalDateTime.of(2024, 3, 1, 22, 30, 15);
+        LocalDateTime end = LocalDateTime.of(2024, 3, 4, 1, 45);
+
+        List<Segment> segments = RollupQueryPlanner.plan(start, end, RollupResolution.DAY, NO_CUTOFF);
+
+        assertThat(segments).containsExactly(
+                new Segment(null, start, LocalDateTime.of(2024, 3, 1, 22, 31)),
+                new Segment(RollupResolution.MINUTE, LocalDateTime.of(2024, 3, 1, 22, 31), LocalDateTime.of(2024, 3, 1, 23, 0)),
+                new Segment(RollupResolution.HOUR, LocalDateTime.of(2024, 3, 1, 23, 0), LocalDateTime.of(2024, 3, 2, 0, 0)),
+                new Segment(RollupResolution.DAY, LocalDateTime.of(2024, 3, 2, 0, 0), LocalDateTime.of(2024, 3, 4, 0, 0)),
+                new Segment(RollupResolution.HOUR, LocalDateTime.of(2024, 3, 4, 0, 0), LocalDateTime.of(2024, 3, 4, 1, 0)),
+                new Segment(RollupResolution.MINUTE, LocalDateTime.of(2024, 3, 4, 1, 0), end));
+    }
+
+    @Test
+    void shouldReadExpiredMinuteEdgesFromRawMetrics() {
+        LocalDateTime start = LocalDateTime.of(2024, 3, 1, 22, 30);
+        LocalDateTime end = LocalDateTime.of(2024, 3, 2, 0, 0);
+
+        List<Segment> segments = RollupQueryPlanner.plan(start, end, RollupResolution.HOUR, end);
+
+        assertThat(segments).containsExactly(
+                new Segment(null, start, LocalDateTime.of(2024, 3, 1, 23, 0)),
+                new Segment(RollupResolution.HOUR, LocalDateTime.of(2024, 3, 1, 23, 0), end));
+    }
+
+    @Test
+    void shouldReturnNoSegmentsForEmptyRange() {
+        LocalDateTime start = LocalDateTime.of(2024, 3, 1, 0, 0);
+
+        assertThat(RollupQueryPlanner.plan(start, start, RollupResolution.HOUR, NO_CUTOFF)).isEmpty();
+    }
+
+    @Test
+    void shouldAlignWindowsToEpoch() {
+        Duration week = Duration.ofDays(7);
+
+        // 1970-01-01 was a Thursday, weekly windows start on Thursdays like Flux aggregateWindow
+        assertThat(RollupQueryPlanner.windowStart(LocalDateTime.of(2024, 3, 5, 12, 0), week))
+                .isEqualTo(LocalDateTime.of(2024, 2, 29, 0, 0));
+        assertThat(RollupQueryPlanner.windowStart(LocalDateTime.of(2024, 3, 1, 13, 59), Duration.ofHours(6)))
+                .isEqualTo(LocalDateTime.of(2024, 3, 1, 12, 0));
+    }
+}
@@ -0,0 +1,103 @@
+package com.esgbank.greenbond.monitoring.service;
+
+import com.esgbank.greenbond.monitoring.config.DataQualityConfig;
+import com.esgbank.greenbond.monitoring.model.SeriesQualityState;
+import com.esgbank.greenbond.monitoring.model.enums.MetricType;
+import com.mongodb.bulk.BulkWriteResult;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SeriesStateStoreTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2024, 1, 1, 10, 0);
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private BulkOperations bulkOps;
+
+    @Captor
+    private ArgumentCaptor<Query> queryCaptor;
+
+    @Captor
+    private ArgumentCaptor<SeriesQualityState> stateCaptor;
+
+    private SeriesStateStore stateStore;
+
+    @BeforeEach
+    void setUp() {
+        stateStore = new SeriesStateStore(mongoTemplate, new DataQualityConfig());
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, SeriesQualityState.class)).thenReturn(bulkOps);
+    }
+
+    @Test
+    void shouldGuardWritesByTheVersionTheyAreBasedOn() {
+        // Given
+        BulkWriteResult result = mock(BulkWriteResult.class);
+        when(result.getInsertedCount()).thenReturn(1);
+        when(bulkOps.execute()).thenReturn(result);
+        stateStore.observe("BOND-1", MetricType.WATER_SAVINGS, null, 10, START);
+        stateStore.persist();
+
+        BulkWriteResult replaced = mock(BulkWriteResult.class);
+        when(replaced.getMatchedCount()).thenReturn(1);
+        when(bulkOps.execute()).thenReturn(replaced);
+        stateStore.observe("BOND-1", MetricType.WATER_SAVINGS, null, 12, START.plusMinutes(1));
+
+        // When
+        stateStore.persist();
+
+        // Then
+        verify(bulkOps).insert(stateCaptor.capture());
+        assertThat(stateCaptor.getValue().getVersion()).isEqualTo(1);
+        verify(bulkOps).replaceOne(queryCaptor.capture(), stateCaptor.capture());
+        assertThat(queryCaptor.getValue().getQueryObject().get("version")).isEqualTo(1L);
+        assertThat(stateCaptor.getValue().getVersion()).isEqualTo(2);
+        assertThat(stateCaptor.getValue().getCount()).isEqualTo(2);
+    }
+
+    @Test
+    void shouldReloadSeriesWrittenByAnotherInstance() {
+        // Given
+        stateStore.observe("BOND-1", MetricType.WATER_SAVINGS, null, 10, START);
+        when(bulkOps.execute()).thenReturn(mock(BulkWriteResult.class));
+        SeriesQualityState other = SeriesQualityState.builder()
+                .id(SeriesQualityState.idOf("BOND-1", MetricType.WATER_SAVINGS, null))
+                .bondId("BOND-1")
+                .metricType(MetricType.WATER_SAVINGS)
+                .count(40)
+                .ewmaMean(20)
+                .lastTimestamp(START.plusMinutes(5))
+                .version(3)
+                .writeId("other-instance")
+                .build();
+        when(mongoTemplate.find(any(Query.class), eq(SeriesQualityState.class))).thenReturn(List.of(other));
+
+        // When
+        stateStore.persist();
+        SeriesStateStore.Observation next = stateStore.observe("BOND-1", MetricType.WATER_SAVINGS, null, 20,
+                START.plusMinutes(6));
+
+        // Then
+        assertThat(next.priorCount()).isEqualTo(40);
+        assertThat(next.priorMean()).isEqualTo(20);
+    }
+}
@@ -0,0 +1,41 @@
+package com.esgbank.greenbond.monitoring.service;
+
+import com.esgbank.greenbond.monitoring.model.enums.MetricType;
+import com.esgbank.greenbond.monitoring.service.SeriesWriteMarkStore.SeriesDay;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SeriesWriteMarkStoreTest {
+
+    private static final long TIMESTAMP =
+            LocalDateTime.of(2024, 3, 15, 23, 30).toInstant(ZoneOffset.UTC).toEpochMilli();
+
+    @Test
+    void shouldReadSeriesDayFromLineProtocol() {
+        // Given
+        String record = "impact_metrics,bond_id=BOND\\,1\\ A,metric_type=CARBON_EMISSIONS_REDUCTION,project_id=P\\=1"
+                + " confidence_score=0.9,value=12.5 " + TIMESTAMP;
+
+        // When
+        SeriesDay day = SeriesWriteMarkStore.seriesDayOf(record);
+
+        // Then
+        assertThat(day).isEqualTo(new SeriesDay("BOND,1 A", MetricType.CARBON_EMISSIONS_REDUCTION,
+                LocalDate.of(2024, 3, 15)));
+    }
+
+    @Test
+    void shouldIgnoreOtherMeasurementsAndUntaggedRecords() {
+        // Then
+        assertThat(SeriesWriteMarkStore.seriesDayOf(
+                "other,bond_id=B1,metric_type=CARBON_EMISSIONS_REDUCTION value=1 " + TIMESTAMP)).isNull();
+        assertThat(SeriesWriteMarkStore.seriesDayOf("impact_metrics,bond_id=B1 value=1 " + TIMESTAMP)).isNull();
+        assertThat(SeriesWriteMarkStore.seriesDayOf(
+                "impact_metrics,bond_id=B1,metric_type=UNKNOWN value=1 " + TIMESTAMP)).isNull();
+    }
+}
@@ -0,0 +1,153 @@
+package com.esgbank.greenbond.monitoring.service;
+
+import com.esgbank.greenbond.monitoring.config.StreamingIngestConfig;
+import com.esgbank.greenbond.monitoring.dto.ImpactMetricBatchItemResult;
+import com.esgbank.greenbond.monitoring.dto.ImpactMetricBatchResponse;
+import com.esgbank.greenbond.monitoring.dto.ImpactMetricRequest;
+import com.esgbank.greenbond.monitoring.integration.LocalMqttBroker;
+import com.esgbank.greenbond.monitoring.integration.MqttTelemetryAdapter;
+import com.esgbank.greenbond.monitoring.integration.TelemetryBroker;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class StreamingIngestServiceTest {
+
+    private static final String READING = "{\"bondId\":\"BOND-123\",\"metricType\":\"SOLAR_ENERGY_GENERATED\","
+            + "\"value\":12.5,\"unit\":\"KILOWATT_HOURS\",\"timestamp\":\"2024-03-01T12:00:00\",\"deviceId\":\"device-1\"}";
+
+    @Mock
+    private ImpactMetricService impactMetricService;
+
+    @Captor
+    private ArgumentCaptor<List<ImpactMetricRequest>> batches;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+
+    private StreamingIngestConfig config;
+
+    private StreamingIngestService streamingIngestService;
+
+    @BeforeEach
+    void setUp() {
+        config = new StreamingIngestConfig();
+        config.setBatchSize(2);
+        config.setBatchMaxWait(Duration.ofSeconds(5));
+        streamingIngestService = new StreamingIngestService(impactMetricService, objectMapper, config,
+                new SimpleMeterRegistry());
+    }
+
+    @AfterEach
+    void tearDown() {
+        streamingIngestService.shutdown();
+    }
+
+    @Test
+    void shouldWriteStreamInMicroBatches() {
+        // Given
+        when(impactMetricService.createMetrics(anyList())).thenAnswer(invocation -> created(invocation.getArgument(0)));
+        String body = String.join("\n", READING, READING, "", READING) + "\n";
+
+        // When
+        var response = streamingIngestService.ingest(stream(body)).orElseThrow();
+
+        // Then
+        verify(impactMetricService, times(2)).createMetrics(batches.capture());
+        assertThat(batches.getAllValues()).extracting(List::size).containsExactly(2, 1);
+        assertThat(response.getLinesReceived()).isEqualTo(3);
+        assertThat(response.getCreatedCount()).isEqualTo(3);
+        assertThat(response.getBatchCount()).isEqualTo(2);
+        assertThat(response.getErrors()).isEmpty();
+    }
+
+    @Test
+    void shouldReportMalformedLinesAndKeepReading() {
+        // Given
+        config.setMaxLineLength(READING.length());
+        when(impactMetricService.createMetrics(anyList())).thenAnswer(invocation -> created(invocation.getArgument(0)));
+        String body = String.join("\n", READING, "{not json", READING + "   ", READING);
+
+        // When
+        var response = streamingIngestService.ingest(stream(body)).orElseThrow();
+
+        // Then
+        assertThat(response.getLinesReceived()).isEqualTo(4);
+        assertThat(response.getCreatedCount()).isEqualTo(2);
+        assertThat(response.getFailedCount()).isEqualTo(2);
+        assertThat(response.getErrors()).hasSize(2);
+        assertThat(response.getErrors().get(0)).startsWith("line 2: Malformed JSON");
+        assertThat(response.getErrors().get(1)).startsWith("line 3: Line exceeds");
+    }
+
+    @Test
+    void shouldIngestMqttMessagesThroughLocalBroker() {
+        // Given
+        config.getMqtt().setEnabled(true);
+        config.setBatchMaxWait(Duration.ofMillis(50));
+        when(impactMetricService.createMetrics(anyList())).thenAnswer(invocation -> created(invocation.getArgument(0)));
+
+        LocalMqttBroker broker = new LocalMqttBroker();
+        @SuppressWarnings("unchecked")
+        ObjectProvider<TelemetryBroker> provider = mock(ObjectProvider.class);
+        when(provider.getIfAvailable()).thenReturn(broker);
+        MqttTelemetryAdapter adapter = new MqttTelemetryAdapter(streamingIngestService, objectMapper, config, provider);
+        adapter.start();
+
+        // When
+        boolean accepted = broker.publish("greenbond/telemetry/BOND-9/device-7",
+                "{\"metricType\":\"SOLAR_ENERGY_GENERATED\",\"value\":1.5,\"timestamp\":\"2024-03-01T12:00:00\"}"
+                        .getBytes(StandardCharsets.UTF_8));
+
+        // Then
+        assertThat(accepted).isTrue();
+        verify(impactMetricService, timeout(2000)).createMetrics(batches.capture());
+        assertThat(batches.getValue()).singleElement().satisfies(request -> {
+            assertThat(request.getBondId()).isEqualTo("BOND-9");
+            assertThat(request.getDeviceId()).isEqualTo("device-7");
+        });
+        adapter.shutdown();
+    }
+
+    private ByteArrayInputStream stream(String body) {
+        return new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private ImpactMetricBatchResponse created(List<ImpactMetricRequest> requests) {
+        return ImpactMetricBatchResponse.builder()
+                .totalReceived(requests.size())
+                .createdCount(requests.size())
+                .duplicateCount(0)
+                .failedCount(0)
+                .results(IntStream.range(0, requests.size())
+                        .mapToObj(i -> ImpactMetricBatchItemResult.builder()
+                                .index(i)
+                                .status(ImpactMetricBatchItemResult.STATUS_CREATED)
+                                .build())
+                        .toList())
+                .build();
+    }
+}
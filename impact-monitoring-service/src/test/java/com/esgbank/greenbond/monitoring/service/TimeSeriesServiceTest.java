@@ -0,0 +1,98 @@
+package com.esgbank.greenbond.monitoring.service;
+
+import com.esgbank.greenbond.monitoring.config.InfluxDBProperties;
+import com.esgbank.greenbond.monitoring.exception.ImpactMonitoringException;
+import com.esgbank.greenbond.monitoring.model.DataQuality;
+import com.esgbank.greenbond.monitoring.model.ImpactMetric;
+import com.esgbank.greenbond.monitoring.model.enums.DataSourceType;
+import com.esgbank.greenbond.monitoring.model.enums.MetricType;
+import com.influxdb.client.InfluxDBClient;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class TimeSeriesServiceTest {
+
+    @Mock
+    private InfluxDBClient influxDBClient;
+
+    @Mock
+    private InfluxWritePipeline writePipeline;
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private JobLeaseStore leaseStore;
+
+    private TimeSeriesService timeSeriesService;
+
+    @BeforeEach
+    void setUp() {
+        timeSeriesService = new TimeSeriesService(influxDBClient, InfluxDBProperties.builder().build(),
+                writePipeline, mongoTemplate, leaseStore);
+    }
+
+    @Test
+    void shouldFlagMetricsRejectedByWritePipeline() {
+        // Given
+        doThrow(new ImpactMonitoringException("TIME_SERIES_SPOOL_FULL", "Time series spool is full"))
+                .when(writePipeline).enqueue(anyList());
+
+        // When / Then
+        assertThatThrownBy(() -> timeSeriesService.storeMetricsInTimeSeries(List.of(metric())))
+                .isInstanceOf(RuntimeException.class);
+        verify(mongoTemplate).updateMulti(any(Query.class), eq(Update.update("timeSeriesPending", true)),
+                eq(ImpactMetric.class));
+    }
+
+    @Test
+    void shouldReexportPendingMetricsAndClearFlag() {
+        // Given
+        when(leaseStore.acquire(eq(TimeSeriesService.REEXPORT_JOB), any(Duration.class))).thenReturn(true);
+        when(mongoTemplate.find(any(Query.class), eq(ImpactMetric.class))).thenReturn(List.of(metric()), List.of());
+
+        // When
+        timeSeriesService.reexportPendingMetrics();
+
+        // Then
+        verify(writePipeline).enqueue(anyList());
+        verify(mongoTemplate).updateMulti(any(Query.class), eq(new Update().unset("timeSeriesPending")),
+                eq(ImpactMetric.class));
+        verify(leaseStore).release(TimeSeriesService.REEXPORT_JOB);
+    }
+
+    private ImpactMetric metric() {
+        return ImpactMetric.builder()
+                .metricId("MTR-1")
+                .bondId("BOND-1")
+                .projectId("PRJ-1")
+                .deviceId("DEV-1")
+                .location("Berlin")
+                .metricType(MetricType.CARBON_EMISSIONS_REDUCTION)
+                .sourceType(DataSourceType.IOT_SENSOR)
+                .value(BigDecimal.TEN)
+                .dataQuality(DataQuality.builder().confidenceScore(0.9).build())
+                .timestamp(LocalDateTime.of(2024, 1, 1, 10, 15))
+                .build();
+    }
+}
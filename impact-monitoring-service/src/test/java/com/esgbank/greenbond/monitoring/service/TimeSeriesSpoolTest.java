@@ -0,0 +1,143 @@
+package com.esgbank.greenbond.monitoring.service;
+
+import com.esgbank.greenbond.monitoring.config.InfluxDBProperties;
+import com.esgbank.greenbond.monitoring.exception.ImpactMonitoringException;
+import com.esgbank.greenbond.monitoring.service.TimeSeriesSpool.SpoolBatch;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TimeSeriesSpoolTest {
+
+    private static final int SEGMENT_SIZE = 1024;
+
+    @TempDir
+    Path directory;
+
+    private TimeSeriesSpool spool;
+
+    @BeforeEach
+    void setUp() {
+        spool = openSpool(4);
+    }
+
+    @AfterEach
+    void tearDown() {
+        spool.close();
+    }
+
+    @Test
+    void shouldReadAppendedRecordsUntilCommitted() {
+        spool.append(List.of("m,bond_id=B1 value=1 1", "m,bond_id=B1 value=2 2"));
+
+        SpoolBatch first = spool.read(10);
+        SpoolBatch again = spool.read(10);
+
+        assertThat(first.getRecords()).containsExactly("m,bond_id=B1 value=1 1", "m,bond_id=B1 value=2 2");
+        assertThat(again.getRecords()).isEqualTo(first.getRecords());
+
+        spool.commit(first);
+
+        assertThat(spool.read(10).isEmpty()).isTrue();
+        assertThat(spool.getPendingRecords()).isZero();
+    }
+
+    @Test
+    void shouldResumeFromCheckpointAfterRestart() {
+        spool.append(List.of("a value=1 1", "b value=2 2", "c value=3 3"));
+        spool.commit(spool.read(1));
+        spool.close();
+
+        spool = openSpool(4);
+
+        assertThat(spool.getPendingRecords()).isEqualTo(2);
+        assertThat(spool.read(10).getRecords()).containsExactly("b value=2 2", "c value=3 3");
+    }
+
+    @Test
+    void shouldRollSegmentsAndDeleteAcknowledgedOnes() {
+        List<String> records = records(40);
+        spool.append(records);
+
+        assertThat(spool.getSegmentCount()).isGreaterThan(1);
+
+        SpoolBatch batch = spool.read(100);
+        assertThat(batch.getRecords()).isEqualTo(records);
+
+        spool.commit(batch);
+
+        assertThat(spool.getSegmentCount()).isEqualTo(1);
+        assertThat(segmentFiles()).hasSize(1);
+    }
+
+    @Test
+    void shouldRejectAppendsBeyondDiskBudget() {
+        spool.close();
+        spool = openSpool(1);
+
+        assertThatThrownBy(() -> spool.append(records(100)))
+                .isInstanceOf(ImpactMonitoringException.class)
+                .hasMessageContaining("spool is full");
+
+        // Rejected batch is not partially spooled
+        assertThat(spool.getPendingRecords()).isZero();
+    }
+
+    @Test
+    void shouldTruncateTornRecordOnRecovery() throws Exception {
+        spool.append(List.of("a value=1 1", "b value=2 2"));
+        spool.close();
+
+        // Corrupt the payload of the second record
+        Path segment = segmentFiles().get(0);
+        try (RandomAccessFile file = new RandomAccessFile(segment.toFile(), "rw")) {
+            file.seek(8 + "a value=1 1".length() + 8);
+            file.write('X');
+        }
+
+        spool = openSpool(4);
+
+        assertThat(spool.read(10).getRecords()).containsExactly("a value=1 1");
+
+        spool.append(List.of("c value=3 3"));
+        assertThat(spool.read(10).getRecords()).containsExactly("a value=1 1", "c value=3 3");
+    }
+
+    private TimeSeriesSpool openSpool(int maxSegments) {
+        InfluxDBProperties.Spool settings = new InfluxDBProperties.Spool();
+        settings.setDirectory(directory.toString());
+        settings.setSegmentSize(SEGMENT_SIZE);
+        settings.setMaxSegments(maxSegments);
+
+        TimeSeriesSpool opened = new TimeSeriesSpool(InfluxDBProperties.builder().spool(settings).build(),
+                new SimpleMeterRegistry());
+        opened.open();
+        return opened;
+    }
+
+    private List<String> records(int count) {
+        return IntStream.range(0, count)
+                .mapToObj(i -> "impact_metrics,bond_id=BOND-" + i + " value=" + i + " " + i)
+                .toList();
+    }
+
+    private List<Path> segmentFiles() {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(f -> f.toString().endsWith(".seg")).sorted().toList();
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.esgbank.greenbond.monitoring.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Random;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ColumnarSegmentTest {
+
+    @Test
+    void shouldDecodeWhatWasWritten() throws IOException {
+        Random random = new Random(42);
+        int rows = 10_000;
+        long[] timestamps = new long[rows];
+        long[] sentinels = new long[rows];
+        String[] types = new String[rows];
+        String[] ids = new String[rows];
+        long timestamp = 1_700_000_000_000L;
+        for (int i = 0; i < rows; i++) {
+            timestamp += random.nextInt(10) == 0 ? random.nextInt(10_000_000) : 60_000;
+            timestamps[i] = timestamp;
+            sentinels[i] = random.nextBoolean() ? Long.MIN_VALUE : random.nextLong();
+            types[i] = random.nextInt(5) == 0 ? null : "TYPE-" + random.nextInt(4);
+            ids[i] = random.nextInt(5) == 0 ? null : "METRIC-" + i + "-ü";
+        }
+
+        byte[] bytes = write(new ColumnarSegment.Writer(rows)
+                .longs("timestamp", timestamps)
+                .longs("sentinel", sentinels)
+                .strings("type", types)
+                .strings("id", ids));
+        ColumnarSegment segment = ColumnarSegment.read(new ByteArrayInputStream(bytes), null);
+
+        assertThat(segment.getRowCount()).isEqualTo(rows);
+        assertThat(segment.getLongs("timestamp")).containsExactly(timestamps);
+        assertThat(segment.getLongs("sentinel")).containsExactly(sentinels);
+        assertThat(segment.getStrings("type")).containsExactly(types);
+        assertThat(segment.getStrings("id")).containsExactly(ids);
+    }
+
+    @Test
+    void shouldCompressRegularTimestampsAndRepeatedStrings() throws IOException {
+        int rows = 50_000;
+        long[] timestamps = new long[rows];
+        String[] types = new String[rows];
+        for (int i = 0; i < rows; i++) {
+            timestamps[i] = 1_700_000_000_000L + i * 60_000L;
+            types[i] = "CARBON_EMISSIONS_REDUCTION";
+        }
+
+        byte[] bytes = write(new ColumnarSegment.Writer(rows).longs("timestamp", timestamps).strings("type", types));
+
+        // 16 bytes per row as raw longs and names
+        assertThat(bytes.length).isLessThan(rows / 50);
+    }
+
+    @Test
+    void shouldDecodeOnlyRequestedColumns() throws IOException {
+        byte[] bytes = write(new ColumnarSegment.Writer(2)
+                .longs("timestamp", new long[]{1, 2})
+                .strings("payload", new String[]{"a", "b"}));
+
+        ColumnarSegment segment = ColumnarSegment.read(new ByteArrayInputStream(bytes), Set.of("timestamp"));
+
+        assertThat(segment.getLongs("timestamp")).containsExactly(1, 2);
+        assertThat(segment.hasColumn("payload")).isFalse();
+    }
+
+    @Test
+    void shouldRejectCorruptedSegment() throws IOException {
+        byte[] bytes = write(new ColumnarSegment.Writer(3).longs("timestamp", new long[]{1, 2, 3}));
+        bytes[bytes.length - 9] ^= 1;
+
+        assertThatThrownBy(() -> ColumnarSegment.read(new ByteArrayInputStream(bytes), null))
+                .isInstanceOf(IOException.class);
+    }
+
+    @Test
+    void shouldRejectColumnOfWrongLength() {
+        assertThatThrownBy(() -> new ColumnarSegment.Writer(3).longs("timestamp", new long[]{1, 2}))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("timestamp");
+    }
+
+    private static byte[] write(ColumnarSegment.Writer writer) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        writer.writeTo(out);
+        return out.toByteArray();
+    }
+}
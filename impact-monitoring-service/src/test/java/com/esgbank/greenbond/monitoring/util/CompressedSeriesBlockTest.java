@@ -0,0 +1,67 @@
+package com.esgbank.greenbond.monitoring.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CompressedSeriesBlockTest {
+
+    @Test
+    void shouldDecodeWhatWasAppended() {
+        Random random = new Random(42);
+        long[] timestamps = new long[5_000];
+        double[] values = new double[timestamps.length];
+        long timestamp = 1_700_000_000_000L;
+        for (int i = 0; i < timestamps.length; i++) {
+            // Mostly regular cadence with jitter, repeats and the odd large gap
+            timestamp += switch (random.nextInt(10)) {
+                case 0 -> 0;
+                case 1 -> random.nextInt(10_000_000);
+                default -> 60_000 + random.nextInt(2_000) - 1_000;
+            };
+            timestamps[i] = timestamp;
+            values[i] = random.nextInt(4) == 0 && i > 0 ? values[i - 1] : random.nextGaussian() * 1e6;
+        }
+
+        CompressedSeriesBlock block = CompressedSeriesBlock.of(timestamps, values, timestamps.length);
+        block.seal();
+
+        List<Long> decodedTimestamps = new ArrayList<>();
+        List<Double> decodedValues = new ArrayList<>();
+        block.forEach((ts, value) -> {
+            decodedTimestamps.add(ts);
+            decodedValues.add(value);
+        });
+
+        assertThat(block.getCount()).isEqualTo(timestamps.length);
+        assertThat(decodedTimestamps).containsExactly(Arrays.stream(timestamps).boxed().toArray(Long[]::new));
+        assertThat(decodedValues).containsExactly(Arrays.stream(values).boxed().toArray(Double[]::new));
+        assertThat(block.getFirstTimestamp()).isEqualTo(timestamps[0]);
+        assertThat(block.getLastTimestamp()).isEqualTo(timestamps[timestamps.length - 1]);
+    }
+
+    @Test
+    void shouldCompressRegularReadingsBelowTwoBytesPerPoint() {
+        CompressedSeriesBlock block = new CompressedSeriesBlock();
+        for (int i = 0; i < 7_200; i++) {
+            block.append(1_700_000_000_000L + i * 1_000L, 21.5 + (i / 600) * 0.25);
+        }
+        block.seal();
+
+        assertThat(block.getSizeInBytes()).isLessThan(7_200 * 2L);
+    }
+
+    @Test
+    void shouldRejectDecreasingTimestamp() {
+        CompressedSeriesBlock block = new CompressedSeriesBlock();
+        block.append(2_000L, 1.0);
+
+        assertThatThrownBy(() -> block.append(1_000L, 2.0)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
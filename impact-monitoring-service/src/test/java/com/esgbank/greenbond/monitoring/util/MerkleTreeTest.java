@@ -0,0 +1,79 @@
+package com.esgbank.greenbond.monitoring.util;
+
+import com.esgbank.greenbond.monitoring.model.MerkleProofStep;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class MerkleTreeTest {
+
+    @Test
+    void shouldVerifyProofForEveryLeaf() {
+        for (int leafCount = 1; leafCount <= 17; leafCount++) {
+            List<byte[]> leaves = leaves(leafCount);
+            MerkleTree tree = new MerkleTree(leaves);
+
+            for (int i = 0; i < leafCount; i++) {
+                List<MerkleProofStep> proof = tree.getProof(i);
+
+                assertThat(MerkleTree.verify(MerkleTree.toHex(leaves.get(i)), proof, tree.getRoot()))
+                        .as("leaf %d of %d", i, leafCount)
+                        .isTrue();
+            }
+        }
+    }
+
+    @Test
+    void shouldUseLeafHashAsRootOfSingleLeafTree() {
+        byte[] leaf = MerkleTree.leafHash("METRIC-1");
+        MerkleTree tree = new MerkleTree(List.of(leaf));
+
+        assertThat(tree.getRoot()).isEqualTo(MerkleTree.toHex(leaf));
+        assertThat(tree.getProof(0)).isEmpty();
+    }
+
+    @Test
+    void shouldRejectTamperedLeaf() {
+        List<byte[]> leaves = leaves(5);
+        MerkleTree tree = new MerkleTree(leaves);
+
+        String tampered = MerkleTree.toHex(MerkleTree.leafHash("metric-2-tampered"));
+
+        assertThat(MerkleTree.verify(tampered, tree.getProof(2), tree.getRoot())).isFalse();
+    }
+
+    @Test
+    void shouldRejectProofAgainstDifferentRoot() {
+        List<byte[]> leaves = leaves(4);
+        MerkleTree tree = new MerkleTree(leaves);
+        MerkleTree otherTree = new MerkleTree(leaves(3));
+
+        assertThat(MerkleTree.verify(MerkleTree.toHex(leaves.get(1)), tree.getProof(1), otherTree.getRoot()))
+                .isFalse();
+    }
+
+    @Test
+    void shouldSeparateLeafAndNodeHashes() {
+        // An inner node of a two-leaf tree must not verify as a leaf of a one-leaf tree
+        MerkleTree twoLeaves = new MerkleTree(leaves(2));
+        MerkleTree innerAsLeaf = new MerkleTree(List.of(MerkleTree.leafHash(twoLeaves.getRoot())));
+
+        assertThat(innerAsLeaf.getRoot()).isNotEqualTo(twoLeaves.getRoot());
+    }
+
+    @Test
+    void shouldRejectEmptyTree() {
+        assertThatThrownBy(() -> new MerkleTree(List.of()))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private List<byte[]> leaves(int count) {
+        return IntStream.range(0, count)
+                .mapToObj(i -> MerkleTree.leafHash("metric-" + i))
+                .toList();
+    }
+}
@@ -0,0 +1,105 @@
+package com.esgbank.greenbond.monitoring.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class StreamingStatisticsTest {
+
+    @Test
+    void shouldMatchTwoPassStatistics() {
+        double[] values = randomValues(10_000, 42);
+        StreamingStatistics stats = new StreamingStatistics();
+        Arrays.stream(values).forEach(stats::add);
+
+        double mean = Arrays.stream(values).average().orElseThrow();
+        double variance = Arrays.stream(values).map(v -> (v - mean) * (v - mean)).sum() / (values.length - 1);
+
+        assertThat(stats.getCount()).isEqualTo(values.length);
+        assertThat(stats.getMean()).isCloseTo(mean, within(1e-9));
+        assertThat(stats.getVariance()).isCloseTo(variance, within(variance * 1e-9));
+        assertThat(stats.getMin()).isEqualTo(Arrays.stream(values).min().orElseThrow());
+        assertThat(stats.getMax()).isEqualTo(Arrays.stream(values).max().orElseThrow());
+    }
+
+    @Test
+    void shouldStayStableForLargeOffset() {
+        StreamingStatistics stats = new StreamingStatistics();
+        for (double value : new double[]{1e9 + 4, 1e9 + 7, 1e9 + 13, 1e9 + 16}) {
+            stats.add(value);
+        }
+
+        assertThat(stats.getVariance()).isCloseTo(30.0, within(1e-6));
+    }
+
+    @Test
+    void shouldMergeLikeSingleAccumulator() {
+        double[] values = randomValues(5_000, 7);
+        StreamingStatistics all = new StreamingStatistics();
+        StreamingStatistics left = new StreamingStatistics();
+        StreamingStatistics right = new StreamingStatistics();
+        for (int i = 0; i < values.length; i++) {
+            all.add(values[i]);
+            (i < 1_200 ? left : right).add(values[i]);
+        }
+
+        left.merge(right);
+
+        assertThat(left.getCount()).isEqualTo(all.getCount());
+        assertThat(left.getMean()).isCloseTo(all.getMean(), within(1e-9));
+        assertThat(left.getVariance()).isCloseTo(all.getVariance(), within(1e-6));
+        assertThat(left.getQuantile(0.9)).isEqualTo(all.getQuantile(0.9));
+    }
+
+    @Test
+    void shouldReturnZerosWhenEmpty() {
+        StreamingStatistics stats = new StreamingStatistics();
+
+        assertThat(stats.getMean()).isZero();
+        assertThat(stats.getVariance()).isZero();
+        assertThat(stats.getMin()).isZero();
+        assertThat(stats.getQuantile(0.5)).isZero();
+    }
+
+    @Test
+    void shouldEstimateQuantilesWithinRelativeAccuracy() {
+        double[] values = randomValues(20_000, 3);
+        QuantileSketch sketch = new QuantileSketch();
+        Arrays.stream(values).forEach(sketch::add);
+        double[] sorted = values.clone();
+        Arrays.sort(sorted);
+
+        for (double q : new double[]{0.0, 0.5, 0.9, 0.99, 1.0}) {
+            double exact = sorted[(int) Math.floor(q * (sorted.length - 1))];
+            assertThat(sketch.getQuantile(q))
+                    .as("p%s", q * 100)
+                    .isCloseTo(exact, within(Math.abs(exact) * QuantileSketch.DEFAULT_RELATIVE_ACCURACY + 1e-9));
+        }
+    }
+
+    @Test
+    void shouldOrderNegativeZeroAndPositiveValues() {
+        QuantileSketch sketch = new QuantileSketch();
+        for (double value : new double[]{-100, -1, 0, 0, 1, 100}) {
+            sketch.add(value);
+        }
+
+        assertThat(sketch.getQuantile(0)).isCloseTo(-100, within(1.0));
+        assertThat(sketch.getQuantile(0.4)).isZero();
+        assertThat(sketch.getQuantile(1)).isCloseTo(100, within(1.0));
+    }
+
+    private double[] randomValues(int count, long seed) {
+        Random random = new Random(seed);
+        double[] values = new double[count];
+        for (int i = 0; i < count; i++) {
+            // Skewed, strictly positive values like emissions readings
+            values[i] = Math.exp(random.nextGaussian() * 1.5 + 4);
+        }
+        return values;
+    }
+}